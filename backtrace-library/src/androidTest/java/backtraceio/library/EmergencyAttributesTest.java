@@ -0,0 +1,62 @@
+package backtraceio.library;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import backtraceio.library.models.database.BacktraceDatabaseSettings;
+import backtraceio.library.models.database.BacktraceEmergencyReport;
+import backtraceio.library.services.BacktraceEmergencyReporter;
+import backtraceio.library.services.BacktraceScheduler;
+import java.io.File;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class EmergencyAttributesTest {
+    private String databasePath;
+    private BacktraceClient client;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        this.databasePath = new File(context.getFilesDir(), "emergency-attributes-test").getAbsolutePath();
+        this.client = new BacktraceClient(
+                context,
+                new BacktraceCredentials("https://backtrace.io/"),
+                new BacktraceDatabaseSettings(this.databasePath));
+    }
+
+    @After
+    public void tearDown() {
+        this.client.close();
+        BacktraceEmergencyReporter.recover(this.databasePath);
+    }
+
+    @Test
+    public void emergencyReportContainsAttributesChangedInBatch() throws Exception {
+        // GIVEN
+        assertTrue(client.enableEmergencyReporting());
+
+        // WHEN
+        for (int index = 0; index < 50; index++) {
+            client.addAttribute("attribute-" + index, index);
+        }
+        client.getAttributes().put("direct-attribute", "direct-value");
+        client.syncNativeAttributes();
+        // attributes are encoded again on the scheduler thread, in the next alignment window
+        Thread.sleep(2 * BacktraceScheduler.DEFAULT_WINDOW_MILLIS);
+        assertTrue(client.getEmergencyReporter().report(Thread.currentThread(), new OutOfMemoryError()));
+
+        // THEN
+        final List<BacktraceEmergencyReport> reports = BacktraceEmergencyReporter.recover(this.databasePath);
+        assertEquals(1, reports.size());
+        assertEquals("49", reports.get(0).attributes.get("attribute-49"));
+        assertEquals("direct-value", reports.get(0).attributes.get("direct-attribute"));
+    }
+}
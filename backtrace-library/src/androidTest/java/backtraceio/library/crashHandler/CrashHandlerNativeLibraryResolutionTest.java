@@ -7,6 +7,7 @@ import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.test.platform.app.InstrumentationRegistry;
 import backtraceio.library.common.AbiHelper;
 import backtraceio.library.models.nativeHandler.CrashHandlerConfiguration;
+import backtraceio.library.models.nativeHandler.CrashHandlerConfigurationCache;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.util.List;
@@ -145,4 +146,42 @@ public class CrashHandlerNativeLibraryResolutionTest {
         String apkLib = base.getAbsolutePath() + "!/lib/" + abi + "/" + LIB;
         assertEquals(apkLib, libPath);
     }
+
+    @Test
+    public void reusesCachedPathUntilApkChanges() throws Exception {
+        final String abi = AbiHelper.getCurrentAbi();
+        File root = tempDir("bt_cached");
+        File base = makeApk(root, "base.apk", abi, false);
+        File split = makeApk(root, "split_config." + abi + ".apk", abi, true);
+        File cacheFile = new File(root, "crash-handler-configuration");
+        //noinspection ResultOfMethodCallIgnored
+        cacheFile.delete();
+
+        ApplicationInfo ai = new ApplicationInfo();
+        ai.sourceDir = base.getAbsolutePath();
+        ai.splitSourceDirs = new String[] {split.getAbsolutePath()};
+        ai.nativeLibraryDir = "/nonexistent";
+
+        CrashHandlerConfiguration cfg = new CrashHandlerConfiguration(new CrashHandlerConfigurationCache(cacheFile));
+        String splitLib = split.getAbsolutePath() + "!/lib/" + abi + "/" + LIB;
+        assertEquals(
+                splitLib,
+                getEnv(cfg.getCrashHandlerEnvironmentVariables(ai), CrashHandlerConfiguration.BACKTRACE_CRASH_HANDLER));
+
+        // the cached path is used while the APKs don't change
+        //noinspection ResultOfMethodCallIgnored
+        split.delete();
+        assertEquals(
+                splitLib,
+                getEnv(cfg.getCrashHandlerEnvironmentVariables(ai), CrashHandlerConfiguration.BACKTRACE_CRASH_HANDLER));
+
+        // an updated base APK invalidates the cache
+        makeApk(root, "base.apk", abi, true);
+        //noinspection ResultOfMethodCallIgnored
+        base.setLastModified(base.lastModified() + 10000);
+        String baseLib = base.getAbsolutePath() + "!/lib/" + abi + "/" + LIB;
+        assertEquals(
+                baseLib,
+                getEnv(cfg.getCrashHandlerEnvironmentVariables(ai), CrashHandlerConfiguration.BACKTRACE_CRASH_HANDLER));
+    }
 }
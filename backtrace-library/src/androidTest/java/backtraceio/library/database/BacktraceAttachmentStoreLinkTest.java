@@ -0,0 +1,88 @@
+package backtraceio.library.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.system.Os;
+import android.system.StructStat;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import backtraceio.library.models.database.BacktraceAttachmentStore;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BacktraceAttachmentStoreLinkTest {
+    private File directory;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        this.directory = new File(context.getFilesDir(), "attachment-store-test");
+        delete(this.directory);
+    }
+
+    @After
+    public void tearDown() {
+        delete(this.directory);
+    }
+
+    private static void delete(File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File write(String name, String content) throws IOException {
+        final File file = new File(new File(this.directory, "sources"), name);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    @Test
+    public void linksFilesWithTheSameContent() throws Exception {
+        // GIVEN
+        final File first = write("log.txt", "content");
+        final File second = write("app.log", "content");
+        final BacktraceAttachmentStore store =
+                new BacktraceAttachmentStore(new File(this.directory, "database").getAbsolutePath());
+
+        // WHEN
+        final List<String> snapshots = store.snapshot(Arrays.asList(first.getAbsolutePath(), second.getAbsolutePath()));
+
+        // THEN
+        assertNotEquals(snapshots.get(0), snapshots.get(1));
+        assertEquals(new File(snapshots.get(0)).getParentFile(), new File(snapshots.get(1)).getParentFile());
+        final StructStat firstStat = Os.stat(snapshots.get(0));
+        final StructStat secondStat = Os.stat(snapshots.get(1));
+        assertEquals(firstStat.st_ino, secondStat.st_ino);
+        assertEquals(2, firstStat.st_nlink);
+        assertEquals("content".length(), store.getStoredSize());
+
+        // WHEN
+        store.release(Arrays.asList(snapshots.get(0)));
+
+        // THEN
+        assertFalse(new File(snapshots.get(0)).exists());
+        assertTrue(new File(snapshots.get(1)).exists());
+        assertEquals(1, Os.stat(snapshots.get(1)).st_nlink);
+    }
+}
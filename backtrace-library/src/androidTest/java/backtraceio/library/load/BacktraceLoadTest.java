@@ -0,0 +1,173 @@
+package backtraceio.library.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import backtraceio.library.BacktraceClient;
+import backtraceio.library.BacktraceCredentials;
+import backtraceio.library.BacktraceDatabase;
+import backtraceio.library.models.BacktraceMetricsSettings;
+import backtraceio.library.models.database.BacktraceDatabaseSettings;
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Load and soak tests against a local stand-in server. Default durations are short so the tests
+ * can run with the regular instrumented suite. Longer soak runs are configured with instrumentation
+ * arguments, e.g.:
+ * <pre>
+ * ./gradlew :backtrace-library:connectedAndroidTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.class=backtraceio.library.load.BacktraceLoadTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.loadDurationSeconds=3600 \
+ *     -Pandroid.testInstrumentationRunnerArguments.loadReportsPerSecond=50
+ * </pre>
+ * Supported arguments: {@code loadDurationSeconds}, {@code loadDrainSeconds},
+ * {@code loadReportsPerSecond}, {@code loadBreadcrumbsPerSecond}, {@code loadMetricsPerSecond},
+ * {@code loadLatencyMillis}, {@code loadErrorRate}, {@code loadTooManyRequestsRate},
+ * {@code loadDropRate} and {@code loadSeed}. Results are logged with the {@code BacktraceLoadTest} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BacktraceLoadTest {
+
+    private static final String LOG_TAG = BacktraceLoadTest.class.getSimpleName();
+
+    private static final String TOKEN = "load-test-token";
+
+    /**
+     * Number of threads the client may keep after the load stops, above the number observed before
+     * the load started - lanes, scheduler, breadcrumbs and the server connection threads
+     */
+    private static final int THREAD_GROWTH_LIMIT = 16;
+
+    private static final long MAX_DATABASE_SIZE_MB = 10;
+
+    private Context context;
+
+    private Bundle arguments;
+
+    private File databaseDirectory;
+
+    private LoadTestServer server;
+
+    private BacktraceClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getInstrumentation().getContext();
+        arguments = InstrumentationRegistry.getArguments();
+        databaseDirectory = new File(context.getFilesDir(), "load-test-database");
+        deleteRecursively(databaseDirectory);
+        databaseDirectory.mkdirs();
+
+        server = new LoadTestServer(new Random(getLong("loadSeed", 1)));
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+        deleteRecursively(databaseDirectory);
+    }
+
+    @Test
+    public void healthyServerReceivesAllReports() throws Exception {
+        // GIVEN
+        client = createClient();
+        LoadGenerator generator = createGenerator();
+
+        // WHEN
+        LoadTestResult result = generator.run(
+                TimeUnit.SECONDS.toMillis(getLong("loadDurationSeconds", 5)),
+                TimeUnit.SECONDS.toMillis(getLong("loadDrainSeconds", 15)));
+        Log.i(LOG_TAG, "Healthy server: " + result);
+
+        // THEN
+        assertTrue(result.sentReports > 0);
+        assertEquals(0, result.droppedReports);
+        assertTrue(result.endThreadCount - result.startThreadCount <= THREAD_GROWTH_LIMIT);
+    }
+
+    @Test
+    public void faultyServerDoesNotExhaustResources() throws Exception {
+        // GIVEN
+        server.setLatencyMillis(getLong("loadLatencyMillis", 50));
+        server.setErrorRate(getDouble("loadErrorRate", 0.1));
+        server.setTooManyRequestsRate(getDouble("loadTooManyRequestsRate", 0.1));
+        server.setDropRate(getDouble("loadDropRate", 0.05));
+        client = createClient();
+        LoadGenerator generator = createGenerator();
+
+        // WHEN
+        LoadTestResult result = generator.run(
+                TimeUnit.SECONDS.toMillis(getLong("loadDurationSeconds", 5)),
+                TimeUnit.SECONDS.toMillis(getLong("loadDrainSeconds", 15)));
+        Log.i(
+                LOG_TAG,
+                "Faulty server: " + result + " injected[errors=" + server.getInjectedErrors() + " 429="
+                        + server.getInjectedTooManyRequests() + " drops=" + server.getInjectedDrops() + "]");
+
+        // THEN
+        assertTrue(result.deliveredReports > 0);
+        assertTrue(result.endThreadCount - result.startThreadCount <= THREAD_GROWTH_LIMIT);
+        assertTrue(result.peakDatabaseBytes <= MAX_DATABASE_SIZE_MB * 1000 * 1000);
+    }
+
+    private BacktraceClient createClient() {
+        BacktraceDatabaseSettings databaseSettings = new BacktraceDatabaseSettings(databaseDirectory.getAbsolutePath());
+        databaseSettings.setRetryInterval(1);
+        databaseSettings.setMaxDatabaseSize(MAX_DATABASE_SIZE_MB);
+        BacktraceDatabase database = new BacktraceDatabase(context, databaseSettings);
+
+        BacktraceClient backtraceClient =
+                new BacktraceClient(context, new BacktraceCredentials(server.getUrl(), TOKEN), database);
+        backtraceClient.enableBreadcrumbs(context);
+
+        // metrics require a Backtrace universe - take it from a Backtrace url and redirect the
+        // submission to the local server
+        BacktraceCredentials metricsCredentials =
+                new BacktraceCredentials("https://submit.backtrace.io/load-test/" + TOKEN + "/json");
+        backtraceClient.metrics.enable(new BacktraceMetricsSettings(metricsCredentials, server.getUrl(), 1000));
+        return backtraceClient;
+    }
+
+    private LoadGenerator createGenerator() {
+        LoadGenerator generator = new LoadGenerator(client, server, databaseDirectory);
+        generator.setReportsPerSecond(getDouble("loadReportsPerSecond", 10));
+        generator.setBreadcrumbsPerSecond(getDouble("loadBreadcrumbsPerSecond", 50));
+        generator.setMetricsPerSecond(getDouble("loadMetricsPerSecond", 20));
+        return generator;
+    }
+
+    private long getLong(String name, long defaultValue) {
+        String value = arguments.getString(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    private double getDouble(String name, double defaultValue) {
+        String value = arguments.getString(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
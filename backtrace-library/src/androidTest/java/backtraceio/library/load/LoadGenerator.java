@@ -0,0 +1,174 @@
+package backtraceio.library.load;
+
+import android.os.SystemClock;
+import backtraceio.library.BacktraceClient;
+import backtraceio.library.models.BacktraceResult;
+import backtraceio.library.models.json.BacktraceReport;
+import backtraceio.library.models.types.BacktraceResultStatus;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a Backtrace client with reports, breadcrumbs and metrics at fixed rates and measures how
+ * the client and the process behave under the load.
+ */
+public class LoadGenerator {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 250;
+
+    private static final String SUMMED_EVENT_NAME = "load-test";
+
+    private final BacktraceClient client;
+
+    private final LoadTestServer server;
+
+    private final LoadTestSampler sampler;
+
+    private final Set<String> sentReports = Collections.synchronizedSet(new HashSet<String>());
+
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<Long>());
+
+    private final AtomicLong failedAttempts = new AtomicLong();
+
+    private final AtomicLong breadcrumbs = new AtomicLong();
+
+    private final AtomicLong metricsEvents = new AtomicLong();
+
+    private double reportsPerSecond = 10;
+
+    private double breadcrumbsPerSecond = 0;
+
+    private double metricsPerSecond = 0;
+
+    /**
+     * @param client            client under test
+     * @param server            server the client sends data to
+     * @param databaseDirectory database directory of the client, used to measure disk usage
+     */
+    public LoadGenerator(BacktraceClient client, LoadTestServer server, File databaseDirectory) {
+        this.client = client;
+        this.server = server;
+        this.sampler = new LoadTestSampler(databaseDirectory);
+    }
+
+    public void setReportsPerSecond(double reportsPerSecond) {
+        this.reportsPerSecond = reportsPerSecond;
+    }
+
+    /**
+     * @param breadcrumbsPerSecond breadcrumbs rate, requires breadcrumbs enabled on the client
+     */
+    public void setBreadcrumbsPerSecond(double breadcrumbsPerSecond) {
+        this.breadcrumbsPerSecond = breadcrumbsPerSecond;
+    }
+
+    /**
+     * @param metricsPerSecond summed events rate, requires metrics enabled on the client
+     */
+    public void setMetricsPerSecond(double metricsPerSecond) {
+        this.metricsPerSecond = metricsPerSecond;
+    }
+
+    /**
+     * Generate load and wait until all reports are delivered or the drain timeout elapses
+     *
+     * @param durationMillis     how long the load is generated
+     * @param drainTimeoutMillis how long to wait for undelivered reports after the load stops
+     * @return measurements of the run
+     * @throws InterruptedException if the calling thread was interrupted
+     */
+    public LoadTestResult run(long durationMillis, long drainTimeoutMillis) throws InterruptedException {
+        ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(4);
+        sampler.sample();
+        final long start = SystemClock.elapsedRealtime();
+        try {
+            executor.scheduleAtFixedRate(sampler::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            scheduleAtRate(executor, reportsPerSecond, this::sendReport);
+            scheduleAtRate(executor, breadcrumbsPerSecond, this::addBreadcrumb);
+            scheduleAtRate(executor, metricsPerSecond, this::addMetricsEvent);
+            Thread.sleep(durationMillis);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        final long loadEnd = SystemClock.elapsedRealtime();
+
+        long drainDeadline = loadEnd + drainTimeoutMillis;
+        while (getDeliveredReports() < sentReports.size() && SystemClock.elapsedRealtime() < drainDeadline) {
+            sampler.sample();
+            Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+        }
+        sampler.sample();
+
+        long[] latenciesMillis;
+        synchronized (latencies) {
+            latenciesMillis = new long[latencies.size()];
+            for (int i = 0; i < latenciesMillis.length; i++) {
+                latenciesMillis[i] = latencies.get(i);
+            }
+        }
+        return new LoadTestResult(
+                loadEnd - start,
+                sentReports.size(),
+                getDeliveredReports(),
+                failedAttempts.get(),
+                breadcrumbs.get(),
+                metricsEvents.get(),
+                latenciesMillis,
+                sampler);
+    }
+
+    private long getDeliveredReports() {
+        Set<String> received = server.getReceivedReports();
+        long delivered = 0;
+        synchronized (sentReports) {
+            for (String uuid : sentReports) {
+                if (received.contains(uuid)) {
+                    delivered++;
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private void sendReport() {
+        BacktraceReport report = new BacktraceReport(new IllegalStateException("Load test report"));
+        sentReports.add(report.uuid.toString());
+        final long sendTime = SystemClock.elapsedRealtime();
+        client.send(report, (BacktraceResult result) -> {
+            if (result.getStatus() == BacktraceResultStatus.Ok) {
+                latencies.add(SystemClock.elapsedRealtime() - sendTime);
+            } else {
+                failedAttempts.incrementAndGet();
+            }
+        });
+    }
+
+    private void addBreadcrumb() {
+        if (client.addBreadcrumb("Load test breadcrumb " + breadcrumbs.get())) {
+            breadcrumbs.incrementAndGet();
+        }
+    }
+
+    private void addMetricsEvent() {
+        if (client.metrics.addSummedEvent(SUMMED_EVENT_NAME)) {
+            metricsEvents.incrementAndGet();
+        }
+    }
+
+    private static void scheduleAtRate(ScheduledExecutorService executor, double perSecond, Runnable task) {
+        if (perSecond <= 0) {
+            return;
+        }
+        long periodMicros = Math.max(1, (long) (TimeUnit.SECONDS.toMicros(1) / perSecond));
+        executor.scheduleAtFixedRate(task, 0, periodMicros, TimeUnit.MICROSECONDS);
+    }
+}
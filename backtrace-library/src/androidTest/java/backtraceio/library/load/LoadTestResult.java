@@ -0,0 +1,117 @@
+package backtraceio.library.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Summary of a load test run
+ */
+public class LoadTestResult {
+
+    public final long durationMillis;
+
+    public final long sentReports;
+
+    public final long deliveredReports;
+
+    /**
+     * Reports which never reached the server - neither on the first attempt nor on a database retry
+     */
+    public final long droppedReports;
+
+    public final long failedAttempts;
+
+    public final long breadcrumbs;
+
+    public final long metricsEvents;
+
+    public final long peakHeapBytes;
+
+    public final int startThreadCount;
+
+    public final int peakThreadCount;
+
+    public final int endThreadCount;
+
+    public final long peakDatabaseBytes;
+
+    public final long endDatabaseBytes;
+
+    private final long[] latenciesMillis;
+
+    LoadTestResult(
+            long durationMillis,
+            long sentReports,
+            long deliveredReports,
+            long failedAttempts,
+            long breadcrumbs,
+            long metricsEvents,
+            long[] latenciesMillis,
+            LoadTestSampler sampler) {
+        this.durationMillis = durationMillis;
+        this.sentReports = sentReports;
+        this.deliveredReports = deliveredReports;
+        this.droppedReports = sentReports - deliveredReports;
+        this.failedAttempts = failedAttempts;
+        this.breadcrumbs = breadcrumbs;
+        this.metricsEvents = metricsEvents;
+        this.latenciesMillis = latenciesMillis.clone();
+        Arrays.sort(this.latenciesMillis);
+        this.peakHeapBytes = sampler.getPeakHeapBytes();
+        this.startThreadCount = sampler.getStartThreadCount();
+        this.peakThreadCount = sampler.getPeakThreadCount();
+        this.endThreadCount = sampler.getLastThreadCount();
+        this.peakDatabaseBytes = sampler.getPeakDatabaseBytes();
+        this.endDatabaseBytes = sampler.getLastDatabaseBytes();
+    }
+
+    /**
+     * @return delivered reports per second
+     */
+    public double getThroughput() {
+        return durationMillis == 0 ? 0 : deliveredReports * 1000d / durationMillis;
+    }
+
+    /**
+     * Get end-to-end latency percentile - time from {@code BacktraceClient.send} to the server response
+     * callback of successfully delivered reports
+     *
+     * @param percentile value from 0 to 100
+     * @return latency in milliseconds, -1 if no report was delivered on the first attempt
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (latenciesMillis.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile / 100d * latenciesMillis.length);
+        return latenciesMillis[Math.max(0, Math.min(latenciesMillis.length - 1, rank - 1))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "duration=%dms reports[sent=%d delivered=%d dropped=%d failedAttempts=%d] "
+                        + "throughput=%.2f/s latency[p50=%dms p90=%dms p99=%dms max=%dms] "
+                        + "breadcrumbs=%d metricsEvents=%d peakHeap=%dKB "
+                        + "threads[start=%d peak=%d end=%d] database[peak=%dKB end=%dKB]",
+                durationMillis,
+                sentReports,
+                deliveredReports,
+                droppedReports,
+                failedAttempts,
+                getThroughput(),
+                getLatencyPercentile(50),
+                getLatencyPercentile(90),
+                getLatencyPercentile(99),
+                getLatencyPercentile(100),
+                breadcrumbs,
+                metricsEvents,
+                peakHeapBytes / 1024,
+                startThreadCount,
+                peakThreadCount,
+                endThreadCount,
+                peakDatabaseBytes / 1024,
+                endDatabaseBytes / 1024);
+    }
+}
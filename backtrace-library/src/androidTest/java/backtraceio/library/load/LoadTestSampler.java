@@ -0,0 +1,97 @@
+package backtraceio.library.load;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Samples process resources during a load test - heap usage, thread count and disk usage of the
+ * database directory. High-water marks are kept between samples.
+ */
+class LoadTestSampler {
+
+    private final File databaseDirectory;
+
+    private long peakHeapBytes = 0;
+
+    private int startThreadCount = -1;
+
+    private int peakThreadCount = 0;
+
+    private int lastThreadCount = 0;
+
+    private long peakDatabaseBytes = 0;
+
+    private long lastDatabaseBytes = 0;
+
+    LoadTestSampler(File databaseDirectory) {
+        this.databaseDirectory = databaseDirectory;
+    }
+
+    synchronized void sample() {
+        Runtime runtime = Runtime.getRuntime();
+        peakHeapBytes = Math.max(peakHeapBytes, runtime.totalMemory() - runtime.freeMemory());
+
+        lastThreadCount = getThreadCount();
+        if (startThreadCount == -1) {
+            startThreadCount = lastThreadCount;
+        }
+        peakThreadCount = Math.max(peakThreadCount, lastThreadCount);
+
+        lastDatabaseBytes = getDirectorySize(databaseDirectory);
+        peakDatabaseBytes = Math.max(peakDatabaseBytes, lastDatabaseBytes);
+    }
+
+    synchronized long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    synchronized int getStartThreadCount() {
+        return startThreadCount;
+    }
+
+    synchronized int getPeakThreadCount() {
+        return peakThreadCount;
+    }
+
+    synchronized int getLastThreadCount() {
+        return lastThreadCount;
+    }
+
+    synchronized long getPeakDatabaseBytes() {
+        return peakDatabaseBytes;
+    }
+
+    synchronized long getLastDatabaseBytes() {
+        return lastDatabaseBytes;
+    }
+
+    /**
+     * @return number of threads of the process, including threads outside of the Java thread groups
+     */
+    private static int getThreadCount() {
+        try (BufferedReader reader = new BufferedReader(new FileReader("/proc/self/status"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Threads:")) {
+                    return Integer.parseInt(line.substring("Threads:".length()).trim());
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return Thread.activeCount();
+    }
+
+    private static long getDirectorySize(File directory) {
+        File[] files = directory != null ? directory.listFiles() : null;
+        if (files == null) {
+            return 0;
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.isDirectory() ? getDirectorySize(file) : file.length();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,351 @@
+package backtraceio.library.load;
+
+import android.util.Log;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Backtrace server. Implements the report submission endpoint
+ * ({@code /post}) and the metrics endpoints ({@code /unique-events/submit},
+ * {@code /summed-events/submit}) and can inject latency, server errors, 429 responses and
+ * connection drops.
+ */
+public class LoadTestServer {
+
+    private static final String LOG_TAG = LoadTestServer.class.getSimpleName();
+
+    private static final Pattern REPORT_UUID = Pattern.compile("\"uuid\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final Random random;
+
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+
+    private final Set<String> receivedReports = Collections.synchronizedSet(new HashSet<String>());
+
+    private final AtomicLong reportRequests = new AtomicLong();
+
+    private final AtomicLong uniqueEventsRequests = new AtomicLong();
+
+    private final AtomicLong summedEventsRequests = new AtomicLong();
+
+    private final AtomicLong receivedBytes = new AtomicLong();
+
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private final AtomicLong injectedTooManyRequests = new AtomicLong();
+
+    private final AtomicLong injectedDrops = new AtomicLong();
+
+    private volatile long latencyMillis = 0;
+
+    private volatile double errorRate = 0;
+
+    private volatile double tooManyRequestsRate = 0;
+
+    private volatile double dropRate = 0;
+
+    private ServerSocket serverSocket;
+
+    private Thread acceptThread;
+
+    public LoadTestServer() {
+        this(new Random());
+    }
+
+    /**
+     * @param random source of randomness for fault injection, pass a seeded instance for reproducible runs
+     */
+    public LoadTestServer(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * @param latencyMillis delay before every response
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * @param errorRate fraction of requests answered with HTTP 500
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * @param tooManyRequestsRate fraction of requests answered with HTTP 429
+     */
+    public void setTooManyRequestsRate(double tooManyRequestsRate) {
+        this.tooManyRequestsRate = tooManyRequestsRate;
+    }
+
+    /**
+     * @param dropRate fraction of requests for which the connection is closed without a response
+     */
+    public void setDropRate(double dropRate) {
+        this.dropRate = dropRate;
+    }
+
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        acceptThread = new Thread(this::acceptConnections, LOG_TAG);
+        acceptThread.start();
+    }
+
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "Cannot close server socket", e);
+        }
+        connections.shutdownNow();
+        try {
+            acceptThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        serverSocket = null;
+    }
+
+    /**
+     * @return base url of the server, e.g. {@code http://127.0.0.1:38211}
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return report identifiers accepted by the server with HTTP 200
+     */
+    public Set<String> getReceivedReports() {
+        synchronized (receivedReports) {
+            return new HashSet<>(receivedReports);
+        }
+    }
+
+    public long getReportRequests() {
+        return reportRequests.get();
+    }
+
+    public long getUniqueEventsRequests() {
+        return uniqueEventsRequests.get();
+    }
+
+    public long getSummedEventsRequests() {
+        return summedEventsRequests.get();
+    }
+
+    public long getReceivedBytes() {
+        return receivedBytes.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long getInjectedTooManyRequests() {
+        return injectedTooManyRequests.get();
+    }
+
+    public long getInjectedDrops() {
+        return injectedDrops.get();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connections.execute(() -> handleConnection(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    Log.w(LOG_TAG, "Cannot accept connection", e);
+                }
+            } catch (Exception e) {
+                // executor shut down while the server is stopping
+                return;
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try {
+            InputStream input = new BufferedInputStream(socket.getInputStream());
+            OutputStream output = socket.getOutputStream();
+            String requestLine = readLine(input);
+            if (requestLine == null) {
+                return;
+            }
+            String path = requestLine.split(" ")[1];
+            byte[] body = readBody(input);
+            receivedBytes.addAndGet(body.length);
+
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+
+            double fault = nextDouble();
+            if (fault < dropRate) {
+                injectedDrops.incrementAndGet();
+                return;
+            }
+            fault -= dropRate;
+            if (fault < tooManyRequestsRate) {
+                injectedTooManyRequests.incrementAndGet();
+                writeResponse(output, 429, "Too Many Requests", "{\"error\":\"rate limited\"}", "Retry-After: 1\r\n");
+                return;
+            }
+            fault -= tooManyRequestsRate;
+            if (fault < errorRate) {
+                injectedErrors.incrementAndGet();
+                writeResponse(output, 500, "Internal Server Error", "{\"error\":\"injected\"}", "");
+                return;
+            }
+
+            if (path.contains("/unique-events/")) {
+                uniqueEventsRequests.incrementAndGet();
+                writeResponse(output, 200, "OK", "{}", "");
+            } else if (path.contains("/summed-events/")) {
+                summedEventsRequests.incrementAndGet();
+                writeResponse(output, 200, "OK", "{}", "");
+            } else if (path.contains("/post")) {
+                reportRequests.incrementAndGet();
+                Matcher matcher = REPORT_UUID.matcher(new String(body, StandardCharsets.UTF_8));
+                if (matcher.find()) {
+                    receivedReports.add(matcher.group(1));
+                }
+                writeResponse(
+                        output,
+                        200,
+                        "OK",
+                        String.format(Locale.ROOT, "{\"response\":\"ok\",\"_rxid\":\"%s\"}", UUID.randomUUID()),
+                        "");
+            } else {
+                writeResponse(output, 404, "Not Found", "{}", "");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Log.w(LOG_TAG, "Cannot handle request", e);
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                Log.w(LOG_TAG, "Cannot close connection", e);
+            }
+        }
+    }
+
+    private double nextDouble() {
+        synchronized (random) {
+            return random.nextDouble();
+        }
+    }
+
+    private static byte[] readBody(InputStream input) throws IOException {
+        long contentLength = 0;
+        boolean chunked = false;
+        String header;
+        while ((header = readLine(input)) != null && !header.isEmpty()) {
+            String lowerCase = header.toLowerCase(Locale.ROOT);
+            if (lowerCase.startsWith("content-length:")) {
+                contentLength = Long.parseLong(
+                        header.substring("content-length:".length()).trim());
+            } else if (lowerCase.startsWith("transfer-encoding:") && lowerCase.contains("chunked")) {
+                chunked = true;
+            }
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (!chunked) {
+            copy(input, body, contentLength);
+            return body.toByteArray();
+        }
+        while (true) {
+            String chunkHeader = readLine(input);
+            if (chunkHeader == null) {
+                break;
+            }
+            int extension = chunkHeader.indexOf(';');
+            long chunkSize =
+                    Long.parseLong((extension == -1 ? chunkHeader : chunkHeader.substring(0, extension)).trim(), 16);
+            if (chunkSize == 0) {
+                // skip trailers
+                while ((header = readLine(input)) != null && !header.isEmpty()) {}
+                break;
+            }
+            copy(input, body, chunkSize);
+            readLine(input);
+        }
+        return body.toByteArray();
+    }
+
+    private static void copy(InputStream input, ByteArrayOutputStream output, long length) throws IOException {
+        byte[] buffer = new byte[8192];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read == -1) {
+                throw new IOException("Unexpected end of request body");
+            }
+            output.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int value;
+        while ((value = input.read()) != -1) {
+            if (value == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) value);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    private static void writeResponse(
+            OutputStream output, int statusCode, String reason, String body, String extraHeaders) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String head = String.format(
+                Locale.ROOT,
+                "HTTP/1.1 %d %s\r\nContent-Type: application/json\r\nContent-Length: %d\r\n%sConnection: close\r\n\r\n",
+                statusCode,
+                reason,
+                content.length,
+                extraHeaders);
+        output.write(head.getBytes(StandardCharsets.US_ASCII));
+        output.write(content);
+        output.flush();
+    }
+}
@@ -10,13 +10,16 @@ import android.content.Context;
 import androidx.test.platform.app.InstrumentationRegistry;
 import backtraceio.library.BacktraceClient;
 import backtraceio.library.BacktraceCredentials;
+import backtraceio.library.models.json.BacktraceReport;
 import backtraceio.library.models.types.BacktraceResultStatus;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import net.jodah.concurrentunit.Waiter;
@@ -223,4 +226,86 @@ public class UncaughtExceptionHandlerTest {
         assertEquals(
                 BacktraceAttributeConsts.UnhandledExceptionAttributeType, innerException.attributes.get("error.type"));
     }
+
+    @Test
+    public void testUncaughtExceptionIsNotRateLimited()
+            throws InvocationTargetException, NoSuchMethodException, IllegalAccessException, InstantiationException {
+        // GIVEN
+        final Waiter waiter = new Waiter();
+        final BacktraceClient client = new BacktraceClient(context, credentials);
+        final BacktraceRateLimitSettings rateLimitSettings = new BacktraceRateLimitSettings();
+        rateLimitSettings.setGlobalLimit(1);
+        client.enableRateLimiting(rateLimitSettings);
+        client.enableDeduplication();
+
+        final List<BacktraceData> sentReports = Collections.synchronizedList(new ArrayList<>());
+        client.setOnRequestHandler(data -> {
+            sentReports.add(data);
+            waiter.resume();
+            return new BacktraceResult(data.getReport(), data.getReport().message, BacktraceResultStatus.Ok);
+        });
+        client.send(new BacktraceReport(new IllegalStateException("Handled exception")));
+        final List<BacktraceResult> suppressedResults = new ArrayList<>();
+        client.send(new BacktraceReport(new IllegalStateException("Suppressed exception")), suppressedResults::add);
+
+        final BacktraceExceptionHandler handler = createBacktraceExceptionHandler(client);
+
+        // WHEN
+        handler.uncaughtException(Thread.currentThread(), new IllegalArgumentException("Uncaught exception"));
+
+        // WAIT FOR THE RESULT FROM ANOTHER THREAD
+        try {
+            waiter.await(5, TimeUnit.SECONDS, 2);
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        }
+
+        // THEN
+        assertEquals(1, suppressedResults.size());
+        assertEquals(BacktraceResultStatus.Skipped, suppressedResults.get(0).getStatus());
+        assertEquals(2, sentReports.size());
+        BacktraceReport uncaughtReport = null;
+        for (BacktraceData data : sentReports) {
+            if ("Uncaught exception".equals(data.getReport().exception.getMessage())) {
+                uncaughtReport = data.getReport();
+            }
+        }
+        assertNotNull(uncaughtReport);
+        assertEquals(
+                BacktraceAttributeConsts.UnhandledExceptionAttributeType, uncaughtReport.attributes.get("error.type"));
+    }
+
+    @Test
+    public void testRootHandlerCalledWhenUploadExceedsTimeout() throws Exception {
+        // GIVEN
+        final long timeoutMillis = 500;
+        final CountDownLatch uploadBlocked = new CountDownLatch(1);
+        final BacktraceClient client = new BacktraceClient(context, credentials);
+        client.setOnRequestHandler(data -> {
+            try {
+                uploadBlocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new BacktraceResult(data.getReport(), data.getReport().message, BacktraceResultStatus.Ok);
+        });
+
+        Constructor<BacktraceExceptionHandler> constructor =
+                BacktraceExceptionHandler.class.getDeclaredConstructor(BacktraceClient.class, long.class);
+        constructor.setAccessible(true);
+        final BacktraceExceptionHandler handler = constructor.newInstance(client, timeoutMillis);
+        final AtomicReference<Throwable> rootHandlerException = new AtomicReference<>();
+        setRootHandler(handler, (thread, throwable) -> rootHandlerException.set(throwable));
+        final Exception exception = new IllegalStateException("Slow upload");
+
+        // WHEN
+        final long start = System.nanoTime();
+        handler.uncaughtException(Thread.currentThread(), exception);
+        final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        uploadBlocked.countDown();
+
+        // THEN
+        assertEquals(exception, rootHandlerException.get());
+        assertTrue(durationMillis < 5000);
+    }
 }
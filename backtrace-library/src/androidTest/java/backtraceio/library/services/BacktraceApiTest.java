@@ -0,0 +1,57 @@
+package backtraceio.library.services;
+
+import static junit.framework.TestCase.fail;
+
+import android.content.Context;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import backtraceio.library.BacktraceCredentials;
+import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.BacktraceResult;
+import backtraceio.library.models.json.BacktraceReport;
+import backtraceio.library.models.types.BacktraceResultStatus;
+import java.util.concurrent.TimeUnit;
+import net.jodah.concurrentunit.Waiter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BacktraceApiTest {
+    private Context context;
+    private BacktraceCredentials credentials;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getContext();
+        credentials = new BacktraceCredentials("https://example-endpoint.com/", "");
+    }
+
+    @Test
+    public void sendAfterCloseFailsCallback() {
+        // GIVEN
+        final Waiter waiter = new Waiter();
+        final BacktraceApi api = new BacktraceApi(context, credentials);
+        api.setRequestHandler(data -> {
+            waiter.fail("Closed API shouldn't send reports");
+            return new BacktraceResult(null, "sent", BacktraceResultStatus.Ok);
+        });
+        final BacktraceReport report = new BacktraceReport("test");
+
+        // WHEN
+        api.close();
+        api.close();
+        api.send(new BacktraceData(context, report, null), result -> {
+            waiter.assertEquals(BacktraceResultStatus.ServerError, result.getStatus());
+            waiter.assertEquals(report, result.getBacktraceReport());
+            waiter.resume();
+        });
+
+        // THEN
+        try {
+            waiter.await(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package backtraceio.library.services;
+
+import static junit.framework.TestCase.fail;
+
+import android.content.Context;
+import android.os.Looper;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import backtraceio.library.events.OnServerResponseEventListener;
+import backtraceio.library.events.RequestHandler;
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.BacktraceExecutionSettings;
+import backtraceio.library.models.BacktraceResult;
+import backtraceio.library.models.json.BacktraceReport;
+import backtraceio.library.models.types.BacktraceResultStatus;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.jodah.concurrentunit.Waiter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BacktraceExecutionLanesTest {
+    private Context context;
+    private BacktraceExecutionLanes lanes;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getContext();
+        lanes = new BacktraceExecutionLanes(new BacktraceExecutionSettings());
+    }
+
+    @After
+    public void tearDown() {
+        lanes.quit();
+    }
+
+    private BacktraceData createData(String errorType) {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(BacktraceAttributeConsts.ErrorType, errorType);
+        return new BacktraceData(context, new BacktraceReport(new Exception(errorType), attributes), null);
+    }
+
+    private BacktraceHandlerInputReport createInput(
+            BacktraceData data, RequestHandler requestHandler, OnServerResponseEventListener callback) {
+        return new BacktraceHandlerInputReport(
+                data, callback, null, requestHandler, "https://example.com/", context, 0, 0);
+    }
+
+    @Test
+    public void sendFatalAndHandledReportsOnSeparateThreads() {
+        // GIVEN
+        final Waiter waiter = new Waiter();
+
+        // WHEN
+        lanes.sendReport(createInput(
+                createData(BacktraceAttributeConsts.UnhandledExceptionAttributeType),
+                data -> {
+                    waiter.assertEquals(
+                            "BacktraceFatalReportsThread",
+                            Thread.currentThread().getName());
+                    waiter.resume();
+                    return new BacktraceResult(null, "fatal", BacktraceResultStatus.Ok);
+                },
+                null));
+        lanes.sendReport(createInput(
+                createData(BacktraceAttributeConsts.HandledExceptionAttributeType),
+                data -> {
+                    waiter.assertEquals(
+                            BacktraceHandlerThread.class.getSimpleName(),
+                            Thread.currentThread().getName());
+                    waiter.resume();
+                    return new BacktraceResult(null, "handled", BacktraceResultStatus.Ok);
+                },
+                null));
+
+        // THEN
+        try {
+            waiter.await(5, TimeUnit.SECONDS, 2);
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        }
+    }
+
+    @Test
+    public void deliverCallbacksOffTheMainThread() {
+        // GIVEN
+        final Waiter waiter = new Waiter();
+
+        // WHEN
+        lanes.sendReport(createInput(
+                createData(BacktraceAttributeConsts.HandledExceptionAttributeType),
+                data -> new BacktraceResult(null, "handled", BacktraceResultStatus.Ok),
+                result -> {
+                    waiter.assertEquals(
+                            "BacktraceCallbacksThread", Thread.currentThread().getName());
+                    waiter.assertTrue(Looper.myLooper() != Looper.getMainLooper());
+                    waiter.resume();
+                }));
+
+        // THEN
+        try {
+            waiter.await(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        }
+    }
+
+    @Test
+    public void slowCallbackDoesNotBlockReports() {
+        // GIVEN
+        final Waiter waiter = new Waiter();
+        final CountDownLatch callbackRelease = new CountDownLatch(1);
+        lanes.sendReport(createInput(
+                createData(BacktraceAttributeConsts.HandledExceptionAttributeType),
+                data -> new BacktraceResult(null, "slow callback", BacktraceResultStatus.Ok),
+                result -> {
+                    try {
+                        callbackRelease.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+
+        // WHEN
+        lanes.sendReport(createInput(
+                createData(BacktraceAttributeConsts.HandledExceptionAttributeType),
+                data -> {
+                    waiter.resume();
+                    return new BacktraceResult(null, "next report", BacktraceResultStatus.Ok);
+                },
+                null));
+
+        // THEN
+        try {
+            waiter.await(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        } finally {
+            callbackRelease.countDown();
+        }
+    }
+}
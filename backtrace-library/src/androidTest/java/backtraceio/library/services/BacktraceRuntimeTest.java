@@ -0,0 +1,98 @@
+package backtraceio.library.services;
+
+import static junit.framework.TestCase.fail;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import android.content.Context;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import backtraceio.library.BacktraceClient;
+import backtraceio.library.BacktraceCredentials;
+import backtraceio.library.models.BacktraceExecutionSettings;
+import backtraceio.library.models.BacktraceResult;
+import backtraceio.library.models.types.BacktraceResultStatus;
+import java.util.concurrent.TimeUnit;
+import net.jodah.concurrentunit.Waiter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BacktraceRuntimeTest {
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getContext();
+    }
+
+    @Test
+    public void shareRuntimeBetweenOwners() {
+        // GIVEN
+        int initialReferences = BacktraceRuntime.getReferenceCount();
+
+        // WHEN
+        BacktraceRuntime first = BacktraceRuntime.acquire(context, new BacktraceExecutionSettings());
+        BacktraceRuntime second = BacktraceRuntime.acquire(context, new BacktraceExecutionSettings());
+
+        // THEN
+        assertSame(first, second);
+        assertEquals(initialReferences + 2, BacktraceRuntime.getReferenceCount());
+
+        first.release();
+        second.release();
+        assertEquals(initialReferences, BacktraceRuntime.getReferenceCount());
+    }
+
+    @Test
+    public void createNewRuntimeAfterLastRelease() {
+        // GIVEN
+        if (BacktraceRuntime.getReferenceCount() != 0) {
+            return;
+        }
+        BacktraceRuntime runtime = BacktraceRuntime.acquire(context, new BacktraceExecutionSettings());
+        runtime.release();
+
+        // WHEN
+        BacktraceRuntime newRuntime = BacktraceRuntime.acquire(context, new BacktraceExecutionSettings());
+
+        // THEN
+        assertNotSame(runtime, newRuntime);
+        newRuntime.release();
+    }
+
+    @Test
+    public void keepClientStateIsolated() {
+        // GIVEN
+        BacktraceClient firstClient =
+                new BacktraceClient(context, new BacktraceCredentials("https://first.example.com/", "first"));
+        BacktraceClient secondClient =
+                new BacktraceClient(context, new BacktraceCredentials("https://second.example.com/", "second"));
+        final Waiter waiter = new Waiter();
+
+        firstClient.setOnRequestHandler(data -> new BacktraceResult(null, "first", BacktraceResultStatus.Ok));
+        secondClient.setOnRequestHandler(data -> new BacktraceResult(null, "second", BacktraceResultStatus.Ok));
+
+        // WHEN
+        firstClient.send("first", result -> {
+            waiter.assertEquals("first", result.message);
+            waiter.resume();
+        });
+        secondClient.send("second", result -> {
+            waiter.assertEquals("second", result.message);
+            waiter.resume();
+        });
+
+        // THEN
+        try {
+            waiter.await(5, TimeUnit.SECONDS, 2);
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        } finally {
+            firstClient.close();
+            secondClient.close();
+        }
+    }
+}
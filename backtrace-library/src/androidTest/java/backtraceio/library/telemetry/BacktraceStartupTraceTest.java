@@ -0,0 +1,126 @@
+package backtraceio.library.telemetry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import backtraceio.library.BacktraceClient;
+import backtraceio.library.BacktraceCredentials;
+import backtraceio.library.BacktraceDatabase;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BacktraceStartupTraceTest {
+
+    @Before
+    public void setUp() {
+        BacktraceStartupTrace.clear();
+    }
+
+    @After
+    public void tearDown() {
+        BacktraceStartupTrace.clear();
+    }
+
+    @Test
+    public void recordPhases() throws InterruptedException {
+        // WHEN
+        BacktraceStartupTrace.Section outer = BacktraceStartupTrace.begin(BacktraceStartupTrace.NATIVE_INTEGRATION);
+        BacktraceStartupTrace.Section inner =
+                BacktraceStartupTrace.begin(BacktraceStartupTrace.NATIVE_LIBRARY_RESOLUTION);
+        Thread.sleep(5);
+        inner.end();
+        outer.end();
+
+        // THEN
+        BacktraceStartupReport report = BacktraceStartupTrace.getReport();
+        List<BacktraceStartupReport.Phase> phases = report.getPhases();
+        assertEquals(2, phases.size());
+        assertEquals(
+                BacktraceStartupTrace.NATIVE_LIBRARY_RESOLUTION, phases.get(0).getName());
+        assertEquals(BacktraceStartupTrace.NATIVE_INTEGRATION, phases.get(1).getName());
+        assertEquals(Thread.currentThread().getName(), phases.get(0).getThreadName());
+        assertTrue(phases.get(0).getDurationMillis() >= 5);
+        assertTrue(phases.get(1).getDurationNanos() >= phases.get(0).getDurationNanos());
+        assertEquals(0, report.getDurationMillis(BacktraceStartupTrace.METRICS), 0);
+    }
+
+    @Test
+    public void sumRepeatedPhases() {
+        // WHEN
+        BacktraceStartupTrace.begin(BacktraceStartupTrace.BREADCRUMBS).end();
+        BacktraceStartupTrace.begin(BacktraceStartupTrace.BREADCRUMBS).end();
+
+        // THEN
+        BacktraceStartupReport report = BacktraceStartupTrace.getReport();
+        double expected = report.getPhases().get(0).getDurationMillis()
+                + report.getPhases().get(1).getDurationMillis();
+        assertEquals(expected, report.getDurationMillis(BacktraceStartupTrace.BREADCRUMBS), 0.0001);
+        assertEquals(expected, report.getTotalDurationMillis(), 0.0001);
+    }
+
+    @Test
+    public void ignoreSecondEnd() {
+        // GIVEN
+        BacktraceStartupTrace.Section section = BacktraceStartupTrace.begin(BacktraceStartupTrace.METRICS);
+
+        // WHEN
+        section.end();
+        section.end();
+
+        // THEN
+        assertEquals(1, BacktraceStartupTrace.getReport().getPhases().size());
+    }
+
+    @Test
+    public void keepMostRecentPhases() {
+        // WHEN
+        for (int i = 0; i < BacktraceStartupTrace.MAX_PHASES + 10; i++) {
+            BacktraceStartupTrace.begin("phase-" + i).end();
+        }
+
+        // THEN
+        List<BacktraceStartupReport.Phase> phases =
+                BacktraceStartupTrace.getReport().getPhases();
+        assertEquals(BacktraceStartupTrace.MAX_PHASES, phases.size());
+        assertEquals("phase-10", phases.get(0).getName());
+    }
+
+    @Test
+    public void recordClientInitializationPhases() {
+        // GIVEN
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        BacktraceDatabase database =
+                new BacktraceDatabase(context, context.getFilesDir().getAbsolutePath());
+
+        // WHEN
+        BacktraceClient client =
+                new BacktraceClient(context, new BacktraceCredentials("https://example-endpoint.com/", ""), database);
+        client.enableBreadcrumbs(context);
+        client.enableAnr();
+
+        // THEN
+        BacktraceStartupReport report = client.getStartupReport();
+        client.disableAnr();
+        client.close();
+        assertTrue(containsPhase(report, BacktraceStartupTrace.STATIC_ATTRIBUTES));
+        assertTrue(containsPhase(report, BacktraceStartupTrace.DATABASE_LOAD));
+        assertTrue(containsPhase(report, BacktraceStartupTrace.BREADCRUMBS));
+        assertTrue(containsPhase(report, BacktraceStartupTrace.ANR_HANDLER));
+    }
+
+    private static boolean containsPhase(BacktraceStartupReport report, String name) {
+        for (BacktraceStartupReport.Phase phase : report.getPhases()) {
+            if (phase.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -8,6 +8,7 @@ import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.test.platform.app.InstrumentationRegistry;
 import backtraceio.library.BacktraceClient;
 import backtraceio.library.BacktraceCredentials;
+import backtraceio.library.anr.BacktraceStallProfilerSettings;
 import backtraceio.library.logger.BacktraceInternalLogger;
 import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.logger.LogLevel;
@@ -85,6 +86,35 @@ public class BacktraceAnrTest {
         }
     }
 
+    @Test
+    @UiThreadTest
+    public void checkIfStallProfileIsAttached() {
+        // GIVEN
+        final Waiter waiter = new Waiter();
+        BacktraceANRHandlerWatchdog watchdog = new BacktraceANRHandlerWatchdog(
+                this.backtraceClient, 1000, false, 100, new BacktraceStallProfilerSettings(200, 20, 512, 50));
+        watchdog.setOnApplicationNotRespondingEvent(new OnApplicationNotRespondingEvent() {
+            @Override
+            public void onEvent(BacktraceWatchdogTimeoutException exception) {
+                waiter.assertNotNull(exception.getStallProfile());
+                waiter.assertTrue(exception.getStallProfile().getSamples() > 0);
+                waiter.assertTrue(exception.getStallDurationMillis() >= 1000);
+                waiter.resume();
+            }
+        });
+
+        // WHEN main thread is blocked by the waiter
+
+        // THEN
+        try {
+            waiter.await(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        } finally {
+            watchdog.stopMonitoringAnr();
+        }
+    }
+
     @Test
     @UiThreadTest
     public void checkIfANRIsNotDetected() {
@@ -108,6 +108,17 @@ void AddAttribute(jstring key, jstring value) {
 #endif
 }
 
+void AddAttributes(jobjectArray keys, jobjectArray values) {
+#ifdef CRASHPAD_BACKEND
+    AddAttributesCrashpad(keys, values);
+#elif BREAKPAD_BACKEND
+    AddAttributesBreakpad(keys, values);
+#else
+    __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android",
+                        "AddAttributes not supported on this backend");
+#endif
+}
+
 void AddAttachment(jstring attachment) {
 #ifdef CRASHPAD_BACKEND
     AddAttachmentCrashpad(attachment);
@@ -117,6 +128,15 @@ void AddAttachment(jstring attachment) {
 #endif
 }
 
+void AddAttachments(jobjectArray attachments) {
+#ifdef CRASHPAD_BACKEND
+    AddAttachmentsCrashpad(attachments);
+#else
+    __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android",
+                        "AddAttachments not supported on this backend");
+#endif
+}
+
 void Disable() {
 #ifdef CRASHPAD_BACKEND
     DisableCrashpad();
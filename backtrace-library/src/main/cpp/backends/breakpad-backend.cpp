@@ -555,3 +555,49 @@ void AddAttributeBreakpad(jstring key, jstring value) {
 
     map_serialize_to_file(breakpad_attributes, attribute_path.c_str());
 }
+
+void AddAttributesBreakpad(jobjectArray keys, jobjectArray values) {
+    if (initialized == false) {
+        __android_log_print(ANDROID_LOG_WARN, "Backtrace-Android",
+                            "Breakpad integration isn't available. Please initialize Breakpad before calling AddAttributes.");
+        return;
+    }
+    JNIEnv *env = GetJniEnv();
+    if (env == nullptr) {
+        __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android", "Cannot initialize JNIEnv");
+        return;
+    }
+    if (keys == nullptr || values == nullptr) {
+        return;
+    }
+    jint keyLength = env->GetArrayLength(keys);
+    if (keyLength != env->GetArrayLength(values)) {
+        __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android",
+                            "Attribute array length doesn't match. Attributes won't be added");
+        return;
+    }
+
+    const std::lock_guard<std::mutex> lock(attribute_synchronization);
+
+    for (int attributeIndex = 0; attributeIndex < keyLength; ++attributeIndex) {
+        jstring key = (jstring) env->GetObjectArrayElement(keys, attributeIndex);
+        jstring value = (jstring) env->GetObjectArrayElement(values, attributeIndex);
+        if (key != nullptr && value != nullptr) {
+            jboolean isCopy;
+            const char *breakpadKey = env->GetStringUTFChars(key, &isCopy);
+            const char *breakpadValue = env->GetStringUTFChars(value, &isCopy);
+            if (breakpadKey && breakpadValue) {
+                breakpad_attributes[breakpadKey] = breakpadValue;
+            }
+            if (breakpadKey)
+                env->ReleaseStringUTFChars(key, breakpadKey);
+            if (breakpadValue)
+                env->ReleaseStringUTFChars(value, breakpadValue);
+        }
+        env->DeleteLocalRef(key);
+        env->DeleteLocalRef(value);
+    }
+
+    // the attributes file is written once for all attributes
+    map_serialize_to_file(breakpad_attributes, attribute_path.c_str());
+}
@@ -390,6 +390,56 @@ void AddAttributeCrashpad(jstring key, jstring value) {
     env->ReleaseStringUTFChars(value, crashpadValue);
 }
 
+void AddAttributesCrashpad(jobjectArray keys, jobjectArray values) {
+    if (initialized == false) {
+        __android_log_print(ANDROID_LOG_WARN, "Backtrace-Android",
+                            "Crashpad integration isn't available. Please initialize the Crashpad integration first.");
+        return;
+    }
+    JNIEnv *env = GetJniEnv();
+    if (env == nullptr) {
+        __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android", "Cannot initialize JNIEnv");
+        return;
+    }
+    if (keys == nullptr || values == nullptr) {
+        return;
+    }
+    jint keyLength = env->GetArrayLength(keys);
+    if (keyLength != env->GetArrayLength(values)) {
+        __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android",
+                            "Attribute array length doesn't match. Attributes won't be added");
+        return;
+    }
+
+    // all attributes are updated under a single lock
+    const std::lock_guard<std::mutex> lock(attribute_synchronization);
+    crashpad::CrashpadInfo *info = crashpad::CrashpadInfo::GetCrashpadInfo();
+    crashpad::SimpleStringDictionary *annotations = info->simple_annotations();
+    if (!annotations) {
+        annotations = new crashpad::SimpleStringDictionary();
+        info->set_simple_annotations(annotations);
+    }
+
+    for (int attributeIndex = 0; attributeIndex < keyLength; ++attributeIndex) {
+        jstring key = (jstring) env->GetObjectArrayElement(keys, attributeIndex);
+        jstring value = (jstring) env->GetObjectArrayElement(values, attributeIndex);
+        if (key != nullptr && value != nullptr) {
+            jboolean isCopy;
+            const char *crashpadKey = env->GetStringUTFChars(key, &isCopy);
+            const char *crashpadValue = env->GetStringUTFChars(value, &isCopy);
+            if (crashpadKey && crashpadValue)
+                annotations->SetKeyValue(crashpadKey, crashpadValue);
+
+            if (crashpadKey)
+                env->ReleaseStringUTFChars(key, crashpadKey);
+            if (crashpadValue)
+                env->ReleaseStringUTFChars(value, crashpadValue);
+        }
+        env->DeleteLocalRef(key);
+        env->DeleteLocalRef(value);
+    }
+}
+
 void AddAttachmentCrashpad(jstring jattachment) {
     if (initialized == false || client == nullptr) {
         __android_log_print(ANDROID_LOG_WARN, "Backtrace-Android",
@@ -413,6 +463,37 @@ void AddAttachmentCrashpad(jstring jattachment) {
     }
 }
 
+void AddAttachmentsCrashpad(jobjectArray jattachments) {
+    if (initialized == false || client == nullptr) {
+        __android_log_print(ANDROID_LOG_WARN, "Backtrace-Android",
+                "Crashpad integration isn't available. Please initialize the Crashpad integration first.");
+        return;
+    }
+    JNIEnv *env = GetJniEnv();
+    if (env == nullptr) {
+        __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android", "Unable to obtain JNI environment.");
+        return;
+    }
+    if (jattachments == nullptr) {
+        return;
+    }
+
+    jint attachmentsLength = env->GetArrayLength(jattachments);
+    for (int attachmentIndex = 0; attachmentIndex < attachmentsLength; ++attachmentIndex) {
+        jstring jattachment = (jstring) env->GetObjectArrayElement(jattachments, attachmentIndex);
+        if (jattachment == nullptr) {
+            continue;
+        }
+        jboolean isCopy;
+        const char *attachment = env->GetStringUTFChars(jattachment, &isCopy);
+        if (attachment != nullptr) {
+            client->AddAttachment(attachment);
+            env->ReleaseStringUTFChars(jattachment, attachment);
+        }
+        env->DeleteLocalRef(jattachment);
+    }
+}
+
 void DisableCrashpad() {
     if (database == nullptr) {
         __android_log_print(ANDROID_LOG_ERROR, "Backtrace-Android",
@@ -161,12 +161,24 @@ Java_backtraceio_library_BacktraceDatabase_addAttribute(JNIEnv *env, jobject thi
     AddAttribute(name, value);
 }
 
+JNIEXPORT void JNICALL
+Java_backtraceio_library_BacktraceDatabase_addAttributes(JNIEnv *env, jobject thiz,
+                                                         jobjectArray names, jobjectArray values) {
+    AddAttributes(names, values);
+}
+
 JNIEXPORT void JNICALL
 Java_backtraceio_library_BacktraceDatabase_addAttachment(JNIEnv *env, jobject thiz,
                                                          jstring jattachment) {
     AddAttachment(jattachment);
 }
 
+JNIEXPORT void JNICALL
+Java_backtraceio_library_BacktraceDatabase_addAttachments(JNIEnv *env, jobject thiz,
+                                                          jobjectArray jattachments) {
+    AddAttachments(jattachments);
+}
+
 JNIEXPORT void JNICALL
 Java_backtraceio_library_base_BacktraceBase_dumpWithoutCrash__Ljava_lang_String_2(JNIEnv *env,
                                                                                   jobject thiz,
@@ -27,7 +27,9 @@ bool CaptureCrash(jobjectArray args);
 void DumpWithoutCrash(jstring message, jboolean set_main_thread_as_faulting_thread);
 
 void AddAttribute(jstring key, jstring value);
+void AddAttributes(jobjectArray keys, jobjectArray values);
 void AddAttachment(jstring jattachment);
+void AddAttachments(jobjectArray jattachments);
 
 void Disable();
 }
@@ -23,5 +23,6 @@ int InitializeBreakpad(jstring url,
 void DumpWithoutCrashBreakpad(jstring message, jboolean set_main_thread_as_faulting_thread);
 
 void AddAttributeBreakpad(jstring key, jstring value);
+void AddAttributesBreakpad(jobjectArray keys, jobjectArray values);
 
 #endif //BACKTRACE_ANDROID_BREAKPAD_BACKEND_H
@@ -33,7 +33,9 @@ bool CaptureCrashCrashpad(jobjectArray args);
 void DumpWithoutCrashCrashpad(jstring message, jboolean set_main_thread_as_faulting_thread);
 
 void AddAttributeCrashpad(jstring key, jstring value);
+void AddAttributesCrashpad(jobjectArray keys, jobjectArray values);
 void AddAttachmentCrashpad(jstring jattachment);
+void AddAttachmentsCrashpad(jobjectArray jattachments);
 
 void DisableCrashpad();
 
@@ -8,9 +8,12 @@ import backtraceio.library.anr.BacktraceAppExitInfoSenderHandler;
 import backtraceio.library.base.BacktraceBase;
 import backtraceio.library.events.OnServerResponseEventListener;
 import backtraceio.library.interfaces.Database;
+import backtraceio.library.models.BacktraceLooperMonitorSettings;
 import backtraceio.library.models.database.BacktraceDatabaseSettings;
 import backtraceio.library.models.json.BacktraceReport;
+import backtraceio.library.telemetry.BacktraceStartupTrace;
 import backtraceio.library.watchdog.BacktraceANRHandlerWatchdog;
+import backtraceio.library.watchdog.BacktraceLooperMonitor;
 import backtraceio.library.watchdog.OnApplicationNotRespondingEvent;
 import java.util.HashMap;
 import java.util.List;
@@ -26,6 +29,11 @@ public class BacktraceClient extends BacktraceBase {
      */
     private BacktraceANRHandler anrHandler;
 
+    /**
+     * Backtrace main looper monitor instance
+     */
+    private BacktraceLooperMonitor looperMonitor;
+
     /**
      * Initializing Backtrace client instance with BacktraceCredentials
      *
@@ -321,7 +329,12 @@ public class BacktraceClient extends BacktraceBase {
     }
 
     public void enableAnr(AnrType anrType, BacktraceANRSettings anrSettings) {
-        this.anrHandler = initAnrHandler(anrType, anrSettings);
+        final BacktraceStartupTrace.Section section = BacktraceStartupTrace.begin(BacktraceStartupTrace.ANR_HANDLER);
+        try {
+            this.anrHandler = initAnrHandler(anrType, anrSettings);
+        } finally {
+            section.end();
+        }
     }
 
     /**
@@ -333,6 +346,57 @@ public class BacktraceClient extends BacktraceBase {
         }
     }
 
+    /**
+     * Start timing messages dispatched on the main looper with default settings - slow messages
+     * are reported as breadcrumbs
+     *
+     * @return started monitor
+     */
+    public BacktraceLooperMonitor enableLooperMonitor() {
+        return this.enableLooperMonitor(new BacktraceLooperMonitorSettings());
+    }
+
+    /**
+     * Start timing messages dispatched on the main looper. A message logging printer set on the main
+     * looper before keeps receiving messages and is restored when the monitor is disabled
+     *
+     * @param settings looper monitor settings
+     * @return started monitor
+     */
+    public synchronized BacktraceLooperMonitor enableLooperMonitor(BacktraceLooperMonitorSettings settings) {
+        this.disableLooperMonitor();
+        this.looperMonitor = new BacktraceLooperMonitor(this, settings);
+        this.looperMonitor.start();
+        return this.looperMonitor;
+    }
+
+    /**
+     * Stop timing messages dispatched on the main looper
+     */
+    public synchronized void disableLooperMonitor() {
+        if (this.looperMonitor != null) {
+            this.looperMonitor.stop();
+            this.looperMonitor = null;
+        }
+    }
+
+    /**
+     * @return running main looper monitor or null if it's disabled
+     */
+    public synchronized BacktraceLooperMonitor getLooperMonitor() {
+        return this.looperMonitor;
+    }
+
+    /**
+     * Stop the main looper monitor, database retries and metrics of this client and release threads
+     * shared with other Backtrace clients. The client shouldn't be used after this call
+     */
+    @Override
+    public void close() {
+        this.disableLooperMonitor();
+        super.close();
+    }
+
     public BacktraceANRHandler initAnrHandler(AnrType anrType, BacktraceANRSettings backtraceANRSettings) {
         BacktraceANRHandler handler = createBacktraceAnrHandler(anrType, backtraceANRSettings);
         if (backtraceANRSettings.getOnApplicationNotRespondingEvent() != null) {
@@ -345,7 +409,12 @@ public class BacktraceClient extends BacktraceBase {
         if (anrType == AnrType.ApplicationExit) {
             return new BacktraceAppExitInfoSenderHandler(this, context);
         } else if (anrType == AnrType.Threshold) {
-            return new BacktraceANRHandlerWatchdog(this, settings.getTimeout(), settings.isDebug());
+            return new BacktraceANRHandlerWatchdog(
+                    this,
+                    settings.getTimeout(),
+                    settings.isDebug(),
+                    settings.getResolution(),
+                    settings.getStallProfilerSettings());
         }
         throw new IllegalArgumentException("Unsupported type of ANR: " + anrType.name());
     }
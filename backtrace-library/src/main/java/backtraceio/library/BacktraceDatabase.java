@@ -5,8 +5,6 @@ import android.content.pm.ApplicationInfo;
 import backtraceio.library.base.BacktraceBase;
 import backtraceio.library.breadcrumbs.BacktraceBreadcrumbs;
 import backtraceio.library.common.FileHelper;
-import backtraceio.library.common.TypeHelper;
-import backtraceio.library.common.serialization.DebugHelper;
 import backtraceio.library.enums.UnwindingMode;
 import backtraceio.library.enums.database.RetryBehavior;
 import backtraceio.library.events.OnServerResponseEventListener;
@@ -19,31 +17,37 @@ import backtraceio.library.interfaces.NativeCommunication;
 import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.models.BacktraceAttributeConsts;
 import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.BacktraceExecutionSettings;
 import backtraceio.library.models.BacktraceResult;
+import backtraceio.library.models.database.BacktraceAttachmentStore;
 import backtraceio.library.models.database.BacktraceDatabaseRecord;
 import backtraceio.library.models.database.BacktraceDatabaseSettings;
+import backtraceio.library.models.database.BacktraceEmergencyReport;
 import backtraceio.library.models.json.BacktraceAttributes;
 import backtraceio.library.models.json.BacktraceReport;
 import backtraceio.library.models.nativeHandler.CrashHandlerConfiguration;
+import backtraceio.library.models.nativeHandler.NativeAttributes;
 import backtraceio.library.models.types.BacktraceResultStatus;
 import backtraceio.library.nativeCalls.BacktraceCrashHandlerWrapper;
 import backtraceio.library.services.BacktraceDatabaseContext;
 import backtraceio.library.services.BacktraceDatabaseFileContext;
+import backtraceio.library.services.BacktraceEmergencyReporter;
+import backtraceio.library.services.BacktraceRuntime;
+import backtraceio.library.services.BacktraceScheduler;
+import backtraceio.library.telemetry.BacktraceStartupTrace;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Backtrace Database
  */
 public class BacktraceDatabase implements Database {
 
-    private static Timer _timer;
     private final transient String LOG_TAG = BacktraceDatabase.class.getSimpleName();
     private Api BacktraceApi;
     private Context _applicationContext;
@@ -56,6 +60,31 @@ public class BacktraceDatabase implements Database {
     private boolean _enabledNativeIntegration = false;
     private NativeCommunication nativeCommunication = new BacktraceCrashHandlerWrapper();
 
+    /**
+     * Copies of attachments referenced by stored reports
+     */
+    private BacktraceAttachmentStore attachmentStore;
+
+    /**
+     * Attributes already passed to the native integration
+     */
+    private final NativeAttributes nativeAttributes = new NativeAttributes();
+
+    /**
+     * Runtime shared with other Backtrace clients, used to schedule retries. Null if retries are not scheduled
+     */
+    private BacktraceRuntime runtime;
+
+    /**
+     * Task which periodically sends stored reports
+     */
+    private BacktraceScheduler.ScheduledTask retryTask;
+
+    /**
+     * True while stored reports are being sent, so retries don't overlap
+     */
+    private final AtomicBoolean sendingStoredReports = new AtomicBoolean(false);
+
     /**
      * Add attributes to native reports
      *
@@ -71,6 +100,22 @@ public class BacktraceDatabase implements Database {
      */
     public native void addAttachment(String attachmentPath);
 
+    /**
+     * Add many attributes to native reports with a single native call. Attributes are updated
+     * under one lock
+     *
+     * @param names  attribute names
+     * @param values attribute values, in the same order as names
+     */
+    public native void addAttributes(String[] names, String[] values);
+
+    /**
+     * Add many file attachments to native reports with a single native call
+     *
+     * @param attachmentPaths file paths to attach to native reports
+     */
+    public native void addAttachments(String[] attachmentPaths);
+
     /**
      * Disable Backtrace-native integration
      */
@@ -117,13 +162,15 @@ public class BacktraceDatabase implements Database {
 
         this._applicationContext = context;
         this.databaseSettings = databaseSettings;
-        this.backtraceDatabaseContext = new BacktraceDatabaseContext(databaseSettings);
+        // the store is used even if attachments aren't copied, to clean up copies of previous runs
+        this.attachmentStore = new BacktraceAttachmentStore(getDatabasePath());
+        this.backtraceDatabaseContext = new BacktraceDatabaseContext(databaseSettings, attachmentStore);
         this.backtraceDatabaseFileContext = new BacktraceDatabaseFileContext(
                 this.getDatabasePath(),
                 this.databaseSettings.getMaxDatabaseSize(),
                 this.databaseSettings.getMaxRecordCount());
         this.breadcrumbs = new BacktraceBreadcrumbs(getDatabasePath());
-        this.crashHandlerConfiguration = new CrashHandlerConfiguration();
+        this.crashHandlerConfiguration = new CrashHandlerConfiguration(getDatabasePath());
     }
 
     private String getDatabasePath() {
@@ -182,7 +229,16 @@ public class BacktraceDatabase implements Database {
             return false;
         }
 
-        final long startSetupNativeIntegrationTime = DebugHelper.getCurrentTimeMillis();
+        final BacktraceStartupTrace.Section section =
+                BacktraceStartupTrace.begin(BacktraceStartupTrace.NATIVE_INTEGRATION);
+        try {
+            return initializeNativeIntegration(client, credentials);
+        } finally {
+            BacktraceLogger.d(LOG_TAG, "Setup native integration took " + section.end() + " milliseconds");
+        }
+    }
+
+    private boolean initializeNativeIntegration(BacktraceBase client, BacktraceCredentials credentials) {
         String minidumpSubmissionUrl = credentials.getMinidumpSubmissionUrl().toString();
         if (minidumpSubmissionUrl == null) {
             return false;
@@ -198,6 +254,7 @@ public class BacktraceDatabase implements Database {
                 BacktraceAttributeConsts.ErrorType, BacktraceAttributeConsts.CrashAttributeType);
         String[] keys = crashpadAttributes.attributes.keySet().toArray(new String[0]);
         String[] values = crashpadAttributes.attributes.values().toArray(new String[0]);
+        this.nativeAttributes.reset(keys, values);
 
         // Leave room for breadcrumbs attachment path too
         List<String> attachmentList = new ArrayList<>(client.getAttachments());
@@ -223,12 +280,6 @@ public class BacktraceDatabase implements Database {
             });
         }
 
-        final long endSetupNativeIntegrationTime = DebugHelper.getCurrentTimeMillis();
-        BacktraceLogger.d(
-                LOG_TAG,
-                "Setup native integration took " + (endSetupNativeIntegrationTime - startSetupNativeIntegrationTime)
-                        + " milliseconds");
-
         return _enabledNativeIntegration;
     }
 
@@ -251,14 +302,32 @@ public class BacktraceDatabase implements Database {
             return false;
         }
 
-        if (key == null || value == null) {
+        if (!NativeAttributes.isSupported(key, value)) {
             return false;
         }
-        Class type = value.getClass();
-        if (!TypeHelper.isPrimitiveOrPrimitiveWrapperOrString(type)) {
+        NativeAttributes.Changes changes = nativeAttributes.collectChanges(Collections.singletonMap(key, value));
+        if (!changes.isEmpty()) {
+            addAttribute(key, value.toString());
+        }
+        return true;
+    }
+
+    /**
+     * Adds attributes which changed since they were last passed to the native integration, with a
+     * single native call. Attributes which aren't primitive types or strings are skipped
+     *
+     * @param attributes attributes to add
+     * @return true, if the native integration is enabled. Otherwise false.
+     */
+    @Override
+    public Boolean addNativeAttributes(Map<String, Object> attributes) {
+        if (!_enabledNativeIntegration || attributes == null) {
             return false;
         }
-        addAttribute(key, value.toString());
+        NativeAttributes.Changes changes = nativeAttributes.collectChanges(attributes);
+        if (!changes.isEmpty()) {
+            addAttributes(changes.getKeys(), changes.getValues());
+        }
         return true;
     }
 
@@ -270,6 +339,23 @@ public class BacktraceDatabase implements Database {
         return true;
     }
 
+    @Override
+    public Boolean addNativeAttachments(List<String> attachmentPaths) {
+        if (!_enabledNativeIntegration || attachmentPaths == null) {
+            return false;
+        }
+        List<String> paths = new ArrayList<>(attachmentPaths.size());
+        for (String attachmentPath : attachmentPaths) {
+            if (attachmentPath != null) {
+                paths.add(attachmentPath);
+            }
+        }
+        if (!paths.isEmpty()) {
+            addAttachments(paths.toArray(new String[0]));
+        }
+        return true;
+    }
+
     public void start() {
         if (databaseSettings == null) {
             return;
@@ -289,6 +375,19 @@ public class BacktraceDatabase implements Database {
         }
 
         this._enable = true;
+
+        this.recoverEmergencyReports();
+    }
+
+    /**
+     * Store emergency reports written by previous application runs as regular records, so they're
+     * sent with other stored reports
+     */
+    private void recoverEmergencyReports() {
+        for (BacktraceEmergencyReport emergencyReport : BacktraceEmergencyReporter.recover(getDatabasePath())) {
+            BacktraceLogger.d(LOG_TAG, "Recovering emergency report " + emergencyReport.uuid);
+            this.add(emergencyReport.toBacktraceReport(), null);
+        }
     }
 
     /**
@@ -301,74 +400,93 @@ public class BacktraceDatabase implements Database {
     }
 
     private void setupTimer() {
-        _timer = new Timer();
-        _timer.schedule(
-                new TimerTask() {
-                    @Override
-                    public void run() {
-                        String dateTimeNow = Calendar.getInstance().getTime().toString();
-                        BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - " + dateTimeNow);
-                        if (backtraceDatabaseContext == null) {
-                            BacktraceLogger.w(LOG_TAG, "Backtrace DB Timer - database context is null: " + dateTimeNow);
-                            return;
-                        }
+        if (this.runtime != null) {
+            return;
+        }
+        this.runtime = BacktraceRuntime.acquire(_applicationContext, new BacktraceExecutionSettings());
+        this.retryTask = this.runtime
+                .getScheduler()
+                .schedulePeriodic(this::sendStoredReports, databaseSettings.getRetryInterval() * 1000L);
+    }
 
-                        if (backtraceDatabaseContext.isEmpty()) {
-                            BacktraceLogger.d(
-                                    LOG_TAG, "Backtrace DB Timer - database is empty (no records): " + dateTimeNow);
-                            return;
-                        }
+    /**
+     * Stop scheduled retries and release the runtime shared with other Backtrace clients
+     */
+    @Override
+    public void close() {
+        BacktraceRuntime currentRuntime = this.runtime;
+        if (currentRuntime == null) {
+            return;
+        }
+        this.runtime = null;
+        currentRuntime.getScheduler().cancel(this.retryTask);
+        this.retryTask = null;
+        currentRuntime.release();
+    }
 
-                        try {
-                            BacktraceDatabaseRecord record = backtraceDatabaseContext.first();
-                            while (record != null) {
-                                final CountDownLatch threadWaiter = new CountDownLatch(1);
-                                BacktraceData backtraceData = record.getBacktraceData();
-                                if (backtraceData == null || backtraceData.getReport() == null) {
-                                    BacktraceLogger.d(
-                                            LOG_TAG,
-                                            "Backtrace DB Timer - backtrace data or report is null - "
-                                                    + "deleting record");
-                                    delete(record);
-                                } else {
-                                    final BacktraceDatabaseRecord currentRecord = record;
-                                    BacktraceApi.send(backtraceData, new OnServerResponseEventListener() {
-                                        @Override
-                                        public void onEvent(BacktraceResult backtraceResult) {
-                                            if (backtraceResult.status == BacktraceResultStatus.Ok) {
-                                                BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - deleting record");
-                                                delete(currentRecord);
-                                            } else {
-                                                BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - closing record");
-                                                currentRecord.close();
-                                                backtraceDatabaseContext
-                                                        .incrementBatchRetry(); // If we are not able to send single
-                                                // record we are moving all reports to
-                                                // next batch
-                                            }
-                                            threadWaiter.countDown();
-                                        }
-                                    });
-                                    try {
-                                        threadWaiter.await();
-                                    } catch (Exception ex) {
-                                        BacktraceLogger.e(
-                                                LOG_TAG, "Error during waiting for result in Backtrace DB Timer", ex);
-                                    }
-                                    if (currentRecord.valid() && !currentRecord.locked) {
-                                        BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - record is valid and unlocked");
-                                        break;
-                                    }
-                                }
-                                record = backtraceDatabaseContext.first();
+    private void sendStoredReports() {
+        BacktraceLogger.d(
+                LOG_TAG, () -> "Backtrace DB Timer - " + Calendar.getInstance().getTime());
+        if (backtraceDatabaseContext == null) {
+            BacktraceLogger.w(
+                    LOG_TAG,
+                    () -> "Backtrace DB Timer - database context is null: "
+                            + Calendar.getInstance().getTime());
+            return;
+        }
+
+        if (backtraceDatabaseContext.isEmpty()) {
+            BacktraceLogger.d(
+                    LOG_TAG,
+                    () -> "Backtrace DB Timer - database is empty (no records): "
+                            + Calendar.getInstance().getTime());
+            return;
+        }
+
+        if (!sendingStoredReports.compareAndSet(false, true)) {
+            BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - previous retry is still in progress");
+            return;
+        }
+        sendNextStoredReport();
+    }
+
+    /**
+     * Send the first stored record. The next record is sent from the server response callback, so
+     * the scheduler thread never waits for the network
+     */
+    private void sendNextStoredReport() {
+        try {
+            BacktraceDatabaseRecord record = backtraceDatabaseContext.first();
+            while (record != null) {
+                BacktraceData backtraceData = record.getBacktraceData();
+                if (backtraceData != null && backtraceData.getReport() != null) {
+                    final BacktraceDatabaseRecord currentRecord = record;
+                    BacktraceApi.send(backtraceData, new OnServerResponseEventListener() {
+                        @Override
+                        public void onEvent(BacktraceResult backtraceResult) {
+                            if (backtraceResult.status == BacktraceResultStatus.Ok) {
+                                BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - deleting record");
+                                delete(currentRecord);
+                                sendNextStoredReport();
+                                return;
                             }
-                        } catch (Exception e) {
-                            BacktraceLogger.e(LOG_TAG, "Exception in Backtrace DB timer", e);
+                            BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - closing record");
+                            currentRecord.close();
+                            // If we are not able to send single record we are moving all reports to next batch
+                            backtraceDatabaseContext.incrementBatchRetry();
+                            sendingStoredReports.set(false);
                         }
-                    }
-                },
-                databaseSettings.getRetryInterval() * 1000L,
-                databaseSettings.getRetryInterval() * 1000L);
+                    });
+                    return;
+                }
+                BacktraceLogger.d(LOG_TAG, "Backtrace DB Timer - backtrace data or report is null - deleting record");
+                delete(record);
+                record = backtraceDatabaseContext.first();
+            }
+        } catch (Exception e) {
+            BacktraceLogger.e(LOG_TAG, "Exception in Backtrace DB timer", e);
+        }
+        sendingStoredReports.set(false);
     }
 
     public void flush() {
@@ -398,11 +516,16 @@ public class BacktraceDatabase implements Database {
         if (backtraceDatabaseFileContext != null) {
             backtraceDatabaseFileContext.clear();
         }
+        if (attachmentStore != null) {
+            // copies referenced by record files removed without loading them
+            attachmentStore.removeUnreferenced();
+        }
     }
 
     private void removeOrphaned() {
         Iterable<BacktraceDatabaseRecord> records = backtraceDatabaseContext.get();
         backtraceDatabaseFileContext.removeOrphaned(records);
+        attachmentStore.removeUnreferenced();
     }
 
     public boolean validConsistency() {
@@ -452,16 +575,16 @@ public class BacktraceDatabase implements Database {
     }
 
     private void loadReports() {
-        final long startLoadingReportsTime = System.currentTimeMillis();
-
-        this.loadReportsToDbContext();
-
-        final long endLoadingReportsTime = System.currentTimeMillis();
+        final BacktraceStartupTrace.Section section = BacktraceStartupTrace.begin(BacktraceStartupTrace.DATABASE_LOAD);
+        long duration;
+        try {
+            this.loadReportsToDbContext();
+        } finally {
+            duration = section.end();
+        }
 
         BacktraceLogger.d(
-                LOG_TAG,
-                "Loading " + backtraceDatabaseContext.count() + " reports took "
-                        + (endLoadingReportsTime - startLoadingReportsTime) + " milliseconds");
+                LOG_TAG, "Loading " + backtraceDatabaseContext.count() + " reports took " + duration + " milliseconds");
     }
 
     private void loadReportsToDbContext() {
@@ -12,6 +12,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 public class AppExitInfoDetailsExtractor {
     private static final String LOG_TAG = AppExitInfoDetailsExtractor.class.getSimpleName();
@@ -68,6 +69,28 @@ public class AppExitInfoDetailsExtractor {
         return builder.toString();
     }
 
+    /**
+     * Read and parse the ANR trace in a single pass, without storing the whole trace in memory
+     *
+     * @param exitInfo application exit information
+     * @param parser   parser used to parse the trace, it keeps the raw trace up to its limit
+     * @return parsed trace, empty if the trace can't be read or parsed, or null if the trace isn't available
+     */
+    @RequiresApi(api = Build.VERSION_CODES.R)
+    public static Map<String, Object> parseStackTrace(ExitInfo exitInfo, ExitInfoTraceStreamParser parser) {
+        InputStream traceStream = getStreamOrNull(exitInfo);
+        if (traceStream == null) {
+            BacktraceLogger.w(LOG_TAG, "Unexpected null trace stream");
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(traceStream))) {
+            return parser.parse(reader);
+        } catch (Exception exception) {
+            BacktraceLogger.e(LOG_TAG, "Unexpected exception on parsing stacktrace from exitInfo", exception);
+            return new HashMap<>();
+        }
+    }
+
     @RequiresApi(api = Build.VERSION_CODES.R)
     private static InputStream getStreamOrNull(ExitInfo exitInfo) {
         try {
@@ -13,11 +13,27 @@ public class BacktraceANRSettings {
      */
     public static final int DEFAULT_ANR_TIMEOUT = 5000;
 
+    /**
+     * Default interval in milliseconds at which the main thread is checked
+     */
+    public static final int DEFAULT_ANR_RESOLUTION = 500;
+
     /**
      * The timeout in milliseconds after which an ANR is reported if the main thread is blocked.
      */
     private final int timeout;
 
+    /**
+     * Interval in milliseconds at which the main thread is checked. A blocked main thread is detected
+     * at most this long after the timeout passes.
+     */
+    private final int resolution;
+
+    /**
+     * Configuration of sampling of the blocked main thread before an ANR is reported, null if disabled
+     */
+    private final BacktraceStallProfilerSettings stallProfilerSettings;
+
     /**
      * Flag to enable or disable additional debug logging for ANR detection.
      * When true, more verbose logging related to ANR monitoring might be produced.
@@ -39,7 +55,7 @@ public class BacktraceANRSettings {
     }
 
     /**
-     * Constructs ANR settings with specified parameters.
+     * Constructs ANR settings with specified parameters and the default resolution.
      *
      * @param timeout                         The timeout in milliseconds for ANR detection.
      * @param onApplicationNotRespondingEvent The callback to be invoked when an ANR is detected.
@@ -48,7 +64,51 @@ public class BacktraceANRSettings {
      */
     public BacktraceANRSettings(
             int timeout, OnApplicationNotRespondingEvent onApplicationNotRespondingEvent, boolean debug) {
+        this(timeout, onApplicationNotRespondingEvent, debug, DEFAULT_ANR_RESOLUTION);
+    }
+
+    /**
+     * Constructs ANR settings with specified parameters.
+     *
+     * @param timeout                         The timeout in milliseconds for ANR detection.
+     * @param onApplicationNotRespondingEvent The callback to be invoked when an ANR is detected.
+     *                                        Can be null if no custom callback is needed.
+     * @param debug                           True to enable debug logging for ANR detection, false otherwise.
+     * @param resolution                      Interval in milliseconds at which the main thread is checked.
+     *                                        Values greater than the timeout are reduced to the timeout.
+     */
+    public BacktraceANRSettings(
+            int timeout,
+            OnApplicationNotRespondingEvent onApplicationNotRespondingEvent,
+            boolean debug,
+            int resolution) {
+        this(timeout, onApplicationNotRespondingEvent, debug, resolution, null);
+    }
+
+    /**
+     * Constructs ANR settings with specified parameters.
+     *
+     * @param timeout                         The timeout in milliseconds for ANR detection.
+     * @param onApplicationNotRespondingEvent The callback to be invoked when an ANR is detected.
+     *                                        Can be null if no custom callback is needed.
+     * @param debug                           True to enable debug logging for ANR detection, false otherwise.
+     * @param resolution                      Interval in milliseconds at which the main thread is checked.
+     *                                        Values greater than the timeout are reduced to the timeout.
+     * @param stallProfilerSettings           Configuration of sampling of the blocked main thread, the
+     *                                        samples are attached to the ANR report. Null disables sampling.
+     */
+    public BacktraceANRSettings(
+            int timeout,
+            OnApplicationNotRespondingEvent onApplicationNotRespondingEvent,
+            boolean debug,
+            int resolution,
+            BacktraceStallProfilerSettings stallProfilerSettings) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("ANR resolution must be greater than 0");
+        }
         this.timeout = timeout;
+        this.resolution = resolution;
+        this.stallProfilerSettings = stallProfilerSettings;
         this.onApplicationNotRespondingEvent = onApplicationNotRespondingEvent;
         this.debug = debug;
     }
@@ -62,6 +122,24 @@ public class BacktraceANRSettings {
         return timeout;
     }
 
+    /**
+     * Gets the interval at which the main thread is checked.
+     *
+     * @return The resolution in milliseconds.
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Gets the configuration of the stall profiler.
+     *
+     * @return The stall profiler settings, or null if the stall profiler is disabled.
+     */
+    public BacktraceStallProfilerSettings getStallProfilerSettings() {
+        return stallProfilerSettings;
+    }
+
     /**
      * Checks if debug logging for ANR detection is enabled.
      *
@@ -107,14 +107,16 @@ public class BacktraceAppExitInfoSenderHandler extends Thread implements Backtra
     private BacktraceReport generateBacktraceReport(ExitInfo appExitInfo) {
         ;
         final Map<String, Object> anrAttributes = getANRAttributes(appExitInfo);
-        final String stackTrace = AppExitInfoDetailsExtractor.getStackTraceInfo(appExitInfo);
+        final ExitInfoTraceStreamParser traceParser = new ExitInfoTraceStreamParser();
+        final Map<String, Object> parsedStackTraceAttributes =
+                AppExitInfoDetailsExtractor.parseStackTrace(appExitInfo, traceParser);
 
-        if (stackTrace == null || stackTrace.isEmpty()) {
+        if (parsedStackTraceAttributes == null || traceParser.getTraceLength() == 0) {
             BacktraceLogger.w(LOG_TAG, "Empty stacktrace for ApplicationExitInfo");
             return null;
         }
 
-        final Map<String, Object> parsedStackTraceAttributes = this.getAttributesFromStacktrace(stackTrace);
+        final String stackTrace = traceParser.getRawTrace();
         final StackTraceElement[] anrStackTrace =
                 ExitInfoStackTraceParser.parseMainThreadStackTrace(parsedStackTraceAttributes);
 
@@ -130,15 +132,6 @@ public class BacktraceAppExitInfoSenderHandler extends Thread implements Backtra
         return new BacktraceReport(new BacktraceANRExitInfoException(appExitInfo, anrStackTrace), attributes);
     }
 
-    private Map<String, Object> getAttributesFromStacktrace(String stacktrace) {
-        try {
-            return ExitInfoStackTraceParser.parseANRStackTrace(stacktrace);
-        } catch (Exception ex) {
-            BacktraceLogger.e(LOG_TAG, "Error during parsing ExitInfoStackTrace", ex);
-            return new HashMap<>();
-        }
-    }
-
     @RequiresApi(api = Build.VERSION_CODES.R)
     private boolean isSupportedTypeOfApplicationExit(ExitInfo appExitInfo) {
         final List<Integer> supportedTypes = this.activityManager.getSupportedTypesOfExitInfo();
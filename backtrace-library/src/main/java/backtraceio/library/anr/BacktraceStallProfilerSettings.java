@@ -0,0 +1,100 @@
+package backtraceio.library.anr;
+
+/**
+ * Configuration of the stall profiler. Once the main thread has been blocked for the threshold, its
+ * stack is sampled until it recovers or an ANR is reported, and the merged samples are attached to
+ * the ANR report.
+ */
+public class BacktraceStallProfilerSettings {
+    /**
+     * Default time in milliseconds after which a blocked main thread is sampled
+     */
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    /**
+     * Default interval in milliseconds between samples
+     */
+    public static final int DEFAULT_SAMPLING_INTERVAL = 50;
+
+    /**
+     * Default maximum number of frames stored in a profile
+     */
+    public static final int DEFAULT_MAX_FRAMES = 2048;
+
+    /**
+     * Default maximum share of CPU time in percent spent on sampling
+     */
+    public static final int DEFAULT_MAX_CPU_PERCENT = 5;
+
+    /**
+     * Time in milliseconds after which a blocked main thread is sampled
+     */
+    private final int threshold;
+
+    /**
+     * Interval in milliseconds between samples
+     */
+    private final int samplingInterval;
+
+    /**
+     * Maximum number of frames stored in a profile
+     */
+    private final int maxFrames;
+
+    /**
+     * Maximum share of CPU time in percent spent on sampling. If taking a sample takes longer,
+     * the interval between samples is increased
+     */
+    private final int maxCpuPercent;
+
+    /**
+     * Default constructor.
+     * Initializes stall profiler settings with default values.
+     */
+    public BacktraceStallProfilerSettings() {
+        this(DEFAULT_THRESHOLD, DEFAULT_SAMPLING_INTERVAL, DEFAULT_MAX_FRAMES, DEFAULT_MAX_CPU_PERCENT);
+    }
+
+    /**
+     * Constructs stall profiler settings with specified parameters.
+     *
+     * @param threshold        Time in milliseconds after which a blocked main thread is sampled.
+     * @param samplingInterval Interval in milliseconds between samples.
+     * @param maxFrames        Maximum number of frames stored in a profile.
+     * @param maxCpuPercent    Maximum share of CPU time in percent spent on sampling, from 1 to 100.
+     */
+    public BacktraceStallProfilerSettings(int threshold, int samplingInterval, int maxFrames, int maxCpuPercent) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Stall profiler threshold can't be negative");
+        }
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException("Stall profiler sampling interval must be greater than 0");
+        }
+        if (maxFrames <= 0) {
+            throw new IllegalArgumentException("Stall profiler frame limit must be greater than 0");
+        }
+        if (maxCpuPercent <= 0 || maxCpuPercent > 100) {
+            throw new IllegalArgumentException("Stall profiler CPU limit must be between 1 and 100");
+        }
+        this.threshold = threshold;
+        this.samplingInterval = samplingInterval;
+        this.maxFrames = maxFrames;
+        this.maxCpuPercent = maxCpuPercent;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    public int getMaxCpuPercent() {
+        return maxCpuPercent;
+    }
+}
@@ -0,0 +1,290 @@
+package backtraceio.library.anr;
+
+import backtraceio.library.logger.BacktraceLogger;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single pass, line oriented parser of ART ANR traces. The trace is read once - header fields and
+ * thread dumps are extracted line by line with precompiled patterns, so the trace never has to be
+ * stored as a whole. Memory is bounded by limits on the number of threads, frames per thread and
+ * the length of the raw trace kept for the report.
+ * <p>
+ * The parser produces the same structure as {@link ExitInfoStackTraceParser#parseANRStackTrace(String)}.
+ * An instance parses a single trace.
+ * </p>
+ */
+public class ExitInfoTraceStreamParser {
+
+    private static final String LOG_TAG = ExitInfoTraceStreamParser.class.getSimpleName();
+
+    /**
+     * Default maximum number of stored threads. The main thread is always stored
+     */
+    public static final int DEFAULT_MAX_THREADS = 256;
+
+    /**
+     * Default maximum number of stored frames of a thread
+     */
+    public static final int DEFAULT_MAX_FRAMES = 512;
+
+    /**
+     * Default maximum number of characters of the raw trace kept for the report
+     */
+    public static final int DEFAULT_MAX_RAW_TRACE_LENGTH = 512 * 1024;
+
+    private static final String MAIN_THREAD_NAME = "main";
+
+    /**
+     * Line which starts thread dumps and ends the header of the trace
+     */
+    private static final String THREADS_SECTION_PREFIX = "DALVIK THREADS";
+
+    private static final String TRUNCATED_TRACE_SUFFIX = "... trace truncated\n";
+
+    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("----- pid (\\d+) at (.*?) -----");
+    private static final Pattern CMD_LINE_PATTERN = Pattern.compile("Cmd line: (.*)");
+    private static final Pattern FINGERPRINT_PATTERN = Pattern.compile("Build fingerprint: '(.*?)'");
+    private static final Pattern ABI_PATTERN = Pattern.compile("ABI: '(.*?)'");
+    private static final Pattern BUILD_TYPE_PATTERN = Pattern.compile("Build type: (.*)");
+    private static final Pattern HEAP_PATTERN = Pattern.compile("Heap: (.*)");
+    private static final Pattern THREAD_HEADER_PATTERN =
+            Pattern.compile("\"(.*?)\" (daemon )?prio=(\\d+) tid=(\\d+) (\\w+)(.*)");
+
+    private final int maxThreads;
+
+    private final int maxFrames;
+
+    private final int maxRawTraceLength;
+
+    // reusable matchers - a parser instance is used by a single thread
+    private final Matcher timestampMatcher = TIMESTAMP_PATTERN.matcher("");
+    private final Matcher cmdLineMatcher = CMD_LINE_PATTERN.matcher("");
+    private final Matcher fingerprintMatcher = FINGERPRINT_PATTERN.matcher("");
+    private final Matcher abiMatcher = ABI_PATTERN.matcher("");
+    private final Matcher buildTypeMatcher = BUILD_TYPE_PATTERN.matcher("");
+    private final Matcher heapMatcher = HEAP_PATTERN.matcher("");
+    private final Matcher threadHeaderMatcher = THREAD_HEADER_PATTERN.matcher("");
+
+    private final Map<String, Object> parsedData = new HashMap<>();
+
+    private final List<Map<String, Object>> threads = new ArrayList<>();
+
+    private final StringBuilder rawTrace = new StringBuilder();
+
+    private boolean rawTraceTruncated = false;
+
+    private long traceLength = 0;
+
+    private Map<String, Object> mainThread = null;
+
+    /**
+     * Thread which block is parsed at the moment, null between blocks
+     */
+    private ThreadBlock currentThread = null;
+
+    private int skippedThreads = 0;
+
+    /**
+     * True once thread dumps start - header fields aren't matched in the rest of the trace
+     */
+    private boolean headerFinished = false;
+
+    public ExitInfoTraceStreamParser() {
+        this(DEFAULT_MAX_THREADS, DEFAULT_MAX_FRAMES, DEFAULT_MAX_RAW_TRACE_LENGTH);
+    }
+
+    /**
+     * @param maxThreads        maximum number of stored threads, the main thread is always stored
+     * @param maxFrames         maximum number of stored frames of a thread
+     * @param maxRawTraceLength maximum number of characters of the raw trace kept, 0 to not keep it
+     */
+    public ExitInfoTraceStreamParser(int maxThreads, int maxFrames, int maxRawTraceLength) {
+        this.maxThreads = maxThreads;
+        this.maxFrames = maxFrames;
+        this.maxRawTraceLength = maxRawTraceLength;
+    }
+
+    /**
+     * Parse an ANR trace
+     *
+     * @param reader trace source, it's read to the end but not closed
+     * @return parsed trace - header fields, threads and the main thread
+     * @throws IOException if the trace can't be read
+     */
+    public Map<String, Object> parse(Reader reader) throws IOException {
+        final BufferedReader bufferedReader =
+                reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        parsedData.put("timestamp", null);
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            appendRawLine(line);
+            parseLine(line);
+        }
+        finishThread();
+
+        if (traceLength == 0) {
+            return new HashMap<>();
+        }
+        if (skippedThreads > 0 && BacktraceLogger.isDebugEnabled()) {
+            BacktraceLogger.d(LOG_TAG, "Thread limit reached, skipped threads: " + skippedThreads);
+        }
+        parsedData.put("threads", threads);
+        parsedData.put("main_thread", mainThread);
+        return parsedData;
+    }
+
+    /**
+     * @return raw trace, truncated to the maximum length, empty if the raw trace isn't kept
+     */
+    public String getRawTrace() {
+        return rawTrace.toString();
+    }
+
+    /**
+     * @return number of characters of the trace read, including line separators
+     */
+    public long getTraceLength() {
+        return traceLength;
+    }
+
+    private void appendRawLine(String line) {
+        traceLength += line.length() + 1;
+        if (rawTraceTruncated || maxRawTraceLength == 0) {
+            return;
+        }
+        if (rawTrace.length() + line.length() + 1 > maxRawTraceLength) {
+            rawTrace.append(TRUNCATED_TRACE_SUFFIX);
+            rawTraceTruncated = true;
+            return;
+        }
+        rawTrace.append(line).append('\n');
+    }
+
+    private void parseLine(String line) {
+        if (!headerFinished) {
+            if (line.startsWith(THREADS_SECTION_PREFIX)) {
+                headerFinished = true;
+            } else {
+                parseHeaderFields(line);
+            }
+        }
+
+        if (currentThread != null) {
+            if (line.isEmpty()) {
+                // thread dumps are separated by empty lines
+                finishThread();
+            } else {
+                currentThread.addLine(line);
+            }
+            return;
+        }
+
+        if (line.startsWith("\"") && threadHeaderMatcher.reset(line).find()) {
+            headerFinished = true;
+            startThread(threadHeaderMatcher);
+        }
+    }
+
+    private void parseHeaderFields(String line) {
+        if (!parsedData.containsKey("pid") && timestampMatcher.reset(line).find()) {
+            parsedData.put("pid", Integer.parseInt(timestampMatcher.group(1)));
+            parsedData.put("timestamp", timestampMatcher.group(2));
+        }
+        findHeaderField(line, "command_line", cmdLineMatcher);
+        findHeaderField(line, "build_fingerprint", fingerprintMatcher);
+        findHeaderField(line, "abi", abiMatcher);
+        findHeaderField(line, "build_type", buildTypeMatcher);
+        findHeaderField(line, "heap_info", heapMatcher);
+    }
+
+    private void findHeaderField(String line, String key, Matcher matcher) {
+        if (parsedData.containsKey(key)) {
+            return;
+        }
+        if (matcher.reset(line).find()) {
+            parsedData.put(key, matcher.group(1));
+        }
+    }
+
+    private void startThread(Matcher header) {
+        final String name = header.group(1);
+        final boolean isMainThread = MAIN_THREAD_NAME.equals(name) && mainThread == null;
+        if (threads.size() >= maxThreads && !isMainThread) {
+            skippedThreads++;
+            currentThread = ThreadBlock.SKIPPED;
+            return;
+        }
+        Map<String, Object> thread = new HashMap<>();
+        thread.put("name", name);
+        thread.put("isDaemon", header.group(2) != null);
+        thread.put("prio", Integer.parseInt(header.group(3)));
+        thread.put("tid", Integer.parseInt(header.group(4)));
+        thread.put("status", (header.group(5) + header.group(6)).trim());
+        currentThread = new ThreadBlock(thread, maxFrames);
+        if (isMainThread) {
+            mainThread = thread;
+        }
+    }
+
+    private void finishThread() {
+        if (currentThread == null) {
+            return;
+        }
+        if (currentThread != ThreadBlock.SKIPPED) {
+            currentThread.thread.put("stack_trace", currentThread.frames);
+            threads.add(currentThread.thread);
+        }
+        currentThread = null;
+    }
+
+    /**
+     * Thread dump - a header line followed by thread details and frames
+     */
+    private static final class ThreadBlock {
+
+        /**
+         * Block of a thread which didn't fit into the limit - its lines are ignored
+         */
+        private static final ThreadBlock SKIPPED = new ThreadBlock(null, 0);
+
+        private final Map<String, Object> thread;
+
+        private final List<String> frames = new ArrayList<>();
+
+        private final int maxFrames;
+
+        private boolean inStackTrace = false;
+
+        private boolean stackTraceFinished = false;
+
+        private ThreadBlock(Map<String, Object> thread, int maxFrames) {
+            this.thread = thread;
+            this.maxFrames = maxFrames;
+        }
+
+        private void addLine(String line) {
+            if (stackTraceFinished || this == SKIPPED) {
+                return;
+            }
+            final String trimmedLine = line.trim();
+            if (trimmedLine.isEmpty() || trimmedLine.startsWith("\"")) {
+                stackTraceFinished = inStackTrace;
+                return;
+            }
+            if (trimmedLine.startsWith("at ") || trimmedLine.startsWith("native:")) {
+                inStackTrace = true;
+                if (frames.size() < maxFrames) {
+                    frames.add(trimmedLine);
+                }
+            }
+        }
+    }
+}
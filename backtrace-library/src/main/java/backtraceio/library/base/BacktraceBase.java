@@ -1,36 +1,61 @@
 package backtraceio.library.base;
 
 import android.content.Context;
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
 import backtraceio.library.BacktraceCredentials;
 import backtraceio.library.BacktraceDatabase;
+import backtraceio.library.common.BacktraceClock;
 import backtraceio.library.common.CollectionUtils;
 import backtraceio.library.enums.BacktraceBreadcrumbLevel;
 import backtraceio.library.enums.BacktraceBreadcrumbType;
 import backtraceio.library.enums.UnwindingMode;
 import backtraceio.library.events.OnBeforeSendEventListener;
+import backtraceio.library.events.OnDumpWithoutCrashEventListener;
 import backtraceio.library.events.OnServerErrorEventListener;
 import backtraceio.library.events.OnServerResponseEventListener;
+import backtraceio.library.events.OnTelemetrySnapshotEventListener;
 import backtraceio.library.events.RequestHandler;
 import backtraceio.library.interfaces.Api;
 import backtraceio.library.interfaces.Breadcrumbs;
 import backtraceio.library.interfaces.Client;
 import backtraceio.library.interfaces.Database;
 import backtraceio.library.interfaces.Metrics;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.BacktraceAttributeConsts;
 import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.BacktraceDeduplicationSettings;
+import backtraceio.library.models.BacktraceExecutionSettings;
+import backtraceio.library.models.BacktraceRateLimitSettings;
 import backtraceio.library.models.BacktraceResult;
+import backtraceio.library.models.BacktraceTelemetrySettings;
 import backtraceio.library.models.database.BacktraceDatabaseRecord;
 import backtraceio.library.models.database.BacktraceDatabaseSettings;
 import backtraceio.library.models.json.BacktraceReport;
 import backtraceio.library.models.json.BacktraceStaticAttributes;
+import backtraceio.library.models.nativeHandler.NativeAttributes;
 import backtraceio.library.models.types.BacktraceResultStatus;
 import backtraceio.library.services.BacktraceApi;
+import backtraceio.library.services.BacktraceDumpWithoutCrashWorker;
+import backtraceio.library.services.BacktraceEmergencyReporter;
 import backtraceio.library.services.BacktraceMetrics;
+import backtraceio.library.services.BacktraceReportDeduplicator;
+import backtraceio.library.services.BacktraceReportRateLimiter;
+import backtraceio.library.services.BacktraceRuntime;
+import backtraceio.library.services.BacktraceScheduler;
 import backtraceio.library.services.ReportExceptionTransformer;
+import backtraceio.library.telemetry.BacktraceStartupReport;
+import backtraceio.library.telemetry.BacktraceStartupTrace;
+import backtraceio.library.telemetry.BacktraceTelemetry;
+import backtraceio.library.telemetry.TelemetrySnapshot;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Base Backtrace Android client
@@ -86,6 +111,68 @@ public class BacktraceBase implements Client {
      */
     private boolean isProguardEnabled = false;
 
+    /**
+     * Client-side report deduplication stage. Null if deduplication is disabled
+     */
+    private volatile BacktraceReportDeduplicator reportDeduplicator = null;
+
+    /**
+     * Runtime used to release reports held by the deduplication stage. Null until a report is held
+     */
+    private BacktraceRuntime deduplicationRuntime = null;
+
+    /**
+     * Task which releases held reports once their aggregation window ends
+     */
+    private BacktraceScheduler.ScheduledTask deduplicationTask = null;
+
+    /**
+     * Time when the deduplication task runs, in {@link SystemClock#elapsedRealtime()} milliseconds
+     */
+    private long deduplicationTaskDeadline = Long.MAX_VALUE;
+
+    /**
+     * Client-side report rate limiter. Null if rate limiting is disabled
+     */
+    private volatile BacktraceReportRateLimiter reportRateLimiter = null;
+
+    /**
+     * Event executed with every periodic SDK telemetry snapshot
+     */
+    private volatile OnTelemetrySnapshotEventListener telemetrySnapshotListener = null;
+
+    /**
+     * Runtime used to schedule telemetry snapshots. Null if periodic snapshots are disabled
+     */
+    private BacktraceRuntime telemetryRuntime = null;
+
+    private BacktraceScheduler.ScheduledTask telemetryTask = null;
+
+    /**
+     * Worker generating asynchronous dumps without crash, created with the first asynchronous dump
+     */
+    private BacktraceDumpWithoutCrashWorker dumpWithoutCrashWorker = null;
+
+    private long dumpWithoutCrashMinIntervalMillis = BacktraceDumpWithoutCrashWorker.DEFAULT_MIN_INTERVAL_MILLIS;
+
+    /**
+     * Reporter of uncaught out of memory errors. Null if emergency reporting is disabled
+     */
+    private volatile BacktraceEmergencyReporter emergencyReporter = null;
+
+    /**
+     * True if client attributes changed since they were cached by the emergency reporter
+     */
+    private final AtomicBoolean emergencyAttributesDirty = new AtomicBoolean(false);
+
+    /**
+     * Runtime used to encode attributes of the emergency report off the caller's thread. Null if
+     * emergency reporting is disabled
+     */
+    private BacktraceRuntime emergencyRuntime = null;
+
+    private BacktraceScheduler.ScheduledTask emergencyAttributesTask = null;
+
     /**
      * Initialize new client instance with BacktraceCredentials
      *
@@ -251,7 +338,13 @@ public class BacktraceBase implements Client {
         this.context = context;
         this.credentials = credentials;
         this.attributes = CollectionUtils.copyMap(attributes);
-        BacktraceStaticAttributes.init(this.context);
+        final BacktraceStartupTrace.Section staticAttributesSection =
+                BacktraceStartupTrace.begin(BacktraceStartupTrace.STATIC_ATTRIBUTES);
+        try {
+            BacktraceStaticAttributes.init(this.context);
+        } finally {
+            staticAttributesSection.end();
+        }
         this.attachments = initializeAttachments(attachments);
         this.database = database != null ? database : new BacktraceDatabase();
         this.setBacktraceApi(new BacktraceApi(this.context, credentials));
@@ -261,6 +354,20 @@ public class BacktraceBase implements Client {
 
     public native void crash();
 
+    /**
+     * Stop database retries and metrics of this client and release threads shared with other Backtrace clients.
+     * Threads are stopped once every client using them is closed. The client shouldn't be used after this call
+     */
+    public void close() {
+        // held aggregates are stored in the database before the client stops
+        this.disableDeduplication();
+        this.stopTelemetrySnapshots();
+        this.stopDumpWithoutCrashWorker();
+        this.disableEmergencyReporting();
+        this.database.close();
+        this.backtraceApi.close();
+    }
+
     @NonNull
     private static List<String> initializeAttachments(List<String> attachments) {
         if (attachments == null) {
@@ -310,6 +417,127 @@ public class BacktraceBase implements Client {
         this.database.disableNativeIntegration();
     }
 
+    /**
+     * Report uncaught out of memory errors with default settings, see
+     * {@link #enableEmergencyReporting(int)}
+     *
+     * @return true if emergency reporting was enabled
+     */
+    public boolean enableEmergencyReporting() {
+        return enableEmergencyReporting(BacktraceEmergencyReporter.DEFAULT_BALLAST_SIZE);
+    }
+
+    /**
+     * Report uncaught out of memory errors, which usually can't be reported because building a report
+     * needs memory. Memory, a database file and attributes are reserved up front. When the uncaught
+     * exception handler catches an out of memory error, the reserved memory is released and a
+     * minimal report with the faulting thread stack is written. The report is sent on the next
+     * application start. Backtrace database is required. Changed attributes are encoded again on a
+     * background thread, so attributes changed right before the crash may be missing from the report.
+     *
+     * @param ballastSize size of memory reserved for crash handling in bytes
+     * @return true if emergency reporting was enabled
+     */
+    public synchronized boolean enableEmergencyReporting(int ballastSize) {
+        final BacktraceDatabaseSettings settings = this.database.getSettings();
+        if (settings == null) {
+            BacktraceLogger.w(LOG_TAG, "Emergency reporting requires Backtrace database");
+            return false;
+        }
+        this.disableEmergencyReporting();
+        try {
+            final BacktraceEmergencyReporter reporter =
+                    new BacktraceEmergencyReporter(settings.getDatabasePath(), ballastSize);
+            this.emergencyAttributesDirty.set(false);
+            reporter.setAttributes(getEmergencyAttributes());
+            this.emergencyReporter = reporter;
+            this.emergencyRuntime = BacktraceRuntime.acquire(this.context, new BacktraceExecutionSettings());
+            return true;
+        } catch (IOException e) {
+            BacktraceLogger.e(LOG_TAG, "Cannot enable emergency reporting", e);
+            return false;
+        }
+    }
+
+    /**
+     * Stop reporting uncaught out of memory errors and release reserved memory
+     */
+    public synchronized void disableEmergencyReporting() {
+        final BacktraceEmergencyReporter reporter = this.emergencyReporter;
+        this.emergencyReporter = null;
+        if (this.emergencyRuntime != null) {
+            this.emergencyRuntime.getScheduler().cancel(this.emergencyAttributesTask);
+            this.emergencyRuntime.release();
+            this.emergencyRuntime = null;
+            this.emergencyAttributesTask = null;
+        }
+        if (reporter != null) {
+            reporter.close();
+        }
+    }
+
+    /**
+     * @return reporter of uncaught out of memory errors, null if emergency reporting is disabled
+     */
+    public BacktraceEmergencyReporter getEmergencyReporter() {
+        return this.emergencyReporter;
+    }
+
+    /**
+     * Mark attributes cached by the emergency reporter as outdated. Attributes are encoded again on
+     * the scheduler thread, once for all changes made until the refresh runs
+     */
+    private void invalidateEmergencyAttributes() {
+        if (this.emergencyReporter == null || !this.emergencyAttributesDirty.compareAndSet(false, true)) {
+            return;
+        }
+        scheduleEmergencyAttributesRefresh();
+    }
+
+    private synchronized void scheduleEmergencyAttributesRefresh() {
+        if (this.emergencyRuntime == null) {
+            this.emergencyAttributesDirty.set(false);
+            return;
+        }
+        this.emergencyAttributesTask =
+                this.emergencyRuntime.getScheduler().schedule(this::refreshEmergencyAttributes, 0);
+    }
+
+    /**
+     * Update attributes cached by the emergency reporter
+     */
+    private void refreshEmergencyAttributes() {
+        this.emergencyAttributesDirty.set(false);
+        final BacktraceEmergencyReporter reporter = this.emergencyReporter;
+        if (reporter == null) {
+            return;
+        }
+        try {
+            reporter.setAttributes(getEmergencyAttributes());
+        } catch (ConcurrentModificationException e) {
+            // attributes changed while they were copied - they're encoded again by the next refresh
+            invalidateEmergencyAttributes();
+        }
+    }
+
+    /**
+     * Get static attributes and client attributes with primitive values
+     */
+    private Map<String, String> getEmergencyAttributes() {
+        final Map<String, String> result = new HashMap<>();
+        final BacktraceStaticAttributes staticAttributes = BacktraceStaticAttributes.getInstance();
+        if (staticAttributes != null) {
+            result.putAll(staticAttributes.getAttributes());
+        }
+        for (Map.Entry<String, Object> attribute :
+                CollectionUtils.copyMap(this.attributes).entrySet()) {
+            if (NativeAttributes.isSupported(attribute.getKey(), attribute.getValue())) {
+                result.put(attribute.getKey(), attribute.getValue().toString());
+            }
+        }
+        return result;
+    }
+
     /**
      * Inform Backtrace API that we are using Proguard symbolication
      */
@@ -317,6 +545,230 @@ public class BacktraceBase implements Client {
         this.isProguardEnabled = true;
     }
 
+    /**
+     * Merge repeated reports with the same classifier and top stack frames into one representative
+     * report with default deduplication settings. Reports of uncaught exceptions are never merged
+     */
+    public void enableDeduplication() {
+        this.enableDeduplication(new BacktraceDeduplicationSettings());
+    }
+
+    /**
+     * Merge repeated reports with the same classifier and top stack frames into one representative
+     * report. The representative report contains the number of merged occurrences and first/last seen
+     * timestamps.
+     *
+     * @param settings deduplication settings
+     */
+    public void enableDeduplication(BacktraceDeduplicationSettings settings) {
+        final BacktraceReportDeduplicator deduplicator = this.reportDeduplicator;
+        this.reportDeduplicator = new BacktraceReportDeduplicator(settings);
+        drainHeldReports(deduplicator);
+    }
+
+    /**
+     * Disable report deduplication. Reports held by the deduplication stage are sent immediately.
+     */
+    public void disableDeduplication() {
+        final BacktraceReportDeduplicator deduplicator = this.reportDeduplicator;
+        this.reportDeduplicator = null;
+        stopDeduplicationTask();
+        drainHeldReports(deduplicator);
+    }
+
+    private void drainHeldReports(BacktraceReportDeduplicator deduplicator) {
+        if (deduplicator == null) {
+            return;
+        }
+        for (BacktraceReport report : deduplicator.drainAll()) {
+            submitReport(report, null);
+        }
+    }
+
+    /**
+     * Send held reports whose aggregation window has ended and schedule the next release
+     */
+    private void releaseExpiredReports() {
+        synchronized (this) {
+            this.deduplicationTask = null;
+            this.deduplicationTaskDeadline = Long.MAX_VALUE;
+        }
+        final BacktraceReportDeduplicator deduplicator = this.reportDeduplicator;
+        if (deduplicator == null) {
+            return;
+        }
+        for (BacktraceReport report : deduplicator.drainExpired()) {
+            submitReport(report, null);
+        }
+        scheduleExpiredReportsRelease(deduplicator);
+    }
+
+    /**
+     * Schedule release of held reports, so the last aggregate is sent even if no other report arrives
+     */
+    private synchronized void scheduleExpiredReportsRelease(BacktraceReportDeduplicator deduplicator) {
+        final long delay = deduplicator.getNextExpirationDelay();
+        if (delay < 0 || deduplicator != this.reportDeduplicator) {
+            return;
+        }
+        final long deadline = SystemClock.elapsedRealtime() + delay;
+        if (deadline >= this.deduplicationTaskDeadline) {
+            return;
+        }
+        if (this.deduplicationRuntime == null) {
+            this.deduplicationRuntime = BacktraceRuntime.acquire(this.context, new BacktraceExecutionSettings());
+        }
+        final BacktraceScheduler scheduler = this.deduplicationRuntime.getScheduler();
+        scheduler.cancel(this.deduplicationTask);
+        this.deduplicationTask = scheduler.schedule(this::releaseExpiredReports, delay);
+        this.deduplicationTaskDeadline = deadline;
+    }
+
+    private synchronized void stopDeduplicationTask() {
+        if (this.deduplicationRuntime == null) {
+            return;
+        }
+        this.deduplicationRuntime.getScheduler().cancel(this.deduplicationTask);
+        this.deduplicationRuntime.release();
+        this.deduplicationRuntime = null;
+        this.deduplicationTask = null;
+        this.deduplicationTaskDeadline = Long.MAX_VALUE;
+    }
+
+    /**
+     * Limit the number of reports sent to Backtrace globally, per classifier and per error type.
+     * Number of suppressed reports is attached to the next sent report as the
+     * {@link BacktraceAttributeConsts#RateLimitSuppressed} attribute. Reports of uncaught exceptions
+     * are never suppressed.
+     *
+     * @param settings rate limit settings
+     */
+    public void enableRateLimiting(BacktraceRateLimitSettings settings) {
+        this.reportRateLimiter = new BacktraceReportRateLimiter(settings);
+    }
+
+    /**
+     * Disable report rate limiting
+     */
+    public void disableRateLimiting() {
+        this.reportRateLimiter = null;
+    }
+
+    /**
+     * Start recording SDK telemetry - time spent in every stage of the report pipeline, database
+     * and queue sizes, upload latency and bytes sent - with default settings
+     */
+    public void enableTelemetry() {
+        this.enableTelemetry(new BacktraceTelemetrySettings());
+    }
+
+    /**
+     * Start recording SDK telemetry. Telemetry is shared by all Backtrace clients in the process.
+     * Snapshots are taken periodically and passed to the listener set by
+     * {@link #setOnTelemetrySnapshotEventListener(OnTelemetrySnapshotEventListener)} and, if enabled
+     * in settings, sent as summed events.
+     *
+     * @param settings telemetry settings
+     */
+    public synchronized void enableTelemetry(BacktraceTelemetrySettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("BacktraceTelemetrySettings cannot be null");
+        }
+        this.stopTelemetrySnapshots();
+        BacktraceTelemetry.enable();
+        if (settings.getIntervalMillis() == 0) {
+            return;
+        }
+        final boolean sendAsSummedEvents = settings.isSendAsSummedEvents();
+        this.telemetryRuntime = BacktraceRuntime.acquire(this.context, new BacktraceExecutionSettings());
+        this.telemetryTask = this.telemetryRuntime
+                .getScheduler()
+                .schedulePeriodic(() -> publishTelemetrySnapshot(sendAsSummedEvents), settings.getIntervalMillis());
+    }
+
+    /**
+     * Stop recording SDK telemetry and stop periodic snapshots. Already recorded values are kept
+     */
+    public synchronized void disableTelemetry() {
+        this.stopTelemetrySnapshots();
+        BacktraceTelemetry.disable();
+    }
+
+    /**
+     * Get current values of the SDK telemetry
+     *
+     * @return telemetry snapshot
+     */
+    public TelemetrySnapshot getTelemetrySnapshot() {
+        return BacktraceTelemetry.snapshot();
+    }
+
+    /**
+     * Get timings of SDK initialization phases - static attributes, database load, native integration,
+     * breadcrumbs, metrics and ANR handler - recorded by all Backtrace clients in the process
+     *
+     * @return startup report
+     */
+    public BacktraceStartupReport getStartupReport() {
+        return BacktraceStartupTrace.getReport();
+    }
+
+    /**
+     * Set an event executed with every periodic SDK telemetry snapshot
+     *
+     * @param eventListener object with method which will be executed
+     */
+    public void setOnTelemetrySnapshotEventListener(OnTelemetrySnapshotEventListener eventListener) {
+        this.telemetrySnapshotListener = eventListener;
+    }
+
+    private void publishTelemetrySnapshot(boolean sendAsSummedEvents) {
+        final TelemetrySnapshot snapshot = BacktraceTelemetry.snapshot();
+        final OnTelemetrySnapshotEventListener listener = this.telemetrySnapshotListener;
+        if (listener != null) {
+            listener.onEvent(snapshot);
+        }
+        if (!sendAsSummedEvents) {
+            return;
+        }
+        try {
+            this.metrics.addSummedEvent(BacktraceTelemetrySettings.SUMMED_EVENT_NAME, snapshot.toAttributes());
+        } catch (IllegalArgumentException e) {
+            BacktraceLogger.w(LOG_TAG, "Cannot send telemetry snapshot, metrics are not enabled");
+        }
+    }
+
+    private synchronized void stopTelemetrySnapshots() {
+        if (this.telemetryRuntime == null) {
+            return;
+        }
+        this.telemetryRuntime.getScheduler().cancel(this.telemetryTask);
+        this.telemetryRuntime.release();
+        this.telemetryRuntime = null;
+        this.telemetryTask = null;
+    }
+
+    /**
+     * Change priorities of the threads used to send reports, send metrics and execute callbacks.
+     * Threads are shared by all Backtrace clients, so new priorities apply to every client
+     *
+     * @param settings execution lanes configuration
+     */
+    public void setExecutionSettings(BacktraceExecutionSettings settings) {
+        this.backtraceApi.setExecutionSettings(settings);
+    }
+
+    /**
+     * Limit the size of attachments uploaded with a report. Text files over a limit are truncated to
+     * their end, which keeps the latest log lines, other files over a limit are skipped
+     *
+     * @param maxAttachmentSize       maximum size of a single attachment in bytes, 0 if unlimited
+     * @param maxTotalAttachmentsSize maximum size of all attachments of a report in bytes, 0 if unlimited
+     */
+    public void setAttachmentSizeLimits(long maxAttachmentSize, long maxTotalAttachmentsSize) {
+        this.backtraceApi.setAttachmentSizeLimits(maxAttachmentSize, maxTotalAttachmentsSize);
+    }
+
     /**
      * Add a file attachment path to be included with crash reports and submissions.
      *
@@ -362,6 +814,7 @@ public class BacktraceBase implements Client {
      */
     public void addAttribute(String key, Object value) {
         attributes.put(key, value);
+        invalidateEmergencyAttributes();
         if (database == null) {
             return;
         }
@@ -383,9 +836,26 @@ public class BacktraceBase implements Client {
         if (attributes == null) {
             return;
         }
-        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-            addAttribute(entry.getKey(), entry.getValue());
+        this.attributes.putAll(attributes);
+        invalidateEmergencyAttributes();
+        if (database == null) {
+            return;
+        }
+        // single native call for all attributes
+        database.addNativeAttributes(attributes);
+    }
+
+    /**
+     * Passes client attributes which changed since they were last passed to the native integration,
+     * e.g. after modifying the map returned by {@link #getAttributes()} directly. Native attributes are
+     * updated with a single native call. Attributes cached for emergency reports are refreshed too.
+     */
+    public void syncNativeAttributes() {
+        invalidateEmergencyAttributes();
+        if (database == null) {
+            return;
         }
+        database.addNativeAttributes(attributes);
     }
 
     /**
@@ -645,6 +1115,77 @@ public class BacktraceBase implements Client {
 
     public native void dumpWithoutCrash(String message, boolean setMainThreadAsFaultingThread);
 
+    /**
+     * Queue a native crash report and minidump submission without blocking the calling thread.
+     * Requests made while a dump is waiting are merged into it
+     *
+     * @param message dump message
+     * @return true if a new dump was queued, false if the request was merged into a waiting dump
+     */
+    public boolean dumpWithoutCrashAsync(String message) {
+        return dumpWithoutCrashAsync(message, false, null);
+    }
+
+    /**
+     * Queue a native crash report and minidump submission without blocking the calling thread.
+     * Requests made while a dump is waiting are merged into it
+     *
+     * @param message  dump message
+     * @param listener called on the dump thread when the dump completes, can be null
+     * @return true if a new dump was queued, false if the request was merged into a waiting dump
+     */
+    public boolean dumpWithoutCrashAsync(String message, OnDumpWithoutCrashEventListener listener) {
+        return dumpWithoutCrashAsync(message, false, listener);
+    }
+
+    /**
+     * Queue a native crash report and minidump submission without blocking the calling thread.
+     * Dumps are generated on a dedicated thread at least the minimum interval apart, requests made
+     * while a dump is waiting are merged into it. Unlike {@link #dumpWithoutCrash(String, boolean)}, the
+     * faulting thread of the dump is the dump thread, not the calling thread, unless the main thread is
+     * set as the faulting thread
+     *
+     * @param message                       dump message
+     * @param setMainThreadAsFaultingThread mark the main thread as the faulting thread instead of the dump thread
+     * @param listener                      called on the dump thread when the dump completes, can be null
+     * @return true if a new dump was queued, false if the request was merged into a waiting dump
+     */
+    public boolean dumpWithoutCrashAsync(
+            String message, boolean setMainThreadAsFaultingThread, OnDumpWithoutCrashEventListener listener) {
+        return getDumpWithoutCrashWorker().dump(message, setMainThreadAsFaultingThread, listener);
+    }
+
+    /**
+     * Set the minimum time between two asynchronous dumps without crash
+     *
+     * @param minIntervalMillis minimum interval in milliseconds, 0 to dump as soon as the previous dump completes
+     */
+    public synchronized void setDumpWithoutCrashMinInterval(long minIntervalMillis) {
+        if (minIntervalMillis < 0) {
+            throw new IllegalArgumentException("Minimum interval cannot be negative");
+        }
+        this.dumpWithoutCrashMinIntervalMillis = minIntervalMillis;
+        if (this.dumpWithoutCrashWorker != null) {
+            this.dumpWithoutCrashWorker.setMinInterval(minIntervalMillis);
+        }
+    }
+
+    private synchronized BacktraceDumpWithoutCrashWorker getDumpWithoutCrashWorker() {
+        if (this.dumpWithoutCrashWorker == null) {
+            this.dumpWithoutCrashWorker = new BacktraceDumpWithoutCrashWorker(
+                    this::dumpWithoutCrash, this.dumpWithoutCrashMinIntervalMillis, BacktraceClock.SYSTEM);
+        }
+        return this.dumpWithoutCrashWorker;
+    }
+
+    private synchronized void stopDumpWithoutCrashWorker() {
+        if (this.dumpWithoutCrashWorker == null) {
+            return;
+        }
+        this.dumpWithoutCrashWorker.stop();
+        this.dumpWithoutCrashWorker = null;
+    }
+
     /**
      * Sending an exception to Backtrace API
      *
@@ -660,25 +1201,80 @@ public class BacktraceBase implements Client {
      * @param sourceReport current BacktraceReport
      */
     public void send(BacktraceReport sourceReport, final OnServerResponseEventListener callback) {
-        Breadcrumbs breadcrumbs = this.database.getBreadcrumbs();
+        final BacktraceReportDeduplicator deduplicator = this.reportDeduplicator;
+        if (deduplicator != null) {
+            for (BacktraceReport report : deduplicator.drainExpired()) {
+                submitReport(report, null);
+            }
+        }
         for (BacktraceReport report :
                 this.reportExceptionTransformer.transformReportWithInnerExceptions(sourceReport)) {
-            if (breadcrumbs != null) {
-                breadcrumbs.processReportBreadcrumbs(report);
+            if (isUnhandledException(report)) {
+                // the application is about to stop, the report has to reach the database without
+                // being held by the deduplication stage or suppressed by the rate limiter
+                sendReport(report, callback);
+                continue;
             }
-            addReportAttachments(report);
+            if (deduplicator != null) {
+                final BacktraceReport representative = deduplicator.deduplicate(report);
+                if (representative == null) {
+                    notifySkippedReport(report, "Report merged into a duplicate aggregate", callback);
+                    continue;
+                }
+                report = representative;
+            }
+            submitReport(report, callback);
+        }
+        if (deduplicator != null) {
+            scheduleExpiredReportsRelease(deduplicator);
+        }
+    }
 
-            BacktraceData backtraceData = new BacktraceData(this.context, report, this.attributes);
-            backtraceData.symbolication = this.isProguardEnabled ? "proguard" : null;
+    private void submitReport(BacktraceReport report, final OnServerResponseEventListener callback) {
+        final BacktraceReportRateLimiter rateLimiter = this.reportRateLimiter;
+        if (rateLimiter != null) {
+            if (!rateLimiter.tryAcquire(report)) {
+                notifySkippedReport(report, "Report suppressed by the rate limiter", callback);
+                return;
+            }
+            final long suppressedReports = rateLimiter.getAndResetSuppressedReports();
+            if (suppressedReports > 0 && report.attributes != null) {
+                report.attributes.put(BacktraceAttributeConsts.RateLimitSuppressed, suppressedReports);
+            }
+        }
+        sendReport(report, callback);
+    }
 
-            final BacktraceDatabaseRecord record = this.database.add(report, this.attributes, this.isProguardEnabled);
+    private static boolean isUnhandledException(BacktraceReport report) {
+        return report.attributes != null
+                && BacktraceAttributeConsts.UnhandledExceptionAttributeType.equals(
+                        report.attributes.get(BacktraceAttributeConsts.ErrorType));
+    }
 
-            if (this.beforeSendEventListener != null) {
-                backtraceData = this.beforeSendEventListener.onEvent(backtraceData);
-            }
+    private static void notifySkippedReport(
+            BacktraceReport report, String message, final OnServerResponseEventListener callback) {
+        if (callback != null) {
+            callback.onEvent(new BacktraceResult(report, message, BacktraceResultStatus.Skipped));
+        }
+    }
 
-            this.backtraceApi.send(backtraceData, this.getDatabaseCallback(record, callback));
+    private void sendReport(BacktraceReport report, final OnServerResponseEventListener callback) {
+        Breadcrumbs breadcrumbs = this.database.getBreadcrumbs();
+        if (breadcrumbs != null) {
+            breadcrumbs.processReportBreadcrumbs(report);
         }
+        addReportAttachments(report);
+
+        BacktraceData backtraceData = new BacktraceData(this.context, report, this.attributes);
+        backtraceData.symbolication = this.isProguardEnabled ? "proguard" : null;
+
+        final BacktraceDatabaseRecord record = this.database.add(report, this.attributes, this.isProguardEnabled);
+
+        if (this.beforeSendEventListener != null) {
+            backtraceData = this.beforeSendEventListener.onEvent(backtraceData);
+        }
+
+        this.backtraceApi.send(backtraceData, this.getDatabaseCallback(record, callback));
     }
 
     private OnServerResponseEventListener getDatabaseCallback(
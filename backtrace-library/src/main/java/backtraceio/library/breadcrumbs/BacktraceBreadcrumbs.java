@@ -5,13 +5,14 @@ import static android.content.Context.RECEIVER_EXPORTED;
 import android.app.Application;
 import android.content.Context;
 import android.os.Build;
-import backtraceio.library.common.serialization.DebugHelper;
 import backtraceio.library.enums.BacktraceBreadcrumbLevel;
 import backtraceio.library.enums.BacktraceBreadcrumbType;
 import backtraceio.library.events.OnSuccessfulBreadcrumbAddEventListener;
 import backtraceio.library.interfaces.Breadcrumbs;
 import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.models.json.BacktraceReport;
+import backtraceio.library.telemetry.BacktraceStartupTrace;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
@@ -147,17 +148,12 @@ public class BacktraceBreadcrumbs implements Breadcrumbs {
             Context context, EnumSet<BacktraceBreadcrumbType> breadcrumbTypesToEnable, int maxBreadcrumbLogSizeBytes) {
         this.context = context;
 
-        final long startEnablingReportsTime = DebugHelper.getCurrentTimeMillis();
-
-        final boolean enabled = enableBreadcrumbs(breadcrumbTypesToEnable, maxBreadcrumbLogSizeBytes);
-
-        final long endEnablingReportsTime = DebugHelper.getCurrentTimeMillis();
-
-        BacktraceLogger.d(
-                LOG_TAG,
-                "Enabling breadcrumbs took " + (endEnablingReportsTime - startEnablingReportsTime) + " milliseconds");
-
-        return enabled;
+        final BacktraceStartupTrace.Section section = BacktraceStartupTrace.begin(BacktraceStartupTrace.BREADCRUMBS);
+        try {
+            return enableBreadcrumbs(breadcrumbTypesToEnable, maxBreadcrumbLogSizeBytes);
+        } finally {
+            BacktraceLogger.d(LOG_TAG, "Enabling breadcrumbs took " + section.end() + " milliseconds");
+        }
     }
 
     private boolean enableBreadcrumbs(
@@ -323,7 +319,9 @@ public class BacktraceBreadcrumbs implements Breadcrumbs {
         if (!enabledBreadcrumbTypes.contains(type)) {
             return false;
         }
+        final long addStart = BacktraceTelemetry.startTimer();
         boolean addResult = backtraceBreadcrumbsLogManager.addBreadcrumb(message, attributes, type, level);
+        BacktraceTelemetry.BREADCRUMB_ADD_TIME.recordElapsed(addStart);
         if (addResult && this.onSuccessfulBreadcrumbAddEventListener != null) {
             this.onSuccessfulBreadcrumbAddEventListener.onSuccessfulAdd(this.getCurrentBreadcrumbId());
         }
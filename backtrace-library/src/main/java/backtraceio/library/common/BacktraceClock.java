@@ -0,0 +1,26 @@
+package backtraceio.library.common;
+
+import android.os.SystemClock;
+
+/**
+ * Monotonic time source used by schedulers and watchdogs. Tests replace it with a fake clock to
+ * control time deterministically.
+ */
+public interface BacktraceClock {
+
+    /**
+     * Clock based on {@link SystemClock#elapsedRealtime()} - it keeps counting while the device sleeps
+     */
+    BacktraceClock SYSTEM = SystemClock::elapsedRealtime;
+
+    /**
+     * Clock based on {@link SystemClock#uptimeMillis()} - it stops while the device is in deep sleep,
+     * so time spent sleeping isn't mistaken for a blocked thread
+     */
+    BacktraceClock UPTIME = SystemClock::uptimeMillis;
+
+    /**
+     * @return monotonic time in milliseconds
+     */
+    long elapsedRealtime();
+}
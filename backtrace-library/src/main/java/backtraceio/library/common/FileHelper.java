@@ -111,8 +111,11 @@ public class FileHelper {
         String dataDir = context.getApplicationInfo().dataDir;
         String cacheDir = context.getCacheDir().getAbsolutePath();
         String filesDir = context.getFilesDir().getPath();
-        BacktraceLogger.d(
-                LOG_TAG, String.format("Passed path %s, Internal paths %s, %s, %s", path, dataDir, cacheDir, filesDir));
+        if (BacktraceLogger.isDebugEnabled()) {
+            BacktraceLogger.d(
+                    LOG_TAG,
+                    String.format("Passed path %s, Internal paths %s, %s, %s", path, dataDir, cacheDir, filesDir));
+        }
 
         return path.startsWith(dataDir) || path.startsWith(cacheDir) || path.startsWith(filesDir);
     }
@@ -1,11 +1,16 @@
 package backtraceio.library.common;
 
 import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /***
  * Helper class for building multipart/form-data request
@@ -18,6 +23,23 @@ public class MultiFormRequestHelper {
     private static final String TWO_HYPHENS = "--";
     private static final String ENCODING = "utf-8";
 
+    private static final byte[] CRLF_BYTES = CRLF.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BOUNDARY_LINE_BYTES = (TWO_HYPHENS + BOUNDARY + CRLF).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END_OF_REQUEST_BYTES =
+            (TWO_HYPHENS + BOUNDARY + TWO_HYPHENS + CRLF).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] JSON_HEADER_BYTES =
+            (getFileInfo("upload_file") + CRLF).getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Size of the buffer used to copy attachments to the request
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Copy buffer reused by uploads, reports are usually sent one at a time so a single buffer is pooled
+     */
+    private static final AtomicReference<ByteBuffer> bufferPool = new AtomicReference<>();
+
     /**
      * Get Content-Type of request
      *
@@ -39,11 +61,7 @@ public class MultiFormRequestHelper {
             return;
         }
 
-        outputStream.write((MultiFormRequestHelper.TWO_HYPHENS
-                        + MultiFormRequestHelper.BOUNDARY
-                        + MultiFormRequestHelper.TWO_HYPHENS
-                        + MultiFormRequestHelper.CRLF)
-                .getBytes());
+        outputStream.write(END_OF_REQUEST_BYTES);
     }
 
     /**
@@ -64,15 +82,12 @@ public class MultiFormRequestHelper {
             return;
         }
 
-        outputStream.write(
-                (MultiFormRequestHelper.TWO_HYPHENS + MultiFormRequestHelper.BOUNDARY + MultiFormRequestHelper.CRLF)
-                        .getBytes());
-        outputStream.write((MultiFormRequestHelper.getFileInfo("upload_file")).getBytes());
-        outputStream.write((MultiFormRequestHelper.CRLF).getBytes());
+        outputStream.write(BOUNDARY_LINE_BYTES);
+        outputStream.write(JSON_HEADER_BYTES);
 
         byte[] bytes = json.getBytes(ENCODING);
         outputStream.write(bytes);
-        outputStream.write((MultiFormRequestHelper.CRLF).getBytes());
+        outputStream.write(CRLF_BYTES);
     }
 
     /***
@@ -82,13 +97,39 @@ public class MultiFormRequestHelper {
      * @throws IOException
      */
     public static void addFiles(OutputStream outputStream, List<String> attachments) throws IOException {
+        addFiles(outputStream, attachments, 0, 0);
+    }
+
+    /***
+     * Write files data to outputStream. Text files over a limit are truncated to their end, starting at a line, which
+     * keeps the latest log lines, other files over a limit are skipped
+     * @param outputStream output data stream
+     * @param attachments list of paths to files
+     * @param maxAttachmentSize maximum size of a single attachment in bytes, 0 if unlimited
+     * @param maxTotalSize maximum size of all attachments in bytes, 0 if unlimited
+     * @throws IOException
+     */
+    public static void addFiles(
+            OutputStream outputStream, List<String> attachments, long maxAttachmentSize, long maxTotalSize)
+            throws IOException {
         if (attachments == null || outputStream == null) {
             BacktraceLogger.w(LOG_TAG, "Attachments or output stream is null");
             return;
         }
 
-        for (String fileAbsolutePath : attachments) {
-            addFile(outputStream, fileAbsolutePath);
+        final ByteBuffer buffer = acquireBuffer();
+        try {
+            long remainingSize = maxTotalSize > 0 ? maxTotalSize : Long.MAX_VALUE;
+            for (String fileAbsolutePath : attachments) {
+                if (remainingSize <= 0) {
+                    BacktraceLogger.w(LOG_TAG, "Attachments size limit reached, skipping " + fileAbsolutePath);
+                    continue;
+                }
+                long limit = maxAttachmentSize > 0 ? Math.min(maxAttachmentSize, remainingSize) : remainingSize;
+                remainingSize -= addFile(outputStream, fileAbsolutePath, limit, buffer);
+            }
+        } finally {
+            releaseBuffer(buffer);
         }
     }
 
@@ -96,26 +137,53 @@ public class MultiFormRequestHelper {
      * Write single file in multiform data format to outputStream
      * @param outputStream output data stream
      * @param absolutePath file absolute path
+     * @param limit maximum number of file bytes to write
+     * @param buffer copy buffer
+     * @return number of file bytes written
      * @throws IOException
      */
-    private static void addFile(OutputStream outputStream, String absolutePath) throws IOException {
-        if (absolutePath == null || outputStream == null) {
-            BacktraceLogger.w(LOG_TAG, "Absolute path or output stream is null");
-            return;
+    private static long addFile(OutputStream outputStream, String absolutePath, long limit, ByteBuffer buffer)
+            throws IOException {
+        if (absolutePath == null) {
+            BacktraceLogger.w(LOG_TAG, "Absolute path is null");
+            return 0;
         }
 
-        String fileContentType = URLConnection.guessContentTypeFromName(FileHelper.getFileNameFromPath(absolutePath));
-
-        outputStream.write(
-                (MultiFormRequestHelper.TWO_HYPHENS + MultiFormRequestHelper.BOUNDARY + MultiFormRequestHelper.CRLF)
-                        .getBytes());
-        outputStream.write(
-                (MultiFormRequestHelper.getFileInfo("attachment_" + FileHelper.getFileNameFromPath(absolutePath)))
-                        .getBytes());
-        outputStream.write(("Content-Type: " + fileContentType + MultiFormRequestHelper.CRLF).getBytes());
-        outputStream.write((MultiFormRequestHelper.CRLF).getBytes());
-        streamFile(outputStream, absolutePath);
-        outputStream.write((MultiFormRequestHelper.CRLF).getBytes());
+        final String fileName = FileHelper.getFileNameFromPath(absolutePath);
+        final String fileContentType = URLConnection.guessContentTypeFromName(fileName);
+
+        final FileInputStream fileInputStream;
+        try {
+            fileInputStream = new FileInputStream(absolutePath);
+        } catch (IOException e) {
+            BacktraceLogger.w(LOG_TAG, "Cannot open attachment " + absolutePath + ": " + e.getMessage());
+            return 0;
+        }
+
+        try (FileChannel channel = fileInputStream.getChannel()) {
+            final long size = channel.size();
+            long position = 0;
+            long count = size;
+            if (size > limit) {
+                if (!isTruncatable(fileName, fileContentType)) {
+                    BacktraceLogger.w(LOG_TAG, "Attachment " + absolutePath + " exceeds the size limit, skipping");
+                    return 0;
+                }
+                BacktraceLogger.d(LOG_TAG, "Attachment " + absolutePath + " exceeds the size limit, sending its end");
+                BacktraceTelemetry.REPORT_ATTACHMENTS_TRUNCATED.increment();
+                position = size - limit;
+                count = limit;
+                final long skipped = getPartialLineLength(channel, position, count, buffer);
+                position += skipped;
+                count -= skipped;
+            }
+
+            outputStream.write(BOUNDARY_LINE_BYTES);
+            outputStream.write(getAttachmentHeader(fileName, fileContentType));
+            final long written = transfer(channel, position, count, outputStream, buffer);
+            outputStream.write(CRLF_BYTES);
+            return written;
+        }
     }
 
     /***
@@ -129,14 +197,93 @@ public class MultiFormRequestHelper {
             BacktraceLogger.w(LOG_TAG, "Absolute path or output stream is null");
             return;
         }
-        FileInputStream fis = new FileInputStream(absolutePath);
-        byte[] b = new byte[4096];
-        int c;
-        while ((c = fis.read(b)) != -1) {
-            outputStream.write(b, 0, c);
+        final ByteBuffer buffer = acquireBuffer();
+        try (FileInputStream fileInputStream = new FileInputStream(absolutePath);
+                FileChannel channel = fileInputStream.getChannel()) {
+            transfer(channel, 0, channel.size(), outputStream, buffer);
+        } finally {
+            releaseBuffer(buffer);
         }
     }
 
+    /***
+     * Get length of the partial line at the start of a truncated file part, so the part starts with
+     * a whole line. Only the first buffer is searched - if it holds no line break, nothing is skipped
+     * @return number of bytes to skip
+     */
+    private static long getPartialLineLength(FileChannel channel, long position, long count, ByteBuffer buffer)
+            throws IOException {
+        // the byte before the part is included, so a part that already starts a line isn't shortened
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), count + 1));
+        final int read = channel.read(buffer, position - 1);
+        final byte[] data = buffer.array();
+        for (int index = 0; index < read - 1; index++) {
+            if (data[index] == '\n') {
+                return index;
+            }
+        }
+        return 0;
+    }
+
+    /***
+     * Copy a part of a file to output data stream. Stops early if the file is truncated while it's copied
+     * @return number of bytes written
+     */
+    private static long transfer(
+            FileChannel channel, long position, long count, OutputStream outputStream, ByteBuffer buffer)
+            throws IOException {
+        long written = 0;
+        while (written < count) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), count - written));
+            final int read = channel.read(buffer, position + written);
+            if (read <= 0) {
+                break;
+            }
+            outputStream.write(buffer.array(), 0, read);
+            written += read;
+        }
+        return written;
+    }
+
+    /***
+     * Check if a file can be truncated to its end - text files and files without an extension, like logs
+     */
+    private static boolean isTruncatable(String fileName, String contentType) {
+        if (contentType != null) {
+            return contentType.startsWith("text/");
+        }
+        return fileName.endsWith(".log") || fileName.indexOf('.') == -1;
+    }
+
+    private static ByteBuffer acquireBuffer() {
+        final ByteBuffer buffer = bufferPool.getAndSet(null);
+        // the destination is a stream which takes arrays, so a heap buffer avoids an extra copy
+        return buffer != null ? buffer : ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        bufferPool.set(buffer);
+    }
+
+    /***
+     * Get attachment part headers
+     * @param fileName filename with extension
+     * @param contentType file content type
+     * @return encoded headers ending with an empty line
+     */
+    private static byte[] getAttachmentHeader(String fileName, String contentType) {
+        return new StringBuilder(160)
+                .append(getFileInfo("attachment_" + fileName))
+                .append("Content-Type: ")
+                .append(contentType)
+                .append(CRLF)
+                .append(CRLF)
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
     /***
      * Get string with information about file like content-disposition, name and filename
      * @param fileName filename with extension
@@ -0,0 +1,201 @@
+package backtraceio.library.common;
+
+import java.util.List;
+
+/**
+ * Hashed timing wheel. Every deadline is rounded up to a tick and stored in the slot of that tick,
+ * so all deadlines within the same tick expire together. Adding and removing an entry is O(1) and
+ * advancing the wheel costs O(ticks passed + entries expired).
+ * <p>
+ * The wheel isn't thread safe - callers have to synchronize access.
+ * </p>
+ *
+ * @param <T> type of the scheduled items
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final Entry<T>[] slots;
+
+    private final int mask;
+
+    /**
+     * Last tick processed by {@link #advance(long, List)}
+     */
+    private long currentTick;
+
+    private int size = 0;
+
+    /**
+     * Create a new timing wheel
+     *
+     * @param tickMillis  duration of a single tick in milliseconds
+     * @param slotsCount  number of slots, rounded up to a power of 2
+     * @param startMillis current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int slotsCount, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be greater than zero");
+        }
+        if (slotsCount <= 0 || slotsCount > (1 << 30)) {
+            throw new IllegalArgumentException("Number of slots is out of range");
+        }
+        int normalizedSlotsCount = Integer.highestOneBit(slotsCount);
+        if (normalizedSlotsCount < slotsCount) {
+            normalizedSlotsCount <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.slots = (Entry<T>[]) new Entry<?>[normalizedSlotsCount];
+        this.mask = normalizedSlotsCount - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * @return number of entries in the wheel
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add an item which expires at the deadline. Deadlines in the past expire on the next advance.
+     *
+     * @param item           scheduled item
+     * @param deadlineMillis deadline in milliseconds
+     * @return entry which can be used to remove the item
+     */
+    public Entry<T> add(T item, long deadlineMillis) {
+        // round up - an entry never expires before its deadline
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Entry<T> entry = new Entry<>(item, deadlineTick);
+        int index = (int) (deadlineTick & mask);
+        entry.next = slots[index];
+        if (entry.next != null) {
+            entry.next.previous = entry;
+        }
+        slots[index] = entry;
+        entry.wheel = this;
+        size++;
+        return entry;
+    }
+
+    /**
+     * Remove an entry from the wheel
+     *
+     * @param entry entry returned by {@link #add(Object, long)}
+     * @return true if the entry was still scheduled
+     */
+    public boolean remove(Entry<T> entry) {
+        if (entry == null || entry.wheel != this) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Move the wheel to the current time and collect all expired items
+     *
+     * @param nowMillis current time in milliseconds
+     * @param expired   list to which expired items are added
+     */
+    public void advance(long nowMillis, List<T> expired) {
+        final long nowTick = nowMillis / tickMillis;
+        if (nowTick <= currentTick) {
+            return;
+        }
+        // every slot has to be visited at most once, even if more ticks than slots passed
+        final long lastTick = Math.min(nowTick, currentTick + slots.length);
+        for (long tick = currentTick + 1; tick <= lastTick && size > 0; tick++) {
+            Entry<T> entry = slots[(int) (tick & mask)];
+            while (entry != null) {
+                Entry<T> next = entry.next;
+                if (entry.deadlineTick <= nowTick) {
+                    unlink(entry);
+                    expired.add(entry.item);
+                }
+                entry = next;
+            }
+        }
+        currentTick = nowTick;
+    }
+
+    /**
+     * @return the earliest deadline in milliseconds rounded to the tick, or -1 if the wheel is empty
+     */
+    public long nextDeadline() {
+        if (size == 0) {
+            return -1;
+        }
+        for (long tick = currentTick + 1; tick <= currentTick + slots.length; tick++) {
+            for (Entry<T> entry = slots[(int) (tick & mask)]; entry != null; entry = entry.next) {
+                if (entry.deadlineTick == tick) {
+                    return tick * tickMillis;
+                }
+            }
+        }
+        // all deadlines are further than one rotation
+        long earliestTick = Long.MAX_VALUE;
+        for (Entry<T> slot : slots) {
+            for (Entry<T> entry = slot; entry != null; entry = entry.next) {
+                earliestTick = Math.min(earliestTick, entry.deadlineTick);
+            }
+        }
+        return earliestTick * tickMillis;
+    }
+
+    private void unlink(Entry<T> entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            slots[(int) (entry.deadlineTick & mask)] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.next = null;
+        entry.previous = null;
+        entry.wheel = null;
+        size--;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        long result = value / divisor;
+        return result * divisor == value ? result : result + 1;
+    }
+
+    /**
+     * Item scheduled in the timing wheel
+     *
+     * @param <T> type of the scheduled item
+     */
+    public static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Entry<T> next;
+        private Entry<T> previous;
+        private TimingWheel<T> wheel;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * @return true if the entry is still waiting in the wheel
+         */
+        public boolean isScheduled() {
+            return wheel != null;
+        }
+    }
+}
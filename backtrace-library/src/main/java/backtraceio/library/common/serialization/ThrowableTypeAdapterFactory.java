@@ -37,7 +37,7 @@ public class ThrowableTypeAdapterFactory implements TypeAdapterFactory {
 
         final Class<? super T> rawType = typeToken.getRawType();
         if (!Throwable.class.isAssignableFrom(rawType)) {
-            BacktraceLogger.d(LOG_TAG, "ThrowableTypeAdapterFactory doesn't handle " + rawType.getName() + " type");
+            BacktraceLogger.d(LOG_TAG, "ThrowableTypeAdapterFactory doesn't handle %s type", rawType.getName());
             return null;
         }
 
@@ -117,9 +117,8 @@ public class ThrowableTypeAdapterFactory implements TypeAdapterFactory {
                 if (instance == null) {
                     BacktraceLogger.w(
                             LOG_TAG,
-                            String.format(
-                                    "Could not instantiate specific Throwable type '%s'. Falling back by returning null.",
-                                    throwableClassToInstantiate.getName()));
+                            "Could not instantiate specific Throwable type '%s'. Falling back by returning null.",
+                            throwableClassToInstantiate.getName());
                     return null;
                 }
 
@@ -153,9 +152,9 @@ public class ThrowableTypeAdapterFactory implements TypeAdapterFactory {
                     } catch (ClassNotFoundException ignored) {
                         BacktraceLogger.d(
                                 LOG_TAG,
-                                "Class " + actualClassName
-                                        + " not found, will fall back to using rawType (the type requested from Gson): "
-                                        + rawType.getSimpleName());
+                                "Class %s not found, will fall back to using rawType (the type requested from Gson): %s",
+                                actualClassName,
+                                rawType.getSimpleName());
                     }
                 }
                 return throwableClassToInstantiate;
@@ -182,18 +181,24 @@ public class ThrowableTypeAdapterFactory implements TypeAdapterFactory {
                             try {
                                 instance.initCause(cause);
                             } catch (Exception e) {
-                                BacktraceLogger.d(
-                                        LOG_TAG,
-                                        "Could not initCause for " + exceptionClass.getName()
-                                                + " after constructor with args: " + Arrays.toString(spec.paramTypes));
+                                if (BacktraceLogger.isDebugEnabled()) {
+                                    BacktraceLogger.d(
+                                            LOG_TAG,
+                                            "Could not initCause for " + exceptionClass.getName()
+                                                    + " after constructor with args: "
+                                                    + Arrays.toString(spec.paramTypes));
+                                }
                             }
                         }
                         return instance;
                     } catch (Exception e) {
-                        BacktraceLogger.d(
-                                LOG_TAG,
-                                "Failed to instantiate " + exceptionClass.getName() + " with constructor with args: "
-                                        + Arrays.toString(spec.paramTypes) + ", error message: " + e);
+                        if (BacktraceLogger.isDebugEnabled()) {
+                            BacktraceLogger.d(
+                                    LOG_TAG,
+                                    "Failed to instantiate " + exceptionClass.getName()
+                                            + " with constructor with args: " + Arrays.toString(spec.paramTypes)
+                                            + ", error message: " + e);
+                        }
                     }
                 }
 
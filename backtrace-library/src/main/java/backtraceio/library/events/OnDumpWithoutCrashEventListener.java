@@ -0,0 +1,15 @@
+package backtraceio.library.events;
+
+import backtraceio.library.models.nativeHandler.DumpWithoutCrashResult;
+
+/**
+ * Interface definition for a callback to be invoked when an asynchronous dump without crash completes
+ */
+public interface OnDumpWithoutCrashEventListener {
+    /**
+     * Event which will be executed on the dump worker thread after the dump completes
+     *
+     * @param result result of the dump
+     */
+    void onEvent(DumpWithoutCrashResult result);
+}
@@ -0,0 +1,16 @@
+package backtraceio.library.events;
+
+import backtraceio.library.watchdog.BacktraceSlowMessage;
+
+/**
+ * Interface definition for a callback to be invoked when a message dispatched on the main looper
+ * takes longer than the configured threshold
+ */
+public interface OnSlowMessageEventListener {
+    /**
+     * Event which will be executed on the main thread after a slow message is dispatched
+     *
+     * @param message information about the slow message
+     */
+    void onEvent(BacktraceSlowMessage message);
+}
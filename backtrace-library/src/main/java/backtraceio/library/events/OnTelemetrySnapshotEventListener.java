@@ -0,0 +1,15 @@
+package backtraceio.library.events;
+
+import backtraceio.library.telemetry.TelemetrySnapshot;
+
+/**
+ * Interface definition for a callback to be invoked periodically with values of the SDK telemetry
+ */
+public interface OnTelemetrySnapshotEventListener {
+    /**
+     * Event which will be executed when a new telemetry snapshot is taken
+     *
+     * @param snapshot values of all telemetry metrics
+     */
+    void onEvent(TelemetrySnapshot snapshot);
+}
@@ -6,6 +6,7 @@ import backtraceio.library.events.OnServerErrorEventListener;
 import backtraceio.library.events.OnServerResponseEventListener;
 import backtraceio.library.events.RequestHandler;
 import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.BacktraceExecutionSettings;
 import backtraceio.library.models.metrics.SummedEventsPayload;
 import backtraceio.library.models.metrics.UniqueEventsPayload;
 import backtraceio.library.services.BacktraceMetrics;
@@ -94,4 +95,24 @@ public interface Api {
      * @param callback The custom event to trigger on an API response for a unique events request
      */
     void setSummedEventsOnServerResponse(EventsOnServerResponseEventListener callback);
+
+    /**
+     * Change priorities of the execution lanes used to send reports, metrics and execute callbacks
+     *
+     * @param executionSettings execution lanes configuration
+     */
+    default void setExecutionSettings(BacktraceExecutionSettings executionSettings) {}
+
+    /**
+     * Limit the size of attachments uploaded with a report
+     *
+     * @param maxAttachmentSize       maximum size of a single attachment in bytes, 0 if unlimited
+     * @param maxTotalAttachmentsSize maximum size of all attachments of a report in bytes, 0 if unlimited
+     */
+    default void setAttachmentSizeLimits(long maxAttachmentSize, long maxTotalAttachmentsSize) {}
+
+    /**
+     * Stop sending events and release the runtime shared with other Backtrace clients
+     */
+    default void close() {}
 }
@@ -6,6 +6,7 @@ import backtraceio.library.enums.UnwindingMode;
 import backtraceio.library.models.database.BacktraceDatabaseRecord;
 import backtraceio.library.models.database.BacktraceDatabaseSettings;
 import backtraceio.library.models.json.BacktraceReport;
+import java.util.List;
 import java.util.Map;
 
 public interface Database {
@@ -14,6 +15,11 @@ public interface Database {
      */
     void start();
 
+    /**
+     * Stop all database tasks and release resources shared with other Backtrace clients
+     */
+    default void close() {}
+
     /**
      * Send all reports stored in BacktraceDatabase and clean database
      */
@@ -133,6 +139,23 @@ public interface Database {
      */
     Boolean addNativeAttribute(String key, Object value);
 
+    /**
+     * If the native integration is enabled, adds attributes with primitive type values to the
+     * native integration at once.
+     * @param attributes attributes to add
+     * @return true, if attributes were passed to the native integration. Otherwise false.
+     */
+    default Boolean addNativeAttributes(Map<String, Object> attributes) {
+        if (attributes == null) {
+            return false;
+        }
+        boolean result = false;
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            result |= addNativeAttribute(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
     /**
      * If the native integration is enabled then adds a file attachment to be included
      * with native crash reports.
@@ -140,4 +163,21 @@ public interface Database {
      * @return whether the attachment was added to the native report or not.
      */
     Boolean addNativeAttachment(String attachmentPath);
+
+    /**
+     * If the native integration is enabled then adds file attachments to be included
+     * with native crash reports at once.
+     * @param attachmentPaths the file paths to attach to native reports.
+     * @return whether the attachments were added to the native report or not.
+     */
+    default Boolean addNativeAttachments(List<String> attachmentPaths) {
+        if (attachmentPaths == null) {
+            return false;
+        }
+        boolean result = false;
+        for (String attachmentPath : attachmentPaths) {
+            result |= addNativeAttachment(attachmentPath);
+        }
+        return result;
+    }
 }
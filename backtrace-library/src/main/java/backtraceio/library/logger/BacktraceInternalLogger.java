@@ -41,6 +41,11 @@ public class BacktraceInternalLogger implements Logger {
         this.logLevel = level.ordinal();
     }
 
+    @Override
+    public boolean isLoggable(LogLevel level) {
+        return level != LogLevel.OFF && this.logLevel <= level.ordinal();
+    }
+
     /**
      * @param tag     source of logs, usually identifies the class or activity
      * @param message text information which should be logged
@@ -31,6 +31,24 @@ public class BacktraceLogger {
         BacktraceLogger.logger = logger;
     }
 
+    /**
+     * Check if debug messages are logged. Use it to guard building of expensive debug messages
+     *
+     * @return true if debug messages are logged
+     */
+    public static boolean isDebugEnabled() {
+        return logger.isLoggable(LogLevel.DEBUG);
+    }
+
+    /**
+     * Check if warning messages are logged
+     *
+     * @return true if warning messages are logged
+     */
+    public static boolean isWarnEnabled() {
+        return logger.isLoggable(LogLevel.WARN);
+    }
+
     /**
      * @param tag     source of logs, usually identifies the class or activity
      * @param message text information which should be logged
@@ -40,6 +58,53 @@ public class BacktraceLogger {
         return logger.d(tag, message);
     }
 
+    /**
+     * Log a debug message built only if debug messages are logged
+     *
+     * @param tag     source of logs, usually identifies the class or activity
+     * @param message supplier of text information which should be logged
+     * @return the number of bytes written
+     */
+    public static int d(String tag, LogMessageSupplier message) {
+        if (!isDebugEnabled()) {
+            return 0;
+        }
+        return logger.d(tag, message.get());
+    }
+
+    /**
+     * Log a debug message formatted only if debug messages are logged. Primitive arguments are boxed
+     * before the level is checked - use {@link #d(String, LogMessageSupplier)} for them
+     *
+     * @param tag    source of logs, usually identifies the class or activity
+     * @param format message format, see {@link String#format(String, Object...)}
+     * @param arg    format argument
+     * @return the number of bytes written
+     */
+    public static int d(String tag, String format, Object arg) {
+        if (!isDebugEnabled()) {
+            return 0;
+        }
+        return logger.d(tag, String.format(format, arg));
+    }
+
+    /**
+     * Log a debug message formatted only if debug messages are logged. Primitive arguments are boxed
+     * before the level is checked - use {@link #d(String, LogMessageSupplier)} for them
+     *
+     * @param tag    source of logs, usually identifies the class or activity
+     * @param format message format, see {@link String#format(String, Object...)}
+     * @param arg1   first format argument
+     * @param arg2   second format argument
+     * @return the number of bytes written
+     */
+    public static int d(String tag, String format, Object arg1, Object arg2) {
+        if (!isDebugEnabled()) {
+            return 0;
+        }
+        return logger.d(tag, String.format(format, arg1, arg2));
+    }
+
     /**
      * Log messages that suggest something unexpected or rare has happened, which isn't an error.
      *
@@ -51,6 +116,36 @@ public class BacktraceLogger {
         return logger.w(tag, message);
     }
 
+    /**
+     * Log a warning built only if warnings are logged
+     *
+     * @param tag     source of logs, usually identifies the class or activity
+     * @param message supplier of text information which should be logged
+     * @return the number of bytes written
+     */
+    public static int w(String tag, LogMessageSupplier message) {
+        if (!isWarnEnabled()) {
+            return 0;
+        }
+        return logger.w(tag, message.get());
+    }
+
+    /**
+     * Log a warning formatted only if warnings are logged. Primitive arguments are boxed before the
+     * level is checked - use {@link #w(String, LogMessageSupplier)} for them
+     *
+     * @param tag    source of logs, usually identifies the class or activity
+     * @param format message format, see {@link String#format(String, Object...)}
+     * @param arg    format argument
+     * @return the number of bytes written
+     */
+    public static int w(String tag, String format, Object arg) {
+        if (!isWarnEnabled()) {
+            return 0;
+        }
+        return logger.w(tag, String.format(format, arg));
+    }
+
     /**
      * Log messages that suggest error or something that should not happen
      *
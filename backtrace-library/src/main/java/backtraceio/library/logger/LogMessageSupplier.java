@@ -0,0 +1,13 @@
+package backtraceio.library.logger;
+
+/**
+ * Deferred log message. The message is built only if it's going to be logged, so building it costs
+ * nothing when the log level is disabled. Prefer lambdas which don't capture variables - they don't
+ * allocate either.
+ */
+public interface LogMessageSupplier {
+    /**
+     * @return message which should be logged
+     */
+    String get();
+}
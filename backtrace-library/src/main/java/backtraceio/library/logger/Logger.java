@@ -16,4 +16,16 @@ public interface Logger {
     int e(String tag, String message);
 
     int e(String tag, String message, Throwable tr);
+
+    /**
+     * Check if messages of the level are logged. The library uses it to skip building messages which
+     * would be discarded anyway. By default all levels are reported as loggable, so implementations
+     * which don't override this method receive every message.
+     *
+     * @param level log level
+     * @return true if messages of the level are logged
+     */
+    default boolean isLoggable(LogLevel level) {
+        return true;
+    }
 }
@@ -7,4 +7,10 @@ public class BacktraceAttributeConsts {
     public static final String HandledExceptionAttributeType = "Exception";
     public static final String MessageAttributeType = "Message";
     public static final String AnrAttributeType = "Hang";
+    public static final String AnrStallDuration = "anr.stall_duration_ms";
+    public static final String AnrStallProfile = "ANR stall profile";
+    public static final String DuplicateCount = "_mod_duplicate";
+    public static final String DuplicateFirstSeen = "duplicate.first_seen";
+    public static final String DuplicateLastSeen = "duplicate.last_seen";
+    public static final String RateLimitSuppressed = "rate_limit.suppressed";
 }
@@ -11,6 +11,7 @@ import backtraceio.library.models.json.SourceCode;
 import backtraceio.library.models.json.SourceCodeData;
 import backtraceio.library.models.json.ThreadData;
 import backtraceio.library.models.json.ThreadInformation;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.util.List;
 import java.util.Map;
 
@@ -300,8 +301,10 @@ public class BacktraceData {
         private Builder setDefaultThreadsInformation() {
             BacktraceLogger.d(LOG_TAG, "Setting threads information");
 
+            final long captureStart = BacktraceTelemetry.startTimer();
             ThreadData threadData = new ThreadData(report.diagnosticStack);
             SourceCodeData sourceCodeData = new SourceCodeData(report.diagnosticStack);
+            BacktraceTelemetry.THREADS_CAPTURE_TIME.recordElapsed(captureStart);
 
             this.mainThread = threadData.getMainThread();
             this.threadInformationMap = threadData.threadInformation;
@@ -311,7 +314,9 @@ public class BacktraceData {
 
         public Builder setAttributes(Context context, Map<String, Object> clientAttributes) {
             BacktraceLogger.d(LOG_TAG, "Setting attributes");
+            final long collectionStart = BacktraceTelemetry.startTimer();
             BacktraceAttributes backtraceAttributes = new BacktraceAttributes(context, this.report, clientAttributes);
+            BacktraceTelemetry.ATTRIBUTES_COLLECTION_TIME.recordElapsed(collectionStart);
             this.attributes = backtraceAttributes.attributes;
 
             setAnnotations(backtraceAttributes.getComplexAttributes());
@@ -0,0 +1,99 @@
+package backtraceio.library.models;
+
+/**
+ * Configuration settings for client-side report deduplication.
+ * Reports with the same fingerprint (classifier and top stack frames) received within the aggregation
+ * window are merged into one representative report that carries the number of occurrences.
+ */
+public class BacktraceDeduplicationSettings {
+    /**
+     * Default aggregation window in milliseconds
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = 60 * 1000;
+
+    /**
+     * Default number of top stack frames used to compute the report fingerprint
+     */
+    public static final int DEFAULT_STACK_FRAMES = 5;
+
+    /**
+     * Default maximum number of fingerprints kept in memory
+     */
+    public static final int DEFAULT_MAX_FINGERPRINTS = 256;
+
+    /**
+     * Time in milliseconds during which duplicated reports are aggregated
+     */
+    private final long windowMillis;
+
+    /**
+     * Number of top stack frames used to compute the report fingerprint
+     */
+    private final int stackFrames;
+
+    /**
+     * Maximum number of fingerprints kept in memory. When the limit is reached, the least recently
+     * seen fingerprint is evicted.
+     */
+    private final int maxFingerprints;
+
+    /**
+     * Default constructor.
+     * Initializes deduplication settings with default values.
+     */
+    public BacktraceDeduplicationSettings() {
+        this(DEFAULT_WINDOW_MILLIS);
+    }
+
+    /**
+     * Constructs deduplication settings with a custom aggregation window.
+     *
+     * @param windowMillis time in milliseconds during which duplicated reports are aggregated
+     */
+    public BacktraceDeduplicationSettings(long windowMillis) {
+        this(windowMillis, DEFAULT_STACK_FRAMES, DEFAULT_MAX_FINGERPRINTS);
+    }
+
+    /**
+     * Constructs deduplication settings with specified parameters.
+     *
+     * @param windowMillis    time in milliseconds during which duplicated reports are aggregated
+     * @param stackFrames     number of top stack frames used to compute the report fingerprint
+     * @param maxFingerprints maximum number of fingerprints kept in memory
+     */
+    public BacktraceDeduplicationSettings(long windowMillis, int stackFrames, int maxFingerprints) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Deduplication window must be greater than zero");
+        }
+        if (stackFrames < 0) {
+            throw new IllegalArgumentException("Number of stack frames can't be negative");
+        }
+        if (maxFingerprints <= 0) {
+            throw new IllegalArgumentException("Maximum number of fingerprints must be greater than zero");
+        }
+        this.windowMillis = windowMillis;
+        this.stackFrames = stackFrames;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    /**
+     * @return aggregation window in milliseconds
+     */
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * @return number of top stack frames used to compute the report fingerprint
+     */
+    public int getStackFrames() {
+        return stackFrames;
+    }
+
+    /**
+     * @return maximum number of fingerprints kept in memory
+     */
+    public int getMaxFingerprints() {
+        return maxFingerprints;
+    }
+}
@@ -1,18 +1,35 @@
 package backtraceio.library.models;
 
 import backtraceio.library.BacktraceClient;
-import backtraceio.library.events.OnServerResponseEventListener;
 import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.services.BacktraceEmergencyReporter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Backtrace UncaughtExceptionHandler which will be invoked when a Thread abruptly terminates due
- * to an uncaught exception
+ * to an uncaught exception.
+ * <p>
+ * Crash handling takes a bounded time - the report is stored in the Backtrace database on the
+ * crashing thread, the upload is awaited only for the rest of the timeout and the root handler is
+ * always called afterwards on the crashing thread. Reports which weren't sent are stored in the
+ * database and sent on the next application start.
+ * </p>
+ * <p>
+ * If emergency reporting is enabled, out of memory errors are written by the emergency reporter
+ * without building a regular report.
+ * </p>
  */
 public class BacktraceExceptionHandler implements Thread.UncaughtExceptionHandler {
 
+    /**
+     * Default time in milliseconds the crashing thread spends reporting an uncaught exception before
+     * the root handler is called
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+
     private static final String LOG_TAG = BacktraceExceptionHandler.class.getSimpleName();
     private static final Map<String, Object> customAttributes = new HashMap<String, Object>() {
         {
@@ -20,12 +37,20 @@ public class BacktraceExceptionHandler implements Thread.UncaughtExceptionHandle
         }
     };
     private final Thread.UncaughtExceptionHandler rootHandler;
-    private final CountDownLatch signal = new CountDownLatch(1);
     private final BacktraceClient client;
+    private final long timeoutMillis;
 
     private BacktraceExceptionHandler(BacktraceClient client) {
+        this(client, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    private BacktraceExceptionHandler(BacktraceClient client, long timeoutMillis) {
         BacktraceLogger.d(LOG_TAG, "BacktraceExceptionHandler initialization");
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout cannot be negative");
+        }
         this.client = client;
+        this.timeoutMillis = timeoutMillis;
         rootHandler = Thread.getDefaultUncaughtExceptionHandler();
         Thread.setDefaultUncaughtExceptionHandler(this);
     }
@@ -44,6 +69,18 @@ public class BacktraceExceptionHandler implements Thread.UncaughtExceptionHandle
         new BacktraceExceptionHandler(client);
     }
 
+    /**
+     * Enable catching unexpected exceptions by BacktraceClient
+     *
+     * @param client        current Backtrace client instance
+     *                      which will be used to send information about exception
+     * @param timeoutMillis maximum time in milliseconds spent reporting an uncaught exception before
+     *                      the root handler is called
+     */
+    public static void enable(BacktraceClient client, long timeoutMillis) {
+        new BacktraceExceptionHandler(client, timeoutMillis);
+    }
+
     /**
      * Called when a thread stops because of an uncaught exception
      *
@@ -52,27 +89,52 @@ public class BacktraceExceptionHandler implements Thread.UncaughtExceptionHandle
      */
     @Override
     public void uncaughtException(final Thread thread, final Throwable throwable) {
-        OnServerResponseEventListener callback = getCallbackToDefaultHandler(thread, throwable);
-
-        BacktraceLogger.e(LOG_TAG, "Sending uncaught exception to Backtrace API", throwable);
+        if (BacktraceEmergencyReporter.isOutOfMemory(throwable) && writeEmergencyReport(thread, throwable)) {
+            callRootHandler(thread, throwable);
+            return;
+        }
 
-        this.client.send(throwable, customAttributes, callback);
+        final long start = System.nanoTime();
+        final CountDownLatch signal = new CountDownLatch(1);
 
-        BacktraceLogger.d(LOG_TAG, "Uncaught exception sent to Backtrace API");
+        BacktraceLogger.e(LOG_TAG, "Sending uncaught exception to Backtrace API", throwable);
 
         try {
-            BacktraceLogger.d(LOG_TAG, "Default uncaught exception handler");
-            signal.await();
+            // the report is stored in the database synchronously, only the upload is asynchronous
+            this.client.send(throwable, customAttributes, backtraceResult -> signal.countDown());
+            BacktraceLogger.d(LOG_TAG, "Uncaught exception sent to Backtrace API");
+
+            final long remainingMillis = timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (remainingMillis > 0 && !signal.await(remainingMillis, TimeUnit.MILLISECONDS)) {
+                BacktraceLogger.w(
+                        LOG_TAG, "Uncaught exception wasn't uploaded in time, it will be sent on the next start");
+            }
+        } catch (InterruptedException ex) {
+            BacktraceLogger.e(LOG_TAG, "Interrupted during waiting for response", ex);
+            Thread.currentThread().interrupt();
         } catch (Exception ex) {
-            BacktraceLogger.e(LOG_TAG, "Exception during waiting for response", ex);
+            BacktraceLogger.e(LOG_TAG, "Exception during sending uncaught exception", ex);
+        } finally {
+            callRootHandler(thread, throwable);
         }
     }
 
-    private OnServerResponseEventListener getCallbackToDefaultHandler(final Thread thread, final Throwable throwable) {
-        return backtraceResult -> {
-            BacktraceLogger.d(LOG_TAG, "Root handler event callback");
-            rootHandler.uncaughtException(thread, throwable);
-            signal.countDown();
-        };
+    /**
+     * Write a minimal report of an out of memory error, which is sent on the next application start.
+     * A regular report would most likely fail to allocate memory
+     *
+     * @return true if the report was written
+     */
+    private boolean writeEmergencyReport(final Thread thread, final Throwable throwable) {
+        final BacktraceEmergencyReporter reporter = this.client.getEmergencyReporter();
+        return reporter != null && reporter.report(thread, throwable);
+    }
+
+    private void callRootHandler(final Thread thread, final Throwable throwable) {
+        if (rootHandler == null) {
+            return;
+        }
+        BacktraceLogger.d(LOG_TAG, "Default uncaught exception handler");
+        rootHandler.uncaughtException(thread, throwable);
     }
 }
@@ -0,0 +1,98 @@
+package backtraceio.library.models;
+
+import android.os.Process;
+
+/**
+ * Configuration of the execution lanes used by the Backtrace library.
+ * Every lane is a separate thread, so a slow upload or a slow user callback doesn't block other work.
+ * Lane priorities use {@link android.os.Process} thread priority values - lower value means higher priority.
+ */
+public class BacktraceExecutionSettings {
+    /**
+     * Default priority of the lane sending unhandled exception, crash and ANR reports
+     */
+    public static final int DEFAULT_FATAL_REPORTS_PRIORITY = Process.THREAD_PRIORITY_DEFAULT;
+
+    /**
+     * Default priority of the lane sending handled exception and message reports
+     */
+    public static final int DEFAULT_REPORTS_PRIORITY = Process.THREAD_PRIORITY_BACKGROUND;
+
+    /**
+     * Default priority of the lane sending metrics
+     */
+    public static final int DEFAULT_METRICS_PRIORITY =
+            Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_LESS_FAVORABLE;
+
+    /**
+     * Default priority of the lane executing user callbacks
+     */
+    public static final int DEFAULT_CALLBACKS_PRIORITY = Process.THREAD_PRIORITY_BACKGROUND;
+
+    private int fatalReportsPriority = DEFAULT_FATAL_REPORTS_PRIORITY;
+
+    private int reportsPriority = DEFAULT_REPORTS_PRIORITY;
+
+    private int metricsPriority = DEFAULT_METRICS_PRIORITY;
+
+    private int callbacksPriority = DEFAULT_CALLBACKS_PRIORITY;
+
+    public int getFatalReportsPriority() {
+        return fatalReportsPriority;
+    }
+
+    /**
+     * Set priority of the lane sending unhandled exception, crash and ANR reports
+     *
+     * @param fatalReportsPriority thread priority
+     */
+    public void setFatalReportsPriority(int fatalReportsPriority) {
+        this.fatalReportsPriority = validatePriority(fatalReportsPriority);
+    }
+
+    public int getReportsPriority() {
+        return reportsPriority;
+    }
+
+    /**
+     * Set priority of the lane sending handled exception and message reports
+     *
+     * @param reportsPriority thread priority
+     */
+    public void setReportsPriority(int reportsPriority) {
+        this.reportsPriority = validatePriority(reportsPriority);
+    }
+
+    public int getMetricsPriority() {
+        return metricsPriority;
+    }
+
+    /**
+     * Set priority of the lane sending unique and summed events
+     *
+     * @param metricsPriority thread priority
+     */
+    public void setMetricsPriority(int metricsPriority) {
+        this.metricsPriority = validatePriority(metricsPriority);
+    }
+
+    public int getCallbacksPriority() {
+        return callbacksPriority;
+    }
+
+    /**
+     * Set priority of the lane executing server response callbacks
+     *
+     * @param callbacksPriority thread priority
+     */
+    public void setCallbacksPriority(int callbacksPriority) {
+        this.callbacksPriority = validatePriority(callbacksPriority);
+    }
+
+    private static int validatePriority(int priority) {
+        if (priority < Process.THREAD_PRIORITY_URGENT_AUDIO || priority > Process.THREAD_PRIORITY_LOWEST) {
+            throw new IllegalArgumentException("Thread priority is out of range");
+        }
+        return priority;
+    }
+}
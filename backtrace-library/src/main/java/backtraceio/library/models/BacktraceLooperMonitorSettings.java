@@ -0,0 +1,68 @@
+package backtraceio.library.models;
+
+/**
+ * Configuration settings for the main looper dispatch monitor
+ */
+public class BacktraceLooperMonitorSettings {
+    /**
+     * Default time in milliseconds after which a dispatched message is reported as slow
+     */
+    public static final long DEFAULT_SLOW_MESSAGE_THRESHOLD_MILLIS = 100;
+
+    /**
+     * Summed event name used when slow messages are sent to Backtrace
+     */
+    public static final String SUMMED_EVENT_NAME = "Slow main thread message";
+
+    /**
+     * Time in milliseconds after which a dispatched message is reported as slow
+     */
+    private final long slowMessageThresholdMillis;
+
+    /**
+     * Add a breadcrumb for every slow message
+     */
+    private final boolean reportAsBreadcrumbs;
+
+    /**
+     * Send every slow message as a summed event, requires metrics to be enabled
+     */
+    private final boolean reportAsSummedEvents;
+
+    /**
+     * Default constructor.
+     * Initializes looper monitor settings with default values - slow messages are reported as breadcrumbs.
+     */
+    public BacktraceLooperMonitorSettings() {
+        this(DEFAULT_SLOW_MESSAGE_THRESHOLD_MILLIS, true, false);
+    }
+
+    /**
+     * Constructs looper monitor settings with specified parameters.
+     *
+     * @param slowMessageThresholdMillis time in milliseconds after which a message is reported as slow
+     * @param reportAsBreadcrumbs        add a breadcrumb for every slow message
+     * @param reportAsSummedEvents       send every slow message as a summed event
+     */
+    public BacktraceLooperMonitorSettings(
+            long slowMessageThresholdMillis, boolean reportAsBreadcrumbs, boolean reportAsSummedEvents) {
+        if (slowMessageThresholdMillis <= 0) {
+            throw new IllegalArgumentException("Slow message threshold must be greater than 0");
+        }
+        this.slowMessageThresholdMillis = slowMessageThresholdMillis;
+        this.reportAsBreadcrumbs = reportAsBreadcrumbs;
+        this.reportAsSummedEvents = reportAsSummedEvents;
+    }
+
+    public long getSlowMessageThresholdMillis() {
+        return slowMessageThresholdMillis;
+    }
+
+    public boolean isReportAsBreadcrumbs() {
+        return reportAsBreadcrumbs;
+    }
+
+    public boolean isReportAsSummedEvents() {
+        return reportAsSummedEvents;
+    }
+}
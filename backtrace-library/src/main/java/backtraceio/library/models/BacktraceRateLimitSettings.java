@@ -0,0 +1,114 @@
+package backtraceio.library.models;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration settings for client-side report rate limiting.
+ * Every limit defines the number of reports allowed within the limit period. The value equal to zero
+ * means that limit not exists.
+ */
+public class BacktraceRateLimitSettings {
+    /**
+     * Default rate limit period in milliseconds
+     */
+    public static final long DEFAULT_PERIOD_MILLIS = 60 * 1000;
+
+    /**
+     * Time period in milliseconds to which all limits apply
+     */
+    private final long periodMillis;
+
+    /**
+     * Maximum number of reports sent within the period
+     */
+    private int globalLimit = 0;
+
+    /**
+     * Maximum number of reports with the same classifier sent within the period
+     */
+    private int classifierLimit = 0;
+
+    /**
+     * Maximum number of reports with the given error.type attribute sent within the period
+     */
+    private final Map<String, Integer> errorTypeLimits = new HashMap<>();
+
+    /**
+     * Default constructor.
+     * Initializes rate limit settings with the default period and without any limit.
+     */
+    public BacktraceRateLimitSettings() {
+        this(DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * Constructs rate limit settings with a custom period and without any limit.
+     *
+     * @param periodMillis time period in milliseconds to which all limits apply
+     */
+    public BacktraceRateLimitSettings(long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Rate limit period must be greater than zero");
+        }
+        this.periodMillis = periodMillis;
+    }
+
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    public int getGlobalLimit() {
+        return globalLimit;
+    }
+
+    /**
+     * Set the maximum number of reports sent within the period
+     *
+     * @param globalLimit number of reports, zero disables the limit
+     */
+    public void setGlobalLimit(int globalLimit) {
+        this.globalLimit = validateLimit(globalLimit);
+    }
+
+    public int getClassifierLimit() {
+        return classifierLimit;
+    }
+
+    /**
+     * Set the maximum number of reports with the same classifier sent within the period
+     *
+     * @param classifierLimit number of reports, zero disables the limit
+     */
+    public void setClassifierLimit(int classifierLimit) {
+        this.classifierLimit = validateLimit(classifierLimit);
+    }
+
+    /**
+     * Set the maximum number of reports with the given error type sent within the period. Reports of
+     * uncaught exceptions aren't limited
+     *
+     * @param errorType error.type attribute value, for example
+     *                  {@link BacktraceAttributeConsts#AnrAttributeType} or
+     *                  {@link BacktraceAttributeConsts#HandledExceptionAttributeType}
+     * @param limit     number of reports, zero disables the limit
+     */
+    public void setErrorTypeLimit(String errorType, int limit) {
+        if (errorType == null) {
+            throw new IllegalArgumentException("Error type can't be null");
+        }
+        this.errorTypeLimits.put(errorType, validateLimit(limit));
+    }
+
+    public Map<String, Integer> getErrorTypeLimits() {
+        return Collections.unmodifiableMap(errorTypeLimits);
+    }
+
+    private static int validateLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Rate limit can't be negative");
+        }
+        return limit;
+    }
+}
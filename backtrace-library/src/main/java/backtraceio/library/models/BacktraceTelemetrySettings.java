@@ -0,0 +1,58 @@
+package backtraceio.library.models;
+
+/**
+ * Configuration settings for the SDK telemetry reporting
+ */
+public class BacktraceTelemetrySettings {
+    /**
+     * Default interval between telemetry snapshots in milliseconds
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Summed event name used when snapshots are sent to Backtrace
+     */
+    public static final String SUMMED_EVENT_NAME = "Backtrace SDK telemetry";
+
+    /**
+     * Interval between telemetry snapshots in milliseconds. 0 disables periodic snapshots - values
+     * are available only through the pull API
+     */
+    private final long intervalMillis;
+
+    /**
+     * Send every snapshot as a summed event, requires metrics to be enabled
+     */
+    private final boolean sendAsSummedEvents;
+
+    /**
+     * Default constructor.
+     * Initializes telemetry settings with default values - periodic snapshots are delivered only to
+     * the snapshot listener.
+     */
+    public BacktraceTelemetrySettings() {
+        this(DEFAULT_INTERVAL_MILLIS, false);
+    }
+
+    /**
+     * Constructs telemetry settings with specified parameters.
+     *
+     * @param intervalMillis     interval between telemetry snapshots in milliseconds, 0 disables periodic snapshots
+     * @param sendAsSummedEvents send every snapshot as a summed event
+     */
+    public BacktraceTelemetrySettings(long intervalMillis, boolean sendAsSummedEvents) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Interval must be greater than or equal to zero");
+        }
+        this.intervalMillis = intervalMillis;
+        this.sendAsSummedEvents = sendAsSummedEvents;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public boolean isSendAsSummedEvents() {
+        return sendAsSummedEvents;
+    }
+}
@@ -0,0 +1,343 @@
+package backtraceio.library.models.database;
+
+import android.system.Os;
+import backtraceio.library.logger.BacktraceLogger;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores copies of report attachments in the database directory, so a report sent later uploads
+ * attachments as they were when the report was captured. Copies are content-addressed: a file is
+ * stored under the SHA-256 hash of its content, so identical files are stored once and shared by
+ * records. Stored files are reference counted and removed when the last record using them is deleted.
+ */
+public class BacktraceAttachmentStore {
+
+    private static final transient String LOG_TAG = BacktraceAttachmentStore.class.getSimpleName();
+
+    /**
+     * Name of the database subdirectory storing attachment copies
+     */
+    public static final String DIRECTORY_NAME = "attachments";
+
+    private static final String TEMPORARY_FILE_PREFIX = "temp_";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    /**
+     * Number of records using each stored file
+     */
+    private final Map<String, Integer> references = new HashMap<>();
+
+    /**
+     * Last copy of each source file, files which didn't change since aren't copied again
+     */
+    private final Map<String, SourceSnapshot> sourceSnapshots = new HashMap<>();
+
+    /**
+     * Size of referenced content by hash directory. Files in a hash directory share their content,
+     * so it's counted once
+     */
+    private final Map<String, Long> contentSizes = new HashMap<>();
+
+    /**
+     * Size of referenced content in bytes
+     */
+    private long storedSize = 0;
+
+    /**
+     * @param databasePath Backtrace database directory
+     */
+    public BacktraceAttachmentStore(String databasePath) {
+        this.directory = new File(databasePath, DIRECTORY_NAME);
+    }
+
+    /**
+     * Copy attachments to the store. Every stored file in the result is referenced once more and has
+     * to be released by {@link #release(List)}
+     *
+     * @param attachmentPaths paths to attachments
+     * @return paths to stored copies, attachments which can't be copied keep their original path
+     */
+    public synchronized List<String> snapshot(List<String> attachmentPaths) {
+        final List<String> result = new ArrayList<>();
+        if (attachmentPaths == null) {
+            return result;
+        }
+        for (String attachmentPath : attachmentPaths) {
+            if (attachmentPath == null) {
+                continue;
+            }
+            final String storedPath = isStored(attachmentPath) ? attachmentPath : store(attachmentPath);
+            if (storedPath == null) {
+                result.add(attachmentPath);
+                continue;
+            }
+            retain(storedPath);
+            result.add(storedPath);
+        }
+        return result;
+    }
+
+    /**
+     * Check if a path points to a file in the store
+     *
+     * @param path file path
+     * @return true if the file is stored by this store
+     */
+    public boolean isStored(String path) {
+        return path != null && path.startsWith(directory.getAbsolutePath() + File.separator);
+    }
+
+    /**
+     * Reference stored files, e.g. by a record loaded from the database directory
+     *
+     * @param storedPaths paths to stored files
+     */
+    public synchronized void retain(List<String> storedPaths) {
+        if (storedPaths == null) {
+            return;
+        }
+        for (String storedPath : storedPaths) {
+            if (isStored(storedPath)) {
+                retain(storedPath);
+            }
+        }
+    }
+
+    /**
+     * Release stored files referenced by a deleted record. Files which aren't referenced anymore are removed
+     *
+     * @param storedPaths paths to stored files
+     */
+    public synchronized void release(List<String> storedPaths) {
+        if (storedPaths == null) {
+            return;
+        }
+        for (String storedPath : storedPaths) {
+            final Integer count = references.get(storedPath);
+            if (count == null) {
+                continue;
+            }
+            if (count > 1) {
+                references.put(storedPath, count - 1);
+                continue;
+            }
+            references.remove(storedPath);
+            delete(new File(storedPath));
+        }
+    }
+
+    /**
+     * Remove stored files which aren't referenced by any record, e.g. left by records removed while
+     * the application wasn't running
+     */
+    public synchronized void removeUnreferenced() {
+        final File[] entries = directory.listFiles();
+        if (entries == null) {
+            return;
+        }
+        for (File entry : entries) {
+            final File[] files = entry.listFiles();
+            if (files == null) {
+                // temporary file of an interrupted copy
+                entry.delete();
+                continue;
+            }
+            for (File file : files) {
+                if (!references.containsKey(file.getAbsolutePath())) {
+                    BacktraceLogger.d(LOG_TAG, "Removing unreferenced attachment " + file.getName());
+                    delete(file);
+                }
+            }
+            entry.delete();
+        }
+    }
+
+    /**
+     * Get the number of records using a stored file
+     *
+     * @param storedPath path to the stored file
+     * @return number of references
+     */
+    public synchronized int getReferenceCount(String storedPath) {
+        final Integer count = references.get(storedPath);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Get the size of stored files referenced by records. Files with the same content are counted once
+     *
+     * @return size in bytes
+     */
+    public synchronized long getStoredSize() {
+        return storedSize;
+    }
+
+    private void retain(String storedPath) {
+        final Integer count = references.get(storedPath);
+        references.put(storedPath, count == null ? 1 : count + 1);
+        if (count == null) {
+            countContent(new File(storedPath));
+        }
+    }
+
+    private void countContent(File storedFile) {
+        final File hashDirectory = storedFile.getParentFile();
+        if (hashDirectory == null || contentSizes.containsKey(hashDirectory.getAbsolutePath())) {
+            return;
+        }
+        final long size = storedFile.length();
+        contentSizes.put(hashDirectory.getAbsolutePath(), size);
+        storedSize += size;
+    }
+
+    /**
+     * Copy a file to the store
+     *
+     * @param attachmentPath path to the attachment
+     * @return path to the stored copy or null if the file can't be copied
+     */
+    private String store(String attachmentPath) {
+        final File source = new File(attachmentPath);
+        if (!source.isFile()) {
+            return null;
+        }
+        final String sourcePath = source.getAbsolutePath();
+        final long length = source.length();
+        final long lastModified = source.lastModified();
+
+        final SourceSnapshot sourceSnapshot = sourceSnapshots.get(sourcePath);
+        if (sourceSnapshot != null && sourceSnapshot.matches(length, lastModified)) {
+            if (new File(sourceSnapshot.storedPath).exists()) {
+                return sourceSnapshot.storedPath;
+            }
+            sourceSnapshots.remove(sourcePath);
+        }
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            BacktraceLogger.w(LOG_TAG, "Cannot create attachment directory " + directory.getPath());
+            return null;
+        }
+        final File temporaryFile = new File(directory, TEMPORARY_FILE_PREFIX + UUID.randomUUID());
+        try {
+            // the source may be written to while it's copied, so the hash is computed from the copy
+            final String hash = copy(source, temporaryFile);
+            final File storedFile = new File(new File(directory, hash), source.getName());
+            if (!storedFile.exists()) {
+                final File hashDirectory = storedFile.getParentFile();
+                if (!hashDirectory.exists() && !hashDirectory.mkdirs()) {
+                    throw new IOException("Cannot create directory " + hashDirectory.getPath());
+                }
+                if (!linkToStoredContent(hashDirectory, storedFile) && !temporaryFile.renameTo(storedFile)) {
+                    throw new IOException("Cannot move the copy of " + source.getName());
+                }
+            }
+            final String storedPath = storedFile.getAbsolutePath();
+            sourceSnapshots.put(sourcePath, new SourceSnapshot(storedPath, length, lastModified));
+            return storedPath;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            BacktraceLogger.w(LOG_TAG, "Cannot copy attachment " + attachmentPath + ": " + e.getMessage());
+            return null;
+        } finally {
+            temporaryFile.delete();
+        }
+    }
+
+    /**
+     * Hard link a file with the same content stored under another name, so the content is stored once
+     *
+     * @return true if the link was created
+     */
+    private static boolean linkToStoredContent(File hashDirectory, File storedFile) {
+        final File[] files = hashDirectory.listFiles();
+        if (files == null || files.length == 0) {
+            return false;
+        }
+        try {
+            Os.link(files[0].getAbsolutePath(), storedFile.getAbsolutePath());
+            return true;
+        } catch (Exception | UnsatisfiedLinkError e) {
+            // hard links aren't supported by the file system or the platform, the copy is used instead
+            return false;
+        }
+    }
+
+    /**
+     * Copy a file and compute the SHA-256 hash of the copied content
+     *
+     * @return hash of the content as a hex string
+     */
+    private static String copy(File source, File destination) throws IOException, NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = new FileInputStream(source);
+                OutputStream output = new FileOutputStream(destination)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                output.write(buffer, 0, read);
+            }
+        }
+        final byte[] hash = digest.digest();
+        final char[] result = new char[hash.length * 2];
+        for (int index = 0; index < hash.length; index++) {
+            result[index * 2] = HEX_DIGITS[(hash[index] >> 4) & 0xF];
+            result[index * 2 + 1] = HEX_DIGITS[hash[index] & 0xF];
+        }
+        return new String(result);
+    }
+
+    private void delete(File storedFile) {
+        if (!storedFile.delete() && storedFile.exists()) {
+            BacktraceLogger.w(LOG_TAG, "Cannot remove attachment " + storedFile.getPath());
+        }
+        final String storedPath = storedFile.getAbsolutePath();
+        final Iterator<SourceSnapshot> iterator = sourceSnapshots.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().storedPath.equals(storedPath)) {
+                iterator.remove();
+            }
+        }
+        // remove the hash directory once it's empty
+        final File hashDirectory = storedFile.getParentFile();
+        if (hashDirectory != null && hashDirectory.delete()) {
+            final Long size = contentSizes.remove(hashDirectory.getAbsolutePath());
+            if (size != null) {
+                storedSize -= size;
+            }
+        }
+    }
+
+    private static class SourceSnapshot {
+        private final String storedPath;
+        private final long length;
+        private final long lastModified;
+
+        private SourceSnapshot(String storedPath, long length, long lastModified) {
+            this.storedPath = storedPath;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        private boolean matches(long length, long lastModified) {
+            return this.length == length && this.lastModified == lastModified;
+        }
+    }
+}
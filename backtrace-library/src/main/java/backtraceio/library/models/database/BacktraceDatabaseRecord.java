@@ -9,8 +9,11 @@ import backtraceio.library.interfaces.DatabaseRecordWriter;
 import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.models.BacktraceData;
 import backtraceio.library.models.json.BacktraceReport;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public class BacktraceDatabaseRecord {
@@ -62,11 +65,22 @@ public class BacktraceDatabaseRecord {
     @SerializedName("Size")
     private long size;
 
+    /**
+     * Attachment copies stored in the database attachment store
+     */
+    @SerializedName("AttachmentSnapshots")
+    private List<String> attachmentSnapshots;
+
     /**
      * Stored record
      */
     private transient BacktraceData record;
 
+    /**
+     * Store referenced by attachment copies of the record
+     */
+    private transient BacktraceAttachmentStore attachmentStore;
+
     public BacktraceDatabaseRecord(BacktraceData data, String path) {
         this.id = UUID.fromString(data.getUuid());
         this.record = data;
@@ -119,6 +133,46 @@ public class BacktraceDatabaseRecord {
         return size;
     }
 
+    public List<String> getAttachmentSnapshots() {
+        return attachmentSnapshots;
+    }
+
+    /**
+     * Copy report attachments to the attachment store and point the report to the copies, so the
+     * report uploads attachments as they were when it was captured. Has to be called before {@link #save()}
+     *
+     * @param store database attachment store
+     */
+    public void snapshotAttachments(BacktraceAttachmentStore store) {
+        if (store == null || this.attachmentStore != null || this.record == null || this.record.report == null) {
+            return;
+        }
+        final BacktraceReport report = this.record.report;
+        report.attachmentPaths = store.snapshot(report.attachmentPaths);
+
+        final List<String> snapshots = new ArrayList<>();
+        for (String attachmentPath : report.attachmentPaths) {
+            if (store.isStored(attachmentPath)) {
+                snapshots.add(attachmentPath);
+            }
+        }
+        this.attachmentSnapshots = snapshots;
+        this.attachmentStore = store;
+    }
+
+    /**
+     * Reference attachment copies of a record loaded from the database directory
+     *
+     * @param store database attachment store
+     */
+    public void useAttachmentStore(BacktraceAttachmentStore store) {
+        if (store == null || this.attachmentStore != null) {
+            return;
+        }
+        store.retain(this.attachmentSnapshots);
+        this.attachmentStore = store;
+    }
+
     /**
      * Get BacktraceData object related to db record
      * @deprecated The {@code context} parameter is no longer used and this method will be removed in future versions.
@@ -147,6 +201,7 @@ public class BacktraceDatabaseRecord {
             return null;
         }
 
+        final long readStart = BacktraceTelemetry.startTimer();
         String jsonData = FileHelper.readFile(new File(this.diagnosticDataPath));
         String jsonReport = FileHelper.readFile(new File(this.reportPath));
 
@@ -160,6 +215,7 @@ public class BacktraceDatabaseRecord {
             // and no problem/condition with serialization when BacktraceApi want to send
             // diagnostic data to API
             diagnosticData.report = BacktraceSerializeHelper.fromJson(jsonReport, BacktraceReport.class);
+            BacktraceTelemetry.DATABASE_READ_TIME.recordElapsed(readStart);
             return diagnosticData;
         } catch (Exception ex) {
             BacktraceLogger.e(LOG_TAG, "Exception occurs on deserialization of diagnostic data", ex);
@@ -232,6 +288,18 @@ public class BacktraceDatabaseRecord {
         delete(this.reportPath);
         delete(this.diagnosticDataPath);
         delete(this.recordPath);
+        releaseAttachments();
+    }
+
+    /**
+     * Release attachment copies used by the record, e.g. when the record is dropped without its files
+     */
+    public synchronized void releaseAttachments() {
+        final BacktraceAttachmentStore store = this.attachmentStore;
+        this.attachmentStore = null;
+        if (store != null) {
+            store.release(this.attachmentSnapshots);
+        }
     }
 
     /**
@@ -44,6 +44,11 @@ public class BacktraceDatabaseSettings {
 
     private RetryOrder retryOrder = RetryOrder.Stack;
 
+    /**
+     * Copy report attachments to the database directory when a report is stored
+     */
+    private boolean snapshotAttachments = false;
+
     public BacktraceDatabaseSettings(String path) {
         this(path, RetryOrder.Queue);
     }
@@ -125,4 +130,19 @@ public class BacktraceDatabaseSettings {
     public void setRetryOrder(RetryOrder retryOrder) {
         this.retryOrder = retryOrder;
     }
+
+    public boolean isSnapshotAttachments() {
+        return snapshotAttachments;
+    }
+
+    /**
+     * Copy report attachments to the database directory when a report is stored, so a report sent
+     * later uploads attachments as they were when it was captured, even if they were modified or
+     * removed since. Identical attachments are stored once and shared by reports
+     *
+     * @param snapshotAttachments true to copy attachments of stored reports
+     */
+    public void setSnapshotAttachments(boolean snapshotAttachments) {
+        this.snapshotAttachments = snapshotAttachments;
+    }
 }
@@ -0,0 +1,119 @@
+package backtraceio.library.models.database;
+
+import backtraceio.gson.annotations.SerializedName;
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.BacktraceStackTrace;
+import backtraceio.library.models.json.BacktraceReport;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Report of an uncaught exception written by the emergency reporter when the application ran out of
+ * memory. It contains only the faulting thread stack and attributes cached before the crash, and is
+ * converted to a regular report on the next application start.
+ */
+public class BacktraceEmergencyReport {
+
+    /**
+     * Attribute marking reports written by the emergency reporter
+     */
+    public static final String EMERGENCY_REPORT_ATTRIBUTE = "error.emergency";
+
+    /**
+     * Attribute with the name of the thread which threw the exception
+     */
+    public static final String FAULTING_THREAD_ATTRIBUTE = "error.thread";
+
+    @SerializedName("uuid")
+    public String uuid;
+
+    @SerializedName("timestamp")
+    public long timestamp;
+
+    @SerializedName("classifier")
+    public String classifier;
+
+    @SerializedName("message")
+    public String message;
+
+    @SerializedName("thread")
+    public String thread;
+
+    @SerializedName("attributes")
+    public Map<String, String> attributes;
+
+    @SerializedName("frames")
+    public List<Frame> frames;
+
+    /**
+     * True if stack frames didn't fit into the emergency buffer
+     */
+    @SerializedName("truncated")
+    public boolean truncated;
+
+    /**
+     * Convert to a regular report of an unhandled exception
+     *
+     * @return Backtrace report
+     */
+    public BacktraceReport toBacktraceReport() {
+        final Exception exception = new Exception(message);
+        final List<StackTraceElement> stackTrace = new ArrayList<>();
+        if (frames != null) {
+            for (Frame frame : frames) {
+                if (frame != null && frame.className != null && frame.methodName != null) {
+                    stackTrace.add(
+                            new StackTraceElement(frame.className, frame.methodName, frame.fileName, frame.line));
+                }
+            }
+        }
+        exception.setStackTrace(stackTrace.toArray(new StackTraceElement[0]));
+
+        final Map<String, Object> reportAttributes = new HashMap<>();
+        if (attributes != null) {
+            reportAttributes.putAll(attributes);
+        }
+        reportAttributes.put(
+                BacktraceAttributeConsts.ErrorType, BacktraceAttributeConsts.UnhandledExceptionAttributeType);
+        reportAttributes.put(EMERGENCY_REPORT_ATTRIBUTE, true);
+        if (thread != null) {
+            reportAttributes.put(FAULTING_THREAD_ATTRIBUTE, thread);
+        }
+
+        return new BacktraceReport(
+                getUuid(),
+                timestamp,
+                true,
+                classifier != null ? classifier : "",
+                reportAttributes,
+                null,
+                exception,
+                new ArrayList<>(),
+                new BacktraceStackTrace(exception).getStackFrames());
+    }
+
+    private UUID getUuid() {
+        try {
+            return UUID.fromString(uuid);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return UUID.randomUUID();
+        }
+    }
+
+    public static class Frame {
+        @SerializedName("class")
+        public String className;
+
+        @SerializedName("method")
+        public String methodName;
+
+        @SerializedName("file")
+        public String fileName;
+
+        @SerializedName("line")
+        public int line;
+    }
+}
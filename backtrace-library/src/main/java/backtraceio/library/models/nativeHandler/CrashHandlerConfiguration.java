@@ -1,9 +1,11 @@
 package backtraceio.library.models.nativeHandler;
 
 import android.content.pm.ApplicationInfo;
+import android.os.Build;
 import android.text.TextUtils;
 import backtraceio.library.common.AbiHelper;
 import backtraceio.library.services.BacktraceCrashHandlerRunner;
+import backtraceio.library.telemetry.BacktraceStartupTrace;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -23,6 +25,30 @@ public class CrashHandlerConfiguration {
 
     private static final String BACKTRACE_NATIVE_LIBRARY_NAME = "libbacktrace-native.so";
 
+    private static final String CONFIGURATION_CACHE_FILE_NAME = "crash-handler-configuration";
+
+    /**
+     * Cache of the resolved crash handler library path, null if the path is resolved on every start
+     */
+    private final CrashHandlerConfigurationCache configurationCache;
+
+    public CrashHandlerConfiguration() {
+        this.configurationCache = null;
+    }
+
+    /**
+     * @param databaseDirectory Backtrace database directory, the resolved crash handler library path
+     *                          is cached in its crashpad directory
+     */
+    public CrashHandlerConfiguration(String databaseDirectory) {
+        this(new CrashHandlerConfigurationCache(
+                new File(databaseDirectory + CRASHPAD_DIRECTORY_PATH, CONFIGURATION_CACHE_FILE_NAME)));
+    }
+
+    public CrashHandlerConfiguration(CrashHandlerConfigurationCache configurationCache) {
+        this.configurationCache = configurationCache;
+    }
+
     public Boolean isSupportedAbi() {
         return isSupportedAbi(AbiHelper.getCurrentAbi());
     }
@@ -40,11 +66,12 @@ public class CrashHandlerConfiguration {
         final String nativeLibraryDirPath = applicationInfo.nativeLibraryDir;
         final String arch = AbiHelper.getCurrentAbi();
 
-        final List<String> environmentVariables = new ArrayList<>();
+        final Map<String, String> systemEnvironmentVariables = System.getenv();
+        final List<String> environmentVariables = new ArrayList<>(systemEnvironmentVariables.size() + 4);
 
         // system environment variables
-        for (Map.Entry<String, String> variable : System.getenv().entrySet()) {
-            environmentVariables.add(String.format("%s=%s", variable.getKey(), variable.getValue()));
+        for (Map.Entry<String, String> variable : systemEnvironmentVariables.entrySet()) {
+            environmentVariables.add(variable.getKey() + "=" + variable.getValue());
         }
 
         // LD_LIBRARY_PATH
@@ -57,11 +84,18 @@ public class CrashHandlerConfiguration {
             "/data/local"
         });
 
-        final String backtraceNativeLibraryPath = resolveBacktraceNativeLibraryPath(applicationInfo, arch);
+        final String backtraceNativeLibraryPath;
+        final BacktraceStartupTrace.Section section =
+                BacktraceStartupTrace.begin(BacktraceStartupTrace.NATIVE_LIBRARY_RESOLUTION);
+        try {
+            backtraceNativeLibraryPath = getCachedBacktraceNativeLibraryPath(applicationInfo, arch);
+        } finally {
+            section.end();
+        }
 
-        environmentVariables.add(String.format("CLASSPATH=%s", classPathApk));
-        environmentVariables.add(String.format("%s=%s", BACKTRACE_CRASH_HANDLER, backtraceNativeLibraryPath));
-        environmentVariables.add(String.format("LD_LIBRARY_PATH=%s", allPossibleLibrarySearchPaths));
+        environmentVariables.add("CLASSPATH=" + classPathApk);
+        environmentVariables.add(BACKTRACE_CRASH_HANDLER + "=" + backtraceNativeLibraryPath);
+        environmentVariables.add("LD_LIBRARY_PATH=" + allPossibleLibrarySearchPaths);
         environmentVariables.add("ANDROID_DATA=/data");
 
         return environmentVariables;
@@ -120,6 +154,26 @@ public class CrashHandlerConfiguration {
                 : String.format("%s!/lib/%s/%s", apkPath, arch, BACKTRACE_NATIVE_LIBRARY_NAME);
     }
 
+    /**
+     * Get the crash handler library path from the cache, or resolve and cache it if the application
+     * was installed or updated since the path was cached
+     */
+    private String getCachedBacktraceNativeLibraryPath(ApplicationInfo appInfo, String arch) {
+        if (configurationCache == null) {
+            return resolveBacktraceNativeLibraryPath(appInfo, arch);
+        }
+        final String key = CrashHandlerConfigurationCache.getKey(
+                appInfo.sourceDir, appInfo.splitSourceDirs, appInfo.nativeLibraryDir, arch, Build.VERSION.SDK_INT);
+        final String cachedPath = configurationCache.getNativeLibraryPath(key);
+        // an extracted library is checked, because it can be removed without updating the application
+        if (cachedPath != null && (cachedPath.contains("!/") || new File(cachedPath).exists())) {
+            return cachedPath;
+        }
+        final String nativeLibraryPath = resolveBacktraceNativeLibraryPath(appInfo, arch);
+        configurationCache.putNativeLibraryPath(key, nativeLibraryPath);
+        return nativeLibraryPath;
+    }
+
     /**
      * Resolve native lib container:
      *   extracted dir if present,
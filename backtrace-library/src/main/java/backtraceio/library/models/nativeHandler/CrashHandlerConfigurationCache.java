@@ -0,0 +1,144 @@
+package backtraceio.library.models.nativeHandler;
+
+import backtraceio.library.logger.BacktraceLogger;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores the resolved crash handler library path on disk. Resolving the path may require opening
+ * the base and split APKs, which only has to be repeated after the application is updated, so the
+ * path is stored together with a key describing the installation.
+ */
+public class CrashHandlerConfigurationCache {
+
+    private static final String LOG_TAG = CrashHandlerConfigurationCache.class.getSimpleName();
+
+    /**
+     * Version of the cache format, change it to invalidate caches of previous library versions
+     */
+    private static final int CACHE_VERSION = 1;
+
+    private final File cacheFile;
+
+    /**
+     * @param cacheFile file which stores the cached configuration
+     */
+    public CrashHandlerConfigurationCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Get a key describing the installation - changes if the application is updated or moved, or
+     * the device ABI or SDK version changes
+     *
+     * @param sourceDir        path to the base APK
+     * @param splitSourceDirs  paths to split APKs, can be null
+     * @param nativeLibraryDir path to the directory of extracted native libraries
+     * @param abi              current ABI
+     * @param sdkVersion       current SDK version
+     * @return installation key
+     */
+    public static String getKey(
+            String sourceDir, String[] splitSourceDirs, String nativeLibraryDir, String abi, int sdkVersion) {
+        StringBuilder key = new StringBuilder();
+        key.append(CACHE_VERSION)
+                .append('|')
+                .append(abi)
+                .append('|')
+                .append(sdkVersion)
+                .append('|')
+                .append(nativeLibraryDir);
+        appendApk(key, sourceDir);
+        if (splitSourceDirs != null) {
+            for (String splitSourceDir : splitSourceDirs) {
+                appendApk(key, splitSourceDir);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Get the cached crash handler library path
+     *
+     * @param key installation key
+     * @return cached path or null if the cache doesn't exist or was stored for another installation
+     */
+    public String getNativeLibraryPath(String key) {
+        if (key == null || !cacheFile.exists()) {
+            return null;
+        }
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8))) {
+            String cachedKey = reader.readLine();
+            String nativeLibraryPath = reader.readLine();
+            if (!key.equals(cachedKey) || nativeLibraryPath == null || nativeLibraryPath.isEmpty()) {
+                return null;
+            }
+            return nativeLibraryPath;
+        } catch (IOException e) {
+            BacktraceLogger.w(LOG_TAG, "Cannot read crash handler configuration cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the crash handler library path. The cache is replaced atomically, so a process killed
+     * while writing it never leaves a partially written cache
+     *
+     * @param key               installation key
+     * @param nativeLibraryPath resolved crash handler library path
+     * @return true if the path was stored
+     */
+    public boolean putNativeLibraryPath(String key, String nativeLibraryPath) {
+        if (key == null || nativeLibraryPath == null) {
+            return false;
+        }
+        File directory = cacheFile.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            return false;
+        }
+        File temporaryFile = new File(cacheFile.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8)) {
+            writer.write(key);
+            writer.write('\n');
+            writer.write(nativeLibraryPath);
+            writer.write('\n');
+        } catch (IOException e) {
+            BacktraceLogger.w(LOG_TAG, "Cannot write crash handler configuration cache: " + e.getMessage());
+            temporaryFile.delete();
+            return false;
+        }
+        if (!temporaryFile.renameTo(cacheFile)) {
+            temporaryFile.delete();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove the cached configuration
+     */
+    public void clear() {
+        cacheFile.delete();
+    }
+
+    private static void appendApk(StringBuilder key, String apkPath) {
+        if (apkPath == null) {
+            return;
+        }
+        File apk = new File(apkPath);
+        key.append('|')
+                .append(apkPath)
+                .append(':')
+                .append(apk.lastModified())
+                .append(':')
+                .append(apk.length());
+    }
+}
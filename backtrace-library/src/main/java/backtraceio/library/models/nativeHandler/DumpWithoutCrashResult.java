@@ -0,0 +1,41 @@
+package backtraceio.library.models.nativeHandler;
+
+/**
+ * Result of an asynchronous dump without crash. Requests made while a dump was waiting are merged
+ * into it and share its result.
+ */
+public class DumpWithoutCrashResult {
+
+    private final boolean dumped;
+
+    private final int requests;
+
+    private final long durationMillis;
+
+    public DumpWithoutCrashResult(boolean dumped, int requests, long durationMillis) {
+        this.dumped = dumped;
+        this.requests = requests;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return true if the native layer generated the dump, false if the dump failed or was cancelled
+     */
+    public boolean isDumped() {
+        return dumped;
+    }
+
+    /**
+     * @return number of requests merged into the dump
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return time of generating the dump in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
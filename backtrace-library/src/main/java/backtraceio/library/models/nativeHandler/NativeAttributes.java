@@ -0,0 +1,93 @@
+package backtraceio.library.models.nativeHandler;
+
+import backtraceio.library.common.TypeHelper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attributes propagated to the native integration. Every native update crosses JNI and takes the
+ * native attributes lock, so only attributes which changed since the last update are passed on.
+ */
+public class NativeAttributes {
+
+    private final Map<String, String> propagatedAttributes = new HashMap<>();
+
+    /**
+     * Replace propagated attributes, e.g. with attributes passed to the native integration on startup
+     *
+     * @param keys   attribute names
+     * @param values attribute values
+     */
+    public synchronized void reset(String[] keys, String[] values) {
+        propagatedAttributes.clear();
+        for (int index = 0; index < keys.length && index < values.length; index++) {
+            if (keys[index] != null && values[index] != null) {
+                propagatedAttributes.put(keys[index], values[index]);
+            }
+        }
+    }
+
+    /**
+     * Check if a value can be passed to the native integration
+     *
+     * @param key   attribute name
+     * @param value attribute value
+     * @return true if the key and value aren't null and the value is a primitive type or a string
+     */
+    public static boolean isSupported(String key, Object value) {
+        return key != null && value != null && TypeHelper.isPrimitiveOrPrimitiveWrapperOrString(value.getClass());
+    }
+
+    /**
+     * Get attributes which differ from propagated ones and mark them as propagated. Unsupported
+     * attributes are skipped
+     *
+     * @param attributes current attributes
+     * @return changed attributes, which have to be passed to the native integration
+     */
+    public synchronized Changes collectChanges(Map<String, ?> attributes) {
+        final List<String> keys = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        for (Map.Entry<String, ?> entry : attributes.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            if (!isSupported(key, value)) {
+                continue;
+            }
+            final String nativeValue = value.toString();
+            if (nativeValue.equals(propagatedAttributes.put(key, nativeValue))) {
+                continue;
+            }
+            keys.add(key);
+            values.add(nativeValue);
+        }
+        return new Changes(keys.toArray(new String[0]), values.toArray(new String[0]));
+    }
+
+    /**
+     * Attributes which have to be passed to the native integration, as parallel arrays of names and values
+     */
+    public static class Changes {
+        private final String[] keys;
+        private final String[] values;
+
+        Changes(String[] keys, String[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        public String[] getKeys() {
+            return keys;
+        }
+
+        public String[] getValues() {
+            return values;
+        }
+
+        public boolean isEmpty() {
+            return keys.length == 0;
+        }
+    }
+}
@@ -12,7 +12,13 @@ public enum BacktraceResultStatus {
     /**
      * Set when data were send to API
      */
-    Ok;
+    Ok,
+
+    /**
+     * Set when the report wasn't sent by the client, because it was merged into a duplicate aggregate
+     * or suppressed by the rate limiter
+     */
+    Skipped;
 
     public static BacktraceResultStatus enumOf(String val) {
         switch (val.toLowerCase()) {
@@ -1,6 +1,7 @@
 package backtraceio.library.services;
 
 import android.content.Context;
+import android.os.Message;
 import backtraceio.library.BacktraceCredentials;
 import backtraceio.library.events.EventsOnServerResponseEventListener;
 import backtraceio.library.events.EventsRequestHandler;
@@ -10,8 +11,11 @@ import backtraceio.library.events.RequestHandler;
 import backtraceio.library.interfaces.Api;
 import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.BacktraceExecutionSettings;
+import backtraceio.library.models.BacktraceResult;
 import backtraceio.library.models.metrics.SummedEventsPayload;
 import backtraceio.library.models.metrics.UniqueEventsPayload;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Backtrace Api class that allows to send data to Backtrace endpoints
@@ -20,7 +24,21 @@ public class BacktraceApi implements Api {
 
     private static final transient String LOG_TAG = BacktraceApi.class.getSimpleName();
 
-    private final transient BacktraceHandlerThread threadSender;
+    /**
+     * Runtime shared with other Backtrace clients
+     */
+    private final transient BacktraceRuntime runtime;
+
+    private final transient Context context;
+
+    private UniqueEventsHandler uniqueEventsHandler;
+
+    private SummedEventsHandler summedEventsHandler;
+
+    /**
+     * Set once the runtime is released, reports sent later are rejected
+     */
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     /**
      * URL to report submission endpoint
@@ -57,12 +75,33 @@ public class BacktraceApi implements Api {
      */
     private EventsOnServerResponseEventListener summedEventsServerResponse = null;
 
+    /**
+     * Maximum size of a single attachment in bytes, 0 if unlimited
+     */
+    private volatile long maxAttachmentSize = 0;
+
+    /**
+     * Maximum size of all attachments of a report in bytes, 0 if unlimited
+     */
+    private volatile long maxTotalAttachmentsSize = 0;
+
     /**
      * Create a new instance of Backtrace API
      *
      * @param credentials API credentials
      */
     public BacktraceApi(Context context, BacktraceCredentials credentials) {
+        this(context, credentials, new BacktraceExecutionSettings());
+    }
+
+    /**
+     * Create a new instance of Backtrace API
+     *
+     * @param credentials       API credentials
+     * @param executionSettings configuration of the execution lanes
+     */
+    public BacktraceApi(
+            Context context, BacktraceCredentials credentials, BacktraceExecutionSettings executionSettings) {
         if (credentials == null) {
             BacktraceLogger.e(
                     LOG_TAG, "BacktraceCredentials parameter passed to BacktraceApi " + "constructor is null");
@@ -70,8 +109,33 @@ public class BacktraceApi implements Api {
         }
         this.reportSubmissionUrl = credentials.getSubmissionUrl().toString();
 
-        threadSender = new BacktraceHandlerThread(
-                context, BacktraceHandlerThread.class.getSimpleName(), this.reportSubmissionUrl);
+        if (executionSettings == null) {
+            throw new IllegalArgumentException("BacktraceExecutionSettings cannot be null");
+        }
+        this.context = context;
+        this.runtime = BacktraceRuntime.acquire(context, executionSettings);
+    }
+
+    @Override
+    public void setExecutionSettings(BacktraceExecutionSettings executionSettings) {
+        if (executionSettings == null) {
+            throw new IllegalArgumentException("BacktraceExecutionSettings cannot be null");
+        }
+        this.runtime.getLanes().applySettings(executionSettings);
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (uniqueEventsHandler != null) {
+            uniqueEventsHandler.close();
+        }
+        if (summedEventsHandler != null) {
+            summedEventsHandler.close();
+        }
+        this.runtime.release();
     }
 
     @Override
@@ -91,6 +155,15 @@ public class BacktraceApi implements Api {
         this.summedEventsServerResponse = callback;
     }
 
+    @Override
+    public void setAttachmentSizeLimits(long maxAttachmentSize, long maxTotalAttachmentsSize) {
+        if (maxAttachmentSize < 0 || maxTotalAttachmentsSize < 0) {
+            throw new IllegalArgumentException("Attachment size limits cannot be negative");
+        }
+        this.maxAttachmentSize = maxAttachmentSize;
+        this.maxTotalAttachmentsSize = maxTotalAttachmentsSize;
+    }
+
     public void setOnServerError(OnServerErrorEventListener onServerError) {
         this.onServerError = onServerError;
     }
@@ -101,12 +174,16 @@ public class BacktraceApi implements Api {
 
     @Override
     public UniqueEventsHandler enableUniqueEvents(BacktraceMetrics backtraceMetrics) {
-        return threadSender.createUniqueEventsHandler(backtraceMetrics, this);
+        this.uniqueEventsHandler =
+                runtime.getLanes().createUniqueEventsHandler(backtraceMetrics, this, runtime.getScheduler());
+        return uniqueEventsHandler;
     }
 
     @Override
     public SummedEventsHandler enableSummedEvents(BacktraceMetrics backtraceMetrics) {
-        return threadSender.createSummedEventsHandler(backtraceMetrics, this);
+        this.summedEventsHandler =
+                runtime.getLanes().createSummedEventsHandler(backtraceMetrics, this, runtime.getScheduler());
+        return summedEventsHandler;
     }
 
     /**
@@ -116,22 +193,43 @@ public class BacktraceApi implements Api {
      */
     @Override
     public void send(BacktraceData data, OnServerResponseEventListener callback) {
-        BacktraceHandlerInputReport input =
-                new BacktraceHandlerInputReport(data, callback, this.onServerError, this.requestHandler);
-        threadSender.sendReport(input);
+        if (closed.get()) {
+            BacktraceLogger.w(LOG_TAG, "BacktraceApi is closed, report will not be sent");
+            if (callback != null) {
+                callback.onEvent(BacktraceResult.OnError(
+                        data != null ? data.getReport() : null, new IllegalStateException("BacktraceApi is closed")));
+            }
+            return;
+        }
+        BacktraceHandlerInputReport input = new BacktraceHandlerInputReport(
+                data,
+                callback,
+                this.onServerError,
+                this.requestHandler,
+                this.reportSubmissionUrl,
+                this.context,
+                this.maxAttachmentSize,
+                this.maxTotalAttachmentsSize);
+        runtime.getLanes().sendReport(input);
     }
 
     @Override
     public void sendEventsPayload(UniqueEventsPayload payload) {
         BacktraceHandlerInputEvents input = new BacktraceHandlerInputEvents(
                 payload, this.uniqueEventsServerResponse, this.onServerError, this.uniqueEventsRequestHandler);
-        threadSender.sendUniqueEvents(input);
+        uniqueEventsHandler.sendMessage(createMessage(input));
     }
 
     @Override
     public void sendEventsPayload(SummedEventsPayload payload) {
         BacktraceHandlerInputEvents input = new BacktraceHandlerInputEvents(
                 payload, this.summedEventsServerResponse, this.onServerError, this.summedEventsRequestHandler);
-        threadSender.sendSummedEvents(input);
+        summedEventsHandler.sendMessage(createMessage(input));
+    }
+
+    private static Message createMessage(BacktraceHandlerInputEvents input) {
+        Message message = new Message();
+        message.obj = input;
+        return message;
     }
 }
@@ -0,0 +1,128 @@
+package backtraceio.library.services;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.PowerManager;
+import backtraceio.library.logger.BacktraceLogger;
+
+/**
+ * Tracks if the application is in the foreground and if the device is in the idle (Doze) mode,
+ * and switches the scheduler to the background mode when any of them changes.
+ */
+class BacktraceAppStateMonitor extends BroadcastReceiver implements Application.ActivityLifecycleCallbacks {
+
+    private static final transient String LOG_TAG = BacktraceAppStateMonitor.class.getSimpleName();
+
+    private final Context context;
+
+    private final BacktraceScheduler scheduler;
+
+    private int startedActivities = 0;
+
+    /**
+     * The application is treated as visible until the first activity is stopped
+     */
+    private boolean foreground = true;
+
+    private boolean deviceIdle = false;
+
+    private BacktraceAppStateMonitor(Context context, BacktraceScheduler scheduler) {
+        this.context = context;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Start monitoring the application state
+     *
+     * @param context   application context
+     * @param scheduler scheduler which should follow the application state
+     * @return monitor or null if the application state can't be monitored
+     */
+    static BacktraceAppStateMonitor register(Context context, BacktraceScheduler scheduler) {
+        if (context == null) {
+            return null;
+        }
+        final Context applicationContext =
+                context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        BacktraceAppStateMonitor monitor = new BacktraceAppStateMonitor(applicationContext, scheduler);
+        try {
+            if (applicationContext instanceof Application) {
+                ((Application) applicationContext).registerActivityLifecycleCallbacks(monitor);
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                applicationContext.registerReceiver(
+                        monitor, new IntentFilter(PowerManager.ACTION_DEVICE_IDLE_MODE_CHANGED));
+            }
+        } catch (Exception e) {
+            BacktraceLogger.e(LOG_TAG, "Cannot monitor application state", e);
+        }
+        return monitor;
+    }
+
+    /**
+     * Stop monitoring the application state
+     */
+    void unregister() {
+        try {
+            if (context instanceof Application) {
+                ((Application) context).unregisterActivityLifecycleCallbacks(this);
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                context.unregisterReceiver(this);
+            }
+        } catch (Exception e) {
+            BacktraceLogger.e(LOG_TAG, "Cannot stop monitoring application state", e);
+        }
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return;
+        }
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        synchronized (this) {
+            deviceIdle = powerManager != null && powerManager.isDeviceIdleMode();
+            updateScheduler();
+        }
+    }
+
+    @Override
+    public synchronized void onActivityStarted(Activity activity) {
+        startedActivities++;
+        foreground = true;
+        updateScheduler();
+    }
+
+    @Override
+    public synchronized void onActivityStopped(Activity activity) {
+        startedActivities = Math.max(0, startedActivities - 1);
+        foreground = startedActivities != 0;
+        updateScheduler();
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+    @Override
+    public void onActivityResumed(Activity activity) {}
+
+    @Override
+    public void onActivityPaused(Activity activity) {}
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {}
+
+    private void updateScheduler() {
+        scheduler.setBackground(!foreground || deviceIdle);
+    }
+}
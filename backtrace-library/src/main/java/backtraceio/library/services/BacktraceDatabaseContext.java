@@ -5,8 +5,10 @@ import backtraceio.library.enums.database.RetryOrder;
 import backtraceio.library.interfaces.DatabaseContext;
 import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.database.BacktraceAttachmentStore;
 import backtraceio.library.models.database.BacktraceDatabaseRecord;
 import backtraceio.library.models.database.BacktraceDatabaseSettings;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -52,6 +54,16 @@ public class BacktraceDatabaseContext implements DatabaseContext {
      */
     private final RetryOrder retryOrder;
 
+    /**
+     * Store of attachment copies, null if attachments aren't copied
+     */
+    private final BacktraceAttachmentStore attachmentStore;
+
+    /**
+     * Copy attachments of new records to the attachment store
+     */
+    private final boolean snapshotAttachments;
+
     /**
      * @deprecated This constructor will be removed in future versions.
      *             The {@code context} parameter is no longer used.
@@ -76,20 +88,44 @@ public class BacktraceDatabaseContext implements DatabaseContext {
      * @param settings database settings
      */
     public BacktraceDatabaseContext(BacktraceDatabaseSettings settings) {
-        this(settings.getDatabasePath(), settings.getRetryLimit(), settings.getRetryOrder());
+        this(settings, null);
     }
 
     /**
      * Initialize new instance of Backtrace Database Context
      *
-     * @param path        path to database directory
-     * @param retryNumber total number of retries
-     * @param retryOrder  record order
+     * @param settings        database settings
+     * @param attachmentStore store of attachment copies referenced by records, can be null
      */
-    private BacktraceDatabaseContext(String path, int retryNumber, RetryOrder retryOrder) {
+    public BacktraceDatabaseContext(BacktraceDatabaseSettings settings, BacktraceAttachmentStore attachmentStore) {
+        this(
+                settings.getDatabasePath(),
+                settings.getRetryLimit(),
+                settings.getRetryOrder(),
+                attachmentStore,
+                settings.isSnapshotAttachments());
+    }
+
+    /**
+     * Initialize new instance of Backtrace Database Context
+     *
+     * @param path                path to database directory
+     * @param retryNumber         total number of retries
+     * @param retryOrder          record order
+     * @param attachmentStore     store of attachment copies
+     * @param snapshotAttachments copy attachments of new records
+     */
+    private BacktraceDatabaseContext(
+            String path,
+            int retryNumber,
+            RetryOrder retryOrder,
+            BacktraceAttachmentStore attachmentStore,
+            boolean snapshotAttachments) {
         this._path = path;
         this._retryNumber = retryNumber;
         this.retryOrder = retryOrder;
+        this.attachmentStore = attachmentStore;
+        this.snapshotAttachments = attachmentStore != null && snapshotAttachments;
         setupBatch();
     }
 
@@ -121,7 +157,12 @@ public class BacktraceDatabaseContext implements DatabaseContext {
         }
 
         BacktraceDatabaseRecord record = new BacktraceDatabaseRecord(backtraceData, this._path);
+        if (this.snapshotAttachments) {
+            record.snapshotAttachments(this.attachmentStore);
+        }
+        final long writeStart = BacktraceTelemetry.startTimer();
         record.save();
+        BacktraceTelemetry.DATABASE_WRITE_TIME.recordElapsed(writeStart);
 
         return add(record);
     }
@@ -139,9 +180,10 @@ public class BacktraceDatabaseContext implements DatabaseContext {
             throw new NullPointerException("BacktraceDatabaseRecord");
         }
         backtraceDatabaseRecord.locked = true;
+        backtraceDatabaseRecord.useAttachmentStore(this.attachmentStore);
         this.totalSize.addAndGet(backtraceDatabaseRecord.getSize());
         this.addToFirstBatch(backtraceDatabaseRecord);
-        this.totalRecords.incrementAndGet();
+        BacktraceTelemetry.DATABASE_RECORDS.set(this.totalRecords.incrementAndGet());
         return backtraceDatabaseRecord;
     }
 
@@ -179,12 +221,13 @@ public class BacktraceDatabaseContext implements DatabaseContext {
     }
 
     /**
-     * Get database size
+     * Get database size, including attachment copies referenced by records
      *
      * @return database size
      */
     public long getDatabaseSize() {
-        return this.totalSize.get();
+        final long attachmentsSize = this.attachmentStore != null ? this.attachmentStore.getStoredSize() : 0;
+        return this.totalSize.get() + attachmentsSize;
     }
 
     /**
@@ -214,7 +257,7 @@ public class BacktraceDatabaseContext implements DatabaseContext {
                 databaseRecord.delete();
                 try {
                     iterator.remove();
-                    this.totalRecords.decrementAndGet();
+                    BacktraceTelemetry.DATABASE_RECORDS.set(this.totalRecords.decrementAndGet());
                     this.totalSize.addAndGet(-databaseRecord.getSize());
                     return true;
                 } catch (Exception e) {
@@ -283,6 +326,7 @@ public class BacktraceDatabaseContext implements DatabaseContext {
 
         this.totalRecords.set(0);
         this.totalSize.set(0);
+        BacktraceTelemetry.DATABASE_RECORDS.set(0);
 
         for (Map.Entry<Integer, Queue<BacktraceDatabaseRecord>> entry : this.batchRetry.entrySet()) {
             entry.getValue().clear();
@@ -345,8 +389,10 @@ public class BacktraceDatabaseContext implements DatabaseContext {
         for (BacktraceDatabaseRecord record : currentBatch) {
             if (record.valid()) {
                 record.delete();
-                this.totalRecords.decrementAndGet();
+                BacktraceTelemetry.DATABASE_RECORDS.set(this.totalRecords.decrementAndGet());
                 totalSize.addAndGet(-record.getSize());
+            } else {
+                record.releaseAttachments();
             }
         }
     }
@@ -3,6 +3,7 @@ package backtraceio.library.services;
 import backtraceio.library.common.FileHelper;
 import backtraceio.library.interfaces.DatabaseFileContext;
 import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.database.BacktraceAttachmentStore;
 import backtraceio.library.models.database.BacktraceDatabaseRecord;
 import java.io.File;
 import java.util.ArrayList;
@@ -105,6 +106,14 @@ public class BacktraceDatabaseFileContext implements DatabaseFileContext {
             if (file.isDirectory() && file.getName().endsWith(this._crashpadDatabasePathPrefix)) {
                 continue;
             }
+            // emergency reports are converted to records by the database
+            if (file.isDirectory() && file.getName().equals(BacktraceEmergencyReporter.DIRECTORY_NAME)) {
+                continue;
+            }
+            // attachment copies are removed by the attachment store
+            if (file.isDirectory() && file.getName().equals(BacktraceAttachmentStore.DIRECTORY_NAME)) {
+                continue;
+            }
             String extension = FileHelper.getFileExtension(file);
             if (!extension.equals("json")) {
                 BacktraceLogger.d(LOG_TAG, "Deleting file - it is not a JSON file");
@@ -0,0 +1,253 @@
+package backtraceio.library.services;
+
+import backtraceio.library.common.BacktraceClock;
+import backtraceio.library.events.OnDumpWithoutCrashEventListener;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.nativeHandler.DumpWithoutCrashResult;
+import backtraceio.library.telemetry.BacktraceTelemetry;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates native dumps without crash on a dedicated thread, so the thread requesting a dump
+ * doesn't wait for the minidump to be written.
+ * <p>
+ * At most one dump waits for the worker. Requests made while a dump is waiting are merged into it -
+ * the dump uses the message of the first request and every listener gets the same result. Dumps are
+ * started at least the minimum interval apart - the interval is measured from the moment the worker
+ * takes the previous dump, before it is generated. Requests made earlier wait and are merged.
+ * </p>
+ */
+public class BacktraceDumpWithoutCrashWorker {
+
+    private static final transient String LOG_TAG = BacktraceDumpWithoutCrashWorker.class.getSimpleName();
+
+    /**
+     * Default minimum time between two dumps in milliseconds
+     */
+    public static final long DEFAULT_MIN_INTERVAL_MILLIS = 1000;
+
+    private static final String THREAD_NAME = "BacktraceDumpWithoutCrashThread";
+
+    /**
+     * Native dump without crash, called on the worker thread
+     */
+    public interface Dumper {
+        void dump(String message, boolean setMainThreadAsFaultingThread);
+    }
+
+    private final Dumper dumper;
+
+    private final BacktraceClock clock;
+
+    private final Object lock = new Object();
+
+    private long minIntervalMillis;
+
+    private PendingDump pendingDump = null;
+
+    private long lastDumpTime = 0;
+
+    private boolean dumpedBefore = false;
+
+    private Thread thread = null;
+
+    private boolean stopped = false;
+
+    public BacktraceDumpWithoutCrashWorker(Dumper dumper) {
+        this(dumper, DEFAULT_MIN_INTERVAL_MILLIS, BacktraceClock.SYSTEM);
+    }
+
+    /**
+     * @param dumper            native dump without crash
+     * @param minIntervalMillis minimum time between two dumps in milliseconds
+     * @param clock             time source
+     */
+    public BacktraceDumpWithoutCrashWorker(Dumper dumper, long minIntervalMillis, BacktraceClock clock) {
+        if (dumper == null) {
+            throw new IllegalArgumentException("Dumper cannot be null");
+        }
+        this.dumper = dumper;
+        this.clock = clock;
+        setMinInterval(minIntervalMillis);
+    }
+
+    /**
+     * Set the minimum time between two dumps
+     *
+     * @param minIntervalMillis minimum interval in milliseconds, 0 to dump as soon as the worker is idle
+     */
+    public void setMinInterval(long minIntervalMillis) {
+        if (minIntervalMillis < 0) {
+            throw new IllegalArgumentException("Minimum interval cannot be negative");
+        }
+        synchronized (lock) {
+            this.minIntervalMillis = minIntervalMillis;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Queue a dump without crash and return immediately. The dump is generated on the worker thread, so
+     * unless the main thread is set as the faulting thread, the worker thread is the faulting thread of
+     * the dump, not the thread which requested it
+     *
+     * @param message                       dump message
+     * @param setMainThreadAsFaultingThread mark the main thread as the faulting thread of the dump
+     * @param listener                      called on the worker thread with the dump result, can be null.
+     *                                      If the worker is stopped, it's called on the calling thread with
+     *                                      a failed result
+     * @return true if a new dump was queued, false if the request was merged into a waiting dump or the
+     * worker is stopped
+     */
+    public boolean dump(
+            String message, boolean setMainThreadAsFaultingThread, OnDumpWithoutCrashEventListener listener) {
+        final boolean rejected;
+        final boolean queued;
+        synchronized (lock) {
+            rejected = stopped;
+            if (rejected) {
+                queued = false;
+            } else {
+                queued = pendingDump == null;
+                if (queued) {
+                    pendingDump = new PendingDump(message, setMainThreadAsFaultingThread);
+                }
+                pendingDump.addListener(listener);
+                startThread();
+                lock.notifyAll();
+            }
+        }
+        if (rejected) {
+            BacktraceLogger.w(LOG_TAG, "Dump without crash worker is stopped, dump is not generated");
+            if (listener != null) {
+                listener.onEvent(new DumpWithoutCrashResult(false, 1, 0));
+            }
+            return false;
+        }
+        if (!queued) {
+            BacktraceTelemetry.DUMP_WITHOUT_CRASH_MERGED.increment();
+        }
+        return queued;
+    }
+
+    /**
+     * Stop the worker thread. A dump in progress completes, a waiting dump is cancelled and its
+     * listeners are notified
+     */
+    public void stop() {
+        final PendingDump cancelledDump;
+        synchronized (lock) {
+            stopped = true;
+            cancelledDump = pendingDump;
+            pendingDump = null;
+            lock.notifyAll();
+        }
+        if (cancelledDump != null) {
+            cancelledDump.complete(new DumpWithoutCrashResult(false, cancelledDump.getRequests(), 0));
+        }
+    }
+
+    private void startThread() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::run, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (true) {
+            final PendingDump dump = takePendingDump();
+            if (dump == null) {
+                return;
+            }
+            final long timer = BacktraceTelemetry.startTimer();
+            final long start = System.nanoTime();
+            boolean dumped = false;
+            try {
+                dumper.dump(dump.message, dump.setMainThreadAsFaultingThread);
+                dumped = true;
+            } catch (Throwable e) {
+                BacktraceLogger.e(LOG_TAG, "Cannot generate a dump without crash", e);
+            }
+            BacktraceTelemetry.DUMP_WITHOUT_CRASH_TIME.recordElapsed(timer);
+            final long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            dump.complete(new DumpWithoutCrashResult(dumped, dump.getRequests(), durationMillis));
+        }
+    }
+
+    /**
+     * Wait until a dump is requested and the minimum interval since the last dump has elapsed
+     *
+     * @return dump to generate, null if the worker is stopped
+     */
+    private PendingDump takePendingDump() {
+        synchronized (lock) {
+            while (!stopped) {
+                if (pendingDump != null) {
+                    final long now = clock.elapsedRealtime();
+                    final long delay = dumpedBefore ? lastDumpTime + minIntervalMillis - now : 0;
+                    if (delay <= 0) {
+                        final PendingDump dump = pendingDump;
+                        pendingDump = null;
+                        lastDumpTime = now;
+                        dumpedBefore = true;
+                        return dump;
+                    }
+                    waitForChange(delay);
+                } else {
+                    waitForChange(0);
+                }
+            }
+            thread = null;
+            return null;
+        }
+    }
+
+    private void waitForChange(long timeoutMillis) {
+        try {
+            lock.wait(timeoutMillis);
+        } catch (InterruptedException e) {
+            BacktraceLogger.w(LOG_TAG, "Dump without crash worker interrupted");
+            stopped = true;
+        }
+    }
+
+    private static class PendingDump {
+        private final String message;
+
+        private final boolean setMainThreadAsFaultingThread;
+
+        private final List<OnDumpWithoutCrashEventListener> listeners = new ArrayList<>(1);
+
+        private int requests = 0;
+
+        private PendingDump(String message, boolean setMainThreadAsFaultingThread) {
+            this.message = message;
+            this.setMainThreadAsFaultingThread = setMainThreadAsFaultingThread;
+        }
+
+        private void addListener(OnDumpWithoutCrashEventListener listener) {
+            requests++;
+            if (listener != null) {
+                listeners.add(listener);
+            }
+        }
+
+        private int getRequests() {
+            return requests;
+        }
+
+        private void complete(DumpWithoutCrashResult result) {
+            for (OnDumpWithoutCrashEventListener listener : listeners) {
+                try {
+                    listener.onEvent(result);
+                } catch (Exception e) {
+                    BacktraceLogger.e(LOG_TAG, "Dump without crash listener failed", e);
+                }
+            }
+        }
+    }
+}
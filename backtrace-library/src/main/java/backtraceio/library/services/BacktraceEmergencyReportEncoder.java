@@ -0,0 +1,215 @@
+package backtraceio.library.services;
+
+import java.util.Map;
+
+/**
+ * Minimal JSON encoder writing to a buffer allocated up front. Strings are encoded to UTF-8 char by
+ * char and numbers digit by digit, so encoding doesn't allocate. Strings are cut to a maximum length
+ * and stack frames which don't fit into the buffer are skipped, the encoded document is always
+ * complete.
+ * <p>
+ * The encoder isn't thread safe.
+ * </p>
+ */
+class BacktraceEmergencyReportEncoder {
+
+    /**
+     * Maximum number of characters written for a single string
+     */
+    static final int MAX_STRING_LENGTH = 1024;
+
+    /**
+     * Space reserved for closing the document after the last stack frame
+     */
+    private static final int CLOSING_RESERVE = 32;
+
+    private static final byte[] HEX_DIGITS = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private final byte[] buffer;
+
+    private int position = 0;
+
+    BacktraceEmergencyReportEncoder(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    int getLength() {
+        return Math.min(position, buffer.length);
+    }
+
+    /**
+     * Encode attributes as the body of a JSON object, used to cache attributes before they are needed
+     *
+     * @param attributes attributes to encode
+     * @param capacity   maximum size of encoded attributes in bytes
+     * @return encoded attributes, attributes which don't fit are skipped
+     */
+    static byte[] encodeAttributes(Map<String, String> attributes, int capacity) {
+        final BacktraceEmergencyReportEncoder encoder = new BacktraceEmergencyReportEncoder(capacity);
+        boolean first = true;
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            if (attribute.getKey() == null || attribute.getValue() == null) {
+                continue;
+            }
+            final int start = encoder.position;
+            if (!first) {
+                encoder.writeAscii(",");
+            }
+            encoder.writeString(attribute.getKey());
+            encoder.writeAscii(":");
+            encoder.writeString(attribute.getValue());
+            if (encoder.position > encoder.buffer.length - CLOSING_RESERVE) {
+                encoder.position = start;
+                break;
+            }
+            first = false;
+        }
+        final byte[] result = new byte[encoder.position];
+        System.arraycopy(encoder.buffer, 0, result, 0, encoder.position);
+        return result;
+    }
+
+    /**
+     * Encode a report of an uncaught exception
+     *
+     * @param uuid       report identifier
+     * @param timestamp  report timestamp in seconds
+     * @param thread     thread which threw the exception
+     * @param throwable  uncaught exception
+     * @param attributes attributes encoded by {@link #encodeAttributes(Map, int)}
+     */
+    void encode(String uuid, long timestamp, Thread thread, Throwable throwable, byte[] attributes) {
+        position = 0;
+        writeAscii("{\"uuid\":");
+        writeString(uuid);
+        writeAscii(",\"timestamp\":");
+        writeLong(timestamp);
+        writeAscii(",\"classifier\":");
+        writeString(throwable.getClass().getName());
+        writeAscii(",\"message\":");
+        writeString(throwable.getMessage());
+        writeAscii(",\"thread\":");
+        writeString(thread != null ? thread.getName() : null);
+        writeAscii(",\"attributes\":{");
+        if (attributes.length < buffer.length - position - CLOSING_RESERVE) {
+            System.arraycopy(attributes, 0, buffer, position, attributes.length);
+            position += attributes.length;
+        }
+        writeAscii("},\"frames\":[");
+
+        boolean truncated = false;
+        final StackTraceElement[] frames = throwable.getStackTrace();
+        for (int index = 0; index < frames.length; index++) {
+            final int start = position;
+            if (index > 0) {
+                writeAscii(",");
+            }
+            writeFrame(frames[index]);
+            if (position > buffer.length - CLOSING_RESERVE) {
+                position = start;
+                truncated = true;
+                break;
+            }
+        }
+        writeAscii("],\"truncated\":");
+        writeAscii(truncated ? "true" : "false");
+        writeAscii("}\n");
+    }
+
+    private void writeFrame(StackTraceElement frame) {
+        writeAscii("{\"class\":");
+        writeString(frame.getClassName());
+        writeAscii(",\"method\":");
+        writeString(frame.getMethodName());
+        writeAscii(",\"file\":");
+        writeString(frame.getFileName());
+        writeAscii(",\"line\":");
+        writeLong(frame.getLineNumber());
+        writeAscii("}");
+    }
+
+    /**
+     * Write ASCII text without escaping
+     */
+    private void writeAscii(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            writeByte(value.charAt(index));
+        }
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        writeByte('"');
+        final int length = Math.min(value.length(), MAX_STRING_LENGTH);
+        for (int index = 0; index < length; index++) {
+            final char character = value.charAt(index);
+            if (character == '"' || character == '\\') {
+                writeByte('\\');
+                writeByte(character);
+            } else if (character < 0x20) {
+                writeAscii("\\u00");
+                writeByte(HEX_DIGITS[character >> 4]);
+                writeByte(HEX_DIGITS[character & 0xF]);
+            } else if (character < 0x80) {
+                writeByte(character);
+            } else if (character < 0x800) {
+                writeByte(0xC0 | (character >> 6));
+                writeByte(0x80 | (character & 0x3F));
+            } else if (Character.isHighSurrogate(character)
+                    && index + 1 < length
+                    && Character.isLowSurrogate(value.charAt(index + 1))) {
+                final int codePoint = Character.toCodePoint(character, value.charAt(++index));
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(character)) {
+                // unpaired surrogate, e.g. cut by the maximum length
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | (character >> 12));
+                writeByte(0x80 | ((character >> 6) & 0x3F));
+                writeByte(0x80 | (character & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            writeByte((int) ('0' + (value / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Write a byte, bytes which don't fit are dropped - callers roll back to the last complete value
+     */
+    private void writeByte(int value) {
+        if (position < buffer.length) {
+            buffer[position] = (byte) value;
+        }
+        position++;
+    }
+}
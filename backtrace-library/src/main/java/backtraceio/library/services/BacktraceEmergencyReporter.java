@@ -0,0 +1,263 @@
+package backtraceio.library.services;
+
+import backtraceio.library.common.BacktraceSerializeHelper;
+import backtraceio.library.common.BacktraceTimeHelper;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.database.BacktraceEmergencyReport;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reports uncaught {@link OutOfMemoryError}s when there is no memory left to build a regular report.
+ * <p>
+ * Everything the report needs is prepared up front: a ballast buffer released when the error is
+ * caught, a file opened in the database directory, an encoding buffer and attributes encoded to
+ * JSON. The report contains only the faulting thread stack and the cached attributes, it's written
+ * with a single write and converted to a regular database record on the next application start.
+ * </p>
+ */
+public class BacktraceEmergencyReporter {
+
+    private static final transient String LOG_TAG = BacktraceEmergencyReporter.class.getSimpleName();
+
+    /**
+     * Name of the database subdirectory storing emergency reports
+     */
+    public static final String DIRECTORY_NAME = "emergency";
+
+    /**
+     * Default size of memory released when the application runs out of memory
+     */
+    public static final int DEFAULT_BALLAST_SIZE = 256 * 1024;
+
+    /**
+     * Default size of the buffer the report is encoded to
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Minimum buffer size - enough for the longest report header and a few stack frames
+     */
+    static final int MIN_BUFFER_SIZE = 16 * 1024;
+
+    private static final String REPORT_EXTENSION = ".json";
+
+    /**
+     * Maximum depth of the cause chain searched for an out of memory error
+     */
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    /**
+     * Files opened by reporters of this process, they're skipped by {@link #recover(String)}
+     */
+    private static final Set<String> openedReportFiles = Collections.synchronizedSet(new HashSet<>());
+
+    private final File reportFile;
+
+    private final String reportId;
+
+    private final BacktraceEmergencyReportEncoder encoder;
+
+    private final int maxAttributesSize;
+
+    private final AtomicBoolean used = new AtomicBoolean(false);
+
+    private volatile FileOutputStream reportStream;
+
+    private volatile byte[] ballast;
+
+    private volatile byte[] attributes = new byte[0];
+
+    /**
+     * Prepare an emergency report in a database directory
+     *
+     * @param databasePath Backtrace database directory
+     * @param ballastSize  size of memory released when the application runs out of memory in bytes
+     * @throws IOException if the report file can't be created
+     */
+    public BacktraceEmergencyReporter(String databasePath, int ballastSize) throws IOException {
+        this(databasePath, ballastSize, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Prepare an emergency report in a database directory
+     *
+     * @param databasePath Backtrace database directory
+     * @param ballastSize  size of memory released when the application runs out of memory in bytes
+     * @param bufferSize   maximum size of the report in bytes
+     * @throws IOException if the report file can't be created
+     */
+    public BacktraceEmergencyReporter(String databasePath, int ballastSize, int bufferSize) throws IOException {
+        if (ballastSize < 0) {
+            throw new IllegalArgumentException("Ballast size cannot be negative");
+        }
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + " bytes");
+        }
+        final File directory = new File(databasePath, DIRECTORY_NAME);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create emergency report directory " + directory.getPath());
+        }
+        this.reportId = UUID.randomUUID().toString();
+        this.reportFile = new File(directory, reportId + REPORT_EXTENSION);
+        this.encoder = new BacktraceEmergencyReportEncoder(bufferSize);
+        this.maxAttributesSize = bufferSize / 2;
+        this.ballast = new byte[ballastSize];
+        openedReportFiles.add(reportFile.getAbsolutePath());
+        try {
+            this.reportStream = new FileOutputStream(reportFile);
+        } catch (IOException e) {
+            openedReportFiles.remove(reportFile.getAbsolutePath());
+            throw e;
+        }
+    }
+
+    /**
+     * Cache attributes included in the emergency report. Attributes are encoded right away, encoded
+     * attributes over half of the buffer size are skipped
+     *
+     * @param attributes report attributes
+     */
+    public void setAttributes(Map<String, String> attributes) {
+        this.attributes = attributes == null
+                ? new byte[0]
+                : BacktraceEmergencyReportEncoder.encodeAttributes(attributes, maxAttributesSize);
+    }
+
+    /**
+     * Check if the application ran out of memory
+     *
+     * @param throwable uncaught exception
+     * @return true if the exception or one of its causes is an {@link OutOfMemoryError}
+     */
+    public static boolean isOutOfMemory(Throwable throwable) {
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof OutOfMemoryError) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Release the ballast and write the emergency report. A reporter writes at most one report
+     *
+     * @param thread    thread which threw the exception
+     * @param throwable uncaught exception
+     * @return true if the report was written
+     */
+    public boolean report(Thread thread, Throwable throwable) {
+        if (throwable == null || !used.compareAndSet(false, true)) {
+            return false;
+        }
+        // give the rest of crash handling some memory back
+        ballast = null;
+
+        final FileOutputStream stream = reportStream;
+        if (stream == null) {
+            return false;
+        }
+        try {
+            encoder.encode(reportId, BacktraceTimeHelper.getTimestampSeconds(), thread, throwable, attributes);
+            stream.write(encoder.getBuffer(), 0, encoder.getLength());
+            stream.flush();
+            return true;
+        } catch (Throwable e) {
+            return false;
+        } finally {
+            closeStream();
+            // the report is complete, it can be recovered if the process survives the error
+            openedReportFiles.remove(reportFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Release prepared resources and remove the unused report file
+     */
+    public void close() {
+        ballast = null;
+        if (!used.compareAndSet(false, true)) {
+            return;
+        }
+        closeStream();
+        reportFile.delete();
+        openedReportFiles.remove(reportFile.getAbsolutePath());
+    }
+
+    /**
+     * Read emergency reports stored in the database directory by previous application runs. Files
+     * are removed once they're read, files which aren't valid reports are removed too
+     *
+     * @param databasePath Backtrace database directory
+     * @return emergency reports
+     */
+    public static List<BacktraceEmergencyReport> recover(String databasePath) {
+        final List<BacktraceEmergencyReport> reports = new ArrayList<>();
+        final File[] files = new File(databasePath, DIRECTORY_NAME).listFiles();
+        if (files == null) {
+            return reports;
+        }
+        for (File file : files) {
+            if (openedReportFiles.contains(file.getAbsolutePath())) {
+                continue;
+            }
+            if (file.isFile() && file.length() > 0) {
+                final BacktraceEmergencyReport report = readReport(file);
+                if (report != null) {
+                    reports.add(report);
+                }
+            }
+            if (!file.delete()) {
+                BacktraceLogger.w(LOG_TAG, "Cannot remove emergency report " + file.getName());
+            }
+        }
+        return reports;
+    }
+
+    private static BacktraceEmergencyReport readReport(File file) {
+        try {
+            final byte[] content = new byte[(int) file.length()];
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                int offset = 0;
+                int read;
+                while (offset < content.length
+                        && (read = inputStream.read(content, offset, content.length - offset)) > 0) {
+                    offset += read;
+                }
+            }
+            final String json = new String(content, StandardCharsets.UTF_8);
+            final BacktraceEmergencyReport report =
+                    BacktraceSerializeHelper.fromJson(json, BacktraceEmergencyReport.class);
+            return report != null && report.classifier != null ? report : null;
+        } catch (Exception e) {
+            BacktraceLogger.e(LOG_TAG, "Emergency report " + file.getName() + " is invalid", e);
+            return null;
+        }
+    }
+
+    private void closeStream() {
+        final FileOutputStream stream = reportStream;
+        reportStream = null;
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // nothing else can be done with the file
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package backtraceio.library.services;
 
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Message;
 import backtraceio.library.common.BacktraceMathHelper;
 import backtraceio.library.common.BacktraceSerializeHelper;
@@ -9,14 +10,38 @@ import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.models.metrics.Event;
 import backtraceio.library.models.metrics.EventsPayload;
 import backtraceio.library.models.metrics.EventsResult;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.net.HttpURLConnection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
 abstract class BacktraceEventsHandler<T extends Event> extends Handler {
 
     private static final transient String LOG_TAG = BacktraceEventsHandler.class.getSimpleName();
 
-    protected final BacktraceHandlerThread backtraceHandlerThread;
+    protected final HandlerThread backtraceHandlerThread;
+
+    /**
+     * Handler of the lane which executes server response callbacks. Null if callbacks should be executed
+     * on the events handler thread
+     */
+    private final Handler callbackHandler;
+
+    /**
+     * Scheduler of periodic flushes and retries. Null if the handler schedules them on its own thread
+     */
+    private final BacktraceScheduler scheduler;
+
+    /**
+     * Periodic flush task registered in the scheduler
+     */
+    private BacktraceScheduler.ScheduledTask periodicFlushTask;
+
+    /**
+     * Retries registered in the scheduler which didn't run yet
+     */
+    private final Set<BacktraceScheduler.ScheduledTask> retryTasks = new HashSet<>();
 
     /**
      * Backtrace metrics object
@@ -57,11 +82,28 @@ abstract class BacktraceEventsHandler<T extends Event> extends Handler {
      * @param backtraceHandlerThread Backtrace handler thread object
      * @param urlPrefix              Url routing prefix for metrics
      */
+    public BacktraceEventsHandler(
+            BacktraceMetrics backtraceMetrics, Api api, final HandlerThread backtraceHandlerThread, String urlPrefix) {
+        this(backtraceMetrics, api, backtraceHandlerThread, urlPrefix, null, null);
+    }
+
+    /**
+     * Create BacktraceEventsHandler instance
+     *
+     * @param backtraceMetrics       Backtrace metrics object
+     * @param api                    Backtrace API object
+     * @param backtraceHandlerThread Backtrace handler thread object
+     * @param urlPrefix              Url routing prefix for metrics
+     * @param callbackHandler        Handler of the lane which executes server response callbacks
+     * @param scheduler              Scheduler of periodic flushes and retries
+     */
     public BacktraceEventsHandler(
             BacktraceMetrics backtraceMetrics,
             Api api,
-            final BacktraceHandlerThread backtraceHandlerThread,
-            String urlPrefix) {
+            final HandlerThread backtraceHandlerThread,
+            String urlPrefix,
+            Handler callbackHandler,
+            BacktraceScheduler scheduler) {
         // This should always have a nonnull looper because BacktraceHandlerThread starts in the
         // constructor and getLooper blocks until the looper is ready if the thread is started
         //
@@ -73,14 +115,20 @@ abstract class BacktraceEventsHandler<T extends Event> extends Handler {
         }
         this.backtraceMetrics = backtraceMetrics;
         this.backtraceHandlerThread = backtraceHandlerThread;
+        this.callbackHandler = callbackHandler;
+        this.scheduler = scheduler;
         this.api = api;
         this.submissionUrl = backtraceMetrics.settings.getSubmissionUrl(urlPrefix);
         this.timeBetweenRetriesMillis = backtraceMetrics.settings.getTimeBetweenRetriesMillis();
 
         long timeIntervalMillis = backtraceMetrics.settings.getTimeIntervalMillis();
 
-        if (timeIntervalMillis != 0) {
-            final BacktraceEventsHandler handler = this;
+        if (timeIntervalMillis != 0 && scheduler != null) {
+            final BacktraceEventsHandler<T> handler = this;
+            final Runnable flush = handler::send;
+            this.periodicFlushTask = scheduler.schedulePeriodic(() -> handler.post(flush), timeIntervalMillis);
+        } else if (timeIntervalMillis != 0) {
+            final BacktraceEventsHandler<T> handler = this;
             handler.postDelayed(
                     new Runnable() {
                         @Override
@@ -108,10 +156,28 @@ abstract class BacktraceEventsHandler<T extends Event> extends Handler {
         this.maximumNumberOfEvents = maximumNumberOfEvents;
     }
 
+    /**
+     * Stop periodic flushes and pending retries
+     */
+    void close() {
+        if (scheduler != null) {
+            scheduler.cancel(periodicFlushTask);
+            periodicFlushTask = null;
+            synchronized (retryTasks) {
+                for (BacktraceScheduler.ScheduledTask retryTask : retryTasks) {
+                    scheduler.cancel(retryTask);
+                }
+                retryTasks.clear();
+            }
+        }
+        removeCallbacksAndMessages(null);
+    }
+
     public void send() {
         if (events == null || events.size() == 0) {
             return;
         }
+        BacktraceTelemetry.EVENTS_FLUSH_SIZE.record(events.size());
         sendEvents(events);
     }
 
@@ -122,11 +188,15 @@ abstract class BacktraceEventsHandler<T extends Event> extends Handler {
     @Override
     public void handleMessage(Message msg) {
         final BacktraceHandlerInputEvents input = (BacktraceHandlerInputEvents) msg.obj;
-        EventsResult result = getEventsResult(input);
+        final EventsResult result = getEventsResult(input);
 
         if (input.eventsOnServerResponseEventListener != null) {
             BacktraceLogger.d(LOG_TAG, "Processing result using custom event");
-            input.eventsOnServerResponseEventListener.onEvent(result);
+            if (callbackHandler != null) {
+                callbackHandler.post(() -> input.eventsOnServerResponseEventListener.onEvent(result));
+            } else {
+                input.eventsOnServerResponseEventListener.onEvent(result);
+            }
         }
 
         retrySendEvents(input, result.getStatusCode());
@@ -165,22 +235,39 @@ abstract class BacktraceEventsHandler<T extends Event> extends Handler {
 
     private void retrySendEvents(BacktraceHandlerInputEvents input, int statusCode) {
         if (statusCode > HttpURLConnection.HTTP_NOT_IMPLEMENTED && statusCode != HttpURLConnection.HTTP_VERSION) {
-            int numRetries = ++input.payload.numRetries;
+            @SuppressWarnings("unchecked")
+            final EventsPayload<T> payload = (EventsPayload<T>) input.payload;
+            int numRetries = ++payload.numRetries;
             if (numRetries >= BacktraceMetrics.maxNumberOfAttempts || timeBetweenRetriesMillis == 0) {
-                onMaximumAttemptsReached(input.payload.getEvents());
+                onMaximumAttemptsReached(payload.getEvents());
                 return;
             }
-            final BacktraceEventsHandler handler = this;
-            handler.postDelayed(
-                    new Runnable() {
-                        @Override
-                        public void run() {
-                            EventsPayload<T> payload = input.payload;
-                            payload.setDroppedEvents(numRetries);
-                            sendEventsPayload(payload);
-                        }
-                    },
-                    calculateNextRetryTime(numRetries));
+            final BacktraceEventsHandler<T> handler = this;
+            final Runnable retry = new Runnable() {
+                @Override
+                public void run() {
+                    payload.setDroppedEvents(numRetries);
+                    sendEventsPayload(payload);
+                }
+            };
+            final long nextRetryTime = calculateNextRetryTime(numRetries);
+            if (scheduler != null) {
+                final BacktraceScheduler.ScheduledTask[] retryTask = new BacktraceScheduler.ScheduledTask[1];
+                // the task can't run before it's registered, it removes itself under the same lock
+                synchronized (retryTasks) {
+                    retryTask[0] = scheduler.schedule(
+                            () -> {
+                                synchronized (retryTasks) {
+                                    retryTasks.remove(retryTask[0]);
+                                }
+                                handler.post(retry);
+                            },
+                            nextRetryTime);
+                    retryTasks.add(retryTask[0]);
+                }
+            } else {
+                handler.postDelayed(retry, nextRetryTime);
+            }
         }
     }
 }
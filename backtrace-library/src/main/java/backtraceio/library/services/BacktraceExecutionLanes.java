@@ -0,0 +1,113 @@
+package backtraceio.library.services;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.BacktraceData;
+import backtraceio.library.models.BacktraceExecutionSettings;
+import backtraceio.library.models.json.BacktraceReport;
+
+/**
+ * Execution lanes used by the Backtrace API. Every lane is a separate thread with its own queue:
+ * - fatal reports - unhandled exceptions, crashes and ANRs,
+ * - reports - handled exceptions and messages,
+ * - metrics - unique and summed events,
+ * - callbacks - user server response callbacks.
+ * A slow upload or a slow user callback blocks only its own lane.
+ */
+class BacktraceExecutionLanes {
+
+    private static final transient String LOG_TAG = BacktraceExecutionLanes.class.getSimpleName();
+
+    private final BacktraceHandlerThread fatalReportsThread;
+
+    private final BacktraceHandlerThread reportsThread;
+
+    private final HandlerThread metricsThread;
+
+    private final HandlerThread callbacksThread;
+
+    private final Handler callbacksHandler;
+
+    BacktraceExecutionLanes(BacktraceExecutionSettings settings) {
+        this.callbacksThread = new HandlerThread("BacktraceCallbacksThread", settings.getCallbacksPriority());
+        this.callbacksThread.start();
+        this.callbacksHandler = new Handler(this.callbacksThread.getLooper());
+
+        this.fatalReportsThread = new BacktraceHandlerThread(
+                "BacktraceFatalReportsThread", settings.getFatalReportsPriority(), callbacksHandler);
+        this.reportsThread = new BacktraceHandlerThread(
+                BacktraceHandlerThread.class.getSimpleName(), settings.getReportsPriority(), callbacksHandler);
+
+        this.metricsThread = new HandlerThread("BacktraceMetricsThread", settings.getMetricsPriority());
+        this.metricsThread.start();
+    }
+
+    /**
+     * Apply new lane priorities to already running threads
+     *
+     * @param settings execution settings
+     */
+    void applySettings(BacktraceExecutionSettings settings) {
+        setThreadPriority(fatalReportsThread, settings.getFatalReportsPriority());
+        setThreadPriority(reportsThread, settings.getReportsPriority());
+        setThreadPriority(metricsThread, settings.getMetricsPriority());
+        setThreadPriority(callbacksThread, settings.getCallbacksPriority());
+    }
+
+    void sendReport(BacktraceHandlerInputReport input) {
+        if (isFatal(input.data)) {
+            fatalReportsThread.sendReport(input);
+            return;
+        }
+        reportsThread.sendReport(input);
+    }
+
+    UniqueEventsHandler createUniqueEventsHandler(
+            BacktraceMetrics backtraceMetrics, BacktraceApi api, BacktraceScheduler scheduler) {
+        return new UniqueEventsHandler(backtraceMetrics, api, metricsThread, callbacksHandler, scheduler);
+    }
+
+    SummedEventsHandler createSummedEventsHandler(
+            BacktraceMetrics backtraceMetrics, BacktraceApi api, BacktraceScheduler scheduler) {
+        return new SummedEventsHandler(backtraceMetrics, api, metricsThread, callbacksHandler, scheduler);
+    }
+
+    /**
+     * Stop all lanes. Pending reports are still processed, delayed tasks are dropped
+     */
+    void quit() {
+        fatalReportsThread.quitSafely();
+        reportsThread.quitSafely();
+        metricsThread.quitSafely();
+        callbacksThread.quitSafely();
+    }
+
+    private static void setThreadPriority(HandlerThread thread, int priority) {
+        // getLooper waits until the thread is started and its thread id is available
+        if (thread.getLooper() == null) {
+            return;
+        }
+        try {
+            Process.setThreadPriority(thread.getThreadId(), priority);
+        } catch (Exception e) {
+            BacktraceLogger.e(LOG_TAG, "Cannot change priority of thread " + thread.getName(), e);
+        }
+    }
+
+    private static boolean isFatal(BacktraceData data) {
+        if (data == null) {
+            return false;
+        }
+        Object errorType = data.attributes != null ? data.attributes.get(BacktraceAttributeConsts.ErrorType) : null;
+        final BacktraceReport report = data.getReport();
+        if (errorType == null && report != null && report.attributes != null) {
+            errorType = report.attributes.get(BacktraceAttributeConsts.ErrorType);
+        }
+        return BacktraceAttributeConsts.UnhandledExceptionAttributeType.equals(errorType)
+                || BacktraceAttributeConsts.CrashAttributeType.equals(errorType)
+                || BacktraceAttributeConsts.AnrAttributeType.equals(errorType);
+    }
+}
@@ -1,5 +1,6 @@
 package backtraceio.library.services;
 
+import android.content.Context;
 import backtraceio.library.events.OnServerErrorEventListener;
 import backtraceio.library.events.OnServerResponseEventListener;
 import backtraceio.library.events.RequestHandler;
@@ -21,6 +22,26 @@ public class BacktraceHandlerInputReport extends BacktraceHandlerInput {
      */
     RequestHandler requestHandler;
 
+    /**
+     * Report submission url of the client which sends the report
+     */
+    final String url;
+
+    /**
+     * Context of the client which sends the report
+     */
+    final transient Context context;
+
+    /**
+     * Maximum size of a single attachment in bytes, 0 if unlimited
+     */
+    final long maxAttachmentSize;
+
+    /**
+     * Maximum size of all attachments in bytes, 0 if unlimited
+     */
+    final long maxTotalAttachmentsSize;
+
     /**
      * Initialize new instance of BacktraceHandlerInput
      *
@@ -28,13 +49,25 @@ public class BacktraceHandlerInputReport extends BacktraceHandlerInput {
      * @param serverResponseEventListener event callback that will be executed after receiving a response from the server
      * @param serverErrorEventListener    event callback that will be executed after receiving an error from the server
      * @param requestHandler              event callback which will be executed instead of default sending report to Backtrace server
+     * @param url                         report submission url
+     * @param context                     application context
+     * @param maxAttachmentSize           maximum size of a single attachment in bytes, 0 if unlimited
+     * @param maxTotalAttachmentsSize     maximum size of all attachments in bytes, 0 if unlimited
      */
     BacktraceHandlerInputReport(
             BacktraceData data,
             OnServerResponseEventListener serverResponseEventListener,
             OnServerErrorEventListener serverErrorEventListener,
-            RequestHandler requestHandler) {
+            RequestHandler requestHandler,
+            String url,
+            Context context,
+            long maxAttachmentSize,
+            long maxTotalAttachmentsSize) {
         super(serverErrorEventListener);
+        this.url = url;
+        this.context = context;
+        this.maxAttachmentSize = maxAttachmentSize;
+        this.maxTotalAttachmentsSize = maxTotalAttachmentsSize;
         this.data = data;
         this.serverResponseEventListener = serverResponseEventListener;
         this.requestHandler = requestHandler;
@@ -1,49 +1,47 @@
 package backtraceio.library.services;
 
-import android.content.Context;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
 import android.os.Message;
 import backtraceio.library.common.BacktraceSerializeHelper;
-import backtraceio.library.interfaces.Api;
 import backtraceio.library.logger.BacktraceLogger;
 import backtraceio.library.models.BacktraceDataAttachmentsFileHelper;
 import backtraceio.library.models.BacktraceResult;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Report lane - thread responsible for sending reports to Backtrace API
+ */
 public class BacktraceHandlerThread extends HandlerThread {
 
     private static final transient String LOG_TAG = BacktraceHandlerThread.class.getSimpleName();
 
-    private final transient Context context;
-    private BacktraceHandler mHandler;
-    private final String url;
-    private UniqueEventsHandler mUniqueEventsHandler;
-    private SummedEventsHandler mSummedEventsHandler;
+    /**
+     * Number of reports waiting in all report lanes
+     */
+    private static final AtomicInteger queuedReports = new AtomicInteger();
 
-    BacktraceHandlerThread(Context context, String name, String url) {
-        super(name);
-        this.url = url;
-        this.context = context;
-        this.start();
-    }
+    private BacktraceHandler mHandler;
 
-    UniqueEventsHandler createUniqueEventsHandler(BacktraceMetrics backtraceMetrics, Api api) {
-        this.mUniqueEventsHandler = new UniqueEventsHandler(backtraceMetrics, api, this);
-        return mUniqueEventsHandler;
-    }
+    /**
+     * Handler of the lane which executes server response callbacks
+     */
+    private final Handler callbackHandler;
 
-    SummedEventsHandler createSummedEventsHandler(BacktraceMetrics backtraceMetrics, Api api) {
-        this.mSummedEventsHandler = new SummedEventsHandler(backtraceMetrics, api, this);
-        return mSummedEventsHandler;
+    BacktraceHandlerThread(String name, int priority, Handler callbackHandler) {
+        super(name, priority);
+        this.callbackHandler = callbackHandler;
+        this.start();
     }
 
     @Override
     protected void onLooperPrepared() {
         super.onLooperPrepared();
         if (mHandler == null) {
-            mHandler = new BacktraceHandler(this.context, this.getLooper(), this.url);
+            mHandler = new BacktraceHandler(this.getLooper());
         }
     }
 
@@ -58,50 +56,47 @@ public class BacktraceHandlerThread extends HandlerThread {
         // getLooper will wait for the Looper to be ready:
         // https://stackoverflow.com/questions/30300555/android-what-happens-after-a-handlerthread-is-started
         if (mHandler == null) {
-            mHandler = new BacktraceHandler(this.context, this.getLooper(), this.url);
+            mHandler = new BacktraceHandler(this.getLooper());
         }
+        BacktraceTelemetry.REPORT_QUEUE_DEPTH.set(queuedReports.incrementAndGet());
         mHandler.sendMessage(createMessage(data));
     }
 
-    void sendUniqueEvents(BacktraceHandlerInputEvents data) {
-        mUniqueEventsHandler.sendMessage(createMessage(data));
-    }
-
-    void sendSummedEvents(BacktraceHandlerInputEvents data) {
-        mSummedEventsHandler.sendMessage(createMessage(data));
-    }
-
     private class BacktraceHandler extends Handler {
         private final transient String LOG_TAG = BacktraceHandler.class.getSimpleName();
 
-        private final transient Context context;
-        String url;
-
-        private BacktraceHandler(Context context, Looper looper, String url) {
+        private BacktraceHandler(Looper looper) {
             super(looper);
-            this.context = context;
-            this.url = url;
         }
 
         @Override
         public void handleMessage(Message msg) {
-            BacktraceHandlerInputReport mInput = (BacktraceHandlerInputReport) msg.obj;
-            BacktraceResult result;
+            final BacktraceHandlerInputReport mInput = (BacktraceHandlerInputReport) msg.obj;
+            BacktraceTelemetry.REPORT_QUEUE_DEPTH.set(queuedReports.decrementAndGet());
+            final BacktraceResult result;
             if (mInput.requestHandler != null) {
                 BacktraceLogger.d(LOG_TAG, "Sending using custom request handler");
                 result = mInput.requestHandler.onRequest(mInput.data);
             } else {
                 BacktraceLogger.d(LOG_TAG, "Sending report using default request handler");
+                final long serializationStart = BacktraceTelemetry.startTimer();
                 String json = BacktraceSerializeHelper.toJson(mInput.data);
+                BacktraceTelemetry.SERIALIZATION_TIME.recordElapsed(serializationStart);
                 List<String> attachments =
-                        BacktraceDataAttachmentsFileHelper.getValidAttachments(this.context, mInput.data);
+                        BacktraceDataAttachmentsFileHelper.getValidAttachments(mInput.context, mInput.data);
                 result = BacktraceReportSender.sendReport(
-                        url, json, attachments, mInput.data.getReport(), mInput.serverErrorEventListener);
+                        mInput.url,
+                        json,
+                        attachments,
+                        mInput.maxAttachmentSize,
+                        mInput.maxTotalAttachmentsSize,
+                        mInput.data.getReport(),
+                        mInput.serverErrorEventListener);
             }
 
             if (mInput.serverResponseEventListener != null) {
                 BacktraceLogger.d(LOG_TAG, "Processing result using custom event");
-                mInput.serverResponseEventListener.onEvent(result);
+                callbackHandler.post(() -> mInput.serverResponseEventListener.onEvent(result));
             }
         }
     }
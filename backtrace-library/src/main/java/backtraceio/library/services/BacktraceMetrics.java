@@ -5,7 +5,6 @@ import backtraceio.library.BacktraceCredentials;
 import backtraceio.library.common.ApplicationMetadataCache;
 import backtraceio.library.common.BacktraceStringHelper;
 import backtraceio.library.common.BacktraceTimeHelper;
-import backtraceio.library.common.serialization.DebugHelper;
 import backtraceio.library.events.EventsOnServerResponseEventListener;
 import backtraceio.library.events.EventsRequestHandler;
 import backtraceio.library.interfaces.Api;
@@ -16,6 +15,7 @@ import backtraceio.library.models.attributes.ReportDataBuilder;
 import backtraceio.library.models.json.BacktraceAttributes;
 import backtraceio.library.models.metrics.SummedEvent;
 import backtraceio.library.models.metrics.UniqueEvent;
+import backtraceio.library.telemetry.BacktraceStartupTrace;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import org.jetbrains.annotations.NotNull;
@@ -187,21 +187,22 @@ public final class BacktraceMetrics implements Metrics {
         this.applicationName = applicationMetadata.getApplicationName();
         this.applicationVersion = applicationMetadata.getApplicationVersion();
 
-        final long startMetricsSetup = DebugHelper.getCurrentTimeMillis();
+        final BacktraceStartupTrace.Section section = BacktraceStartupTrace.begin(BacktraceStartupTrace.METRICS);
 
-        setStartupUniqueEventName(uniqueEventName);
-        this.settings = settings;
-        this.enabled = true;
         try {
-            startMetricsEventHandlers(backtraceApi);
-            sendStartupEvent();
-            BacktraceLogger.d(LOG_TAG, "Metrics enabled");
-        } catch (Exception e) {
-            BacktraceLogger.e(LOG_TAG, "Could not enable metrics, exception " + e.getMessage());
+            setStartupUniqueEventName(uniqueEventName);
+            this.settings = settings;
+            this.enabled = true;
+            try {
+                startMetricsEventHandlers(backtraceApi);
+                sendStartupEvent();
+                BacktraceLogger.d(LOG_TAG, "Metrics enabled");
+            } catch (Exception e) {
+                BacktraceLogger.e(LOG_TAG, "Could not enable metrics, exception " + e.getMessage());
+            }
+        } finally {
+            BacktraceLogger.d(LOG_TAG, "Setup metrics integration took " + section.end() + " milliseconds");
         }
-        final long endMetricsSetup = DebugHelper.getCurrentTimeMillis();
-        BacktraceLogger.d(
-                LOG_TAG, "Setup metrics integration took " + (endMetricsSetup - startMetricsSetup) + " milliseconds");
     }
 
     /**
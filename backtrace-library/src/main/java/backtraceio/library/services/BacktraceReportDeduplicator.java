@@ -0,0 +1,292 @@
+package backtraceio.library.services;
+
+import android.os.SystemClock;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.BacktraceDeduplicationSettings;
+import backtraceio.library.models.BacktraceStackFrame;
+import backtraceio.library.models.json.BacktraceReport;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges reports with the same fingerprint into one representative report.
+ * <p>
+ * The first occurrence of a fingerprint is sent immediately. Next occurrences received within the
+ * aggregation window are held back and, once the window ends, the most recent one is released with the
+ * number of merged occurrences and first/last seen timestamps. Fingerprints are kept in a bounded LRU
+ * index keyed by a 64-bit hash of the report classifier and its top stack frames.
+ * </p>
+ */
+public class BacktraceReportDeduplicator {
+
+    private static final transient String LOG_TAG = BacktraceReportDeduplicator.class.getSimpleName();
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final BacktraceDeduplicationSettings settings;
+
+    /**
+     * Fingerprint index in access order - the eldest entry is the least recently seen fingerprint
+     */
+    private final LinkedHashMap<Long, Fingerprint> fingerprints;
+
+    /**
+     * Representative reports released by the index eviction, waiting to be drained
+     */
+    private final List<BacktraceReport> released = new ArrayList<>();
+
+    /**
+     * Earliest time when a held report should be released
+     */
+    private long nextExpiration = Long.MAX_VALUE;
+
+    public BacktraceReportDeduplicator(BacktraceDeduplicationSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("Deduplication settings can't be null");
+        }
+        this.settings = settings;
+        this.fingerprints = new LinkedHashMap<Long, Fingerprint>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Fingerprint> eldest) {
+                if (size() <= BacktraceReportDeduplicator.this.settings.getMaxFingerprints()) {
+                    return false;
+                }
+                BacktraceReport representative = eldest.getValue().release();
+                if (representative != null) {
+                    released.add(representative);
+                }
+                return true;
+            }
+        };
+    }
+
+    public BacktraceDeduplicationSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Pass report through the deduplication stage
+     *
+     * @param report report that should be sent
+     * @return report which should be sent now or null if the report has been merged into a pending aggregate
+     */
+    public BacktraceReport deduplicate(BacktraceReport report) {
+        return deduplicate(report, SystemClock.elapsedRealtime());
+    }
+
+    synchronized BacktraceReport deduplicate(BacktraceReport report, long now) {
+        if (report == null) {
+            return null;
+        }
+        final long fingerprint = getFingerprint(report, settings.getStackFrames());
+        Fingerprint entry = fingerprints.get(fingerprint);
+
+        if (entry == null || now - entry.windowStart >= settings.getWindowMillis()) {
+            if (entry != null) {
+                BacktraceReport representative = entry.release();
+                if (representative != null) {
+                    released.add(representative);
+                }
+            }
+            fingerprints.put(fingerprint, new Fingerprint(now));
+            return report;
+        }
+
+        entry.merge(report);
+        if (isFatal(report)) {
+            // the application is about to terminate - held reports won't be released later
+            return entry.release();
+        }
+        nextExpiration = Math.min(nextExpiration, entry.windowStart + settings.getWindowMillis());
+        BacktraceLogger.d(LOG_TAG, "Report merged into a pending duplicate aggregate");
+        return null;
+    }
+
+    /**
+     * Get representative reports whose aggregation window has ended
+     *
+     * @return list of reports that should be sent
+     */
+    public List<BacktraceReport> drainExpired() {
+        return drainExpired(SystemClock.elapsedRealtime());
+    }
+
+    synchronized List<BacktraceReport> drainExpired(long now) {
+        if (released.isEmpty() && now < nextExpiration) {
+            return Collections.emptyList();
+        }
+        final List<BacktraceReport> result = new ArrayList<>(released);
+        released.clear();
+
+        long next = Long.MAX_VALUE;
+        for (Fingerprint entry : fingerprints.values()) {
+            if (!entry.isHolding()) {
+                continue;
+            }
+            final long windowEnd = entry.windowStart + settings.getWindowMillis();
+            if (now >= windowEnd) {
+                result.add(entry.release());
+            } else {
+                next = Math.min(next, windowEnd);
+            }
+        }
+        nextExpiration = next;
+        return result;
+    }
+
+    /**
+     * Get time after which {@link #drainExpired()} releases held reports
+     *
+     * @return delay in milliseconds or -1 if no report is held
+     */
+    public long getNextExpirationDelay() {
+        return getNextExpirationDelay(SystemClock.elapsedRealtime());
+    }
+
+    synchronized long getNextExpirationDelay(long now) {
+        if (!released.isEmpty()) {
+            return 0;
+        }
+        if (nextExpiration == Long.MAX_VALUE) {
+            return -1;
+        }
+        return Math.max(0, nextExpiration - now);
+    }
+
+    /**
+     * Get all held representative reports regardless of their aggregation window
+     *
+     * @return list of reports that should be sent
+     */
+    public synchronized List<BacktraceReport> drainAll() {
+        final List<BacktraceReport> result = new ArrayList<>(released);
+        released.clear();
+        for (Fingerprint entry : fingerprints.values()) {
+            BacktraceReport representative = entry.release();
+            if (representative != null) {
+                result.add(representative);
+            }
+        }
+        nextExpiration = Long.MAX_VALUE;
+        return result;
+    }
+
+    /**
+     * @return number of fingerprints stored in the index
+     */
+    public synchronized int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Compute 64-bit FNV-1a hash of the report classifier and top stack frames. Message reports
+     * additionally include the message, because all of them share an empty classifier.
+     *
+     * @param report      Backtrace report
+     * @param stackFrames number of top stack frames to include
+     * @return report fingerprint
+     */
+    static long getFingerprint(BacktraceReport report, int stackFrames) {
+        long hash = hash(FNV_OFFSET_BASIS, report.classifier);
+        if (!Boolean.TRUE.equals(report.exceptionTypeReport)) {
+            hash = hash(hash, report.message);
+        }
+        final List<BacktraceStackFrame> frames = report.diagnosticStack;
+        if (frames == null) {
+            return hash;
+        }
+        final int limit = Math.min(stackFrames, frames.size());
+        for (int index = 0; index < limit; index++) {
+            BacktraceStackFrame frame = frames.get(index);
+            if (frame == null) {
+                continue;
+            }
+            hash = hash(hash, frame.functionName);
+            hash = hash(hash, frame.line != null ? frame.line : 0);
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+        if (value != null) {
+            for (int index = 0; index < value.length(); index++) {
+                hash = hash(hash, value.charAt(index));
+            }
+        }
+        // separator, so "ab" + "c" differs from "a" + "bc"
+        return hash(hash, 0x1f);
+    }
+
+    private static long hash(long hash, int value) {
+        hash ^= value;
+        return hash * FNV_PRIME;
+    }
+
+    private static boolean isFatal(BacktraceReport report) {
+        if (report.attributes == null) {
+            return false;
+        }
+        final Object errorType = report.attributes.get(BacktraceAttributeConsts.ErrorType);
+        return BacktraceAttributeConsts.UnhandledExceptionAttributeType.equals(errorType)
+                || BacktraceAttributeConsts.CrashAttributeType.equals(errorType);
+    }
+
+    /**
+     * Aggregation state of a single fingerprint
+     */
+    private static class Fingerprint {
+        /**
+         * Time when the current aggregation window started
+         */
+        private final long windowStart;
+
+        /**
+         * Most recent duplicate - the report which will represent the aggregate
+         */
+        private BacktraceReport representative;
+
+        private int occurrences;
+
+        private long firstSeen;
+
+        private long lastSeen;
+
+        Fingerprint(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        boolean isHolding() {
+            return representative != null;
+        }
+
+        void merge(BacktraceReport report) {
+            if (occurrences == 0) {
+                firstSeen = report.timestamp;
+            }
+            occurrences++;
+            lastSeen = report.timestamp;
+            representative = report;
+        }
+
+        BacktraceReport release() {
+            final BacktraceReport report = this.representative;
+            if (report == null) {
+                return null;
+            }
+            if (report.attributes != null) {
+                report.attributes.put(BacktraceAttributeConsts.DuplicateCount, occurrences);
+                report.attributes.put(BacktraceAttributeConsts.DuplicateFirstSeen, firstSeen);
+                report.attributes.put(BacktraceAttributeConsts.DuplicateLastSeen, lastSeen);
+            }
+            this.representative = null;
+            this.occurrences = 0;
+            return report;
+        }
+    }
+}
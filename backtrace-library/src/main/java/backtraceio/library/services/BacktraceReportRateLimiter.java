@@ -0,0 +1,196 @@
+package backtraceio.library.services;
+
+import android.os.SystemClock;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.BacktraceRateLimitSettings;
+import backtraceio.library.models.json.BacktraceReport;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limiter for report submissions.
+ * <p>
+ * A report is sent only if the global bucket, the bucket of its classifier and the bucket of its
+ * error.type attribute all have a token available. Classifier buckets are striped - classifiers are
+ * mapped to a fixed number of buckets by their hash. Every bucket is a single {@link AtomicLong}
+ * updated with compare-and-set, so checking a report never takes a lock.
+ * </p>
+ */
+public class BacktraceReportRateLimiter {
+
+    private static final transient String LOG_TAG = BacktraceReportRateLimiter.class.getSimpleName();
+
+    /**
+     * Number of classifier buckets, must be a power of 2
+     */
+    private static final int CLASSIFIER_STRIPES = 64;
+
+    private final TokenBucket globalBucket;
+
+    private final TokenBucket[] classifierBuckets;
+
+    /**
+     * Error type buckets - created once and never modified, so reads don't need synchronization
+     */
+    private final Map<String, TokenBucket> errorTypeBuckets = new HashMap<>();
+
+    /**
+     * Number of reports suppressed since the last time the counter was attached to a report
+     */
+    private final AtomicLong suppressedReports = new AtomicLong();
+
+    /**
+     * Number of all reports suppressed by this rate limiter
+     */
+    private final AtomicLong totalSuppressedReports = new AtomicLong();
+
+    public BacktraceReportRateLimiter(BacktraceRateLimitSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("Rate limit settings can't be null");
+        }
+        final long periodNanos = TimeUnit.MILLISECONDS.toNanos(settings.getPeriodMillis());
+        this.globalBucket = TokenBucket.create(settings.getGlobalLimit(), periodNanos);
+
+        if (settings.getClassifierLimit() > 0) {
+            this.classifierBuckets = new TokenBucket[CLASSIFIER_STRIPES];
+            for (int index = 0; index < CLASSIFIER_STRIPES; index++) {
+                this.classifierBuckets[index] = TokenBucket.create(settings.getClassifierLimit(), periodNanos);
+            }
+        } else {
+            this.classifierBuckets = null;
+        }
+
+        for (Map.Entry<String, Integer> errorTypeLimit :
+                settings.getErrorTypeLimits().entrySet()) {
+            TokenBucket bucket = TokenBucket.create(errorTypeLimit.getValue(), periodNanos);
+            if (bucket != null) {
+                this.errorTypeBuckets.put(errorTypeLimit.getKey(), bucket);
+            }
+        }
+    }
+
+    /**
+     * Check if the report can be sent and take tokens from all matching buckets
+     *
+     * @param report report that should be sent
+     * @return true if the report can be sent, false if it should be suppressed
+     */
+    public boolean tryAcquire(BacktraceReport report) {
+        return tryAcquire(report, SystemClock.elapsedRealtimeNanos());
+    }
+
+    boolean tryAcquire(BacktraceReport report, long nowNanos) {
+        if (report == null) {
+            return false;
+        }
+        final Object errorType =
+                report.attributes != null ? report.attributes.get(BacktraceAttributeConsts.ErrorType) : null;
+        final TokenBucket errorTypeBucket = errorType != null ? errorTypeBuckets.get(errorType.toString()) : null;
+        final TokenBucket classifierBucket = getClassifierBucket(report.classifier);
+
+        if (errorTypeBucket != null && !errorTypeBucket.tryAcquire(nowNanos)) {
+            return suppress();
+        }
+        if (classifierBucket != null && !classifierBucket.tryAcquire(nowNanos)) {
+            if (errorTypeBucket != null) {
+                errorTypeBucket.refund();
+            }
+            return suppress();
+        }
+        if (globalBucket != null && !globalBucket.tryAcquire(nowNanos)) {
+            if (errorTypeBucket != null) {
+                errorTypeBucket.refund();
+            }
+            if (classifierBucket != null) {
+                classifierBucket.refund();
+            }
+            return suppress();
+        }
+        return true;
+    }
+
+    /**
+     * Get number of reports suppressed since the previous call and reset the counter
+     *
+     * @return number of suppressed reports
+     */
+    public long getAndResetSuppressedReports() {
+        return suppressedReports.getAndSet(0);
+    }
+
+    /**
+     * @return number of all reports suppressed by this rate limiter
+     */
+    public long getTotalSuppressedReports() {
+        return totalSuppressedReports.get();
+    }
+
+    private boolean suppress() {
+        suppressedReports.incrementAndGet();
+        totalSuppressedReports.incrementAndGet();
+        BacktraceLogger.d(LOG_TAG, "Report suppressed by the rate limiter");
+        return false;
+    }
+
+    private TokenBucket getClassifierBucket(String classifier) {
+        if (classifierBuckets == null) {
+            return null;
+        }
+        int hash = classifier != null ? classifier.hashCode() : 0;
+        // spread higher bits, so classifiers with the same suffix don't collide
+        hash ^= (hash >>> 16);
+        return classifierBuckets[hash & (CLASSIFIER_STRIPES - 1)];
+    }
+
+    /**
+     * Lock-free token bucket implemented as the generic cell rate algorithm. The bucket state is the
+     * theoretical arrival time of the next report - a report conforms if taking a token doesn't move
+     * that time further than one period ahead of now.
+     */
+    private static class TokenBucket {
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Time in nanoseconds needed to refill one token
+         */
+        private final long emissionInterval;
+
+        /**
+         * Bucket capacity expressed in time
+         */
+        private final long capacity;
+
+        private TokenBucket(long emissionInterval, long capacity) {
+            this.emissionInterval = emissionInterval;
+            this.capacity = capacity;
+        }
+
+        static TokenBucket create(int limit, long periodNanos) {
+            if (limit <= 0) {
+                return null;
+            }
+            final long emissionInterval = Math.max(1, periodNanos / limit);
+            return new TokenBucket(emissionInterval, emissionInterval * limit);
+        }
+
+        boolean tryAcquire(long now) {
+            while (true) {
+                final long current = theoreticalArrivalTime.get();
+                final long next = Math.max(current, now) + emissionInterval;
+                if (next - now > capacity) {
+                    return false;
+                }
+                if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        void refund() {
+            theoreticalArrivalTime.addAndGet(-emissionInterval);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import backtraceio.library.models.metrics.EventsPayload;
 import backtraceio.library.models.metrics.EventsResult;
 import backtraceio.library.models.types.BacktraceResultStatus;
 import backtraceio.library.models.types.HttpException;
+import backtraceio.library.telemetry.BacktraceTelemetry;
 import java.io.DataOutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -31,21 +32,26 @@ class BacktraceReportSender {
     /**
      * Send HTTP request for certain url server with information about device, error, attachments
      *
-     * @param serverUrl     server http address to which the request will be sent
-     * @param json          message with information about device and error
-     * @param attachments   list of paths to files that should be sent
-     * @param report        information about error
-     * @param errorCallback event that will be executed after receiving an error from the server
+     * @param serverUrl               server http address to which the request will be sent
+     * @param json                    message with information about device and error
+     * @param attachments             list of paths to files that should be sent
+     * @param maxAttachmentSize       maximum size of a single attachment in bytes, 0 if unlimited
+     * @param maxTotalAttachmentsSize maximum size of all attachments in bytes, 0 if unlimited
+     * @param report                  information about error
+     * @param errorCallback           event that will be executed after receiving an error from the server
      * @return information from the server about the result of processing the request
      */
     static BacktraceResult sendReport(
             String serverUrl,
             String json,
             List<String> attachments,
+            long maxAttachmentSize,
+            long maxTotalAttachmentsSize,
             BacktraceReport report,
             OnServerErrorEventListener errorCallback) {
         HttpURLConnection urlConnection = null;
         BacktraceResult result;
+        final long uploadStart = BacktraceTelemetry.startTimer();
 
         try {
             URL url = new URL(serverUrl);
@@ -67,15 +73,18 @@ class BacktraceReportSender {
             DataOutputStream request = new DataOutputStream(urlConnection.getOutputStream());
 
             MultiFormRequestHelper.addJson(request, json);
-            MultiFormRequestHelper.addFiles(request, attachments);
+            MultiFormRequestHelper.addFiles(request, attachments, maxAttachmentSize, maxTotalAttachmentsSize);
             MultiFormRequestHelper.addEndOfRequest(request);
 
             request.flush();
             request.close();
+            BacktraceTelemetry.REPORT_UPLOAD_BYTES.add(request.size());
 
             int statusCode = urlConnection.getResponseCode();
-            BacktraceLogger.d(
-                    LOG_TAG, "Received response status from Backtrace API for HTTP request is: " + statusCode);
+            if (BacktraceLogger.isDebugEnabled()) {
+                BacktraceLogger.d(
+                        LOG_TAG, "Received response status from Backtrace API for HTTP request is: " + statusCode);
+            }
 
             if (statusCode == HttpURLConnection.HTTP_OK) {
                 final String responseJson = HttpHelper.getResponseMessage(urlConnection);
@@ -96,6 +105,7 @@ class BacktraceReportSender {
                 errorCallback.onEvent(e);
             }
             BacktraceLogger.e(LOG_TAG, "Sending HTTP request failed to Backtrace API", e);
+            BacktraceTelemetry.REPORT_UPLOAD_FAILURES.increment();
             result = BacktraceResult.OnError(report, e);
         } finally {
             if (urlConnection != null) {
@@ -108,6 +118,7 @@ class BacktraceReportSender {
                 }
             }
         }
+        BacktraceTelemetry.REPORT_UPLOAD_TIME.recordElapsed(uploadStart);
         return result;
     }
 
@@ -125,6 +136,7 @@ class BacktraceReportSender {
         HttpURLConnection urlConnection = null;
         EventsResult result;
         int statusCode = -1;
+        final long uploadStart = BacktraceTelemetry.startTimer();
 
         try {
             URL url = new URL(serverUrl);
@@ -147,10 +159,13 @@ class BacktraceReportSender {
 
             request.flush();
             request.close();
+            BacktraceTelemetry.EVENTS_UPLOAD_BYTES.add(request.size());
 
             statusCode = urlConnection.getResponseCode();
-            BacktraceLogger.d(
-                    LOG_TAG, "Received response status from Backtrace API for HTTP request is: " + statusCode);
+            if (BacktraceLogger.isDebugEnabled()) {
+                BacktraceLogger.d(
+                        LOG_TAG, "Received response status from Backtrace API for HTTP request is: " + statusCode);
+            }
 
             if (statusCode == HttpURLConnection.HTTP_OK) {
                 result = new EventsResult(
@@ -179,6 +194,7 @@ class BacktraceReportSender {
                 }
             }
         }
+        BacktraceTelemetry.EVENTS_UPLOAD_TIME.recordElapsed(uploadStart);
         return result;
     }
 }
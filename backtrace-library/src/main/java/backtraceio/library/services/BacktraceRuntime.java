@@ -0,0 +1,134 @@
+package backtraceio.library.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.BacktraceExecutionSettings;
+
+/**
+ * Runtime shared by all Backtrace clients in the process. The runtime owns the execution lanes and
+ * the scheduler of periodic work, so any number of clients costs one set of threads.
+ * <p>
+ * The runtime is reference counted - every owner acquires it with
+ * {@link #acquire(Context, BacktraceExecutionSettings)} and has to call {@link #release()} once it
+ * doesn't need it anymore. Threads are stopped when the last reference is released. Runtime doesn't
+ * store any client state - credentials, submission urls and attributes travel with every request.
+ * </p>
+ */
+public final class BacktraceRuntime {
+
+    private static final transient String LOG_TAG = BacktraceRuntime.class.getSimpleName();
+
+    private static final Object lock = new Object();
+
+    private static BacktraceRuntime instance;
+
+    private static int references = 0;
+
+    private final BacktraceExecutionLanes lanes;
+
+    private final BacktraceScheduler scheduler;
+
+    private final HandlerThread schedulerThread;
+
+    private final Handler schedulerHandler;
+
+    /**
+     * Wakes up the scheduler. Handler delays don't count deep sleep, so the scheduler never wakes the
+     * device up on its own - overdue tasks run together once the device is awake again
+     */
+    private final Runnable schedulerWakeUp = new Runnable() {
+        @Override
+        public void run() {
+            schedulerHandler.removeCallbacks(this);
+            long nextDelay = scheduler.runDueTasks();
+            if (nextDelay != -1) {
+                schedulerHandler.postDelayed(this, nextDelay);
+            }
+        }
+    };
+
+    private BacktraceAppStateMonitor appStateMonitor;
+
+    private BacktraceRuntime(BacktraceExecutionSettings settings) {
+        this.lanes = new BacktraceExecutionLanes(settings);
+        this.schedulerThread = new HandlerThread("BacktraceSchedulerThread", Process.THREAD_PRIORITY_BACKGROUND);
+        this.schedulerThread.start();
+        this.schedulerHandler = new Handler(this.schedulerThread.getLooper());
+        this.scheduler = new BacktraceScheduler();
+        this.scheduler.setWakeUpListener(delayMillis -> {
+            schedulerHandler.removeCallbacks(schedulerWakeUp);
+            schedulerHandler.postDelayed(schedulerWakeUp, delayMillis);
+        });
+    }
+
+    /**
+     * Get the shared runtime and increase its reference count. If the runtime doesn't exist yet,
+     * it's created with passed execution settings, otherwise settings of the existing runtime are kept.
+     *
+     * @param context  application context used to follow the application state, can be null
+     * @param settings execution lanes configuration used when the runtime is created
+     * @return shared runtime
+     */
+    public static BacktraceRuntime acquire(Context context, BacktraceExecutionSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("BacktraceExecutionSettings cannot be null");
+        }
+        synchronized (lock) {
+            if (instance == null) {
+                BacktraceLogger.d(LOG_TAG, "Starting Backtrace runtime");
+                instance = new BacktraceRuntime(settings);
+            }
+            if (instance.appStateMonitor == null) {
+                instance.appStateMonitor = BacktraceAppStateMonitor.register(context, instance.scheduler);
+            }
+            references++;
+            return instance;
+        }
+    }
+
+    /**
+     * Decrease the reference count of the runtime. Threads owned by the runtime are stopped when the
+     * last reference is released.
+     */
+    public void release() {
+        synchronized (lock) {
+            if (instance != this || references == 0) {
+                return;
+            }
+            references--;
+            if (references != 0) {
+                return;
+            }
+            instance = null;
+        }
+        BacktraceLogger.d(LOG_TAG, "Stopping Backtrace runtime");
+        if (appStateMonitor != null) {
+            appStateMonitor.unregister();
+        }
+        schedulerThread.quitSafely();
+        lanes.quit();
+    }
+
+    /**
+     * @return number of owners of the shared runtime
+     */
+    static int getReferenceCount() {
+        synchronized (lock) {
+            return references;
+        }
+    }
+
+    /**
+     * @return scheduler of periodic and delayed work shared by all clients
+     */
+    public BacktraceScheduler getScheduler() {
+        return scheduler;
+    }
+
+    BacktraceExecutionLanes getLanes() {
+        return lanes;
+    }
+}
@@ -0,0 +1,243 @@
+package backtraceio.library.services;
+
+import backtraceio.library.common.BacktraceClock;
+import backtraceio.library.common.TimingWheel;
+import backtraceio.library.logger.BacktraceLogger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduler for all periodic and delayed work of the library - database retries, metrics flushes and
+ * metrics retries.
+ * <p>
+ * Deadlines are stored in a {@link TimingWheel} with a tick equal to the alignment window, so every
+ * task due in the same window runs in one wake-up instead of each task waking the device on its own
+ * schedule. While the application is in the background or the device is idle, periodic tasks are
+ * spaced out by {@link #BACKGROUND_BACKOFF_MULTIPLIER}.
+ * </p>
+ * <p>
+ * The scheduler doesn't own a thread. The owner calls {@link #runDueTasks()} when the next deadline
+ * passes and is notified through {@link WakeUpListener} when an earlier deadline is scheduled.
+ * </p>
+ */
+public class BacktraceScheduler {
+
+    private static final transient String LOG_TAG = BacktraceScheduler.class.getSimpleName();
+
+    /**
+     * Default alignment window in milliseconds
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = 5000;
+
+    /**
+     * Number of times periodic tasks are slowed down while the application is in the background
+     */
+    public static final int BACKGROUND_BACKOFF_MULTIPLIER = 4;
+
+    private static final int WHEEL_SLOTS = 512;
+
+    /**
+     * Listener notified when the scheduler needs to be woken up earlier than planned
+     */
+    public interface WakeUpListener {
+        /**
+         * @param delayMillis time in milliseconds after which {@link #runDueTasks()} should be called
+         */
+        void onWakeUpRequested(long delayMillis);
+    }
+
+    private final BacktraceClock clock;
+
+    private final TimingWheel<ScheduledTask> wheel;
+
+    private final List<ScheduledTask> expiredTasks = new ArrayList<>();
+
+    private WakeUpListener wakeUpListener;
+
+    /**
+     * Deadline the owner was asked to wake up at, -1 if no wake up is planned
+     */
+    private long plannedWakeUp = -1;
+
+    private boolean background = false;
+
+    public BacktraceScheduler() {
+        this(BacktraceClock.SYSTEM, DEFAULT_WINDOW_MILLIS);
+    }
+
+    /**
+     * Create a new scheduler
+     *
+     * @param clock        time source
+     * @param windowMillis alignment window - deadlines within the same window are executed together
+     */
+    public BacktraceScheduler(BacktraceClock clock, long windowMillis) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock can't be null");
+        }
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(windowMillis, WHEEL_SLOTS, clock.elapsedRealtime());
+    }
+
+    public synchronized void setWakeUpListener(WakeUpListener wakeUpListener) {
+        this.wakeUpListener = wakeUpListener;
+        this.plannedWakeUp = -1;
+        requestWakeUp();
+    }
+
+    /**
+     * Inform the scheduler if the application is in the background or the device is idle. Periodic
+     * tasks are executed less often in this mode, starting from their next run.
+     *
+     * @param background true if the application is in the background or the device is idle
+     */
+    public synchronized void setBackground(boolean background) {
+        if (this.background == background) {
+            return;
+        }
+        BacktraceLogger.d(
+                LOG_TAG, background ? "Scheduler enters background mode" : "Scheduler enters foreground mode");
+        this.background = background;
+    }
+
+    public synchronized boolean isBackground() {
+        return background;
+    }
+
+    /**
+     * Execute a task once after a delay
+     *
+     * @param task        task to execute
+     * @param delayMillis delay in milliseconds
+     * @return handle which can be used to cancel the task
+     */
+    public ScheduledTask schedule(Runnable task, long delayMillis) {
+        return scheduleTask(new ScheduledTask(task, 0), delayMillis);
+    }
+
+    /**
+     * Execute a task periodically. The first execution happens after one interval
+     *
+     * @param task           task to execute
+     * @param intervalMillis interval in milliseconds
+     * @return handle which can be used to cancel the task
+     */
+    public ScheduledTask schedulePeriodic(Runnable task, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be greater than zero");
+        }
+        return scheduleTask(new ScheduledTask(task, intervalMillis), intervalMillis);
+    }
+
+    /**
+     * Cancel a scheduled task. A task that is currently running finishes, but won't be executed again
+     *
+     * @param task handle returned by schedule methods
+     */
+    public synchronized void cancel(ScheduledTask task) {
+        if (task == null) {
+            return;
+        }
+        task.cancelled = true;
+        wheel.remove(task.entry);
+        task.entry = null;
+    }
+
+    /**
+     * @return number of scheduled tasks
+     */
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Execute all tasks whose deadlines passed
+     *
+     * @return delay in milliseconds to the next deadline, or -1 if nothing is scheduled
+     */
+    public long runDueTasks() {
+        final List<ScheduledTask> tasks;
+        synchronized (this) {
+            plannedWakeUp = -1;
+            wheel.advance(clock.elapsedRealtime(), expiredTasks);
+            tasks = new ArrayList<>(expiredTasks);
+            expiredTasks.clear();
+            for (ScheduledTask task : tasks) {
+                task.entry = null;
+            }
+        }
+
+        for (ScheduledTask task : tasks) {
+            if (task.cancelled) {
+                continue;
+            }
+            try {
+                task.runnable.run();
+            } catch (Exception e) {
+                BacktraceLogger.e(LOG_TAG, "Scheduled task failed", e);
+            }
+        }
+
+        synchronized (this) {
+            for (ScheduledTask task : tasks) {
+                if (task.isPeriodic() && !task.cancelled) {
+                    long interval =
+                            background ? task.intervalMillis * BACKGROUND_BACKOFF_MULTIPLIER : task.intervalMillis;
+                    task.entry = wheel.add(task, clock.elapsedRealtime() + interval);
+                }
+            }
+            long nextDeadline = wheel.nextDeadline();
+            if (nextDeadline == -1) {
+                return -1;
+            }
+            plannedWakeUp = nextDeadline;
+            return Math.max(0, nextDeadline - clock.elapsedRealtime());
+        }
+    }
+
+    private ScheduledTask scheduleTask(ScheduledTask task, long delayMillis) {
+        if (task.runnable == null) {
+            throw new IllegalArgumentException("Task can't be null");
+        }
+        synchronized (this) {
+            task.entry = wheel.add(task, clock.elapsedRealtime() + Math.max(0, delayMillis));
+            requestWakeUp();
+        }
+        return task;
+    }
+
+    private void requestWakeUp() {
+        final long nextDeadline = wheel.nextDeadline();
+        if (wakeUpListener == null || nextDeadline == -1) {
+            return;
+        }
+        if (plannedWakeUp != -1 && plannedWakeUp <= nextDeadline) {
+            return;
+        }
+        plannedWakeUp = nextDeadline;
+        wakeUpListener.onWakeUpRequested(Math.max(0, nextDeadline - clock.elapsedRealtime()));
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class ScheduledTask {
+        private final Runnable runnable;
+        private final long intervalMillis;
+        private TimingWheel.Entry<ScheduledTask> entry;
+        private volatile boolean cancelled = false;
+
+        private ScheduledTask(Runnable runnable, long intervalMillis) {
+            this.runnable = runnable;
+            this.intervalMillis = intervalMillis;
+        }
+
+        boolean isPeriodic() {
+            return intervalMillis > 0;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
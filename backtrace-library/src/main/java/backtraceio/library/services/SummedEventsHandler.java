@@ -1,5 +1,7 @@
 package backtraceio.library.services;
 
+import android.os.Handler;
+import android.os.HandlerThread;
 import backtraceio.library.interfaces.Api;
 import backtraceio.library.models.metrics.EventsPayload;
 import backtraceio.library.models.metrics.SummedEvent;
@@ -13,11 +15,19 @@ public class SummedEventsHandler extends BacktraceEventsHandler<SummedEvent> {
 
     private static final String urlPrefix = "summed-events";
 
-    public SummedEventsHandler(
-            BacktraceMetrics backtraceMetrics, Api api, final BacktraceHandlerThread backtraceHandlerThread) {
+    public SummedEventsHandler(BacktraceMetrics backtraceMetrics, Api api, final HandlerThread backtraceHandlerThread) {
         super(backtraceMetrics, api, backtraceHandlerThread, urlPrefix);
     }
 
+    public SummedEventsHandler(
+            BacktraceMetrics backtraceMetrics,
+            Api api,
+            final HandlerThread backtraceHandlerThread,
+            Handler callbackHandler,
+            BacktraceScheduler scheduler) {
+        super(backtraceMetrics, api, backtraceHandlerThread, urlPrefix, callbackHandler, scheduler);
+    }
+
     @Override
     protected SummedEventsPayload getEventsPayload() {
         Map<String, String> attributes = backtraceMetrics.createLocalAttributes(null);
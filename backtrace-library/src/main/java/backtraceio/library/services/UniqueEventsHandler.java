@@ -1,5 +1,7 @@
 package backtraceio.library.services;
 
+import android.os.Handler;
+import android.os.HandlerThread;
 import backtraceio.library.common.BacktraceTimeHelper;
 import backtraceio.library.interfaces.Api;
 import backtraceio.library.models.metrics.EventsPayload;
@@ -14,11 +16,19 @@ public class UniqueEventsHandler extends BacktraceEventsHandler<UniqueEvent> {
 
     private static final String urlPrefix = "unique-events";
 
-    public UniqueEventsHandler(
-            BacktraceMetrics backtraceMetrics, Api api, final BacktraceHandlerThread backtraceHandlerThread) {
+    public UniqueEventsHandler(BacktraceMetrics backtraceMetrics, Api api, final HandlerThread backtraceHandlerThread) {
         super(backtraceMetrics, api, backtraceHandlerThread, urlPrefix);
     }
 
+    public UniqueEventsHandler(
+            BacktraceMetrics backtraceMetrics,
+            Api api,
+            final HandlerThread backtraceHandlerThread,
+            Handler callbackHandler,
+            BacktraceScheduler scheduler) {
+        super(backtraceMetrics, api, backtraceHandlerThread, urlPrefix, callbackHandler, scheduler);
+    }
+
     @Override
     protected UniqueEventsPayload getEventsPayload() {
         Map<String, String> attributes = backtraceMetrics.createLocalAttributes(null);
@@ -0,0 +1,114 @@
+package backtraceio.library.telemetry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timings of SDK initialization phases recorded by {@link BacktraceStartupTrace}
+ */
+public final class BacktraceStartupReport {
+
+    private final List<Phase> phases;
+
+    BacktraceStartupReport(List<Phase> phases) {
+        this.phases = Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * @return recorded phases in the order they finished
+     */
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Get the total time spent in a phase. Phases executed by many clients or many times are summed up
+     *
+     * @param name name of the phase
+     * @return duration in milliseconds, 0 if the phase wasn't recorded
+     */
+    public double getDurationMillis(String name) {
+        long durationNanos = 0;
+        for (Phase phase : phases) {
+            if (phase.getName().equals(name)) {
+                durationNanos += phase.getDurationNanos();
+            }
+        }
+        return durationNanos / 1e6;
+    }
+
+    /**
+     * @return total time of all recorded phases in milliseconds. Nested phases are counted twice
+     */
+    public double getTotalDurationMillis() {
+        long durationNanos = 0;
+        for (Phase phase : phases) {
+            durationNanos += phase.getDurationNanos();
+        }
+        return durationNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Backtrace startup report");
+        for (Phase phase : phases) {
+            builder.append('\n').append(phase);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Timing of a single initialization phase
+     */
+    public static final class Phase {
+        private final String name;
+        private final String threadName;
+        private final long startElapsedRealtime;
+        private final long durationNanos;
+
+        Phase(String name, String threadName, long startElapsedRealtime, long durationNanos) {
+            this.name = name;
+            this.threadName = threadName;
+            this.startElapsedRealtime = startElapsedRealtime;
+            this.durationNanos = durationNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return name of the thread which executed the phase
+         */
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return phase start time in milliseconds since boot
+         */
+        public long getStartElapsedRealtime() {
+            return startElapsedRealtime;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public double getDurationMillis() {
+            return durationNanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ROOT,
+                    "%s: %.3f ms (thread: %s, started at: %d)",
+                    name,
+                    getDurationMillis(),
+                    threadName,
+                    startElapsedRealtime);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package backtraceio.library.telemetry;
+
+import android.os.SystemClock;
+import android.os.Trace;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+
+/**
+ * Tracing of SDK initialization phases. Every phase is wrapped in an {@link Trace} section, so it's
+ * visible in systrace and Perfetto captures, and its timing is stored in memory so it can be queried
+ * with {@link #getReport()} on any device.
+ * <p>
+ * Phases are recorded by all Backtrace clients in the process. Only the most recent
+ * {@link #MAX_PHASES} phases are kept.
+ * </p>
+ */
+public final class BacktraceStartupTrace {
+
+    public static final String STATIC_ATTRIBUTES = "BacktraceStaticAttributes.init";
+
+    public static final String DATABASE_LOAD = "BacktraceDatabase.load";
+
+    public static final String NATIVE_INTEGRATION = "BacktraceDatabase.setupNativeIntegration";
+
+    public static final String NATIVE_LIBRARY_RESOLUTION = "CrashHandlerConfiguration.resolveNativeLibrary";
+
+    public static final String BREADCRUMBS = "BacktraceBreadcrumbs.enable";
+
+    public static final String METRICS = "BacktraceMetrics.enable";
+
+    public static final String ANR_HANDLER = "BacktraceClient.enableAnr";
+
+    /**
+     * Maximum number of stored phases
+     */
+    public static final int MAX_PHASES = 64;
+
+    private static final String TRACE_SECTION_PREFIX = "Backtrace:";
+
+    /**
+     * Trace section names are limited to 127 characters
+     */
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static final Deque<BacktraceStartupReport.Phase> phases = new ArrayDeque<>();
+
+    private BacktraceStartupTrace() {}
+
+    /**
+     * Start a phase on the current thread. The returned section has to be ended on the same thread,
+     * preferably in a {@code finally} block.
+     *
+     * @param name name of the phase
+     * @return started section
+     */
+    public static Section begin(String name) {
+        String sectionName = TRACE_SECTION_PREFIX + name;
+        if (sectionName.length() > MAX_SECTION_NAME_LENGTH) {
+            sectionName = sectionName.substring(0, MAX_SECTION_NAME_LENGTH);
+        }
+        Trace.beginSection(sectionName);
+        return new Section(name, SystemClock.elapsedRealtime(), System.nanoTime());
+    }
+
+    /**
+     * @return timings of recorded initialization phases in the order they finished
+     */
+    public static BacktraceStartupReport getReport() {
+        synchronized (phases) {
+            return new BacktraceStartupReport(new ArrayList<>(phases));
+        }
+    }
+
+    /**
+     * Remove all recorded phases
+     */
+    public static void clear() {
+        synchronized (phases) {
+            phases.clear();
+        }
+    }
+
+    private static void record(BacktraceStartupReport.Phase phase) {
+        synchronized (phases) {
+            if (phases.size() == MAX_PHASES) {
+                phases.removeFirst();
+            }
+            phases.addLast(phase);
+        }
+    }
+
+    /**
+     * Running initialization phase
+     */
+    public static final class Section {
+        private final String name;
+        private final long startElapsedRealtime;
+        private final long startNanos;
+        private boolean ended = false;
+
+        private Section(String name, long startElapsedRealtime, long startNanos) {
+            this.name = name;
+            this.startElapsedRealtime = startElapsedRealtime;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * End the phase and record its timing. Subsequent calls are ignored
+         *
+         * @return duration of the phase in milliseconds
+         */
+        public long end() {
+            final long durationNanos = System.nanoTime() - startNanos;
+            if (ended) {
+                return durationNanos / 1000000;
+            }
+            ended = true;
+            Trace.endSection();
+            record(new BacktraceStartupReport.Phase(
+                    name, Thread.currentThread().getName(), startElapsedRealtime, durationNanos));
+            return durationNanos / 1000000;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package backtraceio.library.telemetry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in telemetry of the SDK itself - how much time and how many resources every stage of the
+ * report pipeline costs. Telemetry is disabled by default; while disabled, recording is a single
+ * volatile read. Metrics are shared by all Backtrace clients in the process.
+ * <p>
+ * Times are recorded in microseconds.
+ * </p>
+ */
+public final class BacktraceTelemetry {
+
+    /**
+     * Value returned by {@link #startTimer()} while telemetry is disabled
+     */
+    static final long TIMER_DISABLED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = false;
+
+    /**
+     * Time of collecting report attributes
+     */
+    public static final TelemetryHistogram ATTRIBUTES_COLLECTION_TIME =
+            new TelemetryHistogram("sdk.attributes.collection.us");
+
+    /**
+     * Time of capturing threads and their stack traces
+     */
+    public static final TelemetryHistogram THREADS_CAPTURE_TIME = new TelemetryHistogram("sdk.threads.capture.us");
+
+    /**
+     * Time of serializing a report to JSON before the upload
+     */
+    public static final TelemetryHistogram SERIALIZATION_TIME = new TelemetryHistogram("sdk.serialization.us");
+
+    /**
+     * Time of writing a record to the database
+     */
+    public static final TelemetryHistogram DATABASE_WRITE_TIME = new TelemetryHistogram("sdk.database.write.us");
+
+    /**
+     * Time of reading a record from the database
+     */
+    public static final TelemetryHistogram DATABASE_READ_TIME = new TelemetryHistogram("sdk.database.read.us");
+
+    /**
+     * Number of records in the database
+     */
+    public static final TelemetryGauge DATABASE_RECORDS = new TelemetryGauge("sdk.database.records");
+
+    /**
+     * Number of reports waiting in the report lanes
+     */
+    public static final TelemetryGauge REPORT_QUEUE_DEPTH = new TelemetryGauge("sdk.reports.queue");
+
+    /**
+     * Time of a report upload, from opening the connection to receiving the response
+     */
+    public static final TelemetryHistogram REPORT_UPLOAD_TIME = new TelemetryHistogram("sdk.reports.upload.us");
+
+    /**
+     * Number of report bytes sent, including attachments
+     */
+    public static final TelemetryCounter REPORT_UPLOAD_BYTES = new TelemetryCounter("sdk.reports.upload.bytes");
+
+    /**
+     * Number of failed report uploads
+     */
+    public static final TelemetryCounter REPORT_UPLOAD_FAILURES = new TelemetryCounter("sdk.reports.upload.failures");
+
+    /**
+     * Number of attachments truncated to their end because they exceeded the attachment size limits
+     */
+    public static final TelemetryCounter REPORT_ATTACHMENTS_TRUNCATED =
+            new TelemetryCounter("sdk.reports.attachments.truncated");
+
+    /**
+     * Time of an events upload
+     */
+    public static final TelemetryHistogram EVENTS_UPLOAD_TIME = new TelemetryHistogram("sdk.events.upload.us");
+
+    /**
+     * Number of events bytes sent
+     */
+    public static final TelemetryCounter EVENTS_UPLOAD_BYTES = new TelemetryCounter("sdk.events.upload.bytes");
+
+    /**
+     * Number of events sent in one flush
+     */
+    public static final TelemetryHistogram EVENTS_FLUSH_SIZE = new TelemetryHistogram("sdk.events.flush.size");
+
+    /**
+     * Time of adding a breadcrumb
+     */
+    public static final TelemetryHistogram BREADCRUMB_ADD_TIME = new TelemetryHistogram("sdk.breadcrumbs.add.us");
+
+    /**
+     * Time of generating an asynchronous native dump without crash, the count is the number of dumps
+     */
+    public static final TelemetryHistogram DUMP_WITHOUT_CRASH_TIME = new TelemetryHistogram("sdk.native.dump.us");
+
+    /**
+     * Number of asynchronous dump without crash requests merged into an already waiting dump
+     */
+    public static final TelemetryCounter DUMP_WITHOUT_CRASH_MERGED = new TelemetryCounter("sdk.native.dump.merged");
+
+    private static final TelemetryHistogram[] histograms = {
+        ATTRIBUTES_COLLECTION_TIME,
+        THREADS_CAPTURE_TIME,
+        SERIALIZATION_TIME,
+        DATABASE_WRITE_TIME,
+        DATABASE_READ_TIME,
+        REPORT_UPLOAD_TIME,
+        EVENTS_UPLOAD_TIME,
+        EVENTS_FLUSH_SIZE,
+        BREADCRUMB_ADD_TIME,
+        DUMP_WITHOUT_CRASH_TIME
+    };
+
+    private static final TelemetryCounter[] counters = {
+        REPORT_UPLOAD_BYTES,
+        REPORT_UPLOAD_FAILURES,
+        REPORT_ATTACHMENTS_TRUNCATED,
+        EVENTS_UPLOAD_BYTES,
+        DUMP_WITHOUT_CRASH_MERGED,
+    };
+
+    private static final TelemetryGauge[] gauges = {DATABASE_RECORDS, REPORT_QUEUE_DEPTH};
+
+    private BacktraceTelemetry() {}
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stop recording. Already recorded values are kept until {@link #reset()}
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start measuring time. Pass the result to {@link TelemetryHistogram#recordElapsed(long)}
+     *
+     * @return current time in nanoseconds, or a marker ignored by histograms if telemetry is disabled
+     */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : TIMER_DISABLED;
+    }
+
+    /**
+     * @return current values of all metrics
+     */
+    public static TelemetrySnapshot snapshot() {
+        Map<String, TelemetryHistogram.Snapshot> histogramValues = new LinkedHashMap<>();
+        for (TelemetryHistogram histogram : histograms) {
+            histogramValues.put(histogram.getName(), histogram.snapshot());
+        }
+        Map<String, Long> counterValues = new LinkedHashMap<>();
+        for (TelemetryCounter counter : counters) {
+            counterValues.put(counter.getName(), counter.get());
+        }
+        Map<String, Long> gaugeValues = new LinkedHashMap<>();
+        Map<String, Long> gaugeMaximums = new LinkedHashMap<>();
+        for (TelemetryGauge gauge : gauges) {
+            gaugeValues.put(gauge.getName(), gauge.get());
+            gaugeMaximums.put(gauge.getName(), gauge.getMax());
+        }
+        return new TelemetrySnapshot(
+                System.currentTimeMillis(), histogramValues, counterValues, gaugeValues, gaugeMaximums);
+    }
+
+    /**
+     * Clear all recorded values
+     */
+    public static void reset() {
+        for (TelemetryHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        for (TelemetryCounter counter : counters) {
+            counter.reset();
+        }
+        for (TelemetryGauge gauge : gauges) {
+            gauge.reset();
+        }
+    }
+}
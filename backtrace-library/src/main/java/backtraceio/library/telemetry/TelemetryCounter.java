@@ -0,0 +1,45 @@
+package backtraceio.library.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counter, e.g. number of bytes sent
+ */
+public final class TelemetryCounter {
+
+    private final String name;
+
+    private final AtomicLong value = new AtomicLong();
+
+    TelemetryCounter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Increase the counter if telemetry is enabled
+     *
+     * @param delta value to add
+     */
+    public void add(long delta) {
+        if (!BacktraceTelemetry.isEnabled()) {
+            return;
+        }
+        value.addAndGet(delta);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    void reset() {
+        value.set(0);
+    }
+}
@@ -0,0 +1,55 @@
+package backtraceio.library.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current value of a quantity which goes up and down, e.g. queue depth, with its high-water mark
+ */
+public final class TelemetryGauge {
+
+    private final String name;
+
+    private final AtomicLong value = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    TelemetryGauge(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Set the current value if telemetry is enabled
+     *
+     * @param current current value
+     */
+    public void set(long current) {
+        if (!BacktraceTelemetry.isEnabled()) {
+            return;
+        }
+        value.set(current);
+        long currentMax = max.get();
+        while (current > currentMax && !max.compareAndSet(currentMax, current)) {
+            currentMax = max.get();
+        }
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    /**
+     * @return highest value set since telemetry was enabled or reset
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    void reset() {
+        value.set(0);
+        max.set(0);
+    }
+}
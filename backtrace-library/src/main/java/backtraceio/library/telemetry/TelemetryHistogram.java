@@ -0,0 +1,175 @@
+package backtraceio.library.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram with power of two buckets. Bucket {@code i} counts values from
+ * {@code 2^(i-1)} to {@code 2^i - 1}, so percentiles are accurate within a factor of two while
+ * recording is a few atomic increments and takes a constant amount of memory.
+ */
+public final class TelemetryHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final String name;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong sum = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record values even if SDK telemetry is disabled
+     */
+    private final boolean independent;
+
+    TelemetryHistogram(String name) {
+        this(name, false);
+    }
+
+    private TelemetryHistogram(String name, boolean independent) {
+        this.name = name;
+        this.independent = independent;
+    }
+
+    /**
+     * Create a histogram which records values regardless of SDK telemetry being enabled. Used by
+     * monitors which are enabled on their own
+     *
+     * @param name name of the histogram
+     * @return new histogram
+     */
+    public static TelemetryHistogram createIndependent(String name) {
+        return new TelemetryHistogram(name, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record a value if telemetry is enabled or the histogram is independent. Negative values are
+     * recorded as zero
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        if (!independent && !BacktraceTelemetry.isEnabled()) {
+            return;
+        }
+        final long normalizedValue = Math.max(0, value);
+        buckets.incrementAndGet(getBucket(normalizedValue));
+        count.incrementAndGet();
+        sum.addAndGet(normalizedValue);
+        long currentMax = max.get();
+        while (normalizedValue > currentMax && !max.compareAndSet(currentMax, normalizedValue)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Record time in microseconds elapsed since a timer was started
+     *
+     * @param startNanos value returned by {@link BacktraceTelemetry#startTimer()}
+     */
+    public void recordElapsed(long startNanos) {
+        if (startNanos == BacktraceTelemetry.TIMER_DISABLED) {
+            return;
+        }
+        record((System.nanoTime() - startNanos) / 1000);
+    }
+
+    public Snapshot snapshot() {
+        long[] values = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            values[i] = buckets.get(i);
+        }
+        return new Snapshot(name, count.get(), sum.get(), max.get(), values);
+    }
+
+    /**
+     * Remove all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int getBucket(long value) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * Point in time copy of a histogram. Counters are read one by one, so a snapshot taken while
+     * values are recorded can be off by the values recorded in the meantime.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long[] buckets;
+
+        Snapshot(String name, long count, long sum, long max, long[] buckets) {
+            this.name = name;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.buckets = buckets;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Get an upper bound of a percentile
+         *
+         * @param percentile value from 0 to 100
+         * @return upper bound of the bucket containing the percentile, never greater than the maximum
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100d * total));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    long upperBound = i == 0 ? 0 : (1L << Math.min(i, 62)) - 1;
+                    return Math.min(upperBound, max);
+                }
+            }
+            return max;
+        }
+    }
+}
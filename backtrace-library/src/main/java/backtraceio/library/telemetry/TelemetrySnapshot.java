@@ -0,0 +1,97 @@
+package backtraceio.library.telemetry;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Values of all telemetry metrics at a point in time
+ */
+public final class TelemetrySnapshot {
+
+    private final long timestamp;
+
+    private final Map<String, TelemetryHistogram.Snapshot> histograms;
+
+    private final Map<String, Long> counters;
+
+    private final Map<String, Long> gauges;
+
+    private final Map<String, Long> gaugeMaximums;
+
+    TelemetrySnapshot(
+            long timestamp,
+            Map<String, TelemetryHistogram.Snapshot> histograms,
+            Map<String, Long> counters,
+            Map<String, Long> gauges,
+            Map<String, Long> gaugeMaximums) {
+        this.timestamp = timestamp;
+        this.histograms = Collections.unmodifiableMap(histograms);
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.gaugeMaximums = Collections.unmodifiableMap(gaugeMaximums);
+    }
+
+    /**
+     * @return time in milliseconds since epoch when the snapshot was taken
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, TelemetryHistogram.Snapshot> getHistograms() {
+        return histograms;
+    }
+
+    public TelemetryHistogram.Snapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public long getCounter(String name) {
+        Long value = counters.get(name);
+        return value == null ? 0 : value;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public long getGauge(String name) {
+        Long value = gauges.get(name);
+        return value == null ? 0 : value;
+    }
+
+    public long getGaugeMax(String name) {
+        Long value = gaugeMaximums.get(name);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Flatten the snapshot to attributes - histograms are represented by their count, p50, p99 and
+     * maximum, gauges by their current value and maximum. Histograms without values are skipped.
+     *
+     * @return snapshot as attributes, e.g. to send it as a summed event
+     */
+    public Map<String, Object> toAttributes() {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (TelemetryHistogram.Snapshot histogram : histograms.values()) {
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            attributes.put(histogram.getName() + ".count", histogram.getCount());
+            attributes.put(histogram.getName() + ".p50", histogram.getPercentile(50));
+            attributes.put(histogram.getName() + ".p99", histogram.getPercentile(99));
+            attributes.put(histogram.getName() + ".max", histogram.getMax());
+        }
+        attributes.putAll(counters);
+        for (Map.Entry<String, Long> gauge : gauges.entrySet()) {
+            attributes.put(gauge.getKey(), gauge.getValue());
+            attributes.put(gauge.getKey() + ".max", getGaugeMax(gauge.getKey()));
+        }
+        return attributes;
+    }
+}
@@ -6,8 +6,9 @@ import android.os.Looper;
 import backtraceio.library.BacktraceClient;
 import backtraceio.library.anr.BacktraceANRHandler;
 import backtraceio.library.anr.BacktraceANRSettings;
+import backtraceio.library.anr.BacktraceStallProfilerSettings;
+import backtraceio.library.common.BacktraceClock;
 import backtraceio.library.logger.BacktraceLogger;
-import java.util.Calendar;
 
 /**
  * This is the class that is responsible for monitoring the
@@ -37,6 +38,21 @@ public class BacktraceANRHandlerWatchdog extends Thread implements BacktraceANRH
      */
     private final int timeout;
 
+    /**
+     * Interval in milliseconds at which the main thread is checked
+     */
+    private final int resolution;
+
+    /**
+     * Heartbeat posted to the main thread - reused, so monitoring doesn't allocate
+     */
+    private final BacktraceMainThreadHeartbeat heartbeat = new BacktraceMainThreadHeartbeat(BacktraceClock.UPTIME);
+
+    /**
+     * Samples the blocked main thread before an ANR is reported, null if profiling is disabled
+     */
+    private final BacktraceStallProfiler stallProfiler;
+
     /**
      * Event which will be executed instead of default handling ANR error
      */
@@ -74,10 +90,44 @@ public class BacktraceANRHandlerWatchdog extends Thread implements BacktraceANRH
      * @param debug   enable debug mode - errors will not be sent if the debugger is connected
      */
     public BacktraceANRHandlerWatchdog(BacktraceClient client, int timeout, boolean debug) {
+        this(client, timeout, debug, BacktraceANRSettings.DEFAULT_ANR_RESOLUTION);
+    }
+
+    /**
+     * Initialize new instance of BacktraceANRWatchdog
+     *
+     * @param client     current Backtrace client instance which will be used to send information about exception
+     * @param timeout    maximum time in milliseconds after which should check if the main thread is not hanged
+     * @param debug      enable debug mode - errors will not be sent if the debugger is connected
+     * @param resolution interval in milliseconds at which the main thread is checked, values greater than
+     *                   the timeout are reduced to the timeout
+     */
+    public BacktraceANRHandlerWatchdog(BacktraceClient client, int timeout, boolean debug, int resolution) {
+        this(client, timeout, debug, resolution, null);
+    }
+
+    /**
+     * Initialize new instance of BacktraceANRWatchdog
+     *
+     * @param client                current Backtrace client instance which will be used to send information about exception
+     * @param timeout               maximum time in milliseconds after which should check if the main thread is not hanged
+     * @param debug                 enable debug mode - errors will not be sent if the debugger is connected
+     * @param resolution            interval in milliseconds at which the main thread is checked, values greater than
+     *                              the timeout are reduced to the timeout
+     * @param stallProfilerSettings configuration of sampling of the blocked main thread, null to disable it
+     */
+    public BacktraceANRHandlerWatchdog(
+            BacktraceClient client,
+            int timeout,
+            boolean debug,
+            int resolution,
+            BacktraceStallProfilerSettings stallProfilerSettings) {
         BacktraceLogger.d(LOG_TAG, "Start monitoring ANR");
         this.backtraceClient = client;
         this.timeout = timeout;
+        this.resolution = Math.max(1, Math.min(resolution, timeout));
         this.debug = debug;
+        this.stallProfiler = stallProfilerSettings != null ? new BacktraceStallProfiler(stallProfilerSettings) : null;
         this.start();
     }
 
@@ -95,28 +145,37 @@ public class BacktraceANRHandlerWatchdog extends Thread implements BacktraceANRH
             return;
         }
 
+        final Thread mainThread = Looper.getMainLooper().getThread();
         boolean reported = false;
+        long delay = this.resolution;
         while (!shouldStop && !isInterrupted()) {
-            String dateTimeNow = Calendar.getInstance().getTime().toString();
-            BacktraceLogger.d(LOG_TAG, "ANR WATCHDOG - " + dateTimeNow);
-            final BacktraceThreadWatcher threadWatcher = new BacktraceThreadWatcher(0, 0);
-            mainThreadHandler.post(new Runnable() {
-                @Override
-                public void run() {
-                    threadWatcher.tickCounter();
-                }
-            });
+            if (heartbeat.prepare()) {
+                mainThreadHandler.post(heartbeat);
+            }
             try {
-                Thread.sleep(this.timeout);
+                Thread.sleep(delay);
             } catch (InterruptedException e) {
                 BacktraceLogger.e(LOG_TAG, "Thread is interrupted", e);
                 return;
             }
-            threadWatcher.tickPrivateCounter();
+            delay = this.resolution;
 
-            if (threadWatcher.getCounter() == threadWatcher.getPrivateCounter()) {
-                reported = false;
-                BacktraceLogger.d(LOG_TAG, "ANR is not detected");
+            final long stallDuration = heartbeat.getStallDurationMillis();
+            if (stallDuration < this.timeout) {
+                if (reported) {
+                    reported = false;
+                    onMainThreadRecovered(heartbeat.getLastDelayMillis());
+                }
+                if (stallProfiler == null) {
+                    continue;
+                }
+                if (stallDuration == 0) {
+                    // main thread recovered before the ANR, the samples are not needed anymore
+                    stallProfiler.finish();
+                } else if (stallDuration >= stallProfiler.getThreshold()) {
+                    final long sampleDelay = stallProfiler.sample(mainThread, stallDuration);
+                    delay = Math.max(1, Math.min(sampleDelay, this.timeout - stallDuration));
+                }
                 continue;
             }
 
@@ -126,7 +185,19 @@ public class BacktraceANRHandlerWatchdog extends Thread implements BacktraceANRH
             }
             reported = true;
             BacktraceWatchdogShared.sendReportCauseBlockedThread(
-                    backtraceClient, Looper.getMainLooper().getThread(), onApplicationNotRespondingEvent, LOG_TAG);
+                    backtraceClient,
+                    mainThread,
+                    onApplicationNotRespondingEvent,
+                    LOG_TAG,
+                    stallDuration,
+                    stallProfiler != null ? stallProfiler.finish() : null);
+        }
+    }
+
+    private void onMainThreadRecovered(final long stallDuration) {
+        BacktraceLogger.d(LOG_TAG, () -> "Main thread recovered after being blocked for " + stallDuration + " ms");
+        if (backtraceClient != null && onApplicationNotRespondingEvent == null) {
+            backtraceClient.addBreadcrumb("ANR recovered - thread was blocked for " + stallDuration + " ms");
         }
     }
 
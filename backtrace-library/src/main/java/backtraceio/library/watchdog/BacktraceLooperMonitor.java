@@ -0,0 +1,260 @@
+package backtraceio.library.watchdog;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Printer;
+import backtraceio.library.BacktraceClient;
+import backtraceio.library.enums.BacktraceBreadcrumbLevel;
+import backtraceio.library.enums.BacktraceBreadcrumbType;
+import backtraceio.library.events.OnSlowMessageEventListener;
+import backtraceio.library.logger.BacktraceLogger;
+import backtraceio.library.models.BacktraceLooperMonitorSettings;
+import backtraceio.library.telemetry.TelemetryHistogram;
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times every message dispatched on the main looper. Dispatch times are recorded in a histogram and
+ * messages which take longer than the threshold are reported as breadcrumbs or summed events, so
+ * the health of the main thread is known between ANRs.
+ * <p>
+ * The monitor is installed with {@link Looper#setMessageLogging(Printer)}. A printer set before is
+ * kept - lines are forwarded to it and it's restored when the monitor is stopped. Timing a message
+ * doesn't allocate - lines printed by the looper are parsed only for slow messages, and breadcrumbs
+ * of slow messages are written on a background thread.
+ * </p>
+ */
+public final class BacktraceLooperMonitor implements Printer {
+
+    private static final String LOG_TAG = BacktraceLooperMonitor.class.getSimpleName();
+
+    private static final String BREADCRUMB_MESSAGE = "Slow main thread message";
+
+    private final BacktraceClient backtraceClient;
+
+    private final BacktraceLooperMonitorSettings settings;
+
+    private final long slowMessageThresholdNanos;
+
+    /**
+     * Time in microseconds spent dispatching messages
+     */
+    private final TelemetryHistogram dispatchTime = TelemetryHistogram.createIndependent("looper.dispatch.us");
+
+    private final AtomicLong slowMessages = new AtomicLong();
+
+    private volatile OnSlowMessageEventListener onSlowMessageEventListener;
+
+    /**
+     * Printer set on the main looper before the monitor, null if there was none or it can't be read
+     */
+    private volatile Printer previousPrinter;
+
+    /**
+     * True if dispatched messages are timed. A stopped monitor which is still installed only
+     * forwards lines to the previous printer
+     */
+    private volatile boolean running = false;
+
+    /**
+     * Thread writing breadcrumbs of slow messages, null if the monitor is stopped or doesn't add breadcrumbs
+     */
+    private HandlerThread breadcrumbsThread;
+
+    private volatile Handler breadcrumbsHandler;
+
+    /**
+     * Line printed before the message currently dispatched, null if no message is dispatched.
+     * Accessed only by the main thread
+     */
+    private String dispatchedMessage;
+
+    private long dispatchStartNanos;
+
+    /**
+     * Create a new looper monitor. The monitor has to be started with {@link #start()}
+     *
+     * @param client   Backtrace client used to report slow messages, can be null
+     * @param settings looper monitor settings
+     */
+    public BacktraceLooperMonitor(BacktraceClient client, BacktraceLooperMonitorSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("BacktraceLooperMonitorSettings cannot be null");
+        }
+        this.backtraceClient = client;
+        this.settings = settings;
+        this.slowMessageThresholdNanos = settings.getSlowMessageThresholdMillis() * 1000000;
+    }
+
+    /**
+     * Start timing messages dispatched on the main looper
+     */
+    public synchronized void start() {
+        BacktraceLogger.d(LOG_TAG, "Start monitoring main looper");
+        if (backtraceClient != null && settings.isReportAsBreadcrumbs() && breadcrumbsThread == null) {
+            breadcrumbsThread = new HandlerThread("BacktraceLooperMonitorThread", Process.THREAD_PRIORITY_BACKGROUND);
+            breadcrumbsThread.start();
+            breadcrumbsHandler = new Handler(breadcrumbsThread.getLooper());
+        }
+        final Looper looper = Looper.getMainLooper();
+        Printer currentPrinter = null;
+        try {
+            currentPrinter = getMessageLogging(looper);
+        } catch (Exception e) {
+            BacktraceLogger.w(LOG_TAG, "Cannot read the main looper printer, it will be replaced");
+        }
+        attach(currentPrinter != this ? currentPrinter : previousPrinter);
+        looper.setMessageLogging(this);
+    }
+
+    /**
+     * Stop timing messages dispatched on the main looper. The previous printer is restored only if the
+     * monitor is still installed - a printer set after the monitor is kept and the monitor keeps
+     * forwarding lines it receives to the previous printer
+     */
+    public synchronized void stop() {
+        BacktraceLogger.d(LOG_TAG, "Stop monitoring main looper");
+        detach();
+        if (breadcrumbsThread != null) {
+            breadcrumbsHandler = null;
+            breadcrumbsThread.quitSafely();
+            breadcrumbsThread = null;
+        }
+        final Looper looper = Looper.getMainLooper();
+        try {
+            if (getMessageLogging(looper) == this) {
+                looper.setMessageLogging(previousPrinter);
+            }
+        } catch (Exception e) {
+            BacktraceLogger.w(LOG_TAG, "Cannot read the main looper printer, the monitor stays installed");
+        }
+    }
+
+    void attach(Printer previousPrinter) {
+        this.previousPrinter = previousPrinter;
+        this.running = true;
+    }
+
+    void detach() {
+        this.running = false;
+    }
+
+    /**
+     * Get the printer set on a looper, Looper doesn't expose it
+     */
+    private static Printer getMessageLogging(Looper looper) throws ReflectiveOperationException {
+        final Field field = Looper.class.getDeclaredField("mLogging");
+        field.setAccessible(true);
+        return (Printer) field.get(looper);
+    }
+
+    /**
+     * Set an event executed on the main thread after a slow message is dispatched
+     *
+     * @param eventListener object with method which will be executed
+     */
+    public void setOnSlowMessageEventListener(OnSlowMessageEventListener eventListener) {
+        this.onSlowMessageEventListener = eventListener;
+    }
+
+    /**
+     * @return time in microseconds spent dispatching messages
+     */
+    public TelemetryHistogram.Snapshot getDispatchTimeSnapshot() {
+        return dispatchTime.snapshot();
+    }
+
+    /**
+     * @return number of messages which took longer than the threshold
+     */
+    public long getSlowMessageCount() {
+        return slowMessages.get();
+    }
+
+    /**
+     * Remove recorded dispatch times
+     */
+    public void reset() {
+        dispatchTime.reset();
+        slowMessages.set(0);
+    }
+
+    /**
+     * Called by the looper before and after every dispatched message
+     *
+     * @param line {@code >>>>> Dispatching to ...} or {@code <<<<< Finished to ...}
+     */
+    @Override
+    public void println(String line) {
+        final Printer previousPrinter = this.previousPrinter;
+        if (previousPrinter != null) {
+            previousPrinter.println(line);
+        }
+        if (!running) {
+            // a message dispatched while the monitor was stopped can't be timed after a restart
+            dispatchedMessage = null;
+            return;
+        }
+        if (line == null || line.isEmpty()) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final char marker = line.charAt(0);
+        if (marker == '>') {
+            onDispatchStart(line, now);
+        } else if (marker == '<') {
+            onDispatchFinish(now);
+        }
+    }
+
+    void onDispatchStart(String line, long nanos) {
+        dispatchedMessage = line;
+        dispatchStartNanos = nanos;
+    }
+
+    void onDispatchFinish(long nanos) {
+        final String line = dispatchedMessage;
+        if (line == null) {
+            // monitor was installed while a message was dispatched
+            return;
+        }
+        dispatchedMessage = null;
+        final long durationNanos = nanos - dispatchStartNanos;
+        dispatchTime.record(durationNanos / 1000);
+        if (durationNanos >= slowMessageThresholdNanos) {
+            onSlowMessage(BacktraceSlowMessage.parse(line, durationNanos / 1000000));
+        }
+    }
+
+    private void onSlowMessage(BacktraceSlowMessage message) {
+        slowMessages.incrementAndGet();
+        BacktraceLogger.d(LOG_TAG, message::toString);
+
+        final OnSlowMessageEventListener listener = this.onSlowMessageEventListener;
+        if (listener != null) {
+            listener.onEvent(message);
+        }
+        if (backtraceClient == null) {
+            return;
+        }
+        final Handler breadcrumbsHandler = this.breadcrumbsHandler;
+        if (settings.isReportAsBreadcrumbs() && breadcrumbsHandler != null) {
+            // breadcrumbs are written to a file, which shouldn't slow down the main thread even more
+            breadcrumbsHandler.post(() -> backtraceClient.addBreadcrumb(
+                    BREADCRUMB_MESSAGE,
+                    message.toAttributes(),
+                    BacktraceBreadcrumbType.SYSTEM,
+                    BacktraceBreadcrumbLevel.WARNING));
+        }
+        if (settings.isReportAsSummedEvents()) {
+            try {
+                backtraceClient.metrics.addSummedEvent(
+                        BacktraceLooperMonitorSettings.SUMMED_EVENT_NAME, message.toAttributes());
+            } catch (IllegalArgumentException e) {
+                BacktraceLogger.w(LOG_TAG, "Cannot send slow message event, metrics are not enabled");
+            }
+        }
+    }
+}
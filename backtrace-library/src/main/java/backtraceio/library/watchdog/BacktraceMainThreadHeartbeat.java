@@ -0,0 +1,73 @@
+package backtraceio.library.watchdog;
+
+import backtraceio.library.common.BacktraceClock;
+
+/**
+ * Heartbeat posted to the monitored thread. The same instance is posted again and again, so checking
+ * the thread doesn't allocate. The watchdog thread posts the heartbeat with {@link #prepare()} and
+ * reads {@link #getStallDurationMillis()}, the monitored thread only executes {@link #run()}.
+ */
+final class BacktraceMainThreadHeartbeat implements Runnable {
+
+    private final BacktraceClock clock;
+
+    /**
+     * True from the moment the heartbeat is posted until the monitored thread executes it
+     */
+    private volatile boolean pending = false;
+
+    /**
+     * Time when the pending heartbeat was posted
+     */
+    private volatile long postedAt;
+
+    /**
+     * Time between posting and executing the last executed heartbeat
+     */
+    private volatile long lastDelayMillis;
+
+    BacktraceMainThreadHeartbeat(BacktraceClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Mark the heartbeat as posted. Has to be called by the watchdog thread before the heartbeat is
+     * posted to the monitored thread
+     *
+     * @return false if the previous heartbeat hasn't been executed yet and nothing should be posted
+     */
+    boolean prepare() {
+        if (pending) {
+            return false;
+        }
+        postedAt = clock.elapsedRealtime();
+        pending = true;
+        return true;
+    }
+
+    /**
+     * Executed by the monitored thread
+     */
+    @Override
+    public void run() {
+        lastDelayMillis = clock.elapsedRealtime() - postedAt;
+        pending = false;
+    }
+
+    /**
+     * @return time in milliseconds for which the posted heartbeat has been waiting, 0 if it was executed
+     */
+    long getStallDurationMillis() {
+        if (!pending) {
+            return 0;
+        }
+        return Math.max(0, clock.elapsedRealtime() - postedAt);
+    }
+
+    /**
+     * @return time in milliseconds between posting and executing the last executed heartbeat
+     */
+    long getLastDelayMillis() {
+        return lastDelayMillis;
+    }
+}
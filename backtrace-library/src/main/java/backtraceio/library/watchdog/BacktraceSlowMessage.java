@@ -0,0 +1,124 @@
+package backtraceio.library.watchdog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Message dispatched on the main looper which took longer than the configured threshold
+ */
+public final class BacktraceSlowMessage {
+
+    private static final String DISPATCH_PREFIX = "Dispatching to ";
+
+    private static final String HANDLER_PREFIX = "Handler (";
+
+    private static final String HANDLER_SUFFIX = ") {";
+
+    private static final String WHAT_SEPARATOR = ": ";
+
+    /**
+     * Class name of the handler which received the message
+     */
+    private final String handler;
+
+    /**
+     * Class name of the posted runnable, null if the message had no callback
+     */
+    private final String callback;
+
+    /**
+     * Message code
+     */
+    private final String what;
+
+    /**
+     * Time in milliseconds spent dispatching the message
+     */
+    private final long durationMillis;
+
+    BacktraceSlowMessage(String handler, String callback, String what, long durationMillis) {
+        this.handler = handler;
+        this.callback = callback;
+        this.what = what;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Parse the line printed by the looper before a message is dispatched, e.g.
+     * {@code >>>>> Dispatching to Handler (android.app.ActivityThread$H) {f1c3a5e} null: 159}
+     *
+     * @param line           line printed by the looper
+     * @param durationMillis time in milliseconds spent dispatching the message
+     * @return slow message
+     */
+    static BacktraceSlowMessage parse(String line, long durationMillis) {
+        int dispatchIndex = line.indexOf(DISPATCH_PREFIX);
+        String body = dispatchIndex == -1 ? line : line.substring(dispatchIndex + DISPATCH_PREFIX.length());
+
+        String what = null;
+        int whatIndex = body.lastIndexOf(WHAT_SEPARATOR);
+        if (whatIndex != -1) {
+            what = body.substring(whatIndex + WHAT_SEPARATOR.length());
+            body = body.substring(0, whatIndex);
+        }
+
+        String handler;
+        String callback;
+        int handlerEnd = body.startsWith(HANDLER_PREFIX) ? body.indexOf(HANDLER_SUFFIX) : -1;
+        if (handlerEnd != -1) {
+            handler = body.substring(HANDLER_PREFIX.length(), handlerEnd);
+            int callbackStart = body.indexOf("} ", handlerEnd);
+            callback = callbackStart == -1 ? null : body.substring(callbackStart + 2);
+        } else {
+            // handler with a custom toString
+            int separator = body.indexOf(' ');
+            handler = separator == -1 ? body : body.substring(0, separator);
+            callback = separator == -1 ? null : body.substring(separator + 1);
+        }
+
+        return new BacktraceSlowMessage(handler, getClassName(callback), what, durationMillis);
+    }
+
+    private static String getClassName(String object) {
+        if (object == null || object.isEmpty() || object.equals("null")) {
+            return null;
+        }
+        int hashIndex = object.lastIndexOf('@');
+        return hashIndex == -1 ? object : object.substring(0, hashIndex);
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public String getCallback() {
+        return callback;
+    }
+
+    public String getWhat() {
+        return what;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return attributes of breadcrumbs and summed events describing the message
+     */
+    public Map<String, Object> toAttributes() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("looper.handler", handler);
+        attributes.put("looper.callback", callback != null ? callback : "none");
+        if (what != null) {
+            attributes.put("looper.what", what);
+        }
+        attributes.put("looper.duration_ms", durationMillis);
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "Slow main thread message: " + handler + " " + callback + " took " + durationMillis + " ms";
+    }
+}
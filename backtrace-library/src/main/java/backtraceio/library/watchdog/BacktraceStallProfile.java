@@ -0,0 +1,158 @@
+package backtraceio.library.watchdog;
+
+import backtraceio.gson.annotations.SerializedName;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stack samples of a blocked thread merged into a tree. Every node is a frame with the number of
+ * samples in which it was on the stack, children are the frames it called. Frames which are on the
+ * stack in most of the samples are the likely cause of the stall.
+ * <p>
+ * The tree is limited to a maximum number of nodes. Once the limit is reached, frames of new samples
+ * which don't fit into the tree are cut off and counted as truncated.
+ * </p>
+ */
+public final class BacktraceStallProfile {
+
+    /**
+     * Name of the root node - the thread itself
+     */
+    private static final String ROOT_FRAME = "thread";
+
+    @SerializedName("samples")
+    private int samples = 0;
+
+    @SerializedName("truncated_frames")
+    private int truncatedFrames = 0;
+
+    @SerializedName("duration_ms")
+    private long durationMillis = 0;
+
+    @SerializedName("root")
+    private final Node root = new Node(null, ROOT_FRAME);
+
+    private final transient int maxNodes;
+
+    private transient int nodes = 1;
+
+    /**
+     * @param maxNodes maximum number of frames stored in the tree
+     */
+    BacktraceStallProfile(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Merge a sample into the tree
+     *
+     * @param stackTrace stack trace of the thread, the innermost frame first
+     */
+    synchronized void addSample(StackTraceElement[] stackTrace) {
+        samples++;
+        root.count++;
+        Node current = root;
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            Node child = current.findChild(stackTrace[i]);
+            if (child == null) {
+                if (nodes >= maxNodes) {
+                    truncatedFrames += i + 1;
+                    return;
+                }
+                child = current.addChild(stackTrace[i]);
+                nodes++;
+            }
+            child.count++;
+            current = child;
+        }
+    }
+
+    synchronized void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return number of merged samples
+     */
+    public synchronized int getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return number of frames which didn't fit into the tree
+     */
+    public synchronized int getTruncatedFrames() {
+        return truncatedFrames;
+    }
+
+    /**
+     * @return time in milliseconds between the first and the last sample
+     */
+    public synchronized long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return number of frames stored in the tree, including the root
+     */
+    public synchronized int getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * @return root of the tree - the thread, its children are the outermost frames
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Frame with the number of samples in which it was on the stack
+     */
+    public static final class Node {
+
+        @SerializedName("frame")
+        private final String frame;
+
+        @SerializedName("count")
+        private int count = 0;
+
+        @SerializedName("children")
+        private final List<Node> children = new ArrayList<>();
+
+        private final transient StackTraceElement element;
+
+        private Node(StackTraceElement element, String frame) {
+            this.element = element;
+            this.frame = frame;
+        }
+
+        private Node findChild(StackTraceElement element) {
+            for (int i = 0; i < children.size(); i++) {
+                Node child = children.get(i);
+                if (element.equals(child.element)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private Node addChild(StackTraceElement element) {
+            Node child = new Node(element, element.toString());
+            children.add(child);
+            return child;
+        }
+
+        public String getFrame() {
+            return frame;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+    }
+}
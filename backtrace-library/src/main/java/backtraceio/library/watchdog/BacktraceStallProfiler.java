@@ -0,0 +1,63 @@
+package backtraceio.library.watchdog;
+
+import backtraceio.library.anr.BacktraceStallProfilerSettings;
+
+/**
+ * Samples the stack of a blocked thread and merges the samples into a {@link BacktraceStallProfile}.
+ * Sampling is driven by the watchdog thread - {@link #sample(Thread, long)} takes a single sample and
+ * returns the delay before the next one. The delay grows when sampling gets expensive, so the profiler
+ * never uses more than the configured share of CPU time.
+ */
+final class BacktraceStallProfiler {
+
+    private final BacktraceStallProfilerSettings settings;
+
+    private BacktraceStallProfile profile;
+
+    private long firstSampleAt;
+
+    BacktraceStallProfiler(BacktraceStallProfilerSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * @return time in milliseconds after which a blocked thread should be sampled
+     */
+    long getThreshold() {
+        return settings.getThreshold();
+    }
+
+    /**
+     * Take a sample of the thread stack
+     *
+     * @param thread blocked thread
+     * @param now    current time in milliseconds
+     * @return delay in milliseconds before the next sample
+     */
+    long sample(Thread thread, long now) {
+        final long start = System.nanoTime();
+        if (profile == null) {
+            profile = new BacktraceStallProfile(settings.getMaxFrames());
+            firstSampleAt = now;
+        }
+        profile.addSample(thread.getStackTrace());
+        profile.setDurationMillis(now - firstSampleAt);
+        return getNextDelay(System.nanoTime() - start);
+    }
+
+    long getNextDelay(long sampleCostNanos) {
+        final long budgetDelay = sampleCostNanos * 100 / settings.getMaxCpuPercent() / 1000000;
+        return Math.max(settings.getSamplingInterval(), budgetDelay);
+    }
+
+    /**
+     * Stop sampling the current stall
+     *
+     * @return merged samples or null if no sample was taken
+     */
+    BacktraceStallProfile finish() {
+        BacktraceStallProfile result = profile;
+        profile = null;
+        return result;
+    }
+}
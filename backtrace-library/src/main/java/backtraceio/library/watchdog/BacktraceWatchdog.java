@@ -51,9 +51,10 @@ public class BacktraceWatchdog {
      */
     public boolean checkIsAnyThreadIsBlocked() {
         final long now = System.currentTimeMillis();
-        final String now_str = Long.toString(now);
 
-        BacktraceLogger.d(LOG_TAG, "Checking watchdog. Timestamp: " + now_str);
+        if (BacktraceLogger.isDebugEnabled()) {
+            BacktraceLogger.d(LOG_TAG, "Checking watchdog. Timestamp: " + now);
+        }
         for (Map.Entry<Thread, BacktraceThreadWatcher> entry : this.threadsIdWatcher.entrySet()) {
             final Thread currentThread = entry.getKey();
             final BacktraceThreadWatcher currentWatcher = entry.getValue();
@@ -74,9 +75,9 @@ public class BacktraceWatchdog {
 
             BacktraceLogger.w(
                     LOG_TAG,
-                    String.format(
-                            "Thread %d %s  might be hung, timestamp: %s",
-                            currentThread.getId(), currentThread.getName(), now_str));
+                    () -> String.format(
+                            "Thread %d %s  might be hung, timestamp: %d",
+                            currentThread.getId(), currentThread.getName(), now));
 
             // Otherwise, the thread has not made forward progress.
             // Determine whether the timeout has been exceeded.
@@ -24,7 +24,29 @@ class BacktraceWatchdogShared {
             Thread thread,
             OnApplicationNotRespondingEvent onApplicationNotRespondingEvent,
             String LOG_TAG) {
-        BacktraceWatchdogTimeoutException exception = new BacktraceWatchdogTimeoutException();
+        sendReportCauseBlockedThread(backtraceClient, thread, onApplicationNotRespondingEvent, LOG_TAG, 0, null);
+    }
+
+    /**
+     * Send information about the blocked thread to the backtrace console or do a custom event if it is set
+     *
+     * @param thread                          thread that has been blocked
+     * @param backtraceClient                 Instance of BacktraceClient
+     * @param onApplicationNotRespondingEvent Event which will be executed instead of default handling ANR error
+     * @param LOG_TAG                         log tag that facilitates analysis during debugging
+     * @param stallDurationMillis             time in milliseconds for which the thread has been blocked,
+     *                                        0 if unknown
+     * @param stallProfile                    stack samples taken while the thread was blocked, can be null
+     */
+    static void sendReportCauseBlockedThread(
+            BacktraceClient backtraceClient,
+            Thread thread,
+            OnApplicationNotRespondingEvent onApplicationNotRespondingEvent,
+            String LOG_TAG,
+            final long stallDurationMillis,
+            final BacktraceStallProfile stallProfile) {
+        BacktraceWatchdogTimeoutException exception =
+                new BacktraceWatchdogTimeoutException(stallDurationMillis, stallProfile);
         exception.setStackTrace(thread.getStackTrace());
         BacktraceLogger.e(LOG_TAG, "Blocked thread detected, sending a report", exception);
         if (onApplicationNotRespondingEvent != null) {
@@ -34,6 +56,12 @@ class BacktraceWatchdogShared {
             BacktraceReport report = new BacktraceReport(exception, new HashMap<String, Object>() {
                 {
                     put(BacktraceAttributeConsts.ErrorType, BacktraceAttributeConsts.AnrAttributeType);
+                    if (stallDurationMillis > 0) {
+                        put(BacktraceAttributeConsts.AnrStallDuration, stallDurationMillis);
+                    }
+                    if (stallProfile != null) {
+                        put(BacktraceAttributeConsts.AnrStallProfile, stallProfile);
+                    }
                 }
             });
             backtraceClient.send(report);
@@ -1,3 +1,48 @@
 package backtraceio.library.watchdog;
 
-public class BacktraceWatchdogTimeoutException extends Exception {}
+public class BacktraceWatchdogTimeoutException extends Exception {
+
+    /**
+     * Time in milliseconds for which the thread was blocked when the exception was created
+     */
+    private final long stallDurationMillis;
+
+    /**
+     * Stack samples taken while the thread was blocked
+     */
+    private final transient BacktraceStallProfile stallProfile;
+
+    public BacktraceWatchdogTimeoutException() {
+        this(0);
+    }
+
+    /**
+     * @param stallDurationMillis time in milliseconds for which the thread was blocked
+     */
+    public BacktraceWatchdogTimeoutException(long stallDurationMillis) {
+        this(stallDurationMillis, null);
+    }
+
+    /**
+     * @param stallDurationMillis time in milliseconds for which the thread was blocked
+     * @param stallProfile        stack samples taken while the thread was blocked, can be null
+     */
+    public BacktraceWatchdogTimeoutException(long stallDurationMillis, BacktraceStallProfile stallProfile) {
+        this.stallDurationMillis = stallDurationMillis;
+        this.stallProfile = stallProfile;
+    }
+
+    /**
+     * @return time in milliseconds for which the thread was blocked when it was detected, 0 if unknown
+     */
+    public long getStallDurationMillis() {
+        return stallDurationMillis;
+    }
+
+    /**
+     * @return stack samples taken while the thread was blocked, null if the stall profiler is disabled
+     */
+    public BacktraceStallProfile getStallProfile() {
+        return stallProfile;
+    }
+}
@@ -0,0 +1,306 @@
+package backtraceio.library.watchdog;
+
+import backtraceio.library.BacktraceClient;
+import backtraceio.library.common.BacktraceClock;
+import backtraceio.library.common.TimingWheel;
+import backtraceio.library.logger.BacktraceLogger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watchdog for a large number of threads and tasks. Every watcher has a deadline in a timing wheel,
+ * {@link Watcher#tick()} only increments a counter and {@link #check()} visits only watchers whose
+ * deadline has passed - a watcher which made progress is moved to a new deadline, a watcher which
+ * didn't is reported as hung. The cost of a check depends on the number of expired watchers, not on
+ * the number of registered ones, and all hung watchers are reported in one pass.
+ * <p>
+ * Progress is observed only when a deadline passes, so a watcher is detected as hung between one and
+ * two timeouts after its last tick.
+ * </p>
+ * <p>
+ * {@link #check()} has to be called periodically, e.g. from a scheduler, at least as often as the
+ * shortest timeout.
+ * </p>
+ */
+public class BacktraceWheelWatchdog {
+
+    private static final transient String LOG_TAG = BacktraceWheelWatchdog.class.getSimpleName();
+
+    /**
+     * Default duration of a timing wheel tick in milliseconds - deadlines are rounded up to it
+     */
+    public static final long DEFAULT_TICK_MILLIS = 100;
+
+    /**
+     * Default number of timing wheel slots
+     */
+    public static final int DEFAULT_SLOTS = 512;
+
+    private final BacktraceClient backtraceClient;
+
+    private final boolean sendException;
+
+    private final BacktraceClock clock;
+
+    private final TimingWheel<Watcher> wheel;
+
+    /**
+     * Reused list of watchers expired in the current check
+     */
+    private final List<Watcher> expired = new ArrayList<>();
+
+    /**
+     * Event which will be executed instead of default handling of a hung thread
+     */
+    private volatile OnApplicationNotRespondingEvent onApplicationNotRespondingEvent;
+
+    /**
+     * Initialize new instance of BacktraceWheelWatchdog
+     *
+     * @param client        current Backtrace client instance which will be used to send information about exception
+     * @param sendException whether to make a request to the server with information about hung threads
+     */
+    public BacktraceWheelWatchdog(BacktraceClient client, boolean sendException) {
+        this(client, sendException, BacktraceClock.UPTIME, DEFAULT_TICK_MILLIS, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Initialize new instance of BacktraceWheelWatchdog
+     *
+     * @param client        current Backtrace client instance which will be used to send information about exception
+     * @param sendException whether to make a request to the server with information about hung threads
+     * @param clock         time source
+     * @param tickMillis    duration of a timing wheel tick in milliseconds
+     * @param slots         number of timing wheel slots
+     */
+    public BacktraceWheelWatchdog(
+            BacktraceClient client, boolean sendException, BacktraceClock clock, long tickMillis, int slots) {
+        this.backtraceClient = client;
+        this.sendException = sendException;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tickMillis, slots, clock.elapsedRealtime());
+    }
+
+    /**
+     * Set event that will be executed instead of the default sending of the error information to the Backtrace console
+     *
+     * @param onApplicationNotRespondingEvent event that will be executed instead of the default sending of the error information to the Backtrace console
+     */
+    public void setOnApplicationNotRespondingEvent(OnApplicationNotRespondingEvent onApplicationNotRespondingEvent) {
+        this.onApplicationNotRespondingEvent = onApplicationNotRespondingEvent;
+    }
+
+    /**
+     * Register a thread to monitor it. The thread is unregistered automatically once it terminates
+     *
+     * @param thread        thread which should be monitored
+     * @param timeoutMillis time in milliseconds without a tick after which the thread is considered hung
+     * @return watcher which has to be ticked by the thread
+     */
+    public Watcher registerThread(Thread thread, long timeoutMillis) {
+        if (thread == null) {
+            throw new IllegalArgumentException("Thread cannot be null");
+        }
+        return register(new Watcher(thread.getName(), thread, timeoutMillis));
+    }
+
+    /**
+     * Register a task to monitor it. A hung task is reported with the stack of the thread which ticked it last
+     *
+     * @param name          name of the task
+     * @param timeoutMillis time in milliseconds without a tick after which the task is considered hung
+     * @return watcher which has to be ticked by the task
+     */
+    public Watcher registerTask(String name, long timeoutMillis) {
+        return register(new Watcher(name, null, timeoutMillis));
+    }
+
+    private Watcher register(Watcher watcher) {
+        synchronized (wheel) {
+            final long now = clock.elapsedRealtime();
+            watcher.lastProgressAt = now;
+            watcher.entry = wheel.add(watcher, now + watcher.timeoutMillis);
+        }
+        return watcher;
+    }
+
+    /**
+     * Stop monitoring a thread or a task
+     *
+     * @param watcher watcher returned on registration
+     */
+    public void unregister(Watcher watcher) {
+        if (watcher == null) {
+            return;
+        }
+        synchronized (wheel) {
+            wheel.remove(watcher.entry);
+            watcher.entry = null;
+        }
+    }
+
+    /**
+     * @return number of monitored threads and tasks
+     */
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * @return time in milliseconds when the earliest watcher expires, -1 if nothing is monitored
+     */
+    public long getNextDeadline() {
+        synchronized (wheel) {
+            return wheel.nextDeadline();
+        }
+    }
+
+    /**
+     * Find watchers which haven't been ticked within their timeout and report them. A hung watcher is
+     * reported once - it's reported again only after it makes progress and hangs again
+     *
+     * @return watchers detected as hung in this check
+     */
+    public List<Watcher> check() {
+        List<Watcher> hung = null;
+        synchronized (wheel) {
+            final long now = clock.elapsedRealtime();
+            wheel.advance(now, expired);
+            for (int i = 0; i < expired.size(); i++) {
+                final Watcher watcher = expired.get(i);
+                watcher.entry = null;
+                if (watcher.thread != null && !watcher.thread.isAlive()) {
+                    continue;
+                }
+                final long counter = watcher.counter.get();
+                if (counter != watcher.observedCounter || !watcher.active) {
+                    watcher.observedCounter = counter;
+                    watcher.lastProgressAt = now;
+                    watcher.hung = false;
+                } else if (!watcher.hung) {
+                    watcher.hung = true;
+                    watcher.stallDurationMillis = now - watcher.lastProgressAt;
+                    if (hung == null) {
+                        hung = new ArrayList<>();
+                    }
+                    hung.add(watcher);
+                }
+                watcher.entry = wheel.add(watcher, now + watcher.timeoutMillis);
+            }
+            expired.clear();
+        }
+        if (hung == null) {
+            return Collections.emptyList();
+        }
+        for (Watcher watcher : hung) {
+            report(watcher);
+        }
+        return hung;
+    }
+
+    private void report(Watcher watcher) {
+        if (BacktraceLogger.isWarnEnabled()) {
+            BacktraceLogger.w(
+                    LOG_TAG, "Watcher " + watcher.name + " might be hung for " + watcher.stallDurationMillis + " ms");
+        }
+        if (!this.sendException) {
+            return;
+        }
+        final Thread thread = watcher.getThread();
+        if (thread == null) {
+            return;
+        }
+        BacktraceWatchdogShared.sendReportCauseBlockedThread(
+                backtraceClient, thread, onApplicationNotRespondingEvent, LOG_TAG, watcher.stallDurationMillis, null);
+    }
+
+    /**
+     * Monitored thread or task
+     */
+    public static final class Watcher {
+
+        private final String name;
+
+        private final Thread thread;
+
+        private final long timeoutMillis;
+
+        private final AtomicLong counter = new AtomicLong();
+
+        /**
+         * Thread which ticked a task watcher last
+         */
+        private volatile Thread lastTickThread;
+
+        private volatile boolean active = true;
+
+        // fields below are guarded by the watchdog wheel
+        private TimingWheel.Entry<Watcher> entry;
+
+        private long observedCounter = 0;
+
+        private long lastProgressAt;
+
+        private boolean hung = false;
+
+        private long stallDurationMillis;
+
+        private Watcher(String name, Thread thread, long timeoutMillis) {
+            if (timeoutMillis <= 0) {
+                throw new IllegalArgumentException("Timeout must be greater than 0");
+            }
+            this.name = name;
+            this.thread = thread;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        /**
+         * Report progress of the thread or the task. Lock-free
+         */
+        public void tick() {
+            if (thread == null) {
+                lastTickThread = Thread.currentThread();
+            }
+            counter.incrementAndGet();
+        }
+
+        /**
+         * Resume or temporarily stop monitoring. An inactive watcher is never reported as hung
+         *
+         * @param active false to stop monitoring
+         */
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return monitored thread or the thread which ticked the task last, null if the task wasn't ticked yet
+         */
+        public Thread getThread() {
+            return thread != null ? thread : lastTickThread;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        /**
+         * @return time in milliseconds without progress when the watcher was detected as hung
+         */
+        public long getStallDurationMillis() {
+            return stallDurationMillis;
+        }
+    }
+}
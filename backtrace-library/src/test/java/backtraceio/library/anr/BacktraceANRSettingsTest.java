@@ -17,6 +17,7 @@ public class BacktraceANRSettingsTest {
         assertEquals(BacktraceANRSettings.DEFAULT_ANR_TIMEOUT, settings.getTimeout());
         assertNull(settings.getOnApplicationNotRespondingEvent());
         assertFalse(settings.isDebug());
+        assertEquals(BacktraceANRSettings.DEFAULT_ANR_RESOLUTION, settings.getResolution());
     }
 
     @Test
@@ -34,4 +35,37 @@ public class BacktraceANRSettingsTest {
         assertEquals(event, settings.getOnApplicationNotRespondingEvent());
         assertEquals(debug, settings.isDebug());
     }
+
+    @Test
+    public void resolutionConstructor() {
+        // WHEN
+        BacktraceANRSettings settings = new BacktraceANRSettings(2000, null, false, 100);
+
+        // THEN
+        assertEquals(2000, settings.getTimeout());
+        assertEquals(100, settings.getResolution());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidResolution() {
+        new BacktraceANRSettings(2000, null, false, 0);
+    }
+
+    @Test
+    public void stallProfilerSettings() {
+        // GIVEN
+        BacktraceStallProfilerSettings profilerSettings = new BacktraceStallProfilerSettings();
+
+        // WHEN
+        BacktraceANRSettings settings = new BacktraceANRSettings(2000, null, false, 100, profilerSettings);
+
+        // THEN
+        assertEquals(profilerSettings, settings.getStallProfilerSettings());
+        assertNull(new BacktraceANRSettings().getStallProfilerSettings());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidStallProfilerCpuLimit() {
+        new BacktraceStallProfilerSettings(1000, 50, 100, 0);
+    }
 }
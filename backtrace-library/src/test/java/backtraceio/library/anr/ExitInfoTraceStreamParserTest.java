@@ -0,0 +1,134 @@
+package backtraceio.library.anr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.TestUtils;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ExitInfoTraceStreamParserTest {
+    private final String ANR_APPEXIT_STACKTRACE_FILE = "anrAppExitInfoStacktrace.txt";
+
+    @Test
+    public void parseAnrStackTrace() throws IOException {
+        // GIVEN
+        String anrStacktraceString = TestUtils.readFileAsString(this, ANR_APPEXIT_STACKTRACE_FILE);
+        ExitInfoTraceStreamParser parser = new ExitInfoTraceStreamParser();
+
+        // WHEN
+        Map<String, Object> anrStacktrace = parser.parse(new StringReader(anrStacktraceString));
+
+        // THEN
+        assertEquals("x86", anrStacktrace.get("abi"));
+        assertEquals("74% free, 6892KB/25MB; 138095 objects", anrStacktrace.get("heap_info"));
+        assertEquals("optimized", anrStacktrace.get("build_type"));
+        assertEquals("backtraceio.backtraceio", anrStacktrace.get("command_line"));
+        assertEquals("2025-03-27 21:02:38", anrStacktrace.get("timestamp"));
+        assertEquals(9207, anrStacktrace.get("pid"));
+
+        List<Map<String, Object>> threads = (List<Map<String, Object>>) anrStacktrace.get("threads");
+        assertEquals(20, threads.size());
+        assertEquals("Thread-4", threads.get(18).get("name"));
+
+        Map<String, Object> mainThread = (Map<String, Object>) anrStacktrace.get("main_thread");
+        assertNotNull(mainThread);
+        assertEquals(36, ((List<?>) mainThread.get("stack_trace")).size());
+        assertEquals(33, ExitInfoStackTraceParser.parseMainThreadStackTrace(anrStacktrace).length);
+
+        assertEquals(anrStacktraceString.length(), parser.getTraceLength(), 1);
+    }
+
+    @Test
+    public void parseSameAsStringParser() throws IOException {
+        // GIVEN
+        String anrStacktraceString = TestUtils.readFileAsString(this, ANR_APPEXIT_STACKTRACE_FILE);
+
+        // WHEN
+        Map<String, Object> streamed = new ExitInfoTraceStreamParser().parse(new StringReader(anrStacktraceString));
+        Map<String, Object> parsed = ExitInfoStackTraceParser.parseANRStackTrace(anrStacktraceString);
+
+        // THEN
+        assertEquals(parsed, streamed);
+    }
+
+    @Test
+    public void parseEmptyTrace() throws IOException {
+        // WHEN
+        ExitInfoTraceStreamParser parser = new ExitInfoTraceStreamParser();
+        Map<String, Object> result = parser.parse(new StringReader(""));
+
+        // THEN
+        assertTrue(result.isEmpty());
+        assertEquals(0, parser.getTraceLength());
+        assertEquals("", parser.getRawTrace());
+    }
+
+    @Test
+    public void limitThreadsAndKeepMainThread() throws IOException {
+        // GIVEN
+        String anrStacktraceString = TestUtils.readFileAsString(this, ANR_APPEXIT_STACKTRACE_FILE);
+        ExitInfoTraceStreamParser parser = new ExitInfoTraceStreamParser(1, 5, 0);
+
+        // WHEN
+        Map<String, Object> anrStacktrace = parser.parse(new StringReader(anrStacktraceString));
+
+        // THEN
+        List<Map<String, Object>> threads = (List<Map<String, Object>>) anrStacktrace.get("threads");
+        assertEquals(2, threads.size());
+        assertEquals("Signal Catcher", threads.get(0).get("name"));
+        assertEquals("main", threads.get(1).get("name"));
+
+        Map<String, Object> mainThread = (Map<String, Object>) anrStacktrace.get("main_thread");
+        List<String> stackTrace = (List<String>) mainThread.get("stack_trace");
+        assertEquals(5, stackTrace.size());
+        assertEquals("native: #00 pc 00000b97  [vdso] (__kernel_vsyscall+7)", stackTrace.get(0));
+        assertEquals("", parser.getRawTrace());
+    }
+
+    @Test
+    public void truncateRawTrace() throws IOException {
+        // GIVEN
+        String anrStacktraceString = TestUtils.readFileAsString(this, ANR_APPEXIT_STACKTRACE_FILE);
+        ExitInfoTraceStreamParser parser = new ExitInfoTraceStreamParser(
+                ExitInfoTraceStreamParser.DEFAULT_MAX_THREADS, ExitInfoTraceStreamParser.DEFAULT_MAX_FRAMES, 1024);
+
+        // WHEN
+        Map<String, Object> anrStacktrace = parser.parse(new StringReader(anrStacktraceString));
+
+        // THEN
+        String rawTrace = parser.getRawTrace();
+        assertTrue(rawTrace.length() <= 1024 + "... trace truncated\n".length());
+        assertTrue(rawTrace.endsWith("... trace truncated\n"));
+        String keptLines = rawTrace.substring(0, rawTrace.length() - "... trace truncated\n".length());
+        assertTrue(keptLines.startsWith("----- pid 9207"));
+        assertTrue(anrStacktraceString.startsWith(keptLines));
+        assertEquals(20, ((List<?>) anrStacktrace.get("threads")).size());
+    }
+
+    @Test
+    public void headerFieldsAreNotMatchedInThreadDumps() throws IOException {
+        // GIVEN
+        String trace = "----- pid 9207 at 2025-03-27 21:02:38 -----\n"
+                + "Cmd line: backtraceio.backtraceio\n"
+                + "\n"
+                + "DALVIK THREADS (1):\n"
+                + "\"main\" prio=5 tid=1 Native\n"
+                + "  | Heap: logged by the application\n"
+                + "  at android.os.MessageQueue.nativePollOnce(Native method)\n";
+        ExitInfoTraceStreamParser parser = new ExitInfoTraceStreamParser();
+
+        // WHEN
+        Map<String, Object> anrStacktrace = parser.parse(new StringReader(trace));
+
+        // THEN
+        assertEquals("backtraceio.backtraceio", anrStacktrace.get("command_line"));
+        assertFalse(anrStacktrace.containsKey("heap_info"));
+        assertEquals(1, ((List<?>) anrStacktrace.get("threads")).size());
+    }
+}
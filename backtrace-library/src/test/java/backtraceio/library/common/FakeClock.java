@@ -0,0 +1,29 @@
+package backtraceio.library.common;
+
+/**
+ * Deterministic clock for tests - time moves only when the test advances it
+ */
+public class FakeClock implements BacktraceClock {
+
+    private long now;
+
+    public FakeClock() {
+        this(0);
+    }
+
+    public FakeClock(long now) {
+        this.now = now;
+    }
+
+    @Override
+    public synchronized long elapsedRealtime() {
+        return now;
+    }
+
+    public synchronized void advance(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time can't go backwards");
+        }
+        now += millis;
+    }
+}
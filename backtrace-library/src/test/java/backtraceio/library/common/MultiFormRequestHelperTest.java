@@ -0,0 +1,173 @@
+package backtraceio.library.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MultiFormRequestHelperTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String name, byte[] content) throws IOException {
+        final File file = folder.newFile(name);
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(content);
+        }
+        return file;
+    }
+
+    private static byte[] content(int size) {
+        final byte[] content = new byte[size];
+        for (int index = 0; index < size; index++) {
+            content[index] = (byte) ('a' + index % 26);
+        }
+        return content;
+    }
+
+    private static String part(String name, String contentType, String content) {
+        return "--*****\r\n"
+                + "Content-Disposition: form-data; name=\"attachment_" + name + "\";filename=\"attachment_" + name
+                + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "\r\n"
+                + content + "\r\n";
+    }
+
+    @Test
+    public void streamsFileLargerThanBuffer() throws IOException {
+        // GIVEN
+        final byte[] content = content(200 * 1024 + 17);
+        final File file = write("large.bin", content);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.streamFile(outputStream, file.getAbsolutePath());
+
+        // THEN
+        assertTrue(Arrays.equals(content, outputStream.toByteArray()));
+    }
+
+    @Test
+    public void writesAttachmentParts() throws IOException {
+        // GIVEN
+        final File file = write("log.txt", "line".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.addFiles(outputStream, Collections.singletonList(file.getAbsolutePath()));
+        MultiFormRequestHelper.addEndOfRequest(outputStream);
+
+        // THEN
+        assertEquals(
+                part("log.txt", "text/plain", "line") + "--*****--\r\n",
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void truncatesLogsToTheirEnd() throws IOException {
+        // GIVEN
+        final File log = write("bt-breadcrumbs-0", "old lines,new lines".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.addFiles(outputStream, Collections.singletonList(log.getAbsolutePath()), 9, 0);
+
+        // THEN
+        assertEquals(
+                part("bt-breadcrumbs-0", "null", "new lines"),
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void truncatedLogsStartWithAWholeLine() throws IOException {
+        // GIVEN
+        final File log = write("app.log", "first line\nsecond line\nthird line\n".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.addFiles(outputStream, Collections.singletonList(log.getAbsolutePath()), 20, 0);
+
+        // THEN
+        assertEquals(
+                part("app.log", "null", "third line\n"),
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void truncatedLogsStartingWithALineAreNotShortened() throws IOException {
+        // GIVEN
+        final File log = write("app.log", "first line\nsecond line\n".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.addFiles(outputStream, Collections.singletonList(log.getAbsolutePath()), 12, 0);
+
+        // THEN
+        assertEquals(
+                part("app.log", "null", "second line\n"),
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void skipsBinaryFilesOverTheLimit() throws IOException {
+        // GIVEN
+        final File image = write("screenshot.png", content(100));
+        final File log = write("app.log", "log".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.addFiles(
+                outputStream, Arrays.asList(image.getAbsolutePath(), log.getAbsolutePath()), 50, 0);
+
+        // THEN
+        final String request = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        assertFalse(request.contains("screenshot.png"));
+        assertEquals(part("app.log", "null", "log"), request);
+    }
+
+    @Test
+    public void limitsTotalSizeOfAttachments() throws IOException {
+        // GIVEN
+        final File first = write("first.txt", "0123456789".getBytes(StandardCharsets.UTF_8));
+        final File second = write("second.txt", "abcdefghij".getBytes(StandardCharsets.UTF_8));
+        final File third = write("third.txt", "klmnopqrst".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.addFiles(
+                outputStream,
+                Arrays.asList(first.getAbsolutePath(), second.getAbsolutePath(), third.getAbsolutePath()),
+                0,
+                15);
+
+        // THEN
+        assertEquals(
+                part("first.txt", "text/plain", "0123456789") + part("second.txt", "text/plain", "fghij"),
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void skipsMissingAttachments() throws IOException {
+        // GIVEN
+        final String missingPath = new File(folder.getRoot(), "missing.txt").getAbsolutePath();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        MultiFormRequestHelper.addFiles(outputStream, Collections.singletonList(missingPath));
+
+        // THEN
+        assertEquals(0, outputStream.size());
+    }
+}
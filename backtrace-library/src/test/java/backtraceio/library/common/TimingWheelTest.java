@@ -0,0 +1,100 @@
+package backtraceio.library.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class TimingWheelTest {
+
+    @Test
+    public void expireEntriesOnlyAfterTheirDeadline() {
+        // GIVEN
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.add("first", 15);
+        wheel.add("second", 40);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(19, expired);
+
+        // THEN
+        assertTrue(expired.isEmpty());
+        wheel.advance(20, expired);
+        assertEquals(Arrays.asList("first"), expired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void coalesceDeadlinesWithinOneTick() {
+        // GIVEN
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.add("first", 101);
+        wheel.add("second", 150);
+        wheel.add("third", 199);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(200, expired);
+
+        // THEN
+        assertEquals(3, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void keepEntriesScheduledFurtherThanOneRotation() {
+        // GIVEN
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.add("far", 100);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(50, expired);
+
+        // THEN
+        assertTrue(expired.isEmpty());
+        assertEquals(100, wheel.nextDeadline());
+        wheel.advance(100, expired);
+        assertEquals(Arrays.asList("far"), expired);
+    }
+
+    @Test
+    public void expireEverythingAfterLongPause() {
+        // GIVEN
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 0);
+        for (int index = 1; index <= 20; index++) {
+            wheel.add(index, index * 10);
+        }
+        List<Integer> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(10_000, expired);
+
+        // THEN
+        assertEquals(20, expired.size());
+        assertEquals(-1, wheel.nextDeadline());
+    }
+
+    @Test
+    public void removeEntry() {
+        // GIVEN
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        TimingWheel.Entry<String> entry = wheel.add("removed", 20);
+        wheel.add("kept", 20);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        assertTrue(wheel.remove(entry));
+
+        // THEN
+        assertFalse(entry.isScheduled());
+        assertFalse(wheel.remove(entry));
+        wheel.advance(20, expired);
+        assertEquals(Arrays.asList("kept"), expired);
+    }
+}
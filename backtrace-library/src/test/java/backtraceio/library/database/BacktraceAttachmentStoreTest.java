@@ -0,0 +1,189 @@
+package backtraceio.library.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.common.BacktraceSerializeHelper;
+import backtraceio.library.models.database.BacktraceAttachmentStore;
+import backtraceio.library.models.database.BacktraceDatabaseRecord;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BacktraceAttachmentStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static File write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private static String read(String path) throws IOException {
+        return new String(Files.readAllBytes(new File(path).toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void storesIdenticalFilesOnce() throws IOException {
+        // GIVEN
+        final File database = folder.newFolder("database");
+        final File first = write(new File(folder.getRoot(), "first/log.txt"), "content");
+        final File second = write(new File(folder.getRoot(), "second/log.txt"), "content");
+        final BacktraceAttachmentStore store = new BacktraceAttachmentStore(database.getAbsolutePath());
+
+        // WHEN
+        final List<String> snapshots = store.snapshot(Arrays.asList(first.getAbsolutePath(), second.getAbsolutePath()));
+
+        // THEN
+        assertEquals(2, snapshots.size());
+        assertEquals(snapshots.get(0), snapshots.get(1));
+        assertTrue(store.isStored(snapshots.get(0)));
+        assertEquals("log.txt", new File(snapshots.get(0)).getName());
+        assertEquals(2, store.getReferenceCount(snapshots.get(0)));
+    }
+
+    @Test
+    public void snapshotIsNotAffectedBySourceChanges() throws IOException {
+        // GIVEN
+        final File database = folder.newFolder("database");
+        final File source = write(new File(folder.getRoot(), "log.txt"), "first line");
+        final BacktraceAttachmentStore store = new BacktraceAttachmentStore(database.getAbsolutePath());
+        final String snapshot = store.snapshot(Collections.singletonList(source.getAbsolutePath()))
+                .get(0);
+
+        // WHEN
+        write(source, "first line, second line");
+        final String nextSnapshot = store.snapshot(Collections.singletonList(source.getAbsolutePath()))
+                .get(0);
+
+        // THEN
+        assertNotEquals(snapshot, nextSnapshot);
+        assertEquals("first line", read(snapshot));
+        assertEquals("first line, second line", read(nextSnapshot));
+    }
+
+    @Test
+    public void keepsPathsOfMissingAttachments() throws IOException {
+        // GIVEN
+        final File database = folder.newFolder("database");
+        final String missingPath = new File(folder.getRoot(), "missing.txt").getAbsolutePath();
+        final BacktraceAttachmentStore store = new BacktraceAttachmentStore(database.getAbsolutePath());
+
+        // WHEN
+        final List<String> snapshots = store.snapshot(Collections.singletonList(missingPath));
+
+        // THEN
+        assertEquals(Collections.singletonList(missingPath), snapshots);
+    }
+
+    @Test
+    public void removesFileReleasedByLastRecord() throws IOException {
+        // GIVEN
+        final File database = folder.newFolder("database");
+        final File source = write(new File(folder.getRoot(), "log.txt"), "content");
+        final BacktraceAttachmentStore store = new BacktraceAttachmentStore(database.getAbsolutePath());
+        final List<String> paths = Collections.singletonList(source.getAbsolutePath());
+        final List<String> firstSnapshots = store.snapshot(paths);
+        final List<String> secondSnapshots = store.snapshot(paths);
+
+        // WHEN
+        store.release(firstSnapshots);
+
+        // THEN
+        assertTrue(new File(secondSnapshots.get(0)).exists());
+
+        // WHEN
+        store.release(secondSnapshots);
+
+        // THEN
+        assertFalse(new File(secondSnapshots.get(0)).exists());
+        assertFalse(new File(secondSnapshots.get(0)).getParentFile().exists());
+        assertTrue(source.exists());
+    }
+
+    @Test
+    public void countsStoredContentOnce() throws IOException {
+        // GIVEN
+        final File database = folder.newFolder("database");
+        final File first = write(new File(folder.getRoot(), "first/log.txt"), "content");
+        final File second = write(new File(folder.getRoot(), "second/app.log"), "content");
+        final File third = write(new File(folder.getRoot(), "third.txt"), "other content");
+        final BacktraceAttachmentStore store = new BacktraceAttachmentStore(database.getAbsolutePath());
+
+        // WHEN
+        final List<String> snapshots = store.snapshot(
+                Arrays.asList(first.getAbsolutePath(), second.getAbsolutePath(), third.getAbsolutePath()));
+
+        // THEN
+        assertEquals("content".length() + "other content".length(), store.getStoredSize());
+
+        // WHEN
+        store.release(snapshots);
+
+        // THEN
+        assertEquals(0, store.getStoredSize());
+    }
+
+    @Test
+    public void removesUnreferencedFiles() throws IOException {
+        // GIVEN
+        final File database = folder.newFolder("database");
+        final File referenced = write(new File(folder.getRoot(), "referenced.txt"), "referenced");
+        final File unreferenced = write(new File(folder.getRoot(), "unreferenced.txt"), "unreferenced");
+        final List<String> referencedSnapshots = new BacktraceAttachmentStore(database.getAbsolutePath())
+                .snapshot(Collections.singletonList(referenced.getAbsolutePath()));
+        final List<String> unreferencedSnapshots = new BacktraceAttachmentStore(database.getAbsolutePath())
+                .snapshot(Collections.singletonList(unreferenced.getAbsolutePath()));
+
+        // WHEN
+        final BacktraceAttachmentStore store = new BacktraceAttachmentStore(database.getAbsolutePath());
+        store.retain(referencedSnapshots);
+        store.removeUnreferenced();
+
+        // THEN
+        assertTrue(new File(referencedSnapshots.get(0)).exists());
+        assertFalse(new File(unreferencedSnapshots.get(0)).exists());
+    }
+
+    @Test
+    public void loadedRecordReleasesSnapshotsOnDelete() throws IOException {
+        // GIVEN
+        final File database = folder.newFolder("database");
+        final File source = write(new File(folder.getRoot(), "log.txt"), "content");
+        final BacktraceAttachmentStore store = new BacktraceAttachmentStore(database.getAbsolutePath());
+        final String snapshot = store.snapshot(Collections.singletonList(source.getAbsolutePath()))
+                .get(0);
+        final String json = "{\"Id\":\"ecdf418b-3e22-4c7c-8011-c85dc2b4386f\",\"AttachmentSnapshots\":["
+                + BacktraceSerializeHelper.toJson(snapshot) + "]}";
+        final BacktraceDatabaseRecord record = BacktraceSerializeHelper.fromJson(json, BacktraceDatabaseRecord.class);
+
+        // WHEN
+        record.useAttachmentStore(store);
+        store.release(Collections.singletonList(snapshot));
+
+        // THEN
+        assertEquals(1, store.getReferenceCount(snapshot));
+        assertTrue(new File(snapshot).exists());
+
+        // WHEN
+        record.delete();
+
+        // THEN
+        assertEquals(0, store.getReferenceCount(snapshot));
+        assertFalse(new File(snapshot).exists());
+    }
+}
@@ -45,4 +45,82 @@ public class BacktraceLoggerTest {
         // THEN
         Assert.assertEquals(logger.getLogLevel(), LogLevel.WARN.ordinal());
     }
+
+    @Test
+    public void testSupplierIsNotEvaluatedWhenLevelDisabled() {
+        // GIVEN
+        final BacktraceInternalLogger logger = new BacktraceInternalLogger(LogLevel.ERROR);
+        BacktraceLogger.setLogger(logger);
+        final int[] evaluations = {0};
+
+        // WHEN
+        final int debugResult = BacktraceLogger.d("TEST-TAG", () -> {
+            evaluations[0]++;
+            return "TEST-MSG";
+        });
+        final int warnResult = BacktraceLogger.w("TEST-TAG", () -> {
+            evaluations[0]++;
+            return "TEST-MSG";
+        });
+
+        // THEN
+        Assert.assertEquals(0, debugResult);
+        Assert.assertEquals(0, warnResult);
+        Assert.assertEquals(0, evaluations[0]);
+        Assert.assertFalse(BacktraceLogger.isDebugEnabled());
+        Assert.assertFalse(BacktraceLogger.isWarnEnabled());
+    }
+
+    @Test
+    public void testFormatArgumentsAreNotFormattedWhenLevelDisabled() {
+        // GIVEN
+        BacktraceLogger.setLogger(new BacktraceInternalLogger(LogLevel.OFF));
+        final Object argument = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("Argument should not be formatted");
+            }
+        };
+
+        // WHEN
+        final int debugResult = BacktraceLogger.d("TEST-TAG", "Value: %s", argument);
+        final int debugResult2 = BacktraceLogger.d("TEST-TAG", "Values: %s %s", argument, argument);
+        final int warnResult = BacktraceLogger.w("TEST-TAG", "Value: %s", argument);
+
+        // THEN
+        Assert.assertEquals(0, debugResult);
+        Assert.assertEquals(0, debugResult2);
+        Assert.assertEquals(0, warnResult);
+    }
+
+    @Test
+    public void testCustomLoggerReceivesLazyMessages() {
+        // GIVEN
+        final StringBuilder messages = new StringBuilder();
+        BacktraceLogger.setLogger(new BacktraceMockLogger() {
+            @Override
+            public int d(String tag, String message) {
+                messages.append(message).append(';');
+                return super.d(tag, message);
+            }
+
+            @Override
+            public int w(String tag, String message) {
+                messages.append(message).append(';');
+                return super.w(tag, message);
+            }
+        });
+
+        // WHEN
+        final int debugResult = BacktraceLogger.d("TEST-TAG", () -> "supplied");
+        final int formatResult = BacktraceLogger.d("TEST-TAG", "%s-%d", "formatted", 1);
+        final int warnResult = BacktraceLogger.w("TEST-TAG", "warn %s", "formatted");
+
+        // THEN
+        Assert.assertTrue(BacktraceLogger.isDebugEnabled());
+        Assert.assertEquals(BacktraceMockLogger.MOCK_VALUE, debugResult);
+        Assert.assertEquals(BacktraceMockLogger.MOCK_VALUE, formatResult);
+        Assert.assertEquals(BacktraceMockLogger.MOCK_VALUE, warnResult);
+        Assert.assertEquals("supplied;formatted-1;warn formatted;", messages.toString());
+    }
 }
@@ -0,0 +1,39 @@
+package backtraceio.library.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.os.Process;
+import org.junit.Test;
+
+public class BacktraceExecutionSettingsTest {
+
+    @Test
+    public void fatalReportsHaveHigherPriorityThanOtherLanes() {
+        // GIVEN
+        BacktraceExecutionSettings settings = new BacktraceExecutionSettings();
+
+        // THEN - lower value means higher priority
+        assertTrue(settings.getFatalReportsPriority() < settings.getReportsPriority()
+                && settings.getReportsPriority() < settings.getMetricsPriority());
+    }
+
+    @Test
+    public void setLanePriorities() {
+        // GIVEN
+        BacktraceExecutionSettings settings = new BacktraceExecutionSettings();
+
+        // WHEN
+        settings.setFatalReportsPriority(Process.THREAD_PRIORITY_FOREGROUND);
+        settings.setMetricsPriority(Process.THREAD_PRIORITY_LOWEST);
+
+        // THEN
+        assertEquals(Process.THREAD_PRIORITY_FOREGROUND, settings.getFatalReportsPriority());
+        assertEquals(Process.THREAD_PRIORITY_LOWEST, settings.getMetricsPriority());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectPriorityOutOfRange() {
+        new BacktraceExecutionSettings().setReportsPriority(Process.THREAD_PRIORITY_LOWEST + 1);
+    }
+}
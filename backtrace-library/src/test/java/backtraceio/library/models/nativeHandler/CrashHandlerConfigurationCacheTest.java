@@ -0,0 +1,94 @@
+package backtraceio.library.models.nativeHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CrashHandlerConfigurationCacheTest {
+
+    private static final String LIBRARY_PATH = "/data/app/base.apk!/lib/arm64-v8a/libbacktrace-native.so";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void returnsStoredPathForTheSameKey() {
+        // GIVEN
+        CrashHandlerConfigurationCache cache =
+                new CrashHandlerConfigurationCache(new File(folder.getRoot(), "crashpad/cache"));
+
+        // WHEN
+        boolean stored = cache.putNativeLibraryPath("key", LIBRARY_PATH);
+
+        // THEN
+        assertTrue(stored);
+        assertEquals(LIBRARY_PATH, cache.getNativeLibraryPath("key"));
+        assertEquals(
+                LIBRARY_PATH,
+                new CrashHandlerConfigurationCache(new File(folder.getRoot(), "crashpad/cache"))
+                        .getNativeLibraryPath("key"));
+    }
+
+    @Test
+    public void returnsNullForAnotherKey() {
+        // GIVEN
+        CrashHandlerConfigurationCache cache = new CrashHandlerConfigurationCache(new File(folder.getRoot(), "cache"));
+        cache.putNativeLibraryPath("key", LIBRARY_PATH);
+
+        // WHEN
+        String result = cache.getNativeLibraryPath("other-key");
+
+        // THEN
+        assertNull(result);
+    }
+
+    @Test
+    public void returnsNullWithoutCacheFile() {
+        // GIVEN
+        CrashHandlerConfigurationCache cache = new CrashHandlerConfigurationCache(new File(folder.getRoot(), "cache"));
+
+        // THEN
+        assertNull(cache.getNativeLibraryPath("key"));
+        cache.putNativeLibraryPath("key", LIBRARY_PATH);
+        cache.clear();
+        assertNull(cache.getNativeLibraryPath("key"));
+    }
+
+    @Test
+    public void keyChangesWhenApkIsUpdated() throws Exception {
+        // GIVEN
+        File apk = folder.newFile("base.apk");
+        String key = CrashHandlerConfigurationCache.getKey(apk.getPath(), null, "/lib", "arm64-v8a", 30);
+
+        // WHEN
+        try (FileOutputStream outputStream = new FileOutputStream(apk)) {
+            outputStream.write(new byte[] {1, 2, 3});
+        }
+
+        // THEN
+        assertNotEquals(key, CrashHandlerConfigurationCache.getKey(apk.getPath(), null, "/lib", "arm64-v8a", 30));
+    }
+
+    @Test
+    public void keyDependsOnAbiSdkAndSplits() throws Exception {
+        // GIVEN
+        String apk = folder.newFile("base.apk").getPath();
+        String split = folder.newFile("split.apk").getPath();
+
+        // WHEN
+        String key = CrashHandlerConfigurationCache.getKey(apk, null, "/lib", "arm64-v8a", 30);
+
+        // THEN
+        assertEquals(key, CrashHandlerConfigurationCache.getKey(apk, null, "/lib", "arm64-v8a", 30));
+        assertNotEquals(key, CrashHandlerConfigurationCache.getKey(apk, null, "/lib", "armeabi-v7a", 30));
+        assertNotEquals(key, CrashHandlerConfigurationCache.getKey(apk, null, "/lib", "arm64-v8a", 31));
+        assertNotEquals(key, CrashHandlerConfigurationCache.getKey(apk, new String[] {split}, "/lib", "arm64-v8a", 30));
+    }
+}
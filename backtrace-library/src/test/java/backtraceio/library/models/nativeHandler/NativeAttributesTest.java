@@ -0,0 +1,103 @@
+package backtraceio.library.models.nativeHandler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class NativeAttributesTest {
+
+    @Test
+    public void collectChangesReturnsNewAttributes() {
+        // GIVEN
+        NativeAttributes nativeAttributes = new NativeAttributes();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("string", "value");
+        attributes.put("number", 1);
+
+        // WHEN
+        NativeAttributes.Changes changes = nativeAttributes.collectChanges(attributes);
+
+        // THEN
+        assertEquals(2, changes.getKeys().length);
+        assertEquals(2, changes.getValues().length);
+        Map<String, String> result = toMap(changes);
+        assertEquals("value", result.get("string"));
+        assertEquals("1", result.get("number"));
+    }
+
+    @Test
+    public void collectChangesSkipsPropagatedAttributes() {
+        // GIVEN
+        NativeAttributes nativeAttributes = new NativeAttributes();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("unchanged", "value");
+        attributes.put("changed", 1);
+        nativeAttributes.collectChanges(attributes);
+
+        // WHEN
+        attributes.put("changed", 2);
+        attributes.put("added", true);
+        NativeAttributes.Changes changes = nativeAttributes.collectChanges(attributes);
+
+        // THEN
+        Map<String, String> result = toMap(changes);
+        assertEquals(2, result.size());
+        assertEquals("2", result.get("changed"));
+        assertEquals("true", result.get("added"));
+        assertTrue(nativeAttributes.collectChanges(attributes).isEmpty());
+    }
+
+    @Test
+    public void collectChangesSkipsUnsupportedAttributes() {
+        // GIVEN
+        NativeAttributes nativeAttributes = new NativeAttributes();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("null", null);
+        attributes.put(null, "value");
+        attributes.put("object", new Object());
+
+        // WHEN
+        NativeAttributes.Changes changes = nativeAttributes.collectChanges(attributes);
+
+        // THEN
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void resetReplacesPropagatedAttributes() {
+        // GIVEN
+        NativeAttributes nativeAttributes = new NativeAttributes();
+        nativeAttributes.collectChanges(singleAttribute("previous", "value"));
+
+        // WHEN
+        nativeAttributes.reset(new String[] {"startup"}, new String[] {"value"});
+
+        // THEN
+        assertTrue(nativeAttributes
+                .collectChanges(singleAttribute("startup", "value"))
+                .isEmpty());
+        NativeAttributes.Changes changes = nativeAttributes.collectChanges(singleAttribute("previous", "value"));
+        assertFalse(changes.isEmpty());
+        assertArrayEquals(new String[] {"previous"}, changes.getKeys());
+        assertArrayEquals(new String[] {"value"}, changes.getValues());
+    }
+
+    private static Map<String, Object> singleAttribute(String key, Object value) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(key, value);
+        return attributes;
+    }
+
+    private static Map<String, String> toMap(NativeAttributes.Changes changes) {
+        Map<String, String> result = new HashMap<>();
+        for (int index = 0; index < changes.getKeys().length; index++) {
+            result.put(changes.getKeys()[index], changes.getValues()[index]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,185 @@
+package backtraceio.library.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.common.BacktraceClock;
+import backtraceio.library.common.FakeClock;
+import backtraceio.library.models.nativeHandler.DumpWithoutCrashResult;
+import backtraceio.library.telemetry.BacktraceTelemetry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class BacktraceDumpWithoutCrashWorkerTest {
+
+    private static final BacktraceClock CLOCK = () -> System.nanoTime() / 1_000_000;
+
+    private final List<String> dumps = Collections.synchronizedList(new ArrayList<>());
+
+    private final CountDownLatch dumpStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseDump = new CountDownLatch(1);
+
+    private BacktraceDumpWithoutCrashWorker worker;
+
+    @After
+    public void tearDown() {
+        releaseDump.countDown();
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    public void dumpsOnWorkerThread() throws Exception {
+        // GIVEN
+        final BlockingQueue<String> threads = new LinkedBlockingQueue<>();
+        worker = new BacktraceDumpWithoutCrashWorker(
+                (message, setMainThreadAsFaultingThread) ->
+                        threads.add(Thread.currentThread().getName()),
+                0,
+                CLOCK);
+        final BlockingQueue<DumpWithoutCrashResult> results = new LinkedBlockingQueue<>();
+
+        // WHEN
+        boolean queued = worker.dump("message", false, results::add);
+
+        // THEN
+        assertTrue(queued);
+        DumpWithoutCrashResult result = results.poll(5, TimeUnit.SECONDS);
+        assertTrue(result.isDumped());
+        assertEquals(1, result.getRequests());
+        assertFalse(Thread.currentThread().getName().equals(threads.poll()));
+    }
+
+    @Test
+    public void mergesRequestsMadeWhileDumpIsWaiting() throws Exception {
+        // GIVEN
+        worker = new BacktraceDumpWithoutCrashWorker(this::blockingDump, 0, CLOCK);
+        final BlockingQueue<DumpWithoutCrashResult> results = new LinkedBlockingQueue<>();
+        worker.dump("first", false, results::add);
+        assertTrue(dumpStarted.await(5, TimeUnit.SECONDS));
+
+        // WHEN
+        boolean secondQueued = worker.dump("second", false, results::add);
+        boolean thirdQueued = worker.dump("third", false, results::add);
+        releaseDump.countDown();
+
+        // THEN
+        assertTrue(secondQueued);
+        assertFalse(thirdQueued);
+        assertEquals(1, results.poll(5, TimeUnit.SECONDS).getRequests());
+        assertEquals(2, results.poll(5, TimeUnit.SECONDS).getRequests());
+        assertEquals(2, results.poll(5, TimeUnit.SECONDS).getRequests());
+        assertEquals(2, dumps.size());
+        assertEquals("first", dumps.get(0));
+        assertEquals("second", dumps.get(1));
+    }
+
+    @Test
+    public void waitsForMinimumInterval() throws Exception {
+        // GIVEN
+        // the interval is measured from the moment the worker takes the previous dump, before it's generated
+        final long minInterval = 200;
+        final FakeClock clock = new FakeClock(1000);
+        final BlockingQueue<Long> dumpTimes = new LinkedBlockingQueue<>();
+        worker = new BacktraceDumpWithoutCrashWorker(
+                (message, setMainThreadAsFaultingThread) -> dumpTimes.add(clock.elapsedRealtime()), minInterval, clock);
+        worker.dump("first", false, null);
+        final long firstDump = dumpTimes.poll(5, TimeUnit.SECONDS);
+
+        // WHEN
+        worker.dump("second", false, null);
+        clock.advance(minInterval - 1);
+
+        // THEN
+        assertNull(dumpTimes.poll(3 * minInterval, TimeUnit.MILLISECONDS));
+
+        // WHEN
+        clock.advance(1);
+
+        // THEN
+        final long secondDump = dumpTimes.poll(5, TimeUnit.SECONDS);
+        assertEquals(minInterval, secondDump - firstDump);
+    }
+
+    @Test
+    public void reportsFailedDump() throws Exception {
+        // GIVEN
+        worker = new BacktraceDumpWithoutCrashWorker(
+                (message, setMainThreadAsFaultingThread) -> {
+                    throw new UnsatisfiedLinkError("native library not loaded");
+                },
+                0,
+                CLOCK);
+        final BlockingQueue<DumpWithoutCrashResult> results = new LinkedBlockingQueue<>();
+
+        // WHEN
+        worker.dump("message", false, results::add);
+
+        // THEN
+        assertFalse(results.poll(5, TimeUnit.SECONDS).isDumped());
+    }
+
+    @Test
+    public void stopCancelsWaitingDump() throws Exception {
+        // GIVEN
+        worker = new BacktraceDumpWithoutCrashWorker(this::blockingDump, 0, CLOCK);
+        final BlockingQueue<DumpWithoutCrashResult> results = new LinkedBlockingQueue<>();
+        worker.dump("first", false, null);
+        assertTrue(dumpStarted.await(5, TimeUnit.SECONDS));
+        worker.dump("second", false, results::add);
+
+        // WHEN
+        worker.stop();
+
+        // THEN
+        DumpWithoutCrashResult result = results.poll(5, TimeUnit.SECONDS);
+        assertFalse(result.isDumped());
+        assertFalse(worker.dump("third", false, null));
+        releaseDump.countDown();
+    }
+
+    @Test
+    public void dumpAfterStopNotifiesFailure() {
+        // GIVEN
+        worker = new BacktraceDumpWithoutCrashWorker(this::blockingDump, 0, CLOCK);
+        final List<DumpWithoutCrashResult> results = new ArrayList<>();
+        worker.stop();
+        BacktraceTelemetry.enable();
+
+        // WHEN
+        try {
+            final boolean queued = worker.dump("message", false, results::add);
+
+            // THEN
+            assertFalse(queued);
+            assertEquals(1, results.size());
+            assertFalse(results.get(0).isDumped());
+            assertEquals(0, BacktraceTelemetry.DUMP_WITHOUT_CRASH_MERGED.get());
+            assertTrue(dumps.isEmpty());
+        } finally {
+            BacktraceTelemetry.disable();
+            BacktraceTelemetry.reset();
+        }
+    }
+
+    private void blockingDump(String message, boolean setMainThreadAsFaultingThread) {
+        dumps.add(message);
+        dumpStarted.countDown();
+        try {
+            releaseDump.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
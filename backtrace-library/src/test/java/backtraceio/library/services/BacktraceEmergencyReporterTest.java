@@ -0,0 +1,151 @@
+package backtraceio.library.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.database.BacktraceEmergencyReport;
+import backtraceio.library.models.json.BacktraceReport;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BacktraceEmergencyReporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void detectsOutOfMemoryInCauseChain() {
+        assertTrue(BacktraceEmergencyReporter.isOutOfMemory(new OutOfMemoryError()));
+        assertTrue(BacktraceEmergencyReporter.isOutOfMemory(new RuntimeException(new OutOfMemoryError())));
+        assertFalse(BacktraceEmergencyReporter.isOutOfMemory(new IllegalStateException()));
+        assertFalse(BacktraceEmergencyReporter.isOutOfMemory(null));
+    }
+
+    @Test
+    public void writesReportRecoveredOnNextStart() throws Exception {
+        // GIVEN
+        final String databasePath = folder.getRoot().getAbsolutePath();
+        BacktraceEmergencyReporter reporter = new BacktraceEmergencyReporter(databasePath, 1024);
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("application.version", "1.2.3");
+        attributes.put("quoted", "\"value\"\né€😀");
+        reporter.setAttributes(attributes);
+        OutOfMemoryError error = new OutOfMemoryError("Failed to allocate \"8 MB\"");
+
+        // WHEN
+        boolean written = reporter.report(new Thread("worker"), error);
+        List<BacktraceEmergencyReport> reports = BacktraceEmergencyReporter.recover(databasePath);
+
+        // THEN
+        assertTrue(written);
+        assertEquals(1, reports.size());
+        BacktraceEmergencyReport report = reports.get(0);
+        assertEquals("java.lang.OutOfMemoryError", report.classifier);
+        assertEquals("Failed to allocate \"8 MB\"", report.message);
+        assertEquals("worker", report.thread);
+        assertEquals("1.2.3", report.attributes.get("application.version"));
+        assertEquals("\"value\"\né€😀", report.attributes.get("quoted"));
+        assertEquals(error.getStackTrace().length, report.frames.size());
+        assertEquals(error.getStackTrace()[0].getMethodName(), report.frames.get(0).methodName);
+        assertEquals(error.getStackTrace()[0].getLineNumber(), report.frames.get(0).line);
+        assertFalse(report.truncated);
+        assertEquals(0, new File(databasePath, BacktraceEmergencyReporter.DIRECTORY_NAME).list().length);
+    }
+
+    @Test
+    public void writesOnlyOneReport() throws Exception {
+        // GIVEN
+        BacktraceEmergencyReporter reporter =
+                new BacktraceEmergencyReporter(folder.getRoot().getAbsolutePath(), 0);
+
+        // WHEN
+        boolean first = reporter.report(Thread.currentThread(), new OutOfMemoryError());
+        boolean second = reporter.report(Thread.currentThread(), new OutOfMemoryError());
+
+        // THEN
+        assertTrue(first);
+        assertFalse(second);
+    }
+
+    @Test
+    public void truncatesFramesWhichDoNotFit() throws Exception {
+        // GIVEN
+        final String databasePath = folder.getRoot().getAbsolutePath();
+        BacktraceEmergencyReporter reporter =
+                new BacktraceEmergencyReporter(databasePath, 0, BacktraceEmergencyReporter.MIN_BUFFER_SIZE);
+        OutOfMemoryError error = new OutOfMemoryError();
+        StackTraceElement[] frames = new StackTraceElement[1000];
+        for (int index = 0; index < frames.length; index++) {
+            frames[index] = new StackTraceElement("com.example.SomeClass" + index, "method", "SomeClass.java", index);
+        }
+        error.setStackTrace(frames);
+
+        // WHEN
+        reporter.report(Thread.currentThread(), error);
+        List<BacktraceEmergencyReport> reports = BacktraceEmergencyReporter.recover(databasePath);
+
+        // THEN
+        assertEquals(1, reports.size());
+        assertTrue(reports.get(0).truncated);
+        assertTrue(reports.get(0).frames.size() > 0);
+        assertTrue(reports.get(0).frames.size() < frames.length);
+    }
+
+    @Test
+    public void recoverSkipsOpenedReportsAndRemovesInvalidFiles() throws Exception {
+        // GIVEN
+        final String databasePath = folder.getRoot().getAbsolutePath();
+        BacktraceEmergencyReporter reporter = new BacktraceEmergencyReporter(databasePath, 0);
+        File directory = new File(databasePath, BacktraceEmergencyReporter.DIRECTORY_NAME);
+        File invalid = new File(directory, "invalid.json");
+        try (FileOutputStream outputStream = new FileOutputStream(invalid)) {
+            outputStream.write("{\"uuid\":".getBytes());
+        }
+
+        // WHEN
+        List<BacktraceEmergencyReport> reports = BacktraceEmergencyReporter.recover(databasePath);
+
+        // THEN
+        assertTrue(reports.isEmpty());
+        assertFalse(invalid.exists());
+        assertEquals(1, directory.list().length);
+
+        reporter.close();
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void convertsToUnhandledExceptionReport() throws Exception {
+        // GIVEN
+        final String databasePath = folder.getRoot().getAbsolutePath();
+        BacktraceEmergencyReporter reporter = new BacktraceEmergencyReporter(databasePath, 0);
+        reporter.report(new Thread("main"), new OutOfMemoryError("heap"));
+        BacktraceEmergencyReport emergencyReport =
+                BacktraceEmergencyReporter.recover(databasePath).get(0);
+
+        // WHEN
+        BacktraceReport report = emergencyReport.toBacktraceReport();
+
+        // THEN
+        assertEquals(emergencyReport.uuid, report.uuid.toString());
+        assertEquals(emergencyReport.timestamp, report.timestamp);
+        assertEquals("java.lang.OutOfMemoryError", report.classifier);
+        assertTrue(report.exceptionTypeReport);
+        assertEquals("heap", report.exception.getMessage());
+        assertNotNull(report.diagnosticStack);
+        assertFalse(report.diagnosticStack.isEmpty());
+        assertEquals(
+                BacktraceAttributeConsts.UnhandledExceptionAttributeType,
+                report.attributes.get(BacktraceAttributeConsts.ErrorType));
+        assertEquals("main", report.attributes.get(BacktraceEmergencyReport.FAULTING_THREAD_ATTRIBUTE));
+    }
+}
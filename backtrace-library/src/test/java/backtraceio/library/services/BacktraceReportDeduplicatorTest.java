@@ -0,0 +1,157 @@
+package backtraceio.library.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.BacktraceDeduplicationSettings;
+import backtraceio.library.models.json.BacktraceReport;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Test;
+
+public class BacktraceReportDeduplicatorTest {
+
+    private static final long WINDOW = 1000;
+
+    private static BacktraceReport createReport() {
+        return new BacktraceReport(new IllegalStateException("storm"));
+    }
+
+    @Test
+    public void sendFirstOccurrenceImmediately() {
+        // GIVEN
+        BacktraceReportDeduplicator deduplicator =
+                new BacktraceReportDeduplicator(new BacktraceDeduplicationSettings(WINDOW));
+        BacktraceReport report = createReport();
+
+        // WHEN
+        BacktraceReport result = deduplicator.deduplicate(report, 0);
+
+        // THEN
+        assertSame(report, result);
+        assertNull(result.attributes.get(BacktraceAttributeConsts.DuplicateCount));
+    }
+
+    @Test
+    public void holdDuplicatesAndReleaseRepresentativeAfterWindow() {
+        // GIVEN
+        BacktraceReportDeduplicator deduplicator =
+                new BacktraceReportDeduplicator(new BacktraceDeduplicationSettings(WINDOW));
+        BacktraceReport lastReport = null;
+
+        // WHEN
+        deduplicator.deduplicate(createReport(), 0);
+        for (int index = 1; index <= 10; index++) {
+            lastReport = createReport();
+            assertNull(deduplicator.deduplicate(lastReport, index));
+        }
+
+        // THEN
+        assertTrue(deduplicator.drainExpired(WINDOW - 1).isEmpty());
+        List<BacktraceReport> expired = deduplicator.drainExpired(WINDOW);
+        assertEquals(1, expired.size());
+        assertSame(lastReport, expired.get(0));
+        assertEquals(10, expired.get(0).attributes.get(BacktraceAttributeConsts.DuplicateCount));
+        assertTrue(expired.get(0).attributes.containsKey(BacktraceAttributeConsts.DuplicateFirstSeen));
+        assertTrue(expired.get(0).attributes.containsKey(BacktraceAttributeConsts.DuplicateLastSeen));
+        assertTrue(deduplicator.drainExpired(WINDOW * 2).isEmpty());
+    }
+
+    @Test
+    public void startNewWindowAfterExpiration() {
+        // GIVEN
+        BacktraceReportDeduplicator deduplicator =
+                new BacktraceReportDeduplicator(new BacktraceDeduplicationSettings(WINDOW));
+        BacktraceReport report = createReport();
+
+        // WHEN
+        deduplicator.deduplicate(createReport(), 0);
+        BacktraceReport result = deduplicator.deduplicate(report, WINDOW);
+
+        // THEN
+        assertSame(report, result);
+    }
+
+    @Test
+    public void sendFatalDuplicateWithAggregatedOccurrences() {
+        // GIVEN
+        BacktraceReportDeduplicator deduplicator =
+                new BacktraceReportDeduplicator(new BacktraceDeduplicationSettings(WINDOW));
+        Exception exception = new IllegalStateException("storm");
+        BacktraceReport fatalReport = new BacktraceReport(exception, new HashMap<String, Object>() {
+            {
+                put(BacktraceAttributeConsts.ErrorType, BacktraceAttributeConsts.UnhandledExceptionAttributeType);
+            }
+        });
+
+        // WHEN
+        deduplicator.deduplicate(new BacktraceReport(exception), 0);
+        deduplicator.deduplicate(new BacktraceReport(exception), 1);
+        BacktraceReport result = deduplicator.deduplicate(fatalReport, 2);
+
+        // THEN
+        assertSame(fatalReport, result);
+        assertEquals(2, result.attributes.get(BacktraceAttributeConsts.DuplicateCount));
+    }
+
+    @Test
+    public void releaseHeldReportOnEviction() {
+        // GIVEN
+        BacktraceReportDeduplicator deduplicator =
+                new BacktraceReportDeduplicator(new BacktraceDeduplicationSettings(WINDOW, 5, 1));
+
+        // WHEN
+        deduplicator.deduplicate(new BacktraceReport("first"), 0);
+        deduplicator.deduplicate(new BacktraceReport("first"), 1);
+        deduplicator.deduplicate(new BacktraceReport("second"), 2);
+
+        // THEN
+        assertEquals(1, deduplicator.size());
+        List<BacktraceReport> released = deduplicator.drainExpired(3);
+        assertEquals(1, released.size());
+        assertEquals("first", released.get(0).message);
+    }
+
+    @Test
+    public void fingerprintDependsOnClassifierAndMessage() {
+        // GIVEN
+        BacktraceReport first = new BacktraceReport("first");
+        BacktraceReport second = new BacktraceReport("second");
+        BacktraceReport exception = new BacktraceReport(new IllegalStateException());
+        BacktraceReport otherException = new BacktraceReport(new IllegalArgumentException());
+
+        // THEN
+        assertNotEquals(
+                BacktraceReportDeduplicator.getFingerprint(first, 0),
+                BacktraceReportDeduplicator.getFingerprint(second, 0));
+        assertNotEquals(
+                BacktraceReportDeduplicator.getFingerprint(exception, 0),
+                BacktraceReportDeduplicator.getFingerprint(otherException, 0));
+    }
+
+    @Test
+    public void reportDelayUntilHeldReportIsReleased() {
+        // GIVEN
+        BacktraceReportDeduplicator deduplicator =
+                new BacktraceReportDeduplicator(new BacktraceDeduplicationSettings(WINDOW));
+
+        // WHEN
+        deduplicator.deduplicate(createReport(), 0);
+
+        // THEN
+        assertEquals(-1, deduplicator.getNextExpirationDelay(0));
+
+        // WHEN
+        deduplicator.deduplicate(createReport(), 100);
+
+        // THEN
+        assertEquals(WINDOW - 200, deduplicator.getNextExpirationDelay(200));
+        assertEquals(0, deduplicator.getNextExpirationDelay(WINDOW + 1));
+        assertEquals(1, deduplicator.drainExpired(WINDOW).size());
+        assertEquals(-1, deduplicator.getNextExpirationDelay(WINDOW));
+    }
+}
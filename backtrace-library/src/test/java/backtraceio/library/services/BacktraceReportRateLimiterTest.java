@@ -0,0 +1,124 @@
+package backtraceio.library.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.models.BacktraceAttributeConsts;
+import backtraceio.library.models.BacktraceRateLimitSettings;
+import backtraceio.library.models.json.BacktraceReport;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class BacktraceReportRateLimiterTest {
+
+    private static final long PERIOD_MILLIS = 1000;
+    private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(PERIOD_MILLIS);
+
+    private static BacktraceReport createReport(Exception exception, String errorType) {
+        return new BacktraceReport(exception, new HashMap<String, Object>() {
+            {
+                put(BacktraceAttributeConsts.ErrorType, errorType);
+            }
+        });
+    }
+
+    @Test
+    public void allowEverythingWithoutLimits() {
+        // GIVEN
+        BacktraceReportRateLimiter rateLimiter = new BacktraceReportRateLimiter(new BacktraceRateLimitSettings());
+
+        // THEN
+        for (int index = 0; index < 1000; index++) {
+            assertTrue(rateLimiter.tryAcquire(new BacktraceReport("test"), 0));
+        }
+        assertEquals(0, rateLimiter.getTotalSuppressedReports());
+    }
+
+    @Test
+    public void limitGlobalNumberOfReports() {
+        // GIVEN
+        BacktraceRateLimitSettings settings = new BacktraceRateLimitSettings(PERIOD_MILLIS);
+        settings.setGlobalLimit(3);
+        BacktraceReportRateLimiter rateLimiter = new BacktraceReportRateLimiter(settings);
+
+        // WHEN
+        int allowed = 0;
+        for (int index = 0; index < 10; index++) {
+            if (rateLimiter.tryAcquire(new BacktraceReport("test"), 0)) {
+                allowed++;
+            }
+        }
+
+        // THEN
+        assertEquals(3, allowed);
+        assertEquals(7, rateLimiter.getAndResetSuppressedReports());
+        assertEquals(0, rateLimiter.getAndResetSuppressedReports());
+        assertEquals(7, rateLimiter.getTotalSuppressedReports());
+    }
+
+    @Test
+    public void refillTokensOverTime() {
+        // GIVEN
+        BacktraceRateLimitSettings settings = new BacktraceRateLimitSettings(PERIOD_MILLIS);
+        settings.setGlobalLimit(2);
+        BacktraceReportRateLimiter rateLimiter = new BacktraceReportRateLimiter(settings);
+
+        // WHEN
+        rateLimiter.tryAcquire(new BacktraceReport("test"), 0);
+        rateLimiter.tryAcquire(new BacktraceReport("test"), 0);
+
+        // THEN
+        assertFalse(rateLimiter.tryAcquire(new BacktraceReport("test"), 0));
+        assertTrue(rateLimiter.tryAcquire(new BacktraceReport("test"), PERIOD_NANOS / 2));
+        assertFalse(rateLimiter.tryAcquire(new BacktraceReport("test"), PERIOD_NANOS / 2));
+    }
+
+    @Test
+    public void limitReportsPerClassifier() {
+        // GIVEN
+        BacktraceRateLimitSettings settings = new BacktraceRateLimitSettings(PERIOD_MILLIS);
+        settings.setClassifierLimit(1);
+        BacktraceReportRateLimiter rateLimiter = new BacktraceReportRateLimiter(settings);
+
+        // THEN
+        assertTrue(rateLimiter.tryAcquire(new BacktraceReport(new IllegalStateException()), 0));
+        assertFalse(rateLimiter.tryAcquire(new BacktraceReport(new IllegalStateException()), 0));
+        assertTrue(rateLimiter.tryAcquire(new BacktraceReport(new UnsupportedOperationException()), 0));
+    }
+
+    @Test
+    public void limitReportsPerErrorType() {
+        // GIVEN
+        BacktraceRateLimitSettings settings = new BacktraceRateLimitSettings(PERIOD_MILLIS);
+        settings.setErrorTypeLimit(BacktraceAttributeConsts.HandledExceptionAttributeType, 1);
+        BacktraceReportRateLimiter rateLimiter = new BacktraceReportRateLimiter(settings);
+        Exception exception = new IllegalStateException();
+
+        // THEN
+        assertTrue(rateLimiter.tryAcquire(
+                createReport(exception, BacktraceAttributeConsts.HandledExceptionAttributeType), 0));
+        assertFalse(rateLimiter.tryAcquire(
+                createReport(exception, BacktraceAttributeConsts.HandledExceptionAttributeType), 0));
+        assertTrue(rateLimiter.tryAcquire(createReport(exception, BacktraceAttributeConsts.AnrAttributeType), 0));
+    }
+
+    @Test
+    public void doNotConsumeTokensOfSuppressedReport() {
+        // GIVEN
+        BacktraceRateLimitSettings settings = new BacktraceRateLimitSettings(PERIOD_MILLIS);
+        settings.setErrorTypeLimit(BacktraceAttributeConsts.AnrAttributeType, 1);
+        settings.setGlobalLimit(1);
+        BacktraceReportRateLimiter rateLimiter = new BacktraceReportRateLimiter(settings);
+        Exception exception = new IllegalStateException();
+
+        // WHEN
+        assertTrue(rateLimiter.tryAcquire(new BacktraceReport("test"), 0));
+        assertFalse(rateLimiter.tryAcquire(createReport(exception, BacktraceAttributeConsts.AnrAttributeType), 0));
+
+        // THEN
+        assertTrue(rateLimiter.tryAcquire(
+                createReport(exception, BacktraceAttributeConsts.AnrAttributeType), PERIOD_NANOS));
+    }
+}
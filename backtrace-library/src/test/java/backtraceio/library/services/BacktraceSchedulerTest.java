@@ -0,0 +1,126 @@
+package backtraceio.library.services;
+
+import static org.junit.Assert.assertEquals;
+
+import backtraceio.library.common.FakeClock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class BacktraceSchedulerTest {
+
+    private static final long WINDOW_MILLIS = 1000;
+
+    @Test
+    public void runTaskAfterDelay() {
+        // GIVEN
+        FakeClock clock = new FakeClock();
+        BacktraceScheduler scheduler = new BacktraceScheduler(clock, WINDOW_MILLIS);
+        AtomicInteger executions = new AtomicInteger();
+        scheduler.schedule(executions::incrementAndGet, 2000);
+
+        // WHEN
+        clock.advance(1999);
+        scheduler.runDueTasks();
+
+        // THEN
+        assertEquals(0, executions.get());
+        clock.advance(1);
+        assertEquals(-1, scheduler.runDueTasks());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void alignDeadlinesToOneWakeUp() {
+        // GIVEN
+        FakeClock clock = new FakeClock();
+        BacktraceScheduler scheduler = new BacktraceScheduler(clock, WINDOW_MILLIS);
+        List<Long> wakeUps = new ArrayList<>();
+        scheduler.setWakeUpListener(wakeUps::add);
+        AtomicInteger executions = new AtomicInteger();
+
+        // WHEN
+        scheduler.schedule(executions::incrementAndGet, 1200);
+        scheduler.schedule(executions::incrementAndGet, 1500);
+        scheduler.schedule(executions::incrementAndGet, 1900);
+
+        // THEN
+        assertEquals(1, wakeUps.size());
+        assertEquals(2000, (long) wakeUps.get(0));
+        clock.advance(2000);
+        scheduler.runDueTasks();
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    public void requestEarlierWakeUp() {
+        // GIVEN
+        FakeClock clock = new FakeClock();
+        BacktraceScheduler scheduler = new BacktraceScheduler(clock, WINDOW_MILLIS);
+        List<Long> wakeUps = new ArrayList<>();
+        scheduler.setWakeUpListener(wakeUps::add);
+
+        // WHEN
+        scheduler.schedule(() -> {}, 10_000);
+        scheduler.schedule(() -> {}, 3000);
+
+        // THEN
+        assertEquals(2, wakeUps.size());
+        assertEquals(3000, (long) wakeUps.get(1));
+    }
+
+    @Test
+    public void repeatPeriodicTask() {
+        // GIVEN
+        FakeClock clock = new FakeClock();
+        BacktraceScheduler scheduler = new BacktraceScheduler(clock, WINDOW_MILLIS);
+        AtomicInteger executions = new AtomicInteger();
+        scheduler.schedulePeriodic(executions::incrementAndGet, 5000);
+
+        // WHEN
+        for (int index = 0; index < 3; index++) {
+            clock.advance(5000);
+            assertEquals(5000, scheduler.runDueTasks());
+        }
+
+        // THEN
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    public void backOffPeriodicTasksInBackground() {
+        // GIVEN
+        FakeClock clock = new FakeClock();
+        BacktraceScheduler scheduler = new BacktraceScheduler(clock, WINDOW_MILLIS);
+        AtomicInteger executions = new AtomicInteger();
+        scheduler.schedulePeriodic(executions::incrementAndGet, 5000);
+        scheduler.setBackground(true);
+
+        // WHEN
+        clock.advance(5000);
+        long nextDelay = scheduler.runDueTasks();
+
+        // THEN
+        assertEquals(1, executions.get());
+        assertEquals(5000 * BacktraceScheduler.BACKGROUND_BACKOFF_MULTIPLIER, nextDelay);
+    }
+
+    @Test
+    public void doNotRunCancelledTask() {
+        // GIVEN
+        FakeClock clock = new FakeClock();
+        BacktraceScheduler scheduler = new BacktraceScheduler(clock, WINDOW_MILLIS);
+        AtomicInteger executions = new AtomicInteger();
+        BacktraceScheduler.ScheduledTask task = scheduler.schedulePeriodic(executions::incrementAndGet, 1000);
+
+        // WHEN
+        scheduler.cancel(task);
+        clock.advance(10_000);
+        scheduler.runDueTasks();
+
+        // THEN
+        assertEquals(0, executions.get());
+        assertEquals(0, scheduler.size());
+    }
+}
@@ -0,0 +1,102 @@
+package backtraceio.library.telemetry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BacktraceTelemetryTest {
+
+    @Before
+    public void setUp() {
+        BacktraceTelemetry.reset();
+    }
+
+    @After
+    public void tearDown() {
+        BacktraceTelemetry.disable();
+        BacktraceTelemetry.reset();
+    }
+
+    @Test
+    public void ignoreValuesWhileDisabled() {
+        // WHEN
+        BacktraceTelemetry.SERIALIZATION_TIME.record(100);
+        BacktraceTelemetry.REPORT_UPLOAD_BYTES.add(100);
+        BacktraceTelemetry.DATABASE_RECORDS.set(5);
+        BacktraceTelemetry.BREADCRUMB_ADD_TIME.recordElapsed(BacktraceTelemetry.startTimer());
+
+        // THEN
+        TelemetrySnapshot snapshot = BacktraceTelemetry.snapshot();
+        assertEquals(0, snapshot.getHistogram("sdk.serialization.us").getCount());
+        assertEquals(0, snapshot.getHistogram("sdk.breadcrumbs.add.us").getCount());
+        assertEquals(0, snapshot.getCounter("sdk.reports.upload.bytes"));
+        assertEquals(0, snapshot.getGauge("sdk.database.records"));
+    }
+
+    @Test
+    public void recordValuesWhileEnabled() {
+        // GIVEN
+        BacktraceTelemetry.enable();
+
+        // WHEN
+        BacktraceTelemetry.SERIALIZATION_TIME.record(100);
+        BacktraceTelemetry.SERIALIZATION_TIME.record(300);
+        BacktraceTelemetry.REPORT_UPLOAD_BYTES.add(100);
+        BacktraceTelemetry.REPORT_UPLOAD_BYTES.add(50);
+        BacktraceTelemetry.DATABASE_RECORDS.set(5);
+        BacktraceTelemetry.DATABASE_RECORDS.set(2);
+        BacktraceTelemetry.BREADCRUMB_ADD_TIME.recordElapsed(BacktraceTelemetry.startTimer());
+
+        // THEN
+        TelemetrySnapshot snapshot = BacktraceTelemetry.snapshot();
+        TelemetryHistogram.Snapshot serialization = snapshot.getHistogram("sdk.serialization.us");
+        assertEquals(2, serialization.getCount());
+        assertEquals(400, serialization.getSum());
+        assertEquals(300, serialization.getMax());
+        assertEquals(1, snapshot.getHistogram("sdk.breadcrumbs.add.us").getCount());
+        assertEquals(150, snapshot.getCounter("sdk.reports.upload.bytes"));
+        assertEquals(2, snapshot.getGauge("sdk.database.records"));
+        assertEquals(5, snapshot.getGaugeMax("sdk.database.records"));
+    }
+
+    @Test
+    public void flattenSnapshotToAttributes() {
+        // GIVEN
+        BacktraceTelemetry.enable();
+        BacktraceTelemetry.EVENTS_FLUSH_SIZE.record(10);
+        BacktraceTelemetry.REPORT_QUEUE_DEPTH.set(3);
+
+        // WHEN
+        Map<String, Object> attributes = BacktraceTelemetry.snapshot().toAttributes();
+
+        // THEN
+        assertEquals(1L, attributes.get("sdk.events.flush.size.count"));
+        assertEquals(10L, attributes.get("sdk.events.flush.size.max"));
+        assertEquals(3L, attributes.get("sdk.reports.queue"));
+        assertEquals(3L, attributes.get("sdk.reports.queue.max"));
+        assertEquals(0L, attributes.get("sdk.reports.upload.bytes"));
+        assertFalse(attributes.containsKey("sdk.serialization.us.count"));
+    }
+
+    @Test
+    public void resetValues() {
+        // GIVEN
+        BacktraceTelemetry.enable();
+        BacktraceTelemetry.DATABASE_WRITE_TIME.record(10);
+        BacktraceTelemetry.EVENTS_UPLOAD_BYTES.add(10);
+
+        // WHEN
+        BacktraceTelemetry.reset();
+
+        // THEN
+        TelemetrySnapshot snapshot = BacktraceTelemetry.snapshot();
+        assertEquals(0, snapshot.getHistogram("sdk.database.write.us").getCount());
+        assertEquals(0, snapshot.getCounter("sdk.events.upload.bytes"));
+        assertTrue(BacktraceTelemetry.isEnabled());
+    }
+}
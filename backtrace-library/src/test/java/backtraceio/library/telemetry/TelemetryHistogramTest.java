@@ -0,0 +1,75 @@
+package backtraceio.library.telemetry;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TelemetryHistogramTest {
+
+    @Before
+    public void setUp() {
+        BacktraceTelemetry.enable();
+    }
+
+    @After
+    public void tearDown() {
+        BacktraceTelemetry.disable();
+    }
+
+    @Test
+    public void bucketByPowerOfTwo() {
+        assertEquals(0, TelemetryHistogram.getBucket(0));
+        assertEquals(1, TelemetryHistogram.getBucket(1));
+        assertEquals(2, TelemetryHistogram.getBucket(2));
+        assertEquals(2, TelemetryHistogram.getBucket(3));
+        assertEquals(11, TelemetryHistogram.getBucket(1024));
+        assertEquals(63, TelemetryHistogram.getBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void estimatePercentiles() {
+        // GIVEN
+        TelemetryHistogram histogram = new TelemetryHistogram("test");
+
+        // WHEN
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        // THEN
+        TelemetryHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5050, snapshot.getSum());
+        assertEquals(50.5, snapshot.getMean(), 0.001);
+        // value 50 is in bucket 32-63, percentiles are reported as the bucket upper bound
+        assertEquals(63, snapshot.getPercentile(50));
+        // value 99 is in bucket 64-127 which is capped by the maximum
+        assertEquals(100, snapshot.getPercentile(99));
+        assertEquals(1, snapshot.getPercentile(0));
+    }
+
+    @Test
+    public void recordNegativeValuesAsZero() {
+        // GIVEN
+        TelemetryHistogram histogram = new TelemetryHistogram("test");
+
+        // WHEN
+        histogram.record(-5);
+
+        // THEN
+        TelemetryHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void emptyHistogram() {
+        TelemetryHistogram.Snapshot snapshot = new TelemetryHistogram("test").snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean(), 0);
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+}
@@ -0,0 +1,159 @@
+package backtraceio.library.watchdog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import backtraceio.library.models.BacktraceLooperMonitorSettings;
+import backtraceio.library.telemetry.TelemetryHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BacktraceLooperMonitorTest {
+
+    private static final String FRAME_MESSAGE = ">>>>> Dispatching to Handler (android.view.Choreographer$FrameHandler)"
+            + " {b5f8ad2} android.view.Choreographer$FrameDisplayEventReceiver@9c4ab0e: 0";
+
+    private static final String ACTIVITY_MESSAGE =
+            ">>>>> Dispatching to Handler (android.app.ActivityThread$H) {f1c3a5e} null: 159";
+
+    private static final long MILLIS = 1000000;
+
+    private BacktraceLooperMonitor monitor;
+
+    private final List<BacktraceSlowMessage> slowMessages = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        monitor = new BacktraceLooperMonitor(null, new BacktraceLooperMonitorSettings(100, true, false));
+        monitor.setOnSlowMessageEventListener(slowMessages::add);
+        monitor.attach(null);
+    }
+
+    @Test
+    public void parseMessageWithCallback() {
+        // WHEN
+        BacktraceSlowMessage message = BacktraceSlowMessage.parse(FRAME_MESSAGE, 120);
+
+        // THEN
+        assertEquals("android.view.Choreographer$FrameHandler", message.getHandler());
+        assertEquals("android.view.Choreographer$FrameDisplayEventReceiver", message.getCallback());
+        assertEquals("0", message.getWhat());
+        assertEquals(120, message.getDurationMillis());
+    }
+
+    @Test
+    public void parseMessageWithoutCallback() {
+        // WHEN
+        BacktraceSlowMessage message = BacktraceSlowMessage.parse(ACTIVITY_MESSAGE, 300);
+        Map<String, Object> attributes = message.toAttributes();
+
+        // THEN
+        assertEquals("android.app.ActivityThread$H", message.getHandler());
+        assertNull(message.getCallback());
+        assertEquals("159", message.getWhat());
+        assertEquals("android.app.ActivityThread$H", attributes.get("looper.handler"));
+        assertEquals("none", attributes.get("looper.callback"));
+        assertEquals(300L, attributes.get("looper.duration_ms"));
+    }
+
+    @Test
+    public void parseMessageWithCustomHandlerDescription() {
+        // WHEN
+        BacktraceSlowMessage message =
+                BacktraceSlowMessage.parse(">>>>> Dispatching to MyHandler com.example.Task@1a2b: 3", 150);
+
+        // THEN
+        assertEquals("MyHandler", message.getHandler());
+        assertEquals("com.example.Task", message.getCallback());
+        assertEquals("3", message.getWhat());
+    }
+
+    @Test
+    public void fastMessagesAreOnlyRecorded() {
+        // WHEN
+        monitor.onDispatchStart(FRAME_MESSAGE, 0);
+        monitor.onDispatchFinish(16 * MILLIS);
+        monitor.onDispatchStart(ACTIVITY_MESSAGE, 20 * MILLIS);
+        monitor.onDispatchFinish(25 * MILLIS);
+
+        // THEN
+        TelemetryHistogram.Snapshot snapshot = monitor.getDispatchTimeSnapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(16000, snapshot.getMax());
+        assertEquals(0, monitor.getSlowMessageCount());
+        assertEquals(0, slowMessages.size());
+    }
+
+    @Test
+    public void slowMessagesAreReported() {
+        // WHEN
+        monitor.onDispatchStart(ACTIVITY_MESSAGE, 0);
+        monitor.onDispatchFinish(250 * MILLIS);
+
+        // THEN
+        assertEquals(1, monitor.getSlowMessageCount());
+        assertEquals(1, slowMessages.size());
+        assertEquals("android.app.ActivityThread$H", slowMessages.get(0).getHandler());
+        assertEquals(250, slowMessages.get(0).getDurationMillis());
+    }
+
+    @Test
+    public void finishWithoutStartIsIgnored() {
+        // WHEN
+        monitor.println("<<<<< Finished to Handler (android.app.ActivityThread$H) {f1c3a5e} null");
+
+        // THEN
+        assertEquals(0, monitor.getDispatchTimeSnapshot().getCount());
+    }
+
+    @Test
+    public void resetRemovesRecordedValues() {
+        // GIVEN
+        monitor.onDispatchStart(ACTIVITY_MESSAGE, 0);
+        monitor.onDispatchFinish(250 * MILLIS);
+
+        // WHEN
+        monitor.reset();
+
+        // THEN
+        assertEquals(0, monitor.getDispatchTimeSnapshot().getCount());
+        assertEquals(0, monitor.getSlowMessageCount());
+    }
+
+    @Test
+    public void linesAreForwardedToPreviousPrinter() {
+        // GIVEN
+        final List<String> printedLines = new ArrayList<>();
+        monitor.attach(printedLines::add);
+
+        // WHEN
+        monitor.println(ACTIVITY_MESSAGE);
+        monitor.println("<<<<< Finished to Handler (android.app.ActivityThread$H) {f1c3a5e} null");
+
+        // THEN
+        assertEquals(2, printedLines.size());
+        assertEquals(ACTIVITY_MESSAGE, printedLines.get(0));
+        assertEquals(1, monitor.getDispatchTimeSnapshot().getCount());
+    }
+
+    @Test
+    public void detachedMonitorOnlyForwardsLines() {
+        // GIVEN
+        final List<String> printedLines = new ArrayList<>();
+        monitor.attach(printedLines::add);
+        monitor.println(ACTIVITY_MESSAGE);
+
+        // WHEN
+        monitor.detach();
+        monitor.println("<<<<< Finished to Handler (android.app.ActivityThread$H) {f1c3a5e} null");
+        monitor.attach(printedLines::add);
+        monitor.println("<<<<< Finished to Handler (android.app.ActivityThread$H) {f1c3a5e} null");
+
+        // THEN
+        assertEquals(3, printedLines.size());
+        assertEquals(0, monitor.getDispatchTimeSnapshot().getCount());
+    }
+}
@@ -0,0 +1,78 @@
+package backtraceio.library.watchdog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.common.FakeClock;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BacktraceMainThreadHeartbeatTest {
+
+    private FakeClock clock;
+    private BacktraceMainThreadHeartbeat heartbeat;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock(1000);
+        heartbeat = new BacktraceMainThreadHeartbeat(clock);
+    }
+
+    @Test
+    public void noStallBeforeHeartbeatIsPosted() {
+        // WHEN
+        clock.advance(10000);
+
+        // THEN
+        assertEquals(0, heartbeat.getStallDurationMillis());
+    }
+
+    @Test
+    public void stallGrowsUntilHeartbeatIsExecuted() {
+        // GIVEN
+        assertTrue(heartbeat.prepare());
+
+        // WHEN
+        clock.advance(300);
+        final long stallBeforeExecution = heartbeat.getStallDurationMillis();
+        clock.advance(400);
+        heartbeat.run();
+
+        // THEN
+        assertEquals(300, stallBeforeExecution);
+        assertEquals(0, heartbeat.getStallDurationMillis());
+        assertEquals(700, heartbeat.getLastDelayMillis());
+    }
+
+    @Test
+    public void pendingHeartbeatIsNotPostedAgain() {
+        // GIVEN
+        assertTrue(heartbeat.prepare());
+        clock.advance(200);
+
+        // WHEN
+        final boolean postedAgain = heartbeat.prepare();
+        clock.advance(200);
+
+        // THEN
+        assertFalse(postedAgain);
+        assertEquals(400, heartbeat.getStallDurationMillis());
+    }
+
+    @Test
+    public void heartbeatCanBeReused() {
+        // GIVEN
+        assertTrue(heartbeat.prepare());
+        clock.advance(5000);
+        heartbeat.run();
+
+        // WHEN
+        assertTrue(heartbeat.prepare());
+        clock.advance(50);
+
+        // THEN
+        assertEquals(50, heartbeat.getStallDurationMillis());
+        assertEquals(5000, heartbeat.getLastDelayMillis());
+    }
+}
@@ -0,0 +1,98 @@
+package backtraceio.library.watchdog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.anr.BacktraceStallProfilerSettings;
+import backtraceio.library.common.BacktraceSerializeHelper;
+import org.junit.Test;
+
+public class BacktraceStallProfileTest {
+
+    private static StackTraceElement frame(String method) {
+        return new StackTraceElement("com.example.Activity", method, "Activity.java", 10);
+    }
+
+    @Test
+    public void samplesAreMergedIntoTree() {
+        // GIVEN
+        BacktraceStallProfile profile = new BacktraceStallProfile(100);
+
+        // WHEN
+        profile.addSample(new StackTraceElement[] {frame("read"), frame("load"), frame("main")});
+        profile.addSample(new StackTraceElement[] {frame("read"), frame("load"), frame("main")});
+        profile.addSample(new StackTraceElement[] {frame("draw"), frame("main")});
+
+        // THEN
+        assertEquals(3, profile.getSamples());
+        assertEquals(5, profile.getNodeCount());
+        BacktraceStallProfile.Node main = profile.getRoot().getChildren().get(0);
+        assertEquals(1, profile.getRoot().getChildren().size());
+        assertEquals(3, main.getCount());
+        assertEquals(2, main.getChildren().size());
+        BacktraceStallProfile.Node load = main.getChildren().get(0);
+        assertEquals(frame("load").toString(), load.getFrame());
+        assertEquals(2, load.getCount());
+        assertEquals(2, load.getChildren().get(0).getCount());
+        assertEquals(1, main.getChildren().get(1).getCount());
+    }
+
+    @Test
+    public void treeIsBounded() {
+        // GIVEN
+        BacktraceStallProfile profile = new BacktraceStallProfile(3);
+
+        // WHEN
+        profile.addSample(new StackTraceElement[] {frame("load"), frame("main")});
+        profile.addSample(new StackTraceElement[] {frame("read"), frame("draw"), frame("main")});
+
+        // THEN
+        assertEquals(2, profile.getSamples());
+        assertEquals(3, profile.getNodeCount());
+        assertEquals(2, profile.getTruncatedFrames());
+        assertEquals(2, profile.getRoot().getChildren().get(0).getCount());
+    }
+
+    @Test
+    public void profileIsSerialized() {
+        // GIVEN
+        BacktraceStallProfile profile = new BacktraceStallProfile(100);
+        profile.addSample(new StackTraceElement[] {frame("main")});
+        profile.setDurationMillis(150);
+
+        // WHEN
+        String json = BacktraceSerializeHelper.toJson(profile);
+
+        // THEN
+        assertTrue(json.contains("\"samples\":1"));
+        assertTrue(json.contains("\"duration_ms\":150"));
+        assertTrue(json.contains("\"frame\":\"thread\""));
+        assertTrue(json.contains("\"count\":1"));
+    }
+
+    @Test
+    public void profilerKeepsCpuUsageBelowLimit() {
+        // GIVEN
+        BacktraceStallProfiler profiler = new BacktraceStallProfiler(new BacktraceStallProfilerSettings(0, 50, 100, 5));
+
+        // THEN
+        assertEquals(50, profiler.getNextDelay(1000000));
+        assertEquals(200, profiler.getNextDelay(10000000));
+    }
+
+    @Test
+    public void profilerSamplesThread() {
+        // GIVEN
+        BacktraceStallProfiler profiler = new BacktraceStallProfiler(new BacktraceStallProfilerSettings());
+
+        // WHEN
+        profiler.sample(Thread.currentThread(), 1000);
+        profiler.sample(Thread.currentThread(), 1100);
+        BacktraceStallProfile profile = profiler.finish();
+
+        // THEN
+        assertEquals(2, profile.getSamples());
+        assertEquals(100, profile.getDurationMillis());
+        assertEquals(null, profiler.finish());
+    }
+}
@@ -0,0 +1,157 @@
+package backtraceio.library.watchdog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import backtraceio.library.common.FakeClock;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BacktraceWheelWatchdogTest {
+
+    private FakeClock clock;
+    private BacktraceWheelWatchdog watchdog;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock(10000);
+        watchdog = new BacktraceWheelWatchdog(null, false, clock, 10, 64);
+    }
+
+    @Test
+    public void tickedWatchersAreNotReported() {
+        // GIVEN
+        List<BacktraceWheelWatchdog.Watcher> watchers = registerTasks(1000, 500);
+
+        // WHEN
+        for (int i = 0; i < 5; i++) {
+            clock.advance(300);
+            for (BacktraceWheelWatchdog.Watcher watcher : watchers) {
+                watcher.tick();
+            }
+            // THEN
+            assertTrue(watchdog.check().isEmpty());
+        }
+        assertEquals(1000, watchdog.size());
+    }
+
+    @Test
+    public void allHungWatchersAreReportedInOnePass() {
+        // GIVEN
+        List<BacktraceWheelWatchdog.Watcher> watchers = registerTasks(100, 500);
+
+        // WHEN
+        clock.advance(300);
+        for (int i = 0; i < watchers.size(); i += 2) {
+            watchers.get(i).tick();
+        }
+        clock.advance(300);
+        List<BacktraceWheelWatchdog.Watcher> hung = watchdog.check();
+
+        // THEN
+        assertEquals(50, hung.size());
+        for (BacktraceWheelWatchdog.Watcher watcher : hung) {
+            assertEquals(1, watchers.indexOf(watcher) % 2);
+            assertEquals(600, watcher.getStallDurationMillis());
+        }
+        // watchers ticked once hang after their next deadline, already reported ones are skipped
+        clock.advance(600);
+        for (BacktraceWheelWatchdog.Watcher watcher : watchdog.check()) {
+            assertEquals(0, watchers.indexOf(watcher) % 2);
+        }
+    }
+
+    @Test
+    public void hungWatcherIsReportedOnceUntilItRecovers() {
+        // GIVEN
+        BacktraceWheelWatchdog.Watcher watcher = watchdog.registerTask("task", 100);
+
+        // WHEN
+        clock.advance(150);
+        final int firstCheck = watchdog.check().size();
+        clock.advance(150);
+        final int secondCheck = watchdog.check().size();
+        watcher.tick();
+        clock.advance(150);
+        final int afterRecovery = watchdog.check().size();
+        clock.advance(150);
+        final int hungAgain = watchdog.check().size();
+
+        // THEN
+        assertEquals(1, firstCheck);
+        assertEquals(0, secondCheck);
+        assertEquals(0, afterRecovery);
+        assertEquals(1, hungAgain);
+    }
+
+    @Test
+    public void inactiveWatcherIsNotReported() {
+        // GIVEN
+        BacktraceWheelWatchdog.Watcher watcher = watchdog.registerTask("task", 100);
+        watcher.setActive(false);
+
+        // WHEN
+        clock.advance(500);
+
+        // THEN
+        assertTrue(watchdog.check().isEmpty());
+    }
+
+    @Test
+    public void unregisteredWatcherIsNotReported() {
+        // GIVEN
+        BacktraceWheelWatchdog.Watcher watcher = watchdog.registerTask("task", 100);
+
+        // WHEN
+        watchdog.unregister(watcher);
+        clock.advance(500);
+
+        // THEN
+        assertTrue(watchdog.check().isEmpty());
+        assertEquals(0, watchdog.size());
+    }
+
+    @Test
+    public void terminatedThreadIsUnregistered() throws InterruptedException {
+        // GIVEN
+        Thread thread = new Thread(() -> {});
+        thread.start();
+        thread.join();
+        watchdog.registerThread(thread, 100);
+
+        // WHEN
+        clock.advance(500);
+
+        // THEN
+        assertTrue(watchdog.check().isEmpty());
+        assertEquals(0, watchdog.size());
+    }
+
+    @Test
+    public void taskIsReportedWithLastTickingThread() {
+        // GIVEN
+        BacktraceWheelWatchdog.Watcher watcher = watchdog.registerTask("task", 100);
+
+        // WHEN
+        watcher.tick();
+        clock.advance(150);
+        watchdog.check();
+        clock.advance(150);
+        List<BacktraceWheelWatchdog.Watcher> hung = watchdog.check();
+
+        // THEN
+        assertEquals(1, hung.size());
+        assertSame(Thread.currentThread(), hung.get(0).getThread());
+    }
+
+    private List<BacktraceWheelWatchdog.Watcher> registerTasks(int count, long timeout) {
+        List<BacktraceWheelWatchdog.Watcher> watchers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            watchers.add(watchdog.registerTask("task-" + i, timeout));
+        }
+        return watchers;
+    }
+}
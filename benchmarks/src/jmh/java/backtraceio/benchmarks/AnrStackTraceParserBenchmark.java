@@ -0,0 +1,54 @@
+package backtraceio.benchmarks;
+
+import backtraceio.library.anr.ExitInfoStackTraceParser;
+import backtraceio.library.anr.ExitInfoTraceStreamParser;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing of ANR traces from ApplicationExitInfo. Large traces are created by repeating the thread
+ * dumps of a real trace.
+ */
+@State(Scope.Benchmark)
+public class AnrStackTraceParserBenchmark {
+
+    private static final String THREADS_START = "\n\"";
+
+    private static final String TRACE_END = "\n----- end";
+
+    @Param({"1", "10", "50"})
+    public int threadDumpCopies;
+
+    private String stackTrace;
+
+    @Setup
+    public void setUp() {
+        String trace = BenchmarkResources.read("anrAppExitInfoStacktrace.txt");
+        int threadsStart = trace.indexOf(THREADS_START);
+        int traceEnd = trace.lastIndexOf(TRACE_END);
+        String threads = trace.substring(threadsStart, traceEnd);
+
+        StringBuilder builder = new StringBuilder(trace.substring(0, traceEnd));
+        for (int copy = 1; copy < threadDumpCopies; copy++) {
+            builder.append(threads);
+        }
+        builder.append(trace.substring(traceEnd));
+        stackTrace = builder.toString();
+    }
+
+    @Benchmark
+    public Map<String, Object> parseANRStackTrace() {
+        return ExitInfoStackTraceParser.parseANRStackTrace(stackTrace);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseANRStackTraceStream() throws IOException {
+        return new ExitInfoTraceStreamParser().parse(new StringReader(stackTrace));
+    }
+}
@@ -0,0 +1,85 @@
+package backtraceio.benchmarks;
+
+import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerColumnarResponse;
+import backtraceio.coroner.response.CoronerResponseException;
+import backtraceio.coroner.response.CoronerResponseProcessingException;
+import backtraceio.coroner.serialization.CoronerResponseStreamDecoder;
+import backtraceio.coroner.serialization.GsonWrapper;
+import java.io.IOException;
+import java.io.StringReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Deserialization of coroner query responses with CoronerResponseGroupDeserializer compared to
+ * the streaming, columnar CoronerResponseStreamDecoder. Reading benchmarks decode the response and
+ * read an attribute of every group.
+ */
+@State(Scope.Benchmark)
+public class CoronerResponseBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int groupsCount;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"response\":{\"columns_desc\":[")
+                .append("{\"op\":\"head\",\"name\":\"error.message\",\"format\":\"\",\"type\":\"dictionary\"},")
+                .append("{\"op\":\"head\",\"name\":\"guid\",\"format\":\"uuid\",\"type\":\"uuid\"},")
+                .append("{\"op\":\"head\",\"name\":\"classifiers\",\"format\":\"labels\",\"type\":\"dictionary\"}")
+                .append("],\"values\":[");
+        for (int index = 0; index < groupsCount; index++) {
+            if (index != 0) {
+                builder.append(',');
+            }
+            builder.append("[\"group-")
+                    .append(index)
+                    .append("\",[[\"Invalid index of selected element!\"],[\"")
+                    .append(String.format("%08d-0000-0000-0000-000000000000", index))
+                    .append("\"],[\"java.lang.IndexOutOfBoundsException\"]],1]");
+        }
+        builder.append("]}}");
+        json = builder.toString();
+    }
+
+    @Benchmark
+    public CoronerApiResponse deserialize() {
+        return GsonWrapper.fromJson(json, CoronerApiResponse.class);
+    }
+
+    @Benchmark
+    public CoronerColumnarResponse decodeColumnar() throws CoronerResponseException, IOException {
+        return CoronerResponseStreamDecoder.decode(new StringReader(json));
+    }
+
+    @Benchmark
+    public int deserializeAndRead() throws CoronerResponseProcessingException {
+        CoronerApiResponse response = GsonWrapper.fromJson(json, CoronerApiResponse.class);
+        int length = 0;
+        for (int index = 0; index < response.getResponse().getResultsNumber(); index++) {
+            length += response.getResponse()
+                    .getAttribute(index, "guid", String.class)
+                    .length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int decodeColumnarAndRead()
+            throws CoronerResponseException, CoronerResponseProcessingException, IOException {
+        CoronerColumnarResponse response = CoronerResponseStreamDecoder.decode(new StringReader(json));
+        int guid = response.getColumnIndex("guid");
+        int length = 0;
+        for (int index = 0; index < response.getResultsNumber(); index++) {
+            length += response.getString(index, guid).length();
+        }
+        return length;
+    }
+}
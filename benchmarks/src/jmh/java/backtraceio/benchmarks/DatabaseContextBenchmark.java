@@ -0,0 +1,112 @@
+package backtraceio.benchmarks;
+
+import backtraceio.library.models.database.BacktraceDatabaseRecord;
+import backtraceio.library.models.database.BacktraceDatabaseSettings;
+import backtraceio.library.services.BacktraceDatabaseContext;
+import java.io.File;
+import java.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * In-memory database context operations. Records point to files that don't exist, so the benchmark
+ * measures the bookkeeping and not the disk.
+ */
+@State(Scope.Thread)
+public class DatabaseContextBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int recordsCount;
+
+    private String databasePath;
+
+    private BacktraceDatabaseContext context;
+
+    private BacktraceDatabaseRecord[] records;
+
+    private int nextRecord;
+
+    @Setup(Level.Trial)
+    public void createRecords() {
+        databasePath = new File(System.getProperty("java.io.tmpdir"), "backtrace-benchmarks").getAbsolutePath();
+        records = new BacktraceDatabaseRecord[recordsCount];
+        for (int index = 0; index < recordsCount; index++) {
+            records[index] = createRecord();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fillContext() {
+        context = createContext(databasePath, records);
+        nextRecord = 0;
+    }
+
+    @Benchmark
+    public BacktraceDatabaseRecord add() {
+        // keep the context size stable - add a new record and remove the oldest one
+        BacktraceDatabaseRecord record = context.add(createRecord());
+        context.removeOldestRecord();
+        return record;
+    }
+
+    @Benchmark
+    public BacktraceDatabaseRecord first() {
+        BacktraceDatabaseRecord record = context.first();
+        if (record != null) {
+            record.locked = false;
+        }
+        return record;
+    }
+
+    @Benchmark
+    public boolean deleteAndAdd() {
+        BacktraceDatabaseRecord record = records[nextRecord];
+        nextRecord = (nextRecord + 1) % records.length;
+        boolean deleted = context.delete(record);
+        context.add(record);
+        return deleted;
+    }
+
+    @Benchmark
+    public int incrementBatchRetry(FilledContext filledContext) {
+        filledContext.context.incrementBatchRetry();
+        return filledContext.context.count();
+    }
+
+    private BacktraceDatabaseRecord createRecord() {
+        String id = UUID.randomUUID().toString();
+        return new BacktraceDatabaseRecord(
+                id,
+                databasePath,
+                databasePath + "/" + id + "-record.json",
+                databasePath + "/" + id + "-attachment.json",
+                databasePath + "/" + id + "-report.json",
+                1024);
+    }
+
+    private static BacktraceDatabaseContext createContext(String databasePath, BacktraceDatabaseRecord[] records) {
+        BacktraceDatabaseContext context = new BacktraceDatabaseContext(new BacktraceDatabaseSettings(databasePath));
+        for (BacktraceDatabaseRecord record : records) {
+            context.add(record);
+        }
+        return context;
+    }
+
+    /**
+     * Retries move records to the next batch and drop them after the retry limit, so every
+     * invocation starts from a full context
+     */
+    @State(Scope.Thread)
+    public static class FilledContext {
+        BacktraceDatabaseContext context;
+
+        @Setup(Level.Invocation)
+        public void fill(DatabaseContextBenchmark benchmark) {
+            context = createContext(benchmark.databasePath, benchmark.records);
+        }
+    }
+}
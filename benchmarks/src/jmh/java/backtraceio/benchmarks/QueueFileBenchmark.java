@@ -0,0 +1,53 @@
+package backtraceio.benchmarks;
+
+import backtraceio.library.breadcrumbs.BacktraceQueueFileHelper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Breadcrumb writes to the queue file, including evictions once the file is full
+ */
+@State(Scope.Thread)
+public class QueueFileBenchmark {
+
+    @Param({"64", "1024"})
+    public int breadcrumbSize;
+
+    private File queueFile;
+
+    private BacktraceQueueFileHelper queueFileHelper;
+
+    private byte[] breadcrumb;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, NoSuchMethodException {
+        queueFile = File.createTempFile("backtrace-breadcrumbs", ".log");
+        if (!queueFile.delete()) {
+            throw new IOException("Cannot prepare queue file " + queueFile);
+        }
+        queueFileHelper = new BacktraceQueueFileHelper(queueFile.getAbsolutePath(), 64 * 1024);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < breadcrumbSize) {
+            builder.append("breadcrumb ");
+        }
+        breadcrumb = builder.substring(0, breadcrumbSize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queueFile.delete();
+    }
+
+    @Benchmark
+    public boolean add() {
+        return queueFileHelper.add(breadcrumb);
+    }
+}
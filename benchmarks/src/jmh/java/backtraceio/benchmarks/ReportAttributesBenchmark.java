@@ -0,0 +1,55 @@
+package backtraceio.benchmarks;
+
+import backtraceio.library.models.attributes.ReportDataAttributes;
+import backtraceio.library.models.attributes.ReportDataBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Splitting client attributes into report attributes and annotations
+ */
+@State(Scope.Benchmark)
+public class ReportAttributesBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int attributesCount;
+
+    private Map<String, Object> attributes;
+
+    @Setup
+    public void setUp() {
+        attributes = new HashMap<>();
+        for (int index = 0; index < attributesCount; index++) {
+            switch (index % 5) {
+                case 0:
+                    attributes.put("string." + index, "value " + index);
+                    break;
+                case 1:
+                    attributes.put("number." + index, index);
+                    break;
+                case 2:
+                    attributes.put("boolean." + index, index % 2 == 0);
+                    break;
+                case 3:
+                    attributes.put("list." + index, new ArrayList<>(Arrays.asList("a", "b", "c")));
+                    break;
+                default:
+                    Map<String, Object> nested = new HashMap<>();
+                    nested.put("key", "value");
+                    attributes.put("map." + index, nested);
+            }
+        }
+    }
+
+    @Benchmark
+    public ReportDataAttributes getReportAttributes() {
+        return ReportDataBuilder.getReportAttributes(attributes);
+    }
+}
@@ -0,0 +1,35 @@
+package backtraceio.benchmarks;
+
+import backtraceio.library.common.BacktraceSerializeHelper;
+import backtraceio.library.models.BacktraceData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialization of a report captured from a real application
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private String json;
+
+    private BacktraceData data;
+
+    @Setup
+    public void setUp() {
+        json = BenchmarkResources.read("backtraceData.json");
+        data = BacktraceSerializeHelper.fromJson(json, BacktraceData.class);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return BacktraceSerializeHelper.toJson(data);
+    }
+
+    @Benchmark
+    public BacktraceData fromJson() {
+        return BacktraceSerializeHelper.fromJson(json, BacktraceData.class);
+    }
+}
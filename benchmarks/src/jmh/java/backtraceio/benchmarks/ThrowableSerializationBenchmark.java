@@ -0,0 +1,52 @@
+package backtraceio.benchmarks;
+
+import backtraceio.library.common.BacktraceSerializeHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Round trips of exceptions with causes through the ThrowableTypeAdapterFactory
+ */
+@State(Scope.Benchmark)
+public class ThrowableSerializationBenchmark {
+
+    private static final int STACK_FRAMES = 40;
+
+    private Exception exception;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        IllegalStateException cause = new IllegalStateException("Root cause");
+        cause.setStackTrace(createStackTrace("backtraceio.benchmarks.Cause"));
+        exception = new RuntimeException("Benchmark exception", cause);
+        exception.setStackTrace(createStackTrace("backtraceio.benchmarks.Exception"));
+        json = BacktraceSerializeHelper.toJson(exception);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return BacktraceSerializeHelper.toJson(exception);
+    }
+
+    @Benchmark
+    public Exception deserialize() {
+        return BacktraceSerializeHelper.fromJson(json, Exception.class);
+    }
+
+    @Benchmark
+    public Exception roundTrip() {
+        return BacktraceSerializeHelper.fromJson(BacktraceSerializeHelper.toJson(exception), Exception.class);
+    }
+
+    private static StackTraceElement[] createStackTrace(String className) {
+        StackTraceElement[] stackTrace = new StackTraceElement[STACK_FRAMES];
+        for (int index = 0; index < STACK_FRAMES; index++) {
+            stackTrace[index] = new StackTraceElement(className + index, "method" + index, "File.java", index + 1);
+        }
+        return stackTrace;
+    }
+}
@@ -0,0 +1,11 @@
+package backtraceio.library;
+
+/**
+ * Replacement of the BuildConfig class generated by the Android Gradle plugin
+ */
+public final class BuildConfig {
+    public static final boolean DEBUG = false;
+    public static final String LIBRARY_PACKAGE_NAME = "backtraceio.library";
+    public static final String BUILD_TYPE = "release";
+    public static final String VERSION_NAME = "benchmarks";
+}
@@ -0,0 +1,265 @@
+package backtraceio.coroner;
+
+import backtraceio.coroner.common.HttpClient;
+import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerHttpException;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link HttpClient} which caches successful query responses. Queries are identified by a hash of
+ * their JSON with sorted object keys, so the same query built with a different key order hits the
+ * same entry. Entries expire after a time to live and the least recently used entries are evicted
+ * when the cache is full. Concurrent identical queries share a single request.
+ * <p>
+ * Cached responses are shared between callers and must not be modified. Columnar responses are
+ * converted from cached responses.
+ * </p>
+ */
+public class CachingHttpClient implements HttpClient {
+    private static final Logger LOGGER = Logger.getLogger(CachingHttpClient.class.getName());
+
+    private final HttpClient httpClient;
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    private final Ticker ticker;
+
+    private final Map<String, CacheEntry> entries;
+
+    private final Map<String, CompletableFuture<CoronerApiResponse>> inFlightRequests = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingHttpClient(
+            final String apiUrl, final String coronerToken, final int maxEntries, final long ttlMillis) {
+        this(new CoronerHttpClient(apiUrl, coronerToken), maxEntries, ttlMillis);
+    }
+
+    /**
+     * @param httpClient client executing queries which aren't cached
+     * @param maxEntries maximum number of cached responses
+     * @param ttlMillis  time to live of cached responses in milliseconds
+     */
+    public CachingHttpClient(final HttpClient httpClient, final int maxEntries, final long ttlMillis) {
+        this(httpClient, maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    CachingHttpClient(final HttpClient httpClient, final int maxEntries, final long ttlMillis, final Ticker ticker) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Maximum number of cache entries must be greater than 0");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache time to live must be greater than 0");
+        }
+        this.httpClient = httpClient;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+                return size() > CachingHttpClient.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public CoronerApiResponse get(final String requestJson) throws CoronerHttpException, IOException {
+        final String key = getKey(requestJson);
+        final CompletableFuture<CoronerApiResponse> request;
+        final boolean owner;
+
+        synchronized (this) {
+            final CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (ticker.nanoTime() - entry.createdAtNanos < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.response;
+                }
+                entries.remove(key);
+            }
+            final CompletableFuture<CoronerApiResponse> inFlightRequest = inFlightRequests.get(key);
+            if (inFlightRequest != null) {
+                hits.incrementAndGet();
+                request = inFlightRequest;
+                owner = false;
+            } else {
+                misses.incrementAndGet();
+                request = new CompletableFuture<>();
+                inFlightRequests.put(key, request);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            return execute(key, requestJson, request);
+        }
+        return await(request);
+    }
+
+    /**
+     * Remove the cached response of a query
+     *
+     * @param requestJson query JSON
+     */
+    public synchronized void invalidate(final String requestJson) {
+        entries.remove(getKey(requestJson));
+    }
+
+    /**
+     * Remove all cached responses
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return number of queries answered from the cache or by sharing a request already in progress
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of queries sent to the server
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private CoronerApiResponse execute(
+            final String key, final String requestJson, final CompletableFuture<CoronerApiResponse> request)
+            throws CoronerHttpException, IOException {
+        try {
+            final CoronerApiResponse response = httpClient.get(requestJson);
+            synchronized (this) {
+                inFlightRequests.remove(key);
+                // responses with an error are shared with waiting callers but not cached
+                if (response != null && response.getError() == null) {
+                    entries.put(key, new CacheEntry(response, ticker.nanoTime()));
+                }
+            }
+            request.complete(response);
+            return response;
+        } catch (CoronerHttpException | IOException | RuntimeException | Error e) {
+            synchronized (this) {
+                inFlightRequests.remove(key);
+            }
+            request.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static CoronerApiResponse await(final CompletableFuture<CoronerApiResponse> request)
+            throws CoronerHttpException, IOException {
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the same query", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof CoronerHttpException) {
+                throw (CoronerHttpException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Get a cache key - SHA-256 hash of the query JSON with sorted object keys
+     */
+    static String getKey(final String requestJson) {
+        String normalizedJson;
+        try {
+            normalizedJson = normalize(JsonParser.parseString(requestJson)).toString();
+        } catch (JsonParseException e) {
+            LOGGER.log(Level.WARNING, "Query isn't valid JSON, it's cached as is");
+            normalizedJson = requestJson;
+        }
+        try {
+            final byte[] hash =
+                    MessageDigest.getInstance("SHA-256").digest(normalizedJson.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte value : hash) {
+                key.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            return normalizedJson;
+        }
+    }
+
+    private static JsonElement normalize(final JsonElement element) {
+        if (element.isJsonObject()) {
+            final JsonObject object = element.getAsJsonObject();
+            final List<String> keys = new ArrayList<>(object.keySet());
+            Collections.sort(keys);
+            final JsonObject result = new JsonObject();
+            for (String key : keys) {
+                result.add(key, normalize(object.get(key)));
+            }
+            return result;
+        }
+        if (element.isJsonArray()) {
+            final JsonArray result = new JsonArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                result.add(normalize(item));
+            }
+            return result;
+        }
+        return element;
+    }
+
+    /**
+     * Source of the current time, replaced in tests
+     */
+    interface Ticker {
+        long nanoTime();
+    }
+
+    private static class CacheEntry {
+        private final CoronerApiResponse response;
+        private final long createdAtNanos;
+
+        private CacheEntry(final CoronerApiResponse response, final long createdAtNanos) {
+            this.response = response;
+            this.createdAtNanos = createdAtNanos;
+        }
+    }
+}
@@ -4,18 +4,46 @@ import backtraceio.coroner.common.HttpClient;
 import backtraceio.coroner.query.CoronerQueries;
 import backtraceio.coroner.query.CoronerQueryFields;
 import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerColumnarResponse;
 import backtraceio.coroner.response.CoronerHttpException;
 import backtraceio.coroner.response.CoronerResponse;
 import backtraceio.coroner.response.CoronerResponseException;
+import backtraceio.coroner.response.CoronerResponseGroup;
 import com.google.gson.JsonObject;
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CoronerClient implements Closeable {
+    /**
+     * Default maximum number of queries executed at the same time by asynchronous methods
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /**
+     * Maximum number of rxIds looked up with a single query
+     */
+    public static final int BATCH_SIZE = 50;
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 30;
 
-public class CoronerClient {
     private final HttpClient coronerHttpClient;
     private final CoronerQueries coronerQueries;
+    private final ExecutorService executor;
     private final List<String> DEFAULT_ATTRIBUTES = Arrays.asList(
             CoronerQueryFields.FOLD_CALLSTACK, CoronerQueryFields.FOLD_GUID, CoronerQueryFields.FOLD_CLASSIFIERS);
 
@@ -24,8 +52,29 @@ public class CoronerClient {
     }
 
     public CoronerClient(HttpClient httpClient) {
+        this(httpClient, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * @param httpClient            client executing queries, it has to be safe to use from many threads
+     * @param maxConcurrentRequests maximum number of queries executed at the same time by asynchronous methods
+     */
+    public CoronerClient(HttpClient httpClient, int maxConcurrentRequests) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Maximum number of concurrent requests must be greater than 0");
+        }
         this.coronerHttpClient = httpClient;
         this.coronerQueries = new CoronerQueries();
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                maxConcurrentRequests,
+                maxConcurrentRequests,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new CoronerThreadFactory());
+        // idle clients don't keep threads alive
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.executor = threadPoolExecutor;
     }
 
     public CoronerResponse rxIdFilter(final String rxId)
@@ -56,12 +105,146 @@ public class CoronerClient {
         return makeRequest(coronerQuery);
     }
 
+    /**
+     * Same as {@link #rxIdFilter(String, List)}, the response is decoded by columns while it's read
+     */
+    public CoronerColumnarResponse rxIdFilterColumnar(final String rxId, final List<String> customAttributes)
+            throws CoronerResponseException, CoronerHttpException, IOException {
+        final List<String> attributes = concatAttributes(customAttributes);
+
+        final JsonObject coronerQuery = this.coronerQueries.filterByRxId(rxId, attributes);
+
+        return this.coronerHttpClient.getColumnar(coronerQuery.toString());
+    }
+
+    /**
+     * Same as {@link #errorTypeTimestampFilter(String, String, String, List)}, the response is decoded
+     * by columns while it's read
+     */
+    public CoronerColumnarResponse errorTypeTimestampFilterColumnar(
+            final String errorType,
+            final String timestampLeast,
+            final String timestampMost,
+            final List<String> customAttributes)
+            throws CoronerResponseException, IOException, CoronerHttpException {
+        final List<String> attributes = concatAttributes(customAttributes);
+
+        final JsonObject coronerQuery =
+                this.coronerQueries.filterByErrorTypeAndTimestamp(errorType, timestampLeast, timestampMost, attributes);
+
+        return this.coronerHttpClient.getColumnar(coronerQuery.toString());
+    }
+
+    public CompletableFuture<CoronerResponse> rxIdFilterAsync(final String rxId) {
+        return this.rxIdFilterAsync(rxId, new ArrayList<>());
+    }
+
+    /**
+     * Asynchronous version of {@link #rxIdFilter(String, List)}. At most the configured number of
+     * queries is executed at the same time, the rest waits in a queue
+     */
+    public CompletableFuture<CoronerResponse> rxIdFilterAsync(final String rxId, final List<String> customAttributes) {
+        return execute(() -> rxIdFilter(rxId, customAttributes));
+    }
+
+    public Map<String, CoronerResponse> rxIdFilterBatch(final List<String> rxIds)
+            throws CoronerResponseException, CoronerHttpException, IOException {
+        return this.rxIdFilterBatch(rxIds, new ArrayList<>());
+    }
+
+    /**
+     * Look up many rxIds with as few queries as possible, see {@link #rxIdFilterBatchAsync(List, List)}
+     */
+    public Map<String, CoronerResponse> rxIdFilterBatch(final List<String> rxIds, final List<String> customAttributes)
+            throws CoronerResponseException, CoronerHttpException, IOException {
+        try {
+            return rxIdFilterBatchAsync(rxIds, customAttributes).join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof CoronerResponseException) {
+                throw (CoronerResponseException) cause;
+            }
+            if (cause instanceof CoronerHttpException) {
+                throw (CoronerHttpException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Look up many rxIds. Up to {@link #BATCH_SIZE} rxIds are matched by a single query and the
+     * results are split back by rxId, queries for the following batches are executed concurrently
+     *
+     * @param rxIds            rxIds to find
+     * @param customAttributes attributes to fold in addition to the default ones
+     * @return responses with a single group by rxId, rxIds which weren't found are missing
+     */
+    public CompletableFuture<Map<String, CoronerResponse>> rxIdFilterBatchAsync(
+            final List<String> rxIds, final List<String> customAttributes) {
+        final List<String> attributes = concatAttributes(customAttributes);
+        final List<String> uniqueRxIds = new ArrayList<>(new LinkedHashSet<>(rxIds));
+
+        final List<CompletableFuture<Map<String, CoronerResponse>>> batches = new ArrayList<>();
+        for (int start = 0; start < uniqueRxIds.size(); start += BATCH_SIZE) {
+            final List<String> batch = uniqueRxIds.subList(start, Math.min(start + BATCH_SIZE, uniqueRxIds.size()));
+            final JsonObject coronerQuery = this.coronerQueries.filterByRxIds(batch, attributes);
+            batches.add(execute(() -> splitByRxId(makeRequest(coronerQuery))));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    final Map<String, CoronerResponse> result = new HashMap<>();
+                    for (CompletableFuture<Map<String, CoronerResponse>> batch : batches) {
+                        result.putAll(batch.join());
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Stop threads executing asynchronous queries, queries which didn't start are not executed
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+
     private List<String> concatAttributes(final List<String> customAttributes) {
         final List<String> result = new ArrayList<>(customAttributes);
         result.addAll(DEFAULT_ATTRIBUTES);
         return result;
     }
 
+    private static Map<String, CoronerResponse> splitByRxId(final CoronerResponse response) {
+        final Map<String, CoronerResponse> result = new HashMap<>();
+        if (response == null || response.values == null) {
+            return result;
+        }
+        for (CoronerResponseGroup group : response.values) {
+            if (group != null) {
+                result.put(
+                        group.getGroupIdentifier(),
+                        new CoronerResponse(response.columnsDesc, Collections.singletonList(group)));
+            }
+        }
+        return result;
+    }
+
+    private <T> CompletableFuture<T> execute(final CoronerRequest<T> request) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return request.execute();
+                    } catch (CoronerResponseException | CoronerHttpException | IOException e) {
+                        throw new CompletionException(e);
+                    }
+                },
+                this.executor);
+    }
+
     private CoronerResponse makeRequest(final JsonObject coronerQuery)
             throws CoronerResponseException, IOException, CoronerHttpException {
         final CoronerApiResponse response = this.coronerHttpClient.get(coronerQuery.toString());
@@ -72,4 +255,19 @@ public class CoronerClient {
 
         return response.getResponse();
     }
+
+    private interface CoronerRequest<T> {
+        T execute() throws CoronerResponseException, CoronerHttpException, IOException;
+    }
+
+    private static class CoronerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "coroner-client-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
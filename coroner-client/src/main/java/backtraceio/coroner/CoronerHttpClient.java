@@ -3,28 +3,57 @@ package backtraceio.coroner;
 import backtraceio.coroner.common.Common;
 import backtraceio.coroner.common.HttpClient;
 import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerColumnarResponse;
 import backtraceio.coroner.response.CoronerHttpException;
+import backtraceio.coroner.response.CoronerResponseException;
 import backtraceio.coroner.serialization.CoronerResponseGroupDeserializer;
+import backtraceio.coroner.serialization.CoronerResponseStreamDecoder;
 import backtraceio.coroner.serialization.GsonWrapper;
 import java.io.BufferedReader;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
 
 class CoronerHttpClient implements HttpClient {
     private static final Logger LOGGER = Logger.getLogger(CoronerResponseGroupDeserializer.class.getName());
+    private static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 15000;
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 60000;
+    private static final String GZIP_ENCODING = "gzip";
     private final String apiUrl;
     private final String coronerToken;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
     private final String ENCODING = "utf-8";
 
     public CoronerHttpClient(final String apiUrl, final String coronerToken) {
+        this(apiUrl, coronerToken, DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Keep-alive connections are reused by {@link HttpURLConnection} once a response is read to the end
+     * and closed, so the client is safe to share between threads and concurrent requests.
+     *
+     * @param apiUrl               coroner API URL
+     * @param coronerToken         coroner token
+     * @param connectTimeoutMillis connection timeout, 0 means no timeout
+     * @param readTimeoutMillis    read timeout, 0 means no timeout
+     */
+    public CoronerHttpClient(
+            final String apiUrl,
+            final String coronerToken,
+            final int connectTimeoutMillis,
+            final int readTimeoutMillis) {
         this.apiUrl = apiUrl;
         this.coronerToken = coronerToken;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
     }
 
     public CoronerApiResponse get(final String requestJson) throws CoronerHttpException, IOException {
@@ -42,10 +71,31 @@ class CoronerHttpClient implements HttpClient {
         return GsonWrapper.fromJson(resultJson, CoronerApiResponse.class);
     }
 
+    @Override
+    public CoronerColumnarResponse getColumnar(final String requestJson)
+            throws CoronerHttpException, CoronerResponseException, IOException {
+        final HttpURLConnection urlConnection = prepareHttpRequest(requestJson);
+        final int statusCode = urlConnection.getResponseCode();
+
+        if (statusCode != HttpURLConnection.HTTP_OK) {
+            String message = getResponseMessage(urlConnection);
+            message = (Common.isNullOrEmpty(message)) ? urlConnection.getResponseMessage() : message;
+            throw new CoronerHttpException(statusCode, String.format("%s: %s", statusCode, message));
+        }
+
+        LOGGER.log(Level.INFO, "Decoding response from HTTP request");
+        try (Reader reader = new BufferedReader(new InputStreamReader(getInputStream(urlConnection), ENCODING))) {
+            return CoronerResponseStreamDecoder.decode(reader);
+        }
+    }
+
     private static String getResponseMessage(final HttpURLConnection urlConnection) throws IOException {
         LOGGER.log(Level.INFO, "Reading response from HTTP request");
 
         final InputStream inputStream = getInputStream(urlConnection);
+        if (inputStream == null) {
+            return null;
+        }
 
         final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
 
@@ -59,10 +109,13 @@ class CoronerHttpClient implements HttpClient {
     }
 
     private static InputStream getInputStream(final HttpURLConnection urlConnection) throws IOException {
-        if (urlConnection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST) {
-            return urlConnection.getInputStream();
+        final InputStream inputStream = urlConnection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST
+                ? urlConnection.getInputStream()
+                : urlConnection.getErrorStream();
+        if (inputStream != null && GZIP_ENCODING.equalsIgnoreCase(urlConnection.getContentEncoding())) {
+            return new GZIPInputStream(inputStream);
         }
-        return urlConnection.getErrorStream();
+        return inputStream;
     }
 
     private HttpURLConnection prepareHttpRequest(final String json) throws IOException {
@@ -75,7 +128,11 @@ class CoronerHttpClient implements HttpClient {
         urlConnection.setDoOutput(true);
         urlConnection.setDoInput(true);
 
+        urlConnection.setConnectTimeout(this.connectTimeoutMillis);
+        urlConnection.setReadTimeout(this.readTimeoutMillis);
+
         urlConnection.setRequestProperty("Connection", "Keep-Alive");
+        urlConnection.setRequestProperty("Accept-Encoding", GZIP_ENCODING);
         urlConnection.setRequestProperty("Content-Type", "application/json");
         urlConnection.setRequestProperty("X-Coroner-Token", this.coronerToken);
 
@@ -1,9 +1,24 @@
 package backtraceio.coroner.common;
 
 import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerColumnarResponse;
 import backtraceio.coroner.response.CoronerHttpException;
+import backtraceio.coroner.response.CoronerResponseException;
 import java.io.IOException;
 
 public interface HttpClient {
     CoronerApiResponse get(final String requestJson) throws CoronerHttpException, IOException;
+
+    /**
+     * Execute a query and decode the response by columns. By default the response returned by
+     * {@link #get(String)} is converted
+     */
+    default CoronerColumnarResponse getColumnar(final String requestJson)
+            throws CoronerHttpException, CoronerResponseException, IOException {
+        final CoronerApiResponse response = get(requestJson);
+        if (response.error != null) {
+            throw new CoronerResponseException(response.getError());
+        }
+        return CoronerColumnarResponse.fromResponse(response.getResponse());
+    }
 }
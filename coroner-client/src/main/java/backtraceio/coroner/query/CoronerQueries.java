@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class CoronerQueries {
+    private static final String REGEX_SPECIAL_CHARACTERS = "\\^$.|?*+()[]{}";
+
     private final CoronerQueryBuilder builder;
 
     public CoronerQueries() {
@@ -22,6 +24,30 @@ public class CoronerQueries {
         return this.builder.buildRxIdGroup(filtersBuilder.getJson(), attributes);
     }
 
+    /**
+     * Query many rxIds at once. Conditions on the same attribute are joined with AND, so rxIds are
+     * matched with a single regular expression alternative
+     *
+     * @param rxIds      rxIds to find
+     * @param attributes attributes to fold
+     * @return query returning a group for every found rxId
+     */
+    public JsonObject filterByRxIds(final List<String> rxIds, final List<String> attributes) {
+        final StringBuilder expression = new StringBuilder("^(");
+        for (int index = 0; index < rxIds.size(); index++) {
+            if (index != 0) {
+                expression.append('|');
+            }
+            appendEscaped(expression, rxIds.get(index));
+        }
+        expression.append(")$");
+
+        final CoronerFiltersBuilder filtersBuilder = new CoronerFiltersBuilder();
+        filtersBuilder.addFilter(CoronerQueryFields.RXID, FilterOperator.REGULAR_EXPRESSION, expression.toString());
+
+        return this.builder.buildRxIdGroup(filtersBuilder.getJson(), attributes, rxIds.size());
+    }
+
     public JsonObject filterByErrorTypeAndTimestamp(
             final String errorType,
             final String timestampLeast,
@@ -34,4 +60,14 @@ public class CoronerQueries {
 
         return this.builder.buildRxIdGroup(filtersBuilder.getJson(), attributes);
     }
+
+    private static void appendEscaped(final StringBuilder builder, final String value) {
+        for (int index = 0; index < value.length(); index++) {
+            final char character = value.charAt(index);
+            if (REGEX_SPECIAL_CHARACTERS.indexOf(character) != -1) {
+                builder.append('\\');
+            }
+            builder.append(character);
+        }
+    }
 }
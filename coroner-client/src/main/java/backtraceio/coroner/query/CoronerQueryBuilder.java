@@ -11,10 +11,15 @@ class CoronerQueryBuilder {
     private final int LIMIT = 1;
 
     public JsonObject buildRxIdGroup(final JsonArray filters, final List<String> headFolds) {
-        return this.build(CoronerQueryFields.RXID, filters, headFolds);
+        return this.buildRxIdGroup(filters, headFolds, LIMIT);
     }
 
-    private JsonObject build(final String groupName, final JsonArray filters, final List<String> headFolds) {
+    public JsonObject buildRxIdGroup(final JsonArray filters, final List<String> headFolds, final int limit) {
+        return this.build(CoronerQueryFields.RXID, filters, headFolds, limit);
+    }
+
+    private JsonObject build(
+            final String groupName, final JsonArray filters, final List<String> headFolds, final int limit) {
         final JsonObject folds = joinHeadFolds(headFolds);
 
         final JsonObject result = new JsonObject();
@@ -28,7 +33,7 @@ class CoronerQueryBuilder {
         result.add(Constants.FOLD, folds);
         result.add(Constants.GROUP, group);
         result.add(Constants.OFFSET, new JsonPrimitive(OFFSET));
-        result.add(Constants.LIMIT, new JsonPrimitive(LIMIT));
+        result.add(Constants.LIMIT, new JsonPrimitive(limit));
         result.add(Constants.FILTER, filters);
 
         return result;
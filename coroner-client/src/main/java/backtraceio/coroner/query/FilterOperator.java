@@ -3,7 +3,8 @@ package backtraceio.coroner.query;
 public enum FilterOperator {
     EQUAL("equal"),
     AT_MOST("at-most"),
-    AT_LEAST("at-least");
+    AT_LEAST("at-least"),
+    REGULAR_EXPRESSION("regular-expression");
 
     private final String text;
 
@@ -0,0 +1,326 @@
+package backtraceio.coroner.response;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coroner query response stored by columns. Values of an attribute are kept in a primitive array
+ * of the column type and columns are looked up by name with a map built once, so reading thousands
+ * of rows doesn't box every value.
+ * <p>
+ * Every attribute of a response group is an array of values, only its first value is stored.
+ * </p>
+ */
+public class CoronerColumnarResponse {
+
+    /**
+     * Type of values stored in a column
+     */
+    public enum ColumnType {
+        /**
+         * All values of the column are null
+         */
+        NULL,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        /**
+         * Values of different types or JSON arrays and objects, stored boxed
+         */
+        OBJECT
+    }
+
+    private final List<ColumnDescElement> columnsDesc;
+
+    private final Map<String, Integer> columnIndexes;
+
+    private final CoronerResponseColumn[] columns;
+
+    private final String[] groupIdentifiers;
+
+    private final long[] groupCounts;
+
+    private final int rowCount;
+
+    private CoronerColumnarResponse(
+            final List<ColumnDescElement> columnsDesc,
+            final CoronerResponseColumn[] columns,
+            final String[] groupIdentifiers,
+            final long[] groupCounts,
+            final int rowCount) {
+        this.columnsDesc = Collections.unmodifiableList(columnsDesc);
+        this.columns = columns;
+        this.groupIdentifiers = groupIdentifiers;
+        this.groupCounts = groupCounts;
+        this.rowCount = rowCount;
+        this.columnIndexes = new HashMap<>(columnsDesc.size() * 2);
+        for (int index = 0; index < columnsDesc.size(); index++) {
+            final String name = columnsDesc.get(index).name;
+            if (name != null && !this.columnIndexes.containsKey(name)) {
+                this.columnIndexes.put(name, index);
+            }
+        }
+    }
+
+    /**
+     * Convert a response deserialized with {@link backtraceio.coroner.serialization.GsonWrapper}
+     *
+     * @param response deserialized response
+     * @return columnar response
+     */
+    public static CoronerColumnarResponse fromResponse(final CoronerResponse response) {
+        final Builder builder = new Builder();
+        final List<CoronerResponseGroup> groups =
+                response.values != null ? response.values : Collections.<CoronerResponseGroup>emptyList();
+        for (CoronerResponseGroup group : groups) {
+            builder.startRow(group.getGroupIdentifier());
+            for (int column = 0; column < group.getAttributesNumber(); column++) {
+                final Object attribute = group.getAttribute(column);
+                if (attribute instanceof List && !((List<?>) attribute).isEmpty()) {
+                    builder.addObject(column, ((List<?>) attribute).get(0));
+                }
+            }
+            builder.finishRow(group.getCount());
+        }
+        return builder.build(response.columnsDesc);
+    }
+
+    public List<ColumnDescElement> getColumnsDesc() {
+        return columnsDesc;
+    }
+
+    public int getResultsNumber() {
+        return rowCount;
+    }
+
+    public int getColumnsNumber() {
+        return columns.length;
+    }
+
+    /**
+     * Get the index of a column, resolve it once to read many rows with index based accessors
+     *
+     * @param name attribute name
+     * @return column index
+     * @throws CoronerResponseProcessingException if the response doesn't contain the attribute
+     */
+    public int getColumnIndex(final String name) throws CoronerResponseProcessingException {
+        final Integer index = columnIndexes.get(name);
+        if (index == null || index >= columns.length) {
+            throw new CoronerResponseProcessingException("Attribute not found for name " + name);
+        }
+        return index;
+    }
+
+    public ColumnType getColumnType(final int column) {
+        return columns[column].getType();
+    }
+
+    public String getGroupIdentifier(final int row) throws CoronerResponseProcessingException {
+        checkRow(row);
+        return groupIdentifiers[row];
+    }
+
+    /**
+     * @param row row index
+     * @return number of objects in the group, 0 if the response doesn't contain it
+     */
+    public long getGroupCount(final int row) throws CoronerResponseProcessingException {
+        checkRow(row);
+        return groupCounts[row];
+    }
+
+    public boolean isNull(final int row, final int column) throws CoronerResponseProcessingException {
+        return getColumn(row, column).isNull(row);
+    }
+
+    /**
+     * @return string value, null if the value is null
+     * @throws CoronerResponseProcessingException if the value isn't a string
+     */
+    public String getString(final int row, final int column) throws CoronerResponseProcessingException {
+        final CoronerResponseColumn values = getColumn(row, column);
+        if (values.isNull(row)) {
+            return null;
+        }
+        if (values.getType() == ColumnType.STRING) {
+            return values.getString(row);
+        }
+        return cast(values.getObject(row), String.class, column);
+    }
+
+    public String getString(final int row, final String name) throws CoronerResponseProcessingException {
+        return getString(row, getColumnIndex(name));
+    }
+
+    /**
+     * @return numeric value
+     * @throws CoronerResponseProcessingException if the value isn't a number or is null
+     */
+    public double getDouble(final int row, final int column) throws CoronerResponseProcessingException {
+        final CoronerResponseColumn values = getColumn(row, column);
+        checkNotNull(values, row, column);
+        if (values.getType() == ColumnType.NUMBER) {
+            return values.getNumber(row);
+        }
+        return cast(values.getObject(row), Double.class, column);
+    }
+
+    public double getDouble(final int row, final String name) throws CoronerResponseProcessingException {
+        return getDouble(row, getColumnIndex(name));
+    }
+
+    /**
+     * Numbers are stored as doubles, integers greater than 2^53 lose precision
+     *
+     * @return numeric value truncated to a long
+     * @throws CoronerResponseProcessingException if the value isn't a number or is null
+     */
+    public long getLong(final int row, final int column) throws CoronerResponseProcessingException {
+        return (long) getDouble(row, column);
+    }
+
+    public long getLong(final int row, final String name) throws CoronerResponseProcessingException {
+        return getLong(row, getColumnIndex(name));
+    }
+
+    /**
+     * @return boolean value
+     * @throws CoronerResponseProcessingException if the value isn't a boolean or is null
+     */
+    public boolean getBoolean(final int row, final int column) throws CoronerResponseProcessingException {
+        final CoronerResponseColumn values = getColumn(row, column);
+        checkNotNull(values, row, column);
+        if (values.getType() == ColumnType.BOOLEAN) {
+            return values.getBoolean(row);
+        }
+        return cast(values.getObject(row), Boolean.class, column);
+    }
+
+    public boolean getBoolean(final int row, final String name) throws CoronerResponseProcessingException {
+        return getBoolean(row, getColumnIndex(name));
+    }
+
+    /**
+     * Get a value the same way as {@link CoronerResponse#getAttribute(int, String, Class)}, primitive
+     * values are boxed
+     */
+    public <T> T getAttribute(final int row, final String name, final Class<T> clazz)
+            throws CoronerResponseProcessingException {
+        final int column = getColumnIndex(name);
+        return cast(getColumn(row, column).getObject(row), clazz, column);
+    }
+
+    private CoronerResponseColumn getColumn(final int row, final int column) throws CoronerResponseProcessingException {
+        checkRow(row);
+        if (column < 0 || column >= columns.length) {
+            throw new CoronerResponseProcessingException(
+                    "Incorrect column index, value should be between 0 and " + (columns.length - 1));
+        }
+        return columns[column];
+    }
+
+    private void checkRow(final int row) throws CoronerResponseProcessingException {
+        if (row < 0 || row >= rowCount) {
+            throw new CoronerResponseProcessingException(
+                    "Incorrect element index, value should be between 0 and " + (rowCount - 1));
+        }
+    }
+
+    private static void checkNotNull(final CoronerResponseColumn values, final int row, final int column)
+            throws CoronerResponseProcessingException {
+        if (values.isNull(row)) {
+            throw new CoronerResponseProcessingException(
+                    "Null value for row " + row + " and attribute index: " + column);
+        }
+    }
+
+    private static <T> T cast(final Object value, final Class<T> clazz, final int column)
+            throws CoronerResponseProcessingException {
+        try {
+            return clazz.cast(value);
+        } catch (ClassCastException e) {
+            throw new CoronerResponseProcessingException(
+                    "Error on getting attribute from response group for attribute index: " + column);
+        }
+    }
+
+    /**
+     * Builds a response row by row. Values of a row are added by column index, missing values are null
+     */
+    public static class Builder {
+        private final List<CoronerResponseColumn> columns = new ArrayList<>();
+
+        private String[] groupIdentifiers = new String[16];
+
+        private long[] groupCounts = new long[16];
+
+        private int rowCount = 0;
+
+        public void startRow(final String groupIdentifier) {
+            if (rowCount == groupIdentifiers.length) {
+                groupIdentifiers = Arrays.copyOf(groupIdentifiers, rowCount * 2);
+                groupCounts = Arrays.copyOf(groupCounts, rowCount * 2);
+            }
+            groupIdentifiers[rowCount] = groupIdentifier;
+        }
+
+        public void addString(final int column, final String value) {
+            getColumn(column).addString(value);
+        }
+
+        public void addNumber(final int column, final double value) {
+            getColumn(column).addNumber(value);
+        }
+
+        public void addBoolean(final int column, final boolean value) {
+            getColumn(column).addBoolean(value);
+        }
+
+        public void addNull(final int column) {
+            getColumn(column).addNull();
+        }
+
+        public void addObject(final int column, final Object value) {
+            getColumn(column).addObject(value);
+        }
+
+        public void finishRow(final long count) {
+            groupCounts[rowCount] = count;
+            rowCount++;
+            for (CoronerResponseColumn column : columns) {
+                if (column.size() < rowCount) {
+                    column.addNull();
+                }
+            }
+        }
+
+        public CoronerColumnarResponse build(final List<ColumnDescElement> columnsDesc) {
+            final List<ColumnDescElement> descriptions =
+                    columnsDesc != null ? columnsDesc : Collections.<ColumnDescElement>emptyList();
+            while (columns.size() < descriptions.size()) {
+                columns.add(new CoronerResponseColumn(rowCount));
+            }
+            return new CoronerColumnarResponse(
+                    descriptions,
+                    columns.toArray(new CoronerResponseColumn[0]),
+                    groupIdentifiers,
+                    groupCounts,
+                    rowCount);
+        }
+
+        /**
+         * Get a column, a column first seen in a later row has null values for the previous rows
+         */
+        private CoronerResponseColumn getColumn(final int column) {
+            while (columns.size() <= column) {
+                columns.add(new CoronerResponseColumn(rowCount));
+            }
+            return columns.get(column);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package backtraceio.coroner.response;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Values of a single attribute of all response groups. Values are stored in a primitive array
+ * matching the type of the column, a column with values of different types stores boxed values.
+ */
+final class CoronerResponseColumn {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private CoronerColumnarResponse.ColumnType type = CoronerColumnarResponse.ColumnType.NULL;
+
+    private final BitSet nulls = new BitSet();
+
+    private String[] strings;
+
+    private double[] numbers;
+
+    private boolean[] booleans;
+
+    private Object[] objects;
+
+    private int size = 0;
+
+    CoronerResponseColumn(final int nullRows) {
+        for (int index = 0; index < nullRows; index++) {
+            addNull();
+        }
+    }
+
+    CoronerColumnarResponse.ColumnType getType() {
+        return type;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void addNull() {
+        ensureCapacity();
+        nulls.set(size);
+        size++;
+    }
+
+    void addString(final String value) {
+        if (value == null) {
+            addNull();
+            return;
+        }
+        if (changeType(CoronerColumnarResponse.ColumnType.STRING)) {
+            strings[size++] = value;
+        } else {
+            objects[size++] = value;
+        }
+    }
+
+    void addNumber(final double value) {
+        if (changeType(CoronerColumnarResponse.ColumnType.NUMBER)) {
+            numbers[size++] = value;
+        } else {
+            objects[size++] = value;
+        }
+    }
+
+    void addBoolean(final boolean value) {
+        if (changeType(CoronerColumnarResponse.ColumnType.BOOLEAN)) {
+            booleans[size++] = value;
+        } else {
+            objects[size++] = value;
+        }
+    }
+
+    void addObject(final Object value) {
+        if (value == null) {
+            addNull();
+        } else if (value instanceof String) {
+            addString((String) value);
+        } else if (value instanceof Number) {
+            addNumber(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            addBoolean((Boolean) value);
+        } else {
+            changeType(CoronerColumnarResponse.ColumnType.OBJECT);
+            objects[size++] = value;
+        }
+    }
+
+    boolean isNull(final int row) {
+        return nulls.get(row);
+    }
+
+    String getString(final int row) {
+        return strings[row];
+    }
+
+    double getNumber(final int row) {
+        return numbers[row];
+    }
+
+    boolean getBoolean(final int row) {
+        return booleans[row];
+    }
+
+    Object getObject(final int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        switch (type) {
+            case STRING:
+                return strings[row];
+            case NUMBER:
+                return numbers[row];
+            case BOOLEAN:
+                return booleans[row];
+            default:
+                return objects[row];
+        }
+    }
+
+    /**
+     * Prepare the column for a value of a given type, values stored so far are boxed if the type differs
+     *
+     * @return true if the value should be stored in the array of the given type, false if it should be boxed
+     */
+    private boolean changeType(final CoronerColumnarResponse.ColumnType valueType) {
+        ensureCapacity();
+        if (type == valueType) {
+            return valueType != CoronerColumnarResponse.ColumnType.OBJECT;
+        }
+        if (type == CoronerColumnarResponse.ColumnType.NULL) {
+            final int capacity = Math.max(INITIAL_CAPACITY, capacity());
+            type = valueType;
+            allocate(capacity);
+            return valueType != CoronerColumnarResponse.ColumnType.OBJECT;
+        }
+        if (type != CoronerColumnarResponse.ColumnType.OBJECT) {
+            final Object[] boxed = new Object[capacity()];
+            for (int row = 0; row < size; row++) {
+                boxed[row] = getObject(row);
+            }
+            strings = null;
+            numbers = null;
+            booleans = null;
+            objects = boxed;
+            type = CoronerColumnarResponse.ColumnType.OBJECT;
+        }
+        return false;
+    }
+
+    private void allocate(final int capacity) {
+        switch (type) {
+            case STRING:
+                strings = new String[capacity];
+                break;
+            case NUMBER:
+                numbers = new double[capacity];
+                break;
+            case BOOLEAN:
+                booleans = new boolean[capacity];
+                break;
+            case OBJECT:
+                objects = new Object[capacity];
+                break;
+            default:
+                break;
+        }
+    }
+
+    private int capacity() {
+        switch (type) {
+            case STRING:
+                return strings.length;
+            case NUMBER:
+                return numbers.length;
+            case BOOLEAN:
+                return booleans.length;
+            case OBJECT:
+                return objects.length;
+            default:
+                // null columns don't store values, only the bitmap
+                return size + 1;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size < capacity()) {
+            return;
+        }
+        final int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+        switch (type) {
+            case STRING:
+                strings = Arrays.copyOf(strings, capacity);
+                break;
+            case NUMBER:
+                numbers = Arrays.copyOf(numbers, capacity);
+                break;
+            case BOOLEAN:
+                booleans = Arrays.copyOf(booleans, capacity);
+                break;
+            case OBJECT:
+                objects = Arrays.copyOf(objects, capacity);
+                break;
+            default:
+                break;
+        }
+    }
+}
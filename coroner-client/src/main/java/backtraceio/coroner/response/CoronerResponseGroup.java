@@ -5,11 +5,12 @@ import java.util.List;
 public class CoronerResponseGroup {
     private static final Integer EXPECTED_NUMBER_OF_ELEMENTS = 3;
 
-    @SuppressWarnings("unused")
     private final String groupIdentifier;
 
     private final List<Object> values;
 
+    private final long count;
+
     public CoronerResponseGroup(final List<Object> obj) throws IllegalArgumentException {
         if (obj == null || obj.size() != EXPECTED_NUMBER_OF_ELEMENTS) {
             throw new IllegalArgumentException("Wrong number of elements, expected number of elements: "
@@ -18,6 +19,22 @@ public class CoronerResponseGroup {
 
         this.groupIdentifier = obj.get(0).toString();
         this.values = (List<Object>) obj.get(1);
+        this.count = obj.get(2) instanceof Number ? ((Number) obj.get(2)).longValue() : 0;
+    }
+
+    public String getGroupIdentifier() {
+        return groupIdentifier;
+    }
+
+    /**
+     * @return number of objects in the group
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public int getAttributesNumber() {
+        return values.size();
     }
 
     public Object getAttribute(final int index) {
@@ -15,12 +15,14 @@ import java.util.logging.Logger;
 public class CoronerResponseGroupDeserializer implements JsonDeserializer<CoronerResponseGroup> {
     private static final Logger LOGGER = Logger.getLogger(CoronerResponseGroupDeserializer.class.getName());
 
+    private static final Gson GSON = new Gson();
+
     @Override
     public CoronerResponseGroup deserialize(
             final JsonElement json, final Type typeOfT, final JsonDeserializationContext context)
             throws JsonParseException {
         final JsonArray jsonArray = json.getAsJsonArray();
-        final List<Object> obj = new Gson().fromJson(jsonArray, (Type) Object.class);
+        final List<Object> obj = GSON.fromJson(jsonArray, (Type) Object.class);
         try {
             return new CoronerResponseGroup(obj);
         } catch (Exception e) {
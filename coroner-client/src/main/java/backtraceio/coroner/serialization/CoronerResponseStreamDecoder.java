@@ -0,0 +1,234 @@
+package backtraceio.coroner.serialization;
+
+import backtraceio.coroner.CoronerError;
+import backtraceio.coroner.response.ColumnDescElement;
+import backtraceio.coroner.response.CoronerColumnarResponse;
+import backtraceio.coroner.response.CoronerResponseException;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes coroner query responses straight from a {@link JsonReader} into a {@link CoronerColumnarResponse}.
+ * The response isn't buffered as a string nor parsed to a JSON tree, scalar values are stored in
+ * primitive column arrays as they are read.
+ */
+public class CoronerResponseStreamDecoder {
+
+    /**
+     * Adapter used only for JSON arrays and objects stored in columns
+     */
+    private static final TypeAdapter<Object> OBJECT_ADAPTER = new Gson().getAdapter(Object.class);
+
+    /**
+     * Decode a coroner API response
+     *
+     * @param reader response source, it's not closed
+     * @return decoded response
+     * @throws CoronerResponseException if the response contains an error
+     * @throws IOException              if the response can't be read or isn't valid JSON
+     */
+    public static CoronerColumnarResponse decode(final Reader reader) throws CoronerResponseException, IOException {
+        final JsonReader jsonReader = new JsonReader(reader);
+        CoronerColumnarResponse response = null;
+        CoronerError error = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            if (name.equals("response") && jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+                response = readResponse(jsonReader);
+            } else if (name.equals("error") && jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+                error = readError(jsonReader);
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (error != null) {
+            throw new CoronerResponseException(error);
+        }
+        if (response == null) {
+            throw new IOException("Coroner response doesn't contain the response property");
+        }
+        return response;
+    }
+
+    private static CoronerColumnarResponse readResponse(final JsonReader reader) throws IOException {
+        final CoronerColumnarResponse.Builder builder = new CoronerColumnarResponse.Builder();
+        List<ColumnDescElement> columnsDesc = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (name.equals("columns_desc") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                columnsDesc = readColumnsDesc(reader);
+            } else if (name.equals("values") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    readGroup(reader, builder);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return builder.build(columnsDesc);
+    }
+
+    private static List<ColumnDescElement> readColumnsDesc(final JsonReader reader) throws IOException {
+        final List<ColumnDescElement> columnsDesc = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            final ColumnDescElement element = new ColumnDescElement();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (reader.peek() != JsonToken.STRING) {
+                    reader.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "name":
+                        element.name = reader.nextString();
+                        break;
+                    case "format":
+                        element.format = reader.nextString();
+                        break;
+                    case "type":
+                        element.type = reader.nextString();
+                        break;
+                    case "op":
+                        element.op = reader.nextString();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            columnsDesc.add(element);
+        }
+        reader.endArray();
+        return columnsDesc;
+    }
+
+    /**
+     * Read a group - an array of the group identifier, attributes and the number of objects
+     */
+    private static void readGroup(final JsonReader reader, final CoronerColumnarResponse.Builder builder)
+            throws IOException {
+        reader.beginArray();
+        builder.startRow(reader.hasNext() ? readString(reader) : null);
+
+        if (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                int column = 0;
+                while (reader.hasNext()) {
+                    readAttribute(reader, builder, column++);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        long count = 0;
+        if (reader.hasNext()) {
+            if (reader.peek() == JsonToken.NUMBER) {
+                count = (long) reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        builder.finishRow(count);
+    }
+
+    /**
+     * Read an attribute - an array of values, only the first value is stored
+     */
+    private static void readAttribute(
+            final JsonReader reader, final CoronerColumnarResponse.Builder builder, final int column)
+            throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            readValue(reader, builder, column);
+            return;
+        }
+        reader.beginArray();
+        if (reader.hasNext()) {
+            readValue(reader, builder, column);
+        } else {
+            builder.addNull(column);
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+    }
+
+    private static void readValue(
+            final JsonReader reader, final CoronerColumnarResponse.Builder builder, final int column)
+            throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+                builder.addString(column, reader.nextString());
+                break;
+            case NUMBER:
+                builder.addNumber(column, reader.nextDouble());
+                break;
+            case BOOLEAN:
+                builder.addBoolean(column, reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                builder.addNull(column);
+                break;
+            default:
+                builder.addObject(column, OBJECT_ADAPTER.read(reader));
+                break;
+        }
+    }
+
+    private static String readString(final JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return Boolean.toString(reader.nextBoolean());
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static CoronerError readError(final JsonReader reader) throws IOException {
+        final CoronerError error = new CoronerError();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (name.equals("message") && reader.peek() == JsonToken.STRING) {
+                error.message = reader.nextString();
+            } else if (name.equals("code") && reader.peek() == JsonToken.NUMBER) {
+                error.code = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return error;
+    }
+}
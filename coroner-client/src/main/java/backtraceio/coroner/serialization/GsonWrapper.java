@@ -7,12 +7,12 @@ import com.google.gson.GsonBuilder;
 
 public class GsonWrapper {
 
-    public static <T> T fromJson(final String json, final Class<T> type) {
-        Gson gson = new GsonBuilder()
-                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_DASHES)
-                .registerTypeAdapter(CoronerResponseGroup.class, new CoronerResponseGroupDeserializer())
-                .create();
+    private static final Gson gson = new GsonBuilder()
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_DASHES)
+            .registerTypeAdapter(CoronerResponseGroup.class, new CoronerResponseGroupDeserializer())
+            .create();
 
+    public static <T> T fromJson(final String json, final Class<T> type) {
         return gson.fromJson(json, type);
     }
 }
@@ -0,0 +1,224 @@
+package backtraceio.coroner;
+
+import static backtraceio.coroner.utils.ResourceUtils.RESPONSE_OPERATION_ERROR_JSON;
+import static backtraceio.coroner.utils.ResourceUtils.RESPONSE_RX_FILTER_CORONER_JSON;
+import static backtraceio.coroner.utils.ResourceUtils.readResourceFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import backtraceio.coroner.common.HttpClient;
+import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerHttpException;
+import backtraceio.coroner.serialization.GsonWrapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingHttpClientTest {
+    private static final String QUERY = "{\"filter\":[{\"_rxid\":[[\"equal\",\"1\"]]}],\"limit\":1}";
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+    private CoronerApiResponse response;
+    private HttpClient httpClient;
+
+    @Before
+    public void init() throws IOException {
+        response = GsonWrapper.fromJson(readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON), CoronerApiResponse.class);
+        httpClient = requestJson -> {
+            requests.incrementAndGet();
+            return response;
+        };
+    }
+
+    private CachingHttpClient createClient(int maxEntries, long ttlMillis) {
+        return new CachingHttpClient(httpClient, maxEntries, ttlMillis, now::get);
+    }
+
+    @Test
+    public void cacheResponse() throws Exception {
+        // GIVEN
+        CachingHttpClient client = createClient(10, 1000);
+
+        // WHEN
+        CoronerApiResponse first = client.get(QUERY);
+        CoronerApiResponse second = client.get(QUERY);
+
+        // THEN
+        assertSame(first, second);
+        assertEquals(1, requests.get());
+        assertEquals(1, client.getHitCount());
+        assertEquals(1, client.getMissCount());
+    }
+
+    @Test
+    public void normalizedQueryKey() {
+        // GIVEN
+        String reordered = "{ \"limit\": 1, \"filter\": [{\"_rxid\": [[\"equal\", \"1\"]]}] }";
+
+        // THEN
+        assertEquals(CachingHttpClient.getKey(QUERY), CachingHttpClient.getKey(reordered));
+        assertNotEquals(CachingHttpClient.getKey(QUERY), CachingHttpClient.getKey(QUERY.replace("\"1\"", "\"2\"")));
+    }
+
+    @Test
+    public void expireEntries() throws Exception {
+        // GIVEN
+        CachingHttpClient client = createClient(10, 1000);
+        client.get(QUERY);
+
+        // WHEN
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        client.get(QUERY);
+
+        // THEN
+        assertEquals(2, requests.get());
+        assertEquals(2, client.getMissCount());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+        // GIVEN
+        CachingHttpClient client = createClient(2, 1000);
+        String query1 = "{\"q\":1}";
+        String query2 = "{\"q\":2}";
+        String query3 = "{\"q\":3}";
+        client.get(query1);
+        client.get(query2);
+        client.get(query1);
+
+        // WHEN
+        client.get(query3);
+
+        // THEN
+        assertEquals(2, client.size());
+        client.get(query1);
+        assertEquals(3, requests.get());
+        client.get(query2);
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void invalidate() throws Exception {
+        // GIVEN
+        CachingHttpClient client = createClient(10, 1000);
+        client.get(QUERY);
+
+        // WHEN
+        client.invalidate(QUERY);
+        client.get(QUERY);
+        client.invalidateAll();
+
+        // THEN
+        assertEquals(2, requests.get());
+        assertEquals(0, client.size());
+    }
+
+    @Test
+    public void doNotCacheErrors() throws Exception {
+        // GIVEN
+        response = GsonWrapper.fromJson(readResourceFile(RESPONSE_OPERATION_ERROR_JSON), CoronerApiResponse.class);
+        CachingHttpClient client = createClient(10, 1000);
+
+        // WHEN
+        client.get(QUERY);
+        client.get(QUERY);
+
+        // THEN
+        assertEquals(2, requests.get());
+        assertEquals(0, client.size());
+    }
+
+    @Test
+    public void shareConcurrentRequests() throws Exception {
+        // GIVEN
+        final CountDownLatch requestStarted = new CountDownLatch(1);
+        final CompletableFuture<Void> releaseRequest = new CompletableFuture<>();
+        final CachingHttpClient client = new CachingHttpClient(
+                requestJson -> {
+                    requests.incrementAndGet();
+                    requestStarted.countDown();
+                    releaseRequest.join();
+                    return response;
+                },
+                10,
+                1000,
+                now::get);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // WHEN
+        final List<Future<CoronerApiResponse>> results = new ArrayList<>();
+        results.add(executor.submit(() -> client.get(QUERY)));
+        requestStarted.await(5, TimeUnit.SECONDS);
+        for (int index = 0; index < 3; index++) {
+            results.add(executor.submit(() -> client.get(QUERY)));
+        }
+        while (client.getHitCount() < 3) {
+            Thread.sleep(1);
+        }
+        releaseRequest.complete(null);
+
+        // THEN
+        for (Future<CoronerApiResponse> result : results) {
+            assertSame(response, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, requests.get());
+        assertEquals(1, client.getMissCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void shareConcurrentFailures() throws Exception {
+        // GIVEN
+        final CountDownLatch requestStarted = new CountDownLatch(1);
+        final CompletableFuture<Void> releaseRequest = new CompletableFuture<>();
+        final CachingHttpClient client = new CachingHttpClient(
+                requestJson -> {
+                    requests.incrementAndGet();
+                    requestStarted.countDown();
+                    releaseRequest.join();
+                    throw new CoronerHttpException(500, "500: error");
+                },
+                10,
+                1000,
+                now::get);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // WHEN
+        final Future<CoronerApiResponse> first = executor.submit(() -> client.get(QUERY));
+        requestStarted.await(5, TimeUnit.SECONDS);
+        final Future<CoronerApiResponse> second = executor.submit(() -> client.get(QUERY));
+        while (client.getHitCount() < 1) {
+            Thread.sleep(1);
+        }
+        releaseRequest.complete(null);
+
+        // THEN
+        for (Future<CoronerApiResponse> result : new Future[] {first, second}) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("Expected HTTP exception");
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertEquals(CoronerHttpException.class, e.getCause().getClass());
+            }
+        }
+        assertEquals(1, requests.get());
+        executor.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxEntries() {
+        createClient(0, 1000);
+    }
+}
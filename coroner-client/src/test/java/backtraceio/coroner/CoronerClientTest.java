@@ -9,6 +9,9 @@ import static backtraceio.coroner.utils.ResourceUtils.RESPONSE_TIMESTAMP_ERR_TYP
 import static backtraceio.coroner.utils.ResourceUtils.readResourceFile;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -22,8 +25,15 @@ import backtraceio.coroner.serialization.GsonWrapper;
 import backtraceio.coroner.utils.JsonMatchers;
 import backtraceio.coroner.utils.MockHttpClient;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -132,4 +142,128 @@ public class CoronerClientTest {
             assertEquals(32769, exception.getCoronerError().getCode());
         }
     }
+
+    @Test
+    public void rxIdFilterAsync() throws Exception {
+        // GIVEN
+        final String expectedJsonQuery = readResourceFile(QUERY_CORONER_RXID_123);
+        final String jsonResponse = readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON);
+        final CoronerApiResponse expectedResponse = GsonWrapper.fromJson(jsonResponse, CoronerApiResponse.class);
+
+        // MOCK
+        when(mockHttpClient.get(argThat(JsonMatchers.jsonEquals(expectedJsonQuery))))
+                .thenReturn(expectedResponse);
+
+        // WHEN
+        final CoronerResponse result = client.rxIdFilterAsync(rxId).get(5, TimeUnit.SECONDS);
+
+        // THEN
+        assertEquals(1, result.getResultsNumber());
+        assertEquals("Invalid index of selected element!", result.getAttribute(0, "error.message", String.class));
+    }
+
+    @Test
+    public void rxIdFilterAsyncError() throws Exception {
+        // GIVEN
+        final String jsonResponse = readResourceFile(RESPONSE_OPERATION_ERROR_JSON);
+        final CoronerApiResponse expectedResponse = GsonWrapper.fromJson(jsonResponse, CoronerApiResponse.class);
+
+        // MOCK
+        when(mockHttpClient.get(Mockito.anyString())).thenReturn(expectedResponse);
+
+        // WHEN
+        try {
+            client.rxIdFilterAsync(rxId).get(5, TimeUnit.SECONDS);
+            fail("Expected execution exception");
+        } catch (ExecutionException exception) {
+            // THEN
+            assertTrue(exception.getCause() instanceof CoronerResponseException);
+        }
+    }
+
+    @Test
+    public void rxIdFilterAsyncBoundedParallelism() throws Exception {
+        // GIVEN
+        final int maxConcurrentRequests = 2;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final String jsonResponse = readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON);
+        final CoronerClient boundedClient = new CoronerClient(
+                requestJson -> {
+                    final int current = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(current, Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return GsonWrapper.fromJson(jsonResponse, CoronerApiResponse.class);
+                },
+                maxConcurrentRequests);
+
+        // WHEN
+        final List<CompletableFuture<CoronerResponse>> results = new ArrayList<>();
+        for (int index = 0; index < 10; index++) {
+            results.add(boundedClient.rxIdFilterAsync(Integer.toString(index)));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        boundedClient.close();
+
+        // THEN
+        assertTrue(maxRunning.get() <= maxConcurrentRequests);
+        for (CompletableFuture<CoronerResponse> result : results) {
+            assertEquals(1, result.get().getResultsNumber());
+        }
+    }
+
+    @Test
+    public void rxIdFilterBatch() throws Exception {
+        // GIVEN
+        final String jsonResponse = "{\"response\":{\"columns_desc\":[{\"name\":\"guid\"}],\"values\":["
+                + "[\"rx-1\",[[\"guid-1\"]],1],"
+                + "[\"rx-2\",[[\"guid-2\"]],1]"
+                + "]}}";
+        final CoronerApiResponse expectedResponse = GsonWrapper.fromJson(jsonResponse, CoronerApiResponse.class);
+        final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+        // MOCK
+        when(mockHttpClient.get(Mockito.anyString())).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            return expectedResponse;
+        });
+
+        // WHEN
+        final Map<String, CoronerResponse> result =
+                client.rxIdFilterBatch(Arrays.asList("rx-1", "rx-2", "rx-3", "rx-1"));
+
+        // THEN
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0).contains("regular-expression"));
+        assertTrue(queries.get(0).contains("^(rx-1|rx-2|rx-3)$"));
+        assertEquals(2, result.size());
+        assertEquals("guid-1", result.get("rx-1").getAttribute(0, "guid", String.class));
+        assertEquals("guid-2", result.get("rx-2").getAttribute(0, "guid", String.class));
+        assertNull(result.get("rx-3"));
+    }
+
+    @Test
+    public void rxIdFilterBatchSplitsQueries() throws Exception {
+        // GIVEN
+        final String jsonResponse = readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON);
+        final CoronerApiResponse expectedResponse = GsonWrapper.fromJson(jsonResponse, CoronerApiResponse.class);
+        final List<String> rxIds = new ArrayList<>();
+        for (int index = 0; index < CoronerClient.BATCH_SIZE * 2 + 1; index++) {
+            rxIds.add("rx-" + index);
+        }
+
+        // MOCK
+        when(mockHttpClient.get(Mockito.anyString())).thenReturn(expectedResponse);
+
+        // WHEN
+        client.rxIdFilterBatch(rxIds);
+
+        // THEN
+        Mockito.verify(mockHttpClient, Mockito.times(3)).get(Mockito.anyString());
+    }
 }
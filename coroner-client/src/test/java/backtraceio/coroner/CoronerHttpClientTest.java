@@ -0,0 +1,126 @@
+package backtraceio.coroner;
+
+import static backtraceio.coroner.utils.ResourceUtils.RESPONSE_RX_FILTER_CORONER_JSON;
+import static backtraceio.coroner.utils.ResourceUtils.readResourceFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerColumnarResponse;
+import backtraceio.coroner.response.CoronerHttpException;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoronerHttpClientTest {
+    private HttpServer server;
+    private String url;
+    private final List<String> acceptEncodings = Collections.synchronizedList(new ArrayList<>());
+    private volatile int statusCode = 200;
+    private volatile long responseDelayMillis = 0;
+    private String responseJson;
+
+    @Before
+    public void init() throws IOException {
+        responseJson = readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/query", exchange -> {
+            final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            acceptEncodings.add(acceptEncoding);
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = responseJson.getBytes(StandardCharsets.UTF_8);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(statusCode, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/query";
+    }
+
+    @After
+    public void cleanUp() {
+        server.stop(0);
+    }
+
+    @Test
+    public void getGzipResponse() throws Exception {
+        // GIVEN
+        final CoronerHttpClient client = new CoronerHttpClient(url, "token");
+
+        // WHEN
+        final CoronerApiResponse result = client.get("{}");
+
+        // THEN
+        assertEquals("gzip", acceptEncodings.get(0));
+        assertEquals(1, result.getResponse().getResultsNumber());
+        assertEquals(
+                "Invalid index of selected element!",
+                result.getResponse().getAttribute(0, "error.message", String.class));
+    }
+
+    @Test
+    public void getColumnarGzipResponse() throws Exception {
+        // GIVEN
+        final CoronerHttpClient client = new CoronerHttpClient(url, "token");
+
+        // WHEN
+        final CoronerColumnarResponse result = client.getColumnar("{}");
+
+        // THEN
+        assertEquals("gzip", acceptEncodings.get(0));
+        assertEquals(1, result.getResultsNumber());
+        assertEquals("e4c57699-0dc9-35e2-b4a0-2ffff1925ca7", result.getString(0, "guid"));
+    }
+
+    @Test
+    public void getHttpError() throws Exception {
+        // GIVEN
+        statusCode = 500;
+        responseJson = "server error";
+        final CoronerHttpClient client = new CoronerHttpClient(url, "token");
+
+        // WHEN
+        try {
+            client.get("{}");
+            fail("Expected HTTP exception");
+        } catch (CoronerHttpException e) {
+            // THEN
+            assertEquals(500, e.getHttpStatus());
+            assertEquals("500: server error", e.getMessage());
+        }
+    }
+
+    @Test(expected = SocketTimeoutException.class)
+    public void readTimeout() throws Exception {
+        // GIVEN
+        responseDelayMillis = 1000;
+        final CoronerHttpClient client = new CoronerHttpClient(url, "token", 1000, 100);
+
+        // WHEN
+        client.get("{}");
+    }
+}
@@ -64,4 +64,19 @@ public class CoronerQueriesTest {
                 "{\"fold\":{\"error.message\":[[\"head\"]],\"example-attribute\":[[\"head\"]]},\"group\":[[\"_rxid\"]],\"offset\":0,\"limit\":1,\"filter\":[{\"error.type\":[[\"equal\",\"Crash\"]],\"timestamp\":[[\"at-least\",\"1680943692.\"],[\"at-most\",\"1681943692.\"]]}]}";
         assertEquals(expectedResult, StringUtils.normalizeSpace(result.toString()));
     }
+
+    @Test
+    public void filterByRxIdsTest() {
+        // GIVEN
+        List<String> rxIds = Arrays.asList("03000000-4f0a-fd08-0000-000000000000", "a.b");
+        List<String> attributes = Arrays.asList("value1");
+
+        // WHEN
+        JsonObject result = coronerQueries.filterByRxIds(rxIds, attributes);
+
+        // THEN
+        String expectedResult =
+                "{\"fold\":{\"value1\":[[\"head\"]]},\"group\":[[\"_rxid\"]],\"offset\":0,\"limit\":2,\"filter\":[{\"_rxid\":[[\"regular-expression\",\"^(03000000-4f0a-fd08-0000-000000000000|a\\\\.b)$\"]]}]}";
+        assertEquals(expectedResult, StringUtils.normalizeSpace(result.toString()));
+    }
 }
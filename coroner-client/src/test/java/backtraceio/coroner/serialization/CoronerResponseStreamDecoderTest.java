@@ -0,0 +1,140 @@
+package backtraceio.coroner.serialization;
+
+import static backtraceio.coroner.utils.ResourceUtils.RESPONSE_OPERATION_ERROR_JSON;
+import static backtraceio.coroner.utils.ResourceUtils.RESPONSE_RX_FILTER_CORONER_JSON;
+import static backtraceio.coroner.utils.ResourceUtils.RESPONSE_TIMESTAMP_ERR_TYPE_CORONER_JSON;
+import static backtraceio.coroner.utils.ResourceUtils.readResourceFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import backtraceio.coroner.response.CoronerApiResponse;
+import backtraceio.coroner.response.CoronerColumnarResponse;
+import backtraceio.coroner.response.CoronerResponseException;
+import backtraceio.coroner.response.CoronerResponseProcessingException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Test;
+
+public class CoronerResponseStreamDecoderTest {
+
+    @Test
+    public void decodeApiResponse() throws Exception {
+        // GIVEN
+        final String json = readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON);
+
+        // WHEN
+        final CoronerColumnarResponse result = CoronerResponseStreamDecoder.decode(new StringReader(json));
+
+        // THEN
+        assertEquals(1, result.getResultsNumber());
+        assertEquals(4, result.getColumnsNumber());
+        assertEquals("*", result.getGroupIdentifier(0));
+        assertEquals(1, result.getGroupCount(0));
+        assertEquals("Invalid index of selected element!", result.getString(0, "error.message"));
+        assertEquals("e4c57699-0dc9-35e2-b4a0-2ffff1925ca7", result.getString(0, "guid"));
+        assertEquals("java.lang.IndexOutOfBoundsException", result.getAttribute(0, "classifiers", String.class));
+        assertEquals(
+                CoronerColumnarResponse.ColumnType.STRING, result.getColumnType(result.getColumnIndex("callstack")));
+    }
+
+    @Test
+    public void decodeSameAsGsonWrapper() throws Exception {
+        // GIVEN
+        final String json = readResourceFile(RESPONSE_TIMESTAMP_ERR_TYPE_CORONER_JSON);
+        final CoronerColumnarResponse expected = CoronerColumnarResponse.fromResponse(
+                GsonWrapper.fromJson(json, CoronerApiResponse.class).getResponse());
+
+        // WHEN
+        final CoronerColumnarResponse result = CoronerResponseStreamDecoder.decode(new StringReader(json));
+
+        // THEN
+        assertEquals(expected.getResultsNumber(), result.getResultsNumber());
+        assertEquals(expected.getColumnsNumber(), result.getColumnsNumber());
+        for (int row = 0; row < result.getResultsNumber(); row++) {
+            assertEquals(expected.getGroupIdentifier(row), result.getGroupIdentifier(row));
+            assertEquals(expected.getGroupCount(row), result.getGroupCount(row));
+            for (int column = 0; column < result.getColumnsNumber(); column++) {
+                assertEquals(expected.getString(row, column), result.getString(row, column));
+            }
+        }
+    }
+
+    @Test
+    public void decodeTypedColumns() throws Exception {
+        // GIVEN
+        final String json = "{\"response\":{\"columns_desc\":["
+                + "{\"name\":\"timestamp\"},{\"name\":\"fault\"},{\"name\":\"mixed\"},{\"name\":\"labels\"}"
+                + "],\"values\":["
+                + "[\"a\",[[1700000000],[true],[\"text\"],[[\"x\",\"y\"]]],3],"
+                + "[\"b\",[[1700000001],[null],[2]],5]"
+                + "]}}";
+
+        // WHEN
+        final CoronerColumnarResponse result = CoronerResponseStreamDecoder.decode(new StringReader(json));
+
+        // THEN
+        assertEquals(2, result.getResultsNumber());
+        final int timestamp = result.getColumnIndex("timestamp");
+        assertEquals(CoronerColumnarResponse.ColumnType.NUMBER, result.getColumnType(timestamp));
+        assertEquals(1700000000L, result.getLong(0, timestamp));
+        assertEquals(1700000001L, result.getLong(1, "timestamp"));
+
+        assertTrue(result.getBoolean(0, "fault"));
+        assertTrue(result.isNull(1, result.getColumnIndex("fault")));
+
+        final int mixed = result.getColumnIndex("mixed");
+        assertEquals(CoronerColumnarResponse.ColumnType.OBJECT, result.getColumnType(mixed));
+        assertEquals("text", result.getString(0, mixed));
+        assertEquals(2d, result.getDouble(1, mixed), 0);
+
+        assertEquals(2, result.getAttribute(0, "labels", List.class).size());
+        assertNull(result.getAttribute(1, "labels", List.class));
+        assertEquals(5, result.getGroupCount(1));
+    }
+
+    @Test
+    public void wrongValueType() throws Exception {
+        // GIVEN
+        final String json = readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON);
+        final CoronerColumnarResponse result = CoronerResponseStreamDecoder.decode(new StringReader(json));
+
+        // WHEN
+        try {
+            result.getDouble(0, "guid");
+            fail("Expected processing exception");
+        } catch (CoronerResponseProcessingException e) {
+            // THEN
+            assertFalse(e.getMessage().isEmpty());
+        }
+    }
+
+    @Test(expected = CoronerResponseProcessingException.class)
+    public void missingAttribute() throws Exception {
+        // GIVEN
+        final String json = readResourceFile(RESPONSE_RX_FILTER_CORONER_JSON);
+        final CoronerColumnarResponse result = CoronerResponseStreamDecoder.decode(new StringReader(json));
+
+        // WHEN
+        result.getColumnIndex("not-existing");
+    }
+
+    @Test
+    public void decodeError() throws IOException {
+        // GIVEN
+        final String json = readResourceFile(RESPONSE_OPERATION_ERROR_JSON);
+
+        // WHEN
+        try {
+            CoronerResponseStreamDecoder.decode(new StringReader(json));
+            fail("Expected coroner response exception");
+        } catch (CoronerResponseException e) {
+            // THEN
+            assertEquals("empty body", e.getMessage());
+            assertEquals(32769, e.getCoronerError().getCode());
+        }
+    }
+}